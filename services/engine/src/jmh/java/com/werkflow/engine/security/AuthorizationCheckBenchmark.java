@@ -0,0 +1,131 @@
+package com.werkflow.engine.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * One authorization decision (hasRole, two hasAnyRole, isMemberOfAnyGroup) against a token
+ * with 8 realm roles, 2 client roles and 3 groups
+ *
+ * - legacyDecision: the claims are re-parsed into SimpleGrantedAuthority sets per check,
+ *   as KeycloakRoleExtractor did before the compiled principal
+ * - compiledDecision: the token is compiled once (as on the first check of a request)
+ *   and the checks are bit tests
+ * - memoizedDecision: the checks only, on the principal memoized for the request
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec (add -Djmh.args="-prof gc" for allocation)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthorizationCheckBenchmark {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private Map<String, Object> realmAccess;
+    private Map<String, Object> resourceAccess;
+    private List<String> groups;
+    private CompiledPrincipal principal;
+
+    @Setup
+    public void setUp() {
+        realmAccess = Map.of("roles", List.of("employee", "hr_manager", "offline_access", "uma_authorization",
+            "doa_approver_level2", "department_poc", "it_support", "default-roles-werkflow"));
+        resourceAccess = Map.of(
+            "werkflow-engine", Map.of("roles", List.of("workflow_designer")),
+            "werkflow-admin-portal", Map.of("roles", List.of("portal_user")));
+        groups = List.of("/HR", "/HR/Managers", "/Hubs/North");
+        principal = compile();
+    }
+
+    @Benchmark
+    public boolean legacyDecision() {
+        return legacyHasRole("HR_MANAGER")
+            & legacyHasAnyRole("SUPER_ADMIN", "ADMIN")
+            & legacyHasAnyRole("doa_approver_level2", "doa_approver_level3", "doa_approver_level4")
+            & legacyIsMemberOfAnyGroup("/Finance", "/HR/Managers");
+    }
+
+    @Benchmark
+    public boolean compiledDecision() {
+        return decide(compile());
+    }
+
+    @Benchmark
+    public boolean memoizedDecision() {
+        return decide(principal);
+    }
+
+    private static boolean decide(CompiledPrincipal principal) {
+        return principal.hasRole("HR_MANAGER")
+            & principal.hasAnyRole("SUPER_ADMIN", "ADMIN")
+            & principal.hasAnyRole("doa_approver_level2", "doa_approver_level3", "doa_approver_level4")
+            & principal.isMemberOfAnyGroup("/Finance", "/HR/Managers");
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompiledPrincipal compile() {
+        List<List<String>> roleClaims = new ArrayList<>(3);
+        roleClaims.add((List<String>) realmAccess.get("roles"));
+        for (String clientId : List.of("werkflow-engine", "werkflow-admin-portal")) {
+            roleClaims.add((List<String>) ((Map<String, Object>) resourceAccess.get(clientId)).get("roles"));
+        }
+        return CompiledPrincipal.compile("token", roleClaims, groups);
+    }
+
+    private boolean legacyHasRole(String role) {
+        return legacyAuthorities().stream()
+            .anyMatch(auth -> auth.getAuthority().equals(ROLE_PREFIX + role.toUpperCase()));
+    }
+
+    private boolean legacyHasAnyRole(String... roles) {
+        Set<String> authoritySet = legacyAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .collect(Collectors.toSet());
+        return Arrays.stream(roles).anyMatch(role -> authoritySet.contains(ROLE_PREFIX + role.toUpperCase()));
+    }
+
+    private boolean legacyIsMemberOfAnyGroup(String... paths) {
+        return Arrays.stream(paths).anyMatch(groups::contains);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Collection<GrantedAuthority> legacyAuthorities() {
+        Set<GrantedAuthority> authorities = new HashSet<>();
+        authorities.addAll(toAuthorities((List<String>) realmAccess.get("roles")));
+        for (String clientId : List.of("werkflow-engine", "werkflow-admin-portal")) {
+            authorities.addAll(toAuthorities(
+                (List<String>) ((Map<String, Object>) resourceAccess.get(clientId)).get("roles")));
+        }
+        return authorities;
+    }
+
+    private static List<GrantedAuthority> toAuthorities(List<String> roles) {
+        return roles.stream()
+            .map(role -> new SimpleGrantedAuthority(ROLE_PREFIX + role.toUpperCase()))
+            .collect(Collectors.toList());
+    }
+}
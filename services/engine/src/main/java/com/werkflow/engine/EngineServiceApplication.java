@@ -2,6 +2,7 @@ package com.werkflow.engine;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Werkflow Engine Service Application
@@ -16,8 +17,13 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * - Process variable management
  * - Event handling and messaging
  * - Workflow monitoring and history
+ *
+ * Also scans the generic delegates (werkflow-delegates) so BPMN service tasks and the
+ * notification API can use them, and the delegate metrics they share (werkflow-common).
  */
-@SpringBootApplication
+@SpringBootApplication(scanBasePackages = {"com.werkflow.engine", "com.werkflow.delegates",
+    "com.werkflow.common.delegate"})
+@EnableScheduling
 public class EngineServiceApplication {
 
     public static void main(String[] args) {
@@ -1,5 +1,8 @@
 package com.werkflow.engine.config;
 
+import com.werkflow.common.delegate.DelegateMetricsInterceptor;
+import com.werkflow.delegates.retry.JobRetryBackoffListener;
+import com.werkflow.delegates.retry.RetryProperties;
 import org.flowable.spring.SpringProcessEngineConfiguration;
 import org.flowable.spring.boot.EngineConfigurationConfigurer;
 import org.springframework.context.annotation.Bean;
@@ -30,10 +33,21 @@ public class FlowableConfig {
      * Process definitions will still deploy successfully, and diagrams can be
      * generated on-demand later if proper graphic information is added to the BPMN files.
      *
+     * Delegate invocations go through DelegateMetricsInterceptor, which records per-delegate
+     * execution metrics (see app.delegates.metrics). Failed async jobs are retried with the
+     * delegates' retry policies (exponential backoff with jitter, see app.delegates.retry)
+     * instead of at a fixed interval, and dead-lettered once a policy is exhausted.
+     *
+     * @param delegateMetricsInterceptor Instruments JavaDelegate and FutureJavaDelegate calls
+     * @param jobRetryBackoffListener    Reschedules or dead-letters failed async jobs
+     * @param retryProperties            Delegate retry policies
      * @return EngineConfigurationConfigurer that customizes the process engine
      */
     @Bean
-    public EngineConfigurationConfigurer<SpringProcessEngineConfiguration> processEngineConfigurer() {
+    public EngineConfigurationConfigurer<SpringProcessEngineConfiguration> processEngineConfigurer(
+            DelegateMetricsInterceptor delegateMetricsInterceptor,
+            JobRetryBackoffListener jobRetryBackoffListener,
+            RetryProperties retryProperties) {
         return engineConfiguration -> {
             // Disable automatic diagram generation during deployment
             // This prevents NullPointerException when BPMN files lack graphic information
@@ -46,6 +60,15 @@ public class FlowableConfig {
             engineConfiguration.setActivityFontName("Arial");
             engineConfiguration.setLabelFontName("Arial");
             engineConfiguration.setAnnotationFontName("Arial");
+
+            // Time and count every delegate invocation
+            engineConfiguration.setDelegateInterceptor(delegateMetricsInterceptor);
+
+            // Back off failed async jobs per delegate; the listener gives delegate jobs their policy's
+            // attempts, so timers and other jobs keep the engine's number of retries
+            if (retryProperties.getEnabled()) {
+                engineConfiguration.setTypedEventListeners(jobRetryBackoffListener.eventListeners());
+            }
         };
     }
 }
@@ -1,5 +1,6 @@
 package com.werkflow.engine.config;
 
+import com.werkflow.common.security.CachingJwtDecoder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,6 +12,7 @@ import org.springframework.security.oauth2.core.OAuth2TokenValidator;
 import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
 import org.springframework.security.oauth2.jwt.*;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 
@@ -39,6 +41,12 @@ public class JwtDecoderConfig {
     @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}")
     private String jwkSetUri;
 
+    @Value("${app.security.jwt-cache.max-entries:10000}")
+    private int cacheMaxEntries = 10000;
+
+    @Value("${app.security.jwt-cache.expiry-skew-seconds:30}")
+    private long cacheExpirySkewSeconds = 30;
+
     /**
      * Creates a custom JwtDecoder that accepts tokens from multiple valid issuers.
      *
@@ -48,10 +56,13 @@ public class JwtDecoderConfig {
      * 3. Token issuer (must be one of the allowed issuers)
      * 4. All other standard JWT claims
      *
+     * Validated tokens are cached until shortly before they expire, so repeat requests
+     * with the same bearer token skip signature verification.
+     *
      * @return Configured JwtDecoder instance
      */
     @Bean
-    public JwtDecoder jwtDecoder() {
+    public CachingJwtDecoder jwtDecoder() {
         logger.info("Configuring custom JWT decoder with JWK Set URI: {}", jwkSetUri);
 
         // Create the base decoder using JWK sets from Keycloak
@@ -84,7 +95,7 @@ public class JwtDecoderConfig {
 
         logger.info("JWT decoder successfully configured with multi-issuer support");
 
-        return jwtDecoder;
+        return new CachingJwtDecoder(jwtDecoder, cacheMaxEntries, Duration.ofSeconds(cacheExpirySkewSeconds));
     }
 
     /**
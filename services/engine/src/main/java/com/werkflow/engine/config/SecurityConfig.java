@@ -54,6 +54,15 @@ public class SecurityConfig {
                 // Task endpoints - authenticated users (task assignment handles authorization)
                 .requestMatchers(new AntPathRequestMatcher("/api/tasks/**")).authenticated()
 
+                // Notification endpoints - authenticated users (scoped to the caller)
+                .requestMatchers(new AntPathRequestMatcher("/api/notifications/**")).authenticated()
+
+                // Bulk validation endpoints - authenticated users
+                .requestMatchers(new AntPathRequestMatcher("/api/validation/**")).authenticated()
+
+                // Dead letter endpoints - platform administrators
+                .requestMatchers(new AntPathRequestMatcher("/api/dead-letters/**")).hasRole("SUPER_ADMIN")
+
                 // History endpoints - authenticated users
                 .requestMatchers(new AntPathRequestMatcher("/api/history/**")).authenticated()
 
@@ -0,0 +1,60 @@
+package com.werkflow.engine.controller;
+
+import com.werkflow.delegates.retry.DeadLetter;
+import com.werkflow.delegates.retry.DeadLetterQueue;
+import com.werkflow.engine.dto.DeadLetterActionRequest;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST controller for delegate work that exhausted its retries
+ */
+@RestController
+@RequestMapping("/api/dead-letters")
+@RequiredArgsConstructor
+@Tag(name = "Dead Letters", description = "Failed delegate work: async jobs, email and form request outboxes")
+@SecurityRequirement(name = "bearer-jwt")
+public class DeadLetterController {
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final DeadLetterQueue deadLetterQueue;
+
+    @GetMapping
+    @Operation(summary = "Get dead letters of a source, most recent first")
+    public ResponseEntity<List<DeadLetter>> getDeadLetters(
+        @Parameter(description = "JOB, EMAIL or FORM_REQUEST") @RequestParam DeadLetter.Source source,
+        @Parameter(description = "Maximum number of dead letters") @RequestParam(defaultValue = "50") int limit
+    ) {
+        return ResponseEntity.ok(deadLetterQueue.list(source, Math.max(1, Math.min(limit, MAX_PAGE_SIZE))));
+    }
+
+    @PostMapping("/retry")
+    @Operation(summary = "Retry dead letters with a fresh set of attempts")
+    public ResponseEntity<Map<String, Integer>> retry(@Valid @RequestBody DeadLetterActionRequest request) {
+        try {
+            return ResponseEntity.ok(Map.of("updated", deadLetterQueue.retry(request.getSource(), request.getIds())));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/discard")
+    @Operation(summary = "Discard dead letters for good")
+    public ResponseEntity<Map<String, Integer>> discard(@Valid @RequestBody DeadLetterActionRequest request) {
+        try {
+            return ResponseEntity.ok(Map.of("updated", deadLetterQueue.discard(request.getSource(), request.getIds())));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
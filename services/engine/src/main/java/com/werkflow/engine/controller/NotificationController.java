@@ -0,0 +1,80 @@
+package com.werkflow.engine.controller;
+
+import com.werkflow.delegates.notification.InAppNotification;
+import com.werkflow.delegates.notification.InAppNotificationStore;
+import com.werkflow.engine.dto.MarkNotificationsReadRequest;
+import com.werkflow.engine.dto.NotificationPageResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST controller for the current user's in-app notifications
+ */
+@RestController
+@RequestMapping("/api/notifications")
+@RequiredArgsConstructor
+@Tag(name = "Notifications", description = "In-app notification center")
+@SecurityRequirement(name = "bearer-jwt")
+public class NotificationController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final InAppNotificationStore notificationStore;
+
+    @GetMapping
+    @Operation(summary = "Get a page of notifications, newest first")
+    public ResponseEntity<NotificationPageResponse> getNotifications(
+        @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) Long before,
+        @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int limit,
+        @Parameter(description = "Only unread notifications") @RequestParam(defaultValue = "false") boolean unreadOnly,
+        @AuthenticationPrincipal Jwt jwt
+    ) {
+        String userId = jwt.getClaimAsString("preferred_username");
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<InAppNotification> notifications = notificationStore.list(userId, before, pageSize, unreadOnly);
+
+        NotificationPageResponse response = NotificationPageResponse.builder()
+            .notifications(notifications)
+            .nextCursor(notifications.size() == pageSize ? notifications.get(pageSize - 1).id() : null)
+            .unreadCount(notificationStore.getUnreadCount(userId))
+            .build();
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/unread-count")
+    @Operation(summary = "Get the number of unread notifications")
+    public ResponseEntity<Map<String, Long>> getUnreadCount(@AuthenticationPrincipal Jwt jwt) {
+        String userId = jwt.getClaimAsString("preferred_username");
+        return ResponseEntity.ok(Map.of("unreadCount", notificationStore.getUnreadCount(userId)));
+    }
+
+    @PostMapping("/mark-read")
+    @Operation(summary = "Mark notifications as read")
+    public ResponseEntity<Map<String, Integer>> markRead(
+        @Valid @RequestBody MarkNotificationsReadRequest request,
+        @AuthenticationPrincipal Jwt jwt
+    ) {
+        String userId = jwt.getClaimAsString("preferred_username");
+        int updated = notificationStore.markRead(userId, request.getIds());
+        return ResponseEntity.ok(Map.of("updated", updated));
+    }
+
+    @PostMapping("/mark-all-read")
+    @Operation(summary = "Mark all notifications as read")
+    public ResponseEntity<Map<String, Integer>> markAllRead(@AuthenticationPrincipal Jwt jwt) {
+        String userId = jwt.getClaimAsString("preferred_username");
+        int updated = notificationStore.markAllRead(userId);
+        return ResponseEntity.ok(Map.of("updated", updated));
+    }
+}
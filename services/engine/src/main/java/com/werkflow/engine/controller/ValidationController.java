@@ -0,0 +1,109 @@
+package com.werkflow.engine.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.werkflow.delegates.validation.BulkValidator;
+import com.werkflow.delegates.validation.RecordSource;
+import com.werkflow.delegates.validation.ValidationProgram;
+import com.werkflow.delegates.validation.ValidationPrograms;
+import com.werkflow.delegates.validation.ValidationProperties;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * REST controller for validating bulk imports with workflow validation rules
+ *
+ * Imports are validated against the rule sets configured under
+ * app.delegates.validation.rule-sets only. Callers cannot send their own rules, since a
+ * pattern: rule would run a caller-supplied regex on the shared validation pool. Upload
+ * size is bounded by spring.servlet.multipart.*.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/validation")
+@RequiredArgsConstructor
+@Tag(name = "Validation", description = "Bulk validation of CSV/JSON imports")
+@SecurityRequirement(name = "bearer-jwt")
+public class ValidationController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final BulkValidator bulkValidator;
+    private final ValidationPrograms validationPrograms;
+    private final ValidationProperties validationProperties;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping("/rule-sets")
+    @Operation(summary = "Get the configured validation rule sets")
+    public ResponseEntity<Map<String, Map<String, String>>> getRuleSets() {
+        return ResponseEntity.ok(validationProperties.getRuleSets());
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(
+        summary = "Validate a CSV or JSON import",
+        description = "Streams one NDJSON line per invalid row ({\"row\":n,\"errors\":{...}}), "
+            + "followed by a summary line ({\"summary\":{...}}), or an error line if the input is malformed"
+    )
+    public ResponseEntity<StreamingResponseBody> validateBulk(
+        @Parameter(description = "CSV (with header row) or JSON/NDJSON file") @RequestParam("file") MultipartFile file,
+        @Parameter(description = "Configured rule set name") @RequestParam String ruleSet,
+        @Parameter(description = "csv or json (default: from file name)") @RequestParam(required = false) String format
+    ) {
+        ValidationProgram program;
+        try {
+            program = validationPrograms.forRuleSet(ruleSet);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        boolean csv = "csv".equalsIgnoreCase(format)
+            || (format == null && file.getOriginalFilename() != null
+                && file.getOriginalFilename().toLowerCase(Locale.ROOT).endsWith(".csv"));
+
+        StreamingResponseBody body = output -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            try (InputStream input = file.getInputStream();
+                 RecordSource records = csv
+                     ? RecordSource.csv(new InputStreamReader(input, StandardCharsets.UTF_8))
+                     : RecordSource.json(input, objectMapper)) {
+                BulkValidator.Summary summary = bulkValidator.validate(records, program,
+                    row -> writeLine(writer, row));
+                writeLine(writer, Map.of("summary", summary));
+            } catch (IllegalArgumentException | JsonProcessingException e) {
+                log.info("Rejected bulk import {}: {}", file.getOriginalFilename(), e.getMessage());
+                writeLine(writer, Map.of("error", e.getMessage()));
+            }
+            writer.flush();
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    private void writeLine(Writer writer, Object value) {
+        try {
+            writer.write(objectMapper.writeValueAsString(value));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.werkflow.engine.dto;
+
+import com.werkflow.delegates.retry.DeadLetter;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for retrying or discarding dead letters of one source
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeadLetterActionRequest {
+
+    @NotNull
+    private DeadLetter.Source source;
+
+    @NotEmpty
+    @Size(max = 1000)
+    private List<@NotBlank String> ids;
+}
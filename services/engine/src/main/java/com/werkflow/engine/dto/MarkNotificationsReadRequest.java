@@ -0,0 +1,24 @@
+package com.werkflow.engine.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for marking in-app notifications as read
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MarkNotificationsReadRequest {
+
+    @NotEmpty
+    @Size(max = 1000)
+    private List<Long> ids;
+}
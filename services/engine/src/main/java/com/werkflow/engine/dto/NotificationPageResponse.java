@@ -0,0 +1,28 @@
+package com.werkflow.engine.dto;
+
+import com.werkflow.delegates.notification.InAppNotification;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO for one page of in-app notifications
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationPageResponse {
+
+    private List<InAppNotification> notifications;
+
+    /**
+     * Pass as "before" to fetch the next page; null on the last page
+     */
+    private Long nextCursor;
+
+    private long unreadCount;
+}
@@ -0,0 +1,62 @@
+package com.werkflow.engine.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Maps a workflow task to the Keycloak roles/groups that may act on it
+ * (table defined in V3__create_rbac_tables.sql)
+ */
+@Entity
+@Table(name = "workflow_role_mappings")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkflowRoleMapping {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "workflow_key", nullable = false)
+    private String workflowKey;
+
+    @Column(name = "task_key", nullable = false)
+    private String taskKey;
+
+    @Column(name = "task_name")
+    private String taskName;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "required_roles", nullable = false, columnDefinition = "text[]")
+    private String[] requiredRoles;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "required_groups", columnDefinition = "text[]")
+    private String[] requiredGroups;
+
+    @Column(name = "custom_logic")
+    private String customLogic;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Builder.Default
+    @Column(name = "is_active")
+    private Boolean isActive = true;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", insertable = false, updatable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,17 @@
+package com.werkflow.engine.repository;
+
+import com.werkflow.engine.entity.DoaOverride;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface DoaOverrideRepository extends JpaRepository<DoaOverride, UUID> {
+
+    List<DoaOverride> findByRevokedFalseAndValidUntilAfter(LocalDateTime time);
+
+    List<DoaOverride> findByUpdatedAtGreaterThanEqual(LocalDateTime watermark);
+}
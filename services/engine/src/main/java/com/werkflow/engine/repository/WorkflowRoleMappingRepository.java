@@ -0,0 +1,19 @@
+package com.werkflow.engine.repository;
+
+import com.werkflow.engine.entity.WorkflowRoleMapping;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface WorkflowRoleMappingRepository extends JpaRepository<WorkflowRoleMapping, UUID> {
+
+    List<WorkflowRoleMapping> findByIsActiveTrue();
+
+    @Query("SELECT MAX(m.updatedAt) FROM WorkflowRoleMapping m")
+    LocalDateTime findLastUpdatedAt();
+}
@@ -0,0 +1,152 @@
+package com.werkflow.engine.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Process-wide dictionary that interns role names and group paths into dense bit positions.
+ *
+ * Role names are normalized once (ROLE_ prefix, upper-case) and both the raw and the
+ * normalized spelling map to the same bit, so token claims and the role names used in
+ * authorization checks resolve to identical positions without re-normalizing per call.
+ *
+ * Only the authorities carried by tokens are interned, i.e. the roles and groups configured
+ * in Keycloak; names used in checks are looked up and never added. The index holds at most
+ * {@link #MAX_ENTRIES} roles and groups each (and raw role spellings); once full, further
+ * token authorities are kept by the principal as plain strings instead.
+ */
+final class AuthorityIndex {
+
+    static final String ROLE_PREFIX = "ROLE_";
+    static final int MAX_ENTRIES = 4096;
+    static final int UNKNOWN = -1;
+
+    private static final AuthorityIndex INSTANCE = new AuthorityIndex(MAX_ENTRIES);
+
+    private final int maxEntries;
+    private final Map<String, Integer> rawRoleIds = new ConcurrentHashMap<>();
+    private final Map<String, Integer> normalizedRoleIds = new ConcurrentHashMap<>();
+    private final Map<String, Integer> groupIds = new ConcurrentHashMap<>();
+    private final CopyOnWriteArrayList<GrantedAuthority> authorities = new CopyOnWriteArrayList<>();
+    private final CopyOnWriteArrayList<String> groupPaths = new CopyOnWriteArrayList<>();
+
+    AuthorityIndex(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    static AuthorityIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Intern a role name from a token (without ROLE_ prefix, any case)
+     *
+     * @return Bit position, or UNKNOWN if the index is full
+     */
+    int internRole(String role) {
+        Integer id = rawRoleIds.get(role);
+        if (id != null) {
+            return id;
+        }
+        String normalized = normalize(role);
+        id = normalizedRoleIds.get(normalized);
+        if (id == null) {
+            synchronized (authorities) {
+                id = normalizedRoleIds.get(normalized);
+                if (id == null) {
+                    if (authorities.size() >= maxEntries) {
+                        return UNKNOWN;
+                    }
+                    authorities.add(new SimpleGrantedAuthority(normalized));
+                    id = authorities.size() - 1;
+                    normalizedRoleIds.put(normalized, id);
+                }
+            }
+        }
+        if (rawRoleIds.size() < maxEntries) {
+            rawRoleIds.putIfAbsent(role, id);
+        }
+        return id;
+    }
+
+    /**
+     * Look up a role name used in a check, without interning it
+     *
+     * @return Bit position, or UNKNOWN if no token carried the role
+     */
+    int findRole(String role) {
+        Integer id = rawRoleIds.get(role);
+        if (id == null) {
+            id = normalizedRoleIds.get(normalize(role));
+        }
+        return id != null ? id : UNKNOWN;
+    }
+
+    /**
+     * Intern a full group path from a token
+     *
+     * @return Bit position, or UNKNOWN if the index is full
+     */
+    int internGroup(String groupPath) {
+        Integer id = groupIds.get(groupPath);
+        if (id != null) {
+            return id;
+        }
+        synchronized (groupPaths) {
+            id = groupIds.get(groupPath);
+            if (id == null) {
+                if (groupPaths.size() >= maxEntries) {
+                    return UNKNOWN;
+                }
+                groupPaths.add(groupPath);
+                id = groupPaths.size() - 1;
+                groupIds.put(groupPath, id);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * Look up a group path used in a check, without interning it
+     *
+     * @return Bit position, or UNKNOWN if no token carried the group
+     */
+    int findGroup(String groupPath) {
+        Integer id = groupIds.get(groupPath);
+        return id != null ? id : UNKNOWN;
+    }
+
+    /**
+     * Shared authority instance for a role bit
+     */
+    GrantedAuthority authority(int roleId) {
+        return authorities.get(roleId);
+    }
+
+    /**
+     * Authority for a role name, shared if the role is interned
+     */
+    GrantedAuthority authorityOf(String role) {
+        int id = findRole(role);
+        return id != UNKNOWN ? authorities.get(id) : new SimpleGrantedAuthority(normalize(role));
+    }
+
+    /**
+     * Group path for a group bit
+     */
+    String groupPath(int groupId) {
+        return groupPaths.get(groupId);
+    }
+
+    int size() {
+        return authorities.size() + groupPaths.size();
+    }
+
+    static String normalize(String role) {
+        return ROLE_PREFIX + role.toUpperCase();
+    }
+}
@@ -0,0 +1,32 @@
+package com.werkflow.engine.security;
+
+import java.time.LocalDateTime;
+
+/**
+ * Authorization decision queued for the authorization_audit_log table.
+ *
+ * The principal is kept as-is and only turned into role and group arrays by the
+ * background writer, so recording a decision does not allocate on the request path
+ * beyond the event itself.
+ */
+public record AuthorizationAuditEvent(
+    String userId,
+    String userEmail,
+    String username,
+    String action,
+    String resourceType,
+    String resourceId,
+    String workflowKey,
+    String taskKey,
+    CompiledPrincipal principal,
+    boolean allowed,
+    String reason,
+    Integer doaLevel,
+    Integer requiredDoaLevel,
+    LocalDateTime createdAt
+) {
+
+    public String decision() {
+        return allowed ? "ALLOWED" : "DENIED";
+    }
+}
@@ -0,0 +1,267 @@
+package com.werkflow.engine.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Non-blocking writer for the authorization_audit_log table.
+ *
+ * Decisions are placed in a bounded lock-free ring buffer and written by a single
+ * background thread using multi-row INSERT statements, so recording a decision costs
+ * one CAS on the request path. If the database rejects a batch, its rows are written
+ * one by one so only the offending event is dropped (and logged).
+ *
+ * When the buffer is full the configured overflow policy applies:
+ * - DROP_NEWEST: discard the new event (default)
+ * - DROP_OLDEST: discard the oldest queued event to make room
+ * - WRITE_THROUGH: write the event synchronously on the calling thread
+ *
+ * Remaining events are flushed on shutdown.
+ */
+@Component
+public class AuthorizationAuditWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthorizationAuditWriter.class);
+
+    private static final String INSERT_PREFIX = "INSERT INTO authorization_audit_log " +
+        "(user_id, user_email, username, action, resource_type, resource_id, workflow_key, task_key, " +
+        "roles, groups, decision, reason, doa_level, required_doa_level, created_at) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    public enum OverflowPolicy {
+        DROP_NEWEST,
+        DROP_OLDEST,
+        WRITE_THROUGH
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final AuditRingBuffer<AuthorizationAuditEvent> buffer;
+
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicLong failedEvents = new AtomicLong();
+    private final AtomicLong writtenEvents = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public AuthorizationAuditWriter(
+        JdbcTemplate jdbcTemplate,
+        @Value("${app.security.audit.enabled:true}") boolean enabled,
+        @Value("${app.security.audit.buffer-capacity:8192}") int bufferCapacity,
+        @Value("${app.security.audit.batch-size:256}") int batchSize,
+        @Value("${app.security.audit.flush-interval-ms:200}") long flushIntervalMs,
+        @Value("${app.security.audit.overflow-policy:DROP_NEWEST}") OverflowPolicy overflowPolicy
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.overflowPolicy = overflowPolicy;
+        this.buffer = new AuditRingBuffer<>(bufferCapacity);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            logger.info("Authorization audit logging is disabled");
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::runWriter, "authorization-audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        logger.info("Authorization audit writer started (capacity={}, batchSize={}, overflowPolicy={})",
+            buffer.capacity(), batchSize, overflowPolicy);
+    }
+
+    /**
+     * Queue an authorization decision. Never blocks unless the overflow policy is WRITE_THROUGH.
+     *
+     * @param event Decision to record
+     */
+    public void record(AuthorizationAuditEvent event) {
+        if (!enabled || buffer.offer(event)) {
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case DROP_NEWEST -> droppedEvents.incrementAndGet();
+            case DROP_OLDEST -> {
+                buffer.poll();
+                droppedEvents.incrementAndGet();
+                if (!buffer.offer(event)) {
+                    droppedEvents.incrementAndGet();
+                }
+            }
+            case WRITE_THROUGH -> write(List.of(event));
+        }
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    public long getFailedEvents() {
+        return failedEvents.get();
+    }
+
+    public long getWrittenEvents() {
+        return writtenEvents.get();
+    }
+
+    public int getQueuedEvents() {
+        return buffer.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        logger.info("Authorization audit writer stopped (written={}, dropped={}, failed={})",
+            writtenEvents.get(), droppedEvents.get(), failedEvents.get());
+    }
+
+    private void runWriter() {
+        List<AuthorizationAuditEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            if (buffer.drainTo(batch, batchSize) == 0) {
+                LockSupport.parkNanos(flushIntervalNanos);
+                continue;
+            }
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void flush() {
+        List<AuthorizationAuditEvent> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<AuthorizationAuditEvent> events) {
+        try {
+            insert(events);
+            writtenEvents.addAndGet(events.size());
+        } catch (TransientDataAccessException | RecoverableDataAccessException e) {
+            // Database unavailable: row-by-row inserts would fail the same way
+            failedEvents.addAndGet(events.size());
+            logger.warn("Failed to write {} authorization audit events: {}", events.size(), e.getMessage());
+        } catch (RuntimeException e) {
+            if (events.size() == 1) {
+                quarantine(events.get(0), e);
+                return;
+            }
+            // One bad row fails the whole statement; write the rows one by one so only it is lost
+            logger.debug("Multi-row audit insert failed, retrying {} rows individually: {}",
+                events.size(), e.getMessage());
+            for (AuthorizationAuditEvent event : events) {
+                try {
+                    insert(List.of(event));
+                    writtenEvents.incrementAndGet();
+                } catch (RuntimeException rowFailure) {
+                    quarantine(event, rowFailure);
+                }
+            }
+        }
+    }
+
+    private void insert(List<AuthorizationAuditEvent> events) {
+        String sql = INSERT_PREFIX + String.join(", ", Collections.nCopies(events.size(), ROW_PLACEHOLDERS));
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            int index = 1;
+            for (AuthorizationAuditEvent event : events) {
+                index = bind(connection, statement, index, event);
+            }
+            return statement;
+        });
+    }
+
+    /**
+     * Give up on an event the table rejects, keeping it in the log
+     */
+    private void quarantine(AuthorizationAuditEvent event, RuntimeException e) {
+        failedEvents.incrementAndGet();
+        logger.warn("Dropped authorization audit event rejected by the database ({}): user={}, action={}, "
+                + "resource={}/{}, decision={}, at={}", e.getMessage(), event.userId(), event.action(),
+            event.resourceType(), event.resourceId(), event.decision(), event.createdAt());
+    }
+
+    private int bind(Connection connection, PreparedStatement statement, int index,
+                     AuthorizationAuditEvent event) throws SQLException {
+        statement.setString(index++, event.userId());
+        statement.setString(index++, event.userEmail());
+        statement.setString(index++, event.username());
+        statement.setString(index++, event.action());
+        statement.setString(index++, event.resourceType());
+        statement.setString(index++, event.resourceId());
+        statement.setString(index++, event.workflowKey());
+        statement.setString(index++, event.taskKey());
+        statement.setArray(index++, toRoleArray(connection, event.principal()));
+        statement.setArray(index++, toGroupArray(connection, event.principal()));
+        statement.setString(index++, event.decision());
+        statement.setString(index++, event.reason());
+        statement.setObject(index++, event.doaLevel(), Types.INTEGER);
+        statement.setObject(index++, event.requiredDoaLevel(), Types.INTEGER);
+        statement.setTimestamp(index++, Timestamp.valueOf(event.createdAt()));
+        return index;
+    }
+
+    private Array toRoleArray(Connection connection, CompiledPrincipal principal) throws SQLException {
+        if (principal == null) {
+            return null;
+        }
+        Collection<GrantedAuthority> authorities = principal.getAuthorities();
+        String[] roles = new String[authorities.size()];
+        int i = 0;
+        for (GrantedAuthority authority : authorities) {
+            roles[i++] = authority.getAuthority().substring(AuthorityIndex.ROLE_PREFIX.length());
+        }
+        return connection.createArrayOf("text", roles);
+    }
+
+    private Array toGroupArray(Connection connection, CompiledPrincipal principal) throws SQLException {
+        if (principal == null || principal.getGroups() == null) {
+            return null;
+        }
+        return connection.createArrayOf("text", principal.getGroups().toArray(new String[0]));
+    }
+}
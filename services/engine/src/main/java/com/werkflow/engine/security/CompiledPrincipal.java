@@ -0,0 +1,181 @@
+package com.werkflow.engine.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable, pre-parsed view of the roles and groups carried by a Keycloak JWT.
+ *
+ * Realm roles, client roles and group paths are parsed once and stored as bit sets over
+ * the positions assigned by {@link AuthorityIndex}, so role and group checks are bit tests
+ * instead of claim parsing and string comparison. Authorities the index had no room for are
+ * kept as plain strings and checked by name.
+ */
+public final class CompiledPrincipal {
+
+    private final AuthorityIndex index;
+    private final String tokenValue;
+    private final BitSet roles;
+    private final BitSet groups;
+    private final Set<String> unindexedRoles;
+    private final Set<String> unindexedGroups;
+    private final List<String> groupPaths;
+    private volatile Collection<GrantedAuthority> authorities;
+
+    private CompiledPrincipal(AuthorityIndex index, String tokenValue, BitSet roles, BitSet groups,
+                              Set<String> unindexedRoles, Set<String> unindexedGroups, List<String> groupPaths) {
+        this.index = index;
+        this.tokenValue = tokenValue;
+        this.roles = roles;
+        this.groups = groups;
+        this.unindexedRoles = unindexedRoles;
+        this.unindexedGroups = unindexedGroups;
+        this.groupPaths = groupPaths;
+    }
+
+    /**
+     * Check if principal has specific role
+     *
+     * @param role Role name (without ROLE_ prefix)
+     * @return true if principal has role
+     */
+    public boolean hasRole(String role) {
+        int id = index.findRole(role);
+        if (id != AuthorityIndex.UNKNOWN) {
+            return roles.get(id);
+        }
+        return !unindexedRoles.isEmpty() && unindexedRoles.contains(AuthorityIndex.normalize(role));
+    }
+
+    /**
+     * Check if principal has any of the specified roles
+     *
+     * @param roleNames Role names (without ROLE_ prefix)
+     * @return true if principal has at least one role
+     */
+    public boolean hasAnyRole(String... roleNames) {
+        for (String role : roleNames) {
+            if (hasRole(role)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if principal belongs to specific group
+     *
+     * @param groupPath Full group path
+     * @return true if principal is member of group
+     */
+    public boolean isMemberOfGroup(String groupPath) {
+        int id = index.findGroup(groupPath);
+        if (id != AuthorityIndex.UNKNOWN) {
+            return groups.get(id);
+        }
+        return !unindexedGroups.isEmpty() && unindexedGroups.contains(groupPath);
+    }
+
+    /**
+     * Check if principal belongs to any of the specified groups
+     *
+     * @param paths Full group paths
+     * @return true if principal belongs to at least one group
+     */
+    public boolean isMemberOfAnyGroup(String... paths) {
+        if (groups.isEmpty() && unindexedGroups.isEmpty()) {
+            return false;
+        }
+        for (String path : paths) {
+            if (isMemberOfGroup(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * All role authorities (realm + client roles), built once on first access
+     *
+     * @return Unmodifiable collection of GrantedAuthority
+     */
+    public Collection<GrantedAuthority> getAuthorities() {
+        Collection<GrantedAuthority> result = authorities;
+        if (result == null) {
+            Set<GrantedAuthority> set = new LinkedHashSet<>();
+            for (int id = roles.nextSetBit(0); id >= 0; id = roles.nextSetBit(id + 1)) {
+                set.add(index.authority(id));
+            }
+            for (String role : unindexedRoles) {
+                set.add(new SimpleGrantedAuthority(role));
+            }
+            result = Collections.unmodifiableSet(set);
+            authorities = result;
+        }
+        return result;
+    }
+
+    /**
+     * Group paths as present in the token
+     *
+     * @return Unmodifiable list of group paths, null if the token has no groups claim
+     */
+    public List<String> getGroups() {
+        return groupPaths;
+    }
+
+    boolean isCompiledFrom(String jwtTokenValue) {
+        return tokenValue.equals(jwtTokenValue);
+    }
+
+    static CompiledPrincipal compile(String tokenValue, Collection<List<String>> roleClaims, List<String> groupClaim) {
+        return compile(AuthorityIndex.getInstance(), tokenValue, roleClaims, groupClaim);
+    }
+
+    static CompiledPrincipal compile(AuthorityIndex index, String tokenValue, Collection<List<String>> roleClaims,
+                                     List<String> groupClaim) {
+        BitSet roles = new BitSet();
+        Set<String> unindexedRoles = Set.of();
+        for (List<String> roleClaim : roleClaims) {
+            for (String role : roleClaim) {
+                int id = index.internRole(role);
+                if (id != AuthorityIndex.UNKNOWN) {
+                    roles.set(id);
+                } else {
+                    unindexedRoles = add(unindexedRoles, AuthorityIndex.normalize(role));
+                }
+            }
+        }
+
+        BitSet groups = new BitSet();
+        Set<String> unindexedGroups = Set.of();
+        List<String> groupPaths = null;
+        if (groupClaim != null) {
+            for (String path : groupClaim) {
+                int id = index.internGroup(path);
+                if (id != AuthorityIndex.UNKNOWN) {
+                    groups.set(id);
+                } else {
+                    unindexedGroups = add(unindexedGroups, path);
+                }
+            }
+            groupPaths = Collections.unmodifiableList(new ArrayList<>(groupClaim));
+        }
+
+        return new CompiledPrincipal(index, tokenValue, roles, groups, unindexedRoles, unindexedGroups, groupPaths);
+    }
+
+    private static Set<String> add(Set<String> set, String value) {
+        Set<String> result = set.isEmpty() ? new LinkedHashSet<>() : set;
+        result.add(value);
+        return result;
+    }
+}
@@ -0,0 +1,245 @@
+package com.werkflow.engine.security;
+
+import com.werkflow.engine.entity.DoaOverride;
+import com.werkflow.engine.repository.DoaOverrideRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * In-memory interval index of active DOA overrides (doa_overrides table).
+ *
+ * Each user's overrides are flattened into sorted, non-overlapping time segments that
+ * carry the highest override level in effect, so the effective level at a point in time
+ * is a binary search over that user's segments. Mirrors get_effective_doa_level() in
+ * V3__create_rbac_tables.sql without a database round trip.
+ *
+ * The index is refreshed incrementally: only rows updated since the previous refresh are
+ * fetched, and only the affected users' segments are rebuilt. updated_at is set when a row
+ * is written, not when its transaction commits, so each refresh reaches {@link #COMMIT_LAG}
+ * further back; rows that are already indexed with the same updated_at are skipped.
+ */
+@Component
+public class DoaOverrideIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(DoaOverrideIndex.class);
+
+    static final Duration COMMIT_LAG = Duration.ofMinutes(2);
+
+    private final DoaOverrideRepository overrideRepository;
+
+    // Writer-side state, only touched under the refresh lock
+    private final Map<String, Map<UUID, DoaOverride>> overridesByUser = new HashMap<>();
+    private LocalDateTime lastRefreshAt;
+
+    private volatile Map<String, Timeline> timelines = Map.of();
+
+    public DoaOverrideIndex(DoaOverrideRepository overrideRepository) {
+        this.overrideRepository = overrideRepository;
+    }
+
+    /**
+     * Get the highest active override level for a user at a point in time
+     *
+     * @param userId Keycloak user ID
+     * @param at     Point in time
+     * @return Override DOA level, or null if no override is active
+     */
+    public Integer getOverrideLevel(String userId, LocalDateTime at) {
+        Timeline timeline = timelines.get(userId);
+        return timeline != null ? timeline.levelAt(toMillis(at)) : null;
+    }
+
+    /**
+     * Get the effective DOA level for a user right now, considering active overrides
+     *
+     * @param userId    Keycloak user ID
+     * @param baseLevel DOA level from the user's token or Keycloak attributes (may be null)
+     * @return Effective DOA level, or null if the user has neither a level nor an override
+     */
+    public Integer getEffectiveDoaLevel(String userId, Integer baseLevel) {
+        if (userId == null) {
+            return baseLevel;
+        }
+        Integer overrideLevel = getOverrideLevel(userId, LocalDateTime.now());
+        if (overrideLevel == null) {
+            return baseLevel;
+        }
+        return baseLevel == null ? overrideLevel : Math.max(baseLevel, overrideLevel);
+    }
+
+    /**
+     * Users that currently have an active override
+     */
+    public Set<String> getUsersWithActiveOverride() {
+        long now = toMillis(LocalDateTime.now());
+        Set<String> users = new HashSet<>();
+        timelines.forEach((userId, timeline) -> {
+            if (timeline.levelAt(now) != null) {
+                users.add(userId);
+            }
+        });
+        return users;
+    }
+
+    /**
+     * Load active overrides on startup
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refresh();
+    }
+
+    /**
+     * Apply overrides created, changed or revoked since the last refresh
+     */
+    @Scheduled(fixedDelayString = "${app.security.doa-overrides.refresh-interval-ms:15000}",
+               initialDelayString = "${app.security.doa-overrides.refresh-interval-ms:15000}")
+    public synchronized void refresh() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<DoaOverride> changed = lastRefreshAt == null
+                ? overrideRepository.findByRevokedFalseAndValidUntilAfter(now)
+                : overrideRepository.findByUpdatedAtGreaterThanEqual(lastRefreshAt.minus(COMMIT_LAG));
+
+            Set<String> affectedUsers = new HashSet<>();
+            for (DoaOverride override : changed) {
+                Map<UUID, DoaOverride> userOverrides = overridesByUser.get(override.getUserId());
+                DoaOverride known = userOverrides != null ? userOverrides.get(override.getId()) : null;
+                // Skip rows seen by an earlier refresh and inactive rows that were never indexed
+                boolean skip = known != null
+                    ? Objects.equals(known.getUpdatedAt(), override.getUpdatedAt())
+                    : !isActive(override, now);
+                if (skip) {
+                    continue;
+                }
+                overridesByUser.computeIfAbsent(override.getUserId(), id -> new HashMap<>())
+                    .put(override.getId(), override);
+                affectedUsers.add(override.getUserId());
+            }
+            lastRefreshAt = now;
+
+            // Expired overrides drop out even when their rows do not change
+            long nowMillis = toMillis(now);
+            timelines.forEach((userId, timeline) -> {
+                if (timeline.endsBefore(nowMillis)) {
+                    affectedUsers.add(userId);
+                }
+            });
+
+            if (affectedUsers.isEmpty()) {
+                return;
+            }
+
+            Map<String, Timeline> updated = new HashMap<>(timelines);
+            for (String userId : affectedUsers) {
+                Map<UUID, DoaOverride> userOverrides = overridesByUser.getOrDefault(userId, new HashMap<>());
+                userOverrides.values().removeIf(o -> !isActive(o, now));
+                Timeline timeline = Timeline.build(userOverrides.values());
+                if (timeline == null) {
+                    overridesByUser.remove(userId);
+                    updated.remove(userId);
+                } else {
+                    updated.put(userId, timeline);
+                }
+            }
+            timelines = Map.copyOf(updated);
+
+            logger.debug("Refreshed DOA overrides for {} users ({} users with overrides)", affectedUsers.size(), updated.size());
+        } catch (RuntimeException e) {
+            // Keep serving the previously loaded overrides
+            logger.warn("Failed to refresh DOA overrides: {}", e.getMessage());
+        }
+    }
+
+    private static boolean isActive(DoaOverride override, LocalDateTime now) {
+        return !Boolean.TRUE.equals(override.getRevoked()) && override.getValidUntil().isAfter(now);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /**
+     * Non-overlapping segments [starts[i], ends[i]) sorted by start, each with the highest
+     * override level in effect during the segment
+     */
+    private record Timeline(long[] starts, long[] ends, int[] levels, long earliestExpiry) {
+
+        Integer levelAt(long time) {
+            int low = 0;
+            int high = starts.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] <= time) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            // high is the last segment starting at or before time
+            return high >= 0 && time < ends[high] ? levels[high] : null;
+        }
+
+        boolean endsBefore(long time) {
+            return earliestExpiry <= time;
+        }
+
+        static Timeline build(Collection<DoaOverride> overrides) {
+            if (overrides.isEmpty()) {
+                return null;
+            }
+
+            // valid_until is inclusive (BETWEEN in get_effective_doa_level), segments are half-open
+            TreeSet<Long> boundaries = new TreeSet<>();
+            long earliestExpiry = Long.MAX_VALUE;
+            for (DoaOverride override : overrides) {
+                long expiry = toMillis(override.getValidUntil()) + 1;
+                boundaries.add(toMillis(override.getValidFrom()));
+                boundaries.add(expiry);
+                earliestExpiry = Math.min(earliestExpiry, expiry);
+            }
+
+            List<long[]> segments = new ArrayList<>();
+            Long previous = null;
+            for (Long boundary : boundaries) {
+                if (previous != null) {
+                    int level = 0;
+                    for (DoaOverride override : overrides) {
+                        if (toMillis(override.getValidFrom()) <= previous
+                            && previous <= toMillis(override.getValidUntil())) {
+                            level = Math.max(level, override.getOverrideDoaLevel());
+                        }
+                    }
+                    if (level > 0) {
+                        long[] last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+                        if (last != null && last[1] == previous && last[2] == level) {
+                            last[1] = boundary;
+                        } else {
+                            segments.add(new long[]{previous, boundary, level});
+                        }
+                    }
+                }
+                previous = boundary;
+            }
+
+            long[] starts = new long[segments.size()];
+            long[] ends = new long[segments.size()];
+            int[] levels = new int[segments.size()];
+            for (int i = 0; i < segments.size(); i++) {
+                starts[i] = segments.get(i)[0];
+                ends[i] = segments.get(i)[1];
+                levels[i] = (int) segments.get(i)[2];
+            }
+            return new Timeline(starts, ends, levels, earliestExpiry);
+        }
+    }
+}
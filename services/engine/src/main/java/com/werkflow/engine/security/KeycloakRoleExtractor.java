@@ -1,16 +1,19 @@
 package com.werkflow.engine.security;
 
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Extracts roles and authorities from Keycloak JWT tokens.
  * Handles both realm roles and client-specific roles.
+ *
+ * Role and group checks go through a {@link CompiledPrincipal} that is parsed once per
+ * request and answers membership questions with bit tests.
  */
 @Component
 public class KeycloakRoleExtractor {
@@ -18,25 +21,42 @@ public class KeycloakRoleExtractor {
     private static final String REALM_ACCESS_CLAIM = "realm_access";
     private static final String RESOURCE_ACCESS_CLAIM = "resource_access";
     private static final String ROLES_CLAIM = "roles";
-    private static final String ROLE_PREFIX = "ROLE_";
+    private static final String GROUPS_CLAIM = "groups";
+    private static final List<String> CLIENT_IDS = List.of("werkflow-engine", "werkflow-admin-portal");
+    private static final String PRINCIPAL_ATTRIBUTE = KeycloakRoleExtractor.class.getName() + ".PRINCIPAL";
 
     /**
-     * Extract all roles from JWT token (realm + client roles)
+     * Parse the token's roles and groups into a compiled principal.
+     * The result is memoized for the current HTTP request, so repeated checks during one
+     * authorization decision parse the token only once.
      *
      * @param jwt JWT token
-     * @return Collection of GrantedAuthority
+     * @return Compiled principal
      */
-    public Collection<GrantedAuthority> extractAuthorities(Jwt jwt) {
-        Set<GrantedAuthority> authorities = new HashSet<>();
+    public CompiledPrincipal compile(Jwt jwt) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return doCompile(jwt);
+        }
 
-        // Extract realm roles
-        authorities.addAll(extractRealmRoles(jwt));
+        Object cached = requestAttributes.getAttribute(PRINCIPAL_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (cached instanceof CompiledPrincipal principal && principal.isCompiledFrom(jwt.getTokenValue())) {
+            return principal;
+        }
 
-        // Extract client roles
-        authorities.addAll(extractClientRoles(jwt, "werkflow-engine"));
-        authorities.addAll(extractClientRoles(jwt, "werkflow-admin-portal"));
+        CompiledPrincipal principal = doCompile(jwt);
+        requestAttributes.setAttribute(PRINCIPAL_ATTRIBUTE, principal, RequestAttributes.SCOPE_REQUEST);
+        return principal;
+    }
 
-        return authorities;
+    /**
+     * Extract all roles from JWT token (realm + client roles)
+     *
+     * @param jwt JWT token
+     * @return Collection of GrantedAuthority
+     */
+    public Collection<GrantedAuthority> extractAuthorities(Jwt jwt) {
+        return compile(jwt).getAuthorities();
     }
 
     /**
@@ -46,20 +66,7 @@ public class KeycloakRoleExtractor {
      * @return Collection of realm role authorities
      */
     public Collection<GrantedAuthority> extractRealmRoles(Jwt jwt) {
-        Map<String, Object> realmAccess = jwt.getClaimAsMap(REALM_ACCESS_CLAIM);
-        if (realmAccess == null) {
-            return Collections.emptyList();
-        }
-
-        @SuppressWarnings("unchecked")
-        List<String> roles = (List<String>) realmAccess.get(ROLES_CLAIM);
-        if (roles == null) {
-            return Collections.emptyList();
-        }
-
-        return roles.stream()
-            .map(role -> new SimpleGrantedAuthority(ROLE_PREFIX + role.toUpperCase()))
-            .collect(Collectors.toList());
+        return toAuthorities(realmRoleNames(jwt));
     }
 
     /**
@@ -70,26 +77,7 @@ public class KeycloakRoleExtractor {
      * @return Collection of client role authorities
      */
     public Collection<GrantedAuthority> extractClientRoles(Jwt jwt, String clientId) {
-        Map<String, Object> resourceAccess = jwt.getClaimAsMap(RESOURCE_ACCESS_CLAIM);
-        if (resourceAccess == null) {
-            return Collections.emptyList();
-        }
-
-        @SuppressWarnings("unchecked")
-        Map<String, Object> clientAccess = (Map<String, Object>) resourceAccess.get(clientId);
-        if (clientAccess == null) {
-            return Collections.emptyList();
-        }
-
-        @SuppressWarnings("unchecked")
-        List<String> roles = (List<String>) clientAccess.get(ROLES_CLAIM);
-        if (roles == null) {
-            return Collections.emptyList();
-        }
-
-        return roles.stream()
-            .map(role -> new SimpleGrantedAuthority(ROLE_PREFIX + role.toUpperCase()))
-            .collect(Collectors.toList());
+        return toAuthorities(clientRoleNames(jwt, clientId));
     }
 
     /**
@@ -99,7 +87,7 @@ public class KeycloakRoleExtractor {
      * @return List of group paths
      */
     public List<String> extractGroups(Jwt jwt) {
-        return jwt.getClaimAsStringList("groups");
+        return compile(jwt).getGroups();
     }
 
     /**
@@ -110,9 +98,7 @@ public class KeycloakRoleExtractor {
      * @return true if user has role
      */
     public boolean hasRole(Jwt jwt, String role) {
-        Collection<GrantedAuthority> authorities = extractAuthorities(jwt);
-        return authorities.stream()
-            .anyMatch(auth -> auth.getAuthority().equals(ROLE_PREFIX + role.toUpperCase()));
+        return compile(jwt).hasRole(role);
     }
 
     /**
@@ -123,13 +109,7 @@ public class KeycloakRoleExtractor {
      * @return true if user has at least one role
      */
     public boolean hasAnyRole(Jwt jwt, String... roles) {
-        Collection<GrantedAuthority> authorities = extractAuthorities(jwt);
-        Set<String> authoritySet = authorities.stream()
-            .map(GrantedAuthority::getAuthority)
-            .collect(Collectors.toSet());
-
-        return Arrays.stream(roles)
-            .anyMatch(role -> authoritySet.contains(ROLE_PREFIX + role.toUpperCase()));
+        return compile(jwt).hasAnyRole(roles);
     }
 
     /**
@@ -140,8 +120,7 @@ public class KeycloakRoleExtractor {
      * @return true if user is member of group
      */
     public boolean isMemberOfGroup(Jwt jwt, String groupPath) {
-        List<String> groups = extractGroups(jwt);
-        return groups != null && groups.contains(groupPath);
+        return compile(jwt).isMemberOfGroup(groupPath);
     }
 
     /**
@@ -152,13 +131,53 @@ public class KeycloakRoleExtractor {
      * @return true if user belongs to at least one group
      */
     public boolean isMemberOfAnyGroup(Jwt jwt, String... groupPaths) {
-        List<String> groups = extractGroups(jwt);
-        if (groups == null || groups.isEmpty()) {
-            return false;
+        return compile(jwt).isMemberOfAnyGroup(groupPaths);
+    }
+
+    private CompiledPrincipal doCompile(Jwt jwt) {
+        List<List<String>> roleClaims = new ArrayList<>(1 + CLIENT_IDS.size());
+        roleClaims.add(realmRoleNames(jwt));
+        for (String clientId : CLIENT_IDS) {
+            roleClaims.add(clientRoleNames(jwt, clientId));
+        }
+        return CompiledPrincipal.compile(jwt.getTokenValue(), roleClaims, jwt.getClaimAsStringList(GROUPS_CLAIM));
+    }
+
+    private List<String> realmRoleNames(Jwt jwt) {
+        Map<String, Object> realmAccess = jwt.getClaimAsMap(REALM_ACCESS_CLAIM);
+        if (realmAccess == null) {
+            return Collections.emptyList();
         }
 
-        return Arrays.stream(groupPaths)
-            .anyMatch(groups::contains);
+        @SuppressWarnings("unchecked")
+        List<String> roles = (List<String>) realmAccess.get(ROLES_CLAIM);
+        return roles != null ? roles : Collections.emptyList();
+    }
+
+    private List<String> clientRoleNames(Jwt jwt, String clientId) {
+        Map<String, Object> resourceAccess = jwt.getClaimAsMap(RESOURCE_ACCESS_CLAIM);
+        if (resourceAccess == null) {
+            return Collections.emptyList();
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> clientAccess = (Map<String, Object>) resourceAccess.get(clientId);
+        if (clientAccess == null) {
+            return Collections.emptyList();
+        }
+
+        @SuppressWarnings("unchecked")
+        List<String> roles = (List<String>) clientAccess.get(ROLES_CLAIM);
+        return roles != null ? roles : Collections.emptyList();
+    }
+
+    private Collection<GrantedAuthority> toAuthorities(List<String> roles) {
+        AuthorityIndex index = AuthorityIndex.getInstance();
+        List<GrantedAuthority> authorities = new ArrayList<>(roles.size());
+        for (String role : roles) {
+            authorities.add(index.authorityOf(role));
+        }
+        return authorities;
     }
 
     /**
@@ -0,0 +1,35 @@
+package com.werkflow.engine.security;
+
+import com.werkflow.engine.entity.WorkflowRoleMapping;
+
+import java.util.List;
+
+/**
+ * Immutable routing rule for a workflow task, compiled from a workflow_role_mappings row
+ *
+ * @param workflowKey    Workflow definition key
+ * @param taskKey        Task definition key
+ * @param requiredRoles  Roles allowed to work on the task
+ * @param requiredGroups Groups whose members are candidates (empty if not restricted)
+ * @param customLogic    Custom routing handler name (manager_id_match, doa_level_check, hub_match), or null
+ */
+public record TaskRoutingRule(
+    String workflowKey,
+    String taskKey,
+    List<String> requiredRoles,
+    List<String> requiredGroups,
+    String customLogic
+) {
+
+    static TaskRoutingRule from(WorkflowRoleMapping mapping) {
+        return new TaskRoutingRule(
+            mapping.getWorkflowKey(),
+            mapping.getTaskKey(),
+            mapping.getRequiredRoles() != null ? List.of(mapping.getRequiredRoles()) : List.of(),
+            mapping.getRequiredGroups() != null ? List.of(mapping.getRequiredGroups()) : List.of(),
+            mapping.getCustomLogic() != null && !mapping.getCustomLogic().isBlank()
+                ? mapping.getCustomLogic().trim()
+                : null
+        );
+    }
+}
@@ -0,0 +1,96 @@
+package com.werkflow.engine.security;
+
+import com.werkflow.engine.entity.WorkflowRoleMapping;
+import com.werkflow.engine.repository.WorkflowRoleMappingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-memory index of task routing rules loaded from the workflow_role_mappings table.
+ *
+ * The active mappings are compiled into an immutable map keyed by (workflow_key, task_key),
+ * so resolving the rule for a task is a single hash lookup. The table is polled for changes
+ * (row count and latest updated_at) and the index is swapped atomically when it changes,
+ * so routing changes take effect without a deployment.
+ */
+@Component
+public class TaskRoutingRuleIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskRoutingRuleIndex.class);
+
+    private final WorkflowRoleMappingRepository mappingRepository;
+
+    private volatile Map<RuleKey, TaskRoutingRule> rules = Map.of();
+    private volatile Fingerprint fingerprint;
+
+    public TaskRoutingRuleIndex(WorkflowRoleMappingRepository mappingRepository) {
+        this.mappingRepository = mappingRepository;
+    }
+
+    /**
+     * Get the routing rule for a task
+     *
+     * @param workflowKey Workflow definition key
+     * @param taskKey     Task definition key
+     * @return Routing rule, or null if the task has no active mapping
+     */
+    public TaskRoutingRule getRule(String workflowKey, String taskKey) {
+        return rules.get(new RuleKey(workflowKey, taskKey));
+    }
+
+    /**
+     * Number of active rules currently loaded
+     */
+    public int size() {
+        return rules.size();
+    }
+
+    /**
+     * Load rules on startup
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refresh();
+    }
+
+    /**
+     * Reload rules if the mapping table changed since the last load
+     */
+    @Scheduled(fixedDelayString = "${app.routing.refresh-interval-ms:30000}",
+               initialDelayString = "${app.routing.refresh-interval-ms:30000}")
+    public void refresh() {
+        try {
+            Fingerprint current = new Fingerprint(mappingRepository.count(), mappingRepository.findLastUpdatedAt());
+            if (current.equals(fingerprint)) {
+                return;
+            }
+
+            Map<RuleKey, TaskRoutingRule> loaded = new HashMap<>();
+            for (WorkflowRoleMapping mapping : mappingRepository.findByIsActiveTrue()) {
+                TaskRoutingRule rule = TaskRoutingRule.from(mapping);
+                loaded.put(new RuleKey(rule.workflowKey(), rule.taskKey()), rule);
+            }
+
+            rules = Map.copyOf(loaded);
+            fingerprint = current;
+            logger.info("Loaded {} task routing rules from workflow_role_mappings", loaded.size());
+        } catch (RuntimeException e) {
+            // Keep serving the previously loaded rules
+            logger.warn("Failed to load task routing rules: {}", e.getMessage());
+        }
+    }
+
+    private record RuleKey(String workflowKey, String taskKey) {
+    }
+
+    private record Fingerprint(long count, LocalDateTime lastUpdatedAt) {
+    }
+}
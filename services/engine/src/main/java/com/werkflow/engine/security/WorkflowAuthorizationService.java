@@ -4,6 +4,7 @@ import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -13,10 +14,23 @@ import java.util.List;
 @Service
 public class WorkflowAuthorizationService {
 
+    private static final String[] DOA_ROLES_LEVEL1_AND_ABOVE =
+        {"doa_approver_level1", "doa_approver_level2", "doa_approver_level3", "doa_approver_level4"};
+    private static final String[] DOA_ROLES_LEVEL2_AND_ABOVE =
+        {"doa_approver_level2", "doa_approver_level3", "doa_approver_level4"};
+    private static final String[] DOA_ROLES_LEVEL3_AND_ABOVE =
+        {"doa_approver_level3", "doa_approver_level4"};
+
     private final KeycloakRoleExtractor roleExtractor;
+    private final AuthorizationAuditWriter auditWriter;
+    private final DoaOverrideIndex doaOverrideIndex;
 
-    public WorkflowAuthorizationService(KeycloakRoleExtractor roleExtractor) {
+    public WorkflowAuthorizationService(KeycloakRoleExtractor roleExtractor,
+                                        AuthorizationAuditWriter auditWriter,
+                                        DoaOverrideIndex doaOverrideIndex) {
         this.roleExtractor = roleExtractor;
+        this.auditWriter = auditWriter;
+        this.doaOverrideIndex = doaOverrideIndex;
     }
 
     /**
@@ -36,7 +50,9 @@ public class WorkflowAuthorizationService {
      * @return true if authorized
      */
     public boolean canApproveAssetRequest(Jwt jwt) {
-        return roleExtractor.hasRole(jwt, "asset_request_approver");
+        boolean allowed = roleExtractor.hasRole(jwt, "asset_request_approver");
+        audit(jwt, "APPROVE_ASSET_REQUEST", null, null, allowed, null);
+        return allowed;
     }
 
     /**
@@ -49,8 +65,11 @@ public class WorkflowAuthorizationService {
      */
     public boolean isLineManager(Jwt jwt, String submitterUserId, String submitterManagerId) {
         String currentUserId = roleExtractor.getUserId(jwt);
-        return currentUserId.equals(submitterManagerId) &&
+        boolean allowed = currentUserId.equals(submitterManagerId) &&
                roleExtractor.hasRole(jwt, "asset_request_approver");
+        audit(jwt, "LINE_MANAGER_APPROVAL", "USER", submitterUserId, allowed,
+            allowed ? null : "Not the submitter's line manager or missing approver role");
+        return allowed;
     }
 
     /**
@@ -60,14 +79,17 @@ public class WorkflowAuthorizationService {
      * @return true if authorized
      */
     public boolean canApproveItRequest(Jwt jwt) {
-        boolean hasRole = roleExtractor.hasRole(jwt, "asset_request_approver");
-        boolean inItDepartment = roleExtractor.isMemberOfAnyGroup(jwt,
+        CompiledPrincipal principal = roleExtractor.compile(jwt);
+        boolean hasRole = principal.hasRole("asset_request_approver");
+        boolean inItDepartment = principal.isMemberOfAnyGroup(
             "/IT Department/Managers",
             "/IT Department/POC"
         );
         String department = roleExtractor.getDepartment(jwt);
 
-        return hasRole && inItDepartment && "IT".equalsIgnoreCase(department);
+        boolean allowed = hasRole && inItDepartment && "IT".equalsIgnoreCase(department);
+        audit(jwt, principal, "APPROVE_IT_REQUEST", "DEPARTMENT", "IT", allowed, null, null, null);
+        return allowed;
     }
 
     /**
@@ -77,26 +99,36 @@ public class WorkflowAuthorizationService {
      * @return true if authorized
      */
     public boolean canApproveProcurement(Jwt jwt) {
-        boolean hasRole = roleExtractor.hasRole(jwt, "procurement_approver");
-        boolean inProcurementDepartment = roleExtractor.isMemberOfAnyGroup(jwt,
+        CompiledPrincipal principal = roleExtractor.compile(jwt);
+        boolean hasRole = principal.hasRole("procurement_approver");
+        boolean inProcurementDepartment = principal.isMemberOfAnyGroup(
             "/Procurement Department/Managers",
             "/Procurement Department/POC"
         );
         String department = roleExtractor.getDepartment(jwt);
 
-        return hasRole && inProcurementDepartment && "Procurement".equalsIgnoreCase(department);
+        boolean allowed = hasRole && inProcurementDepartment && "Procurement".equalsIgnoreCase(department);
+        audit(jwt, principal, "APPROVE_PROCUREMENT", "DEPARTMENT", "Procurement", allowed, null, null, null);
+        return allowed;
     }
 
     /**
-     * Check if user can approve based on Delegation of Authority (DOA) level
+     * Check if user can approve based on Delegation of Authority (DOA) level.
+     * An active DOA override raises the user's level for the override period and stands
+     * in for the doa_approver_levelN role the token would otherwise need.
      *
      * @param jwt    User's JWT token
      * @param amount Request amount
      * @return true if authorized
      */
     public boolean canApproveByDoaLevel(Jwt jwt, BigDecimal amount) {
-        Integer userDoaLevel = roleExtractor.getDoaLevel(jwt);
+        String userId = roleExtractor.getUserId(jwt);
+        Integer overrideLevel = userId != null ? doaOverrideIndex.getOverrideLevel(userId, LocalDateTime.now()) : null;
+        Integer tokenLevel = roleExtractor.getDoaLevel(jwt);
+        Integer userDoaLevel = overrideLevel == null ? tokenLevel
+            : tokenLevel == null ? overrideLevel : Math.max(tokenLevel, overrideLevel);
         if (userDoaLevel == null) {
+            audit(jwt, "APPROVE_BY_DOA", null, null, false, "User has no DOA level");
             return false;
         }
 
@@ -105,19 +137,34 @@ public class WorkflowAuthorizationService {
         // User's DOA level must be >= required level
         boolean hasRequiredLevel = userDoaLevel >= requiredLevel;
 
-        // Must also have corresponding role
-        boolean hasDoaRole = switch (requiredLevel) {
-            case 1 -> roleExtractor.hasAnyRole(jwt, "doa_approver_level1", "doa_approver_level2", "doa_approver_level3", "doa_approver_level4");
-            case 2 -> roleExtractor.hasAnyRole(jwt, "doa_approver_level2", "doa_approver_level3", "doa_approver_level4");
-            case 3 -> roleExtractor.hasAnyRole(jwt, "doa_approver_level3", "doa_approver_level4");
-            case 4 -> roleExtractor.hasRole(jwt, "doa_approver_level4");
+        // Must also have corresponding role, unless an active override grants the level
+        CompiledPrincipal principal = roleExtractor.compile(jwt);
+        boolean grantedByOverride = overrideLevel != null && overrideLevel >= requiredLevel;
+        boolean hasDoaRole = grantedByOverride || switch (requiredLevel) {
+            case 1 -> principal.hasAnyRole(DOA_ROLES_LEVEL1_AND_ABOVE);
+            case 2 -> principal.hasAnyRole(DOA_ROLES_LEVEL2_AND_ABOVE);
+            case 3 -> principal.hasAnyRole(DOA_ROLES_LEVEL3_AND_ABOVE);
+            case 4 -> principal.hasRole("doa_approver_level4");
             default -> false;
         };
 
         // Must be in Finance department
-        boolean inFinanceDepartment = roleExtractor.isMemberOfGroup(jwt, "/Finance Department/Approvers");
+        boolean inFinanceDepartment = principal.isMemberOfGroup("/Finance Department/Approvers");
 
-        return hasRequiredLevel && hasDoaRole && inFinanceDepartment;
+        boolean allowed = hasRequiredLevel && hasDoaRole && inFinanceDepartment;
+        audit(jwt, principal, "APPROVE_BY_DOA", null, null, allowed,
+            allowed && grantedByOverride ? "DOA override" : null, userDoaLevel, requiredLevel);
+        return allowed;
+    }
+
+    /**
+     * Get user's effective DOA level (token attribute raised by any active override)
+     *
+     * @param jwt User's JWT token
+     * @return Effective DOA level (1-4), null if not set
+     */
+    public Integer getEffectiveDoaLevel(Jwt jwt) {
+        return doaOverrideIndex.getEffectiveDoaLevel(roleExtractor.getUserId(jwt), roleExtractor.getDoaLevel(jwt));
     }
 
     /**
@@ -158,16 +205,14 @@ public class WorkflowAuthorizationService {
      */
     public boolean canManageHub(Jwt jwt, String hubId) {
         String userHubId = roleExtractor.getHubId(jwt);
-        boolean isCentralHubManager = roleExtractor.hasRole(jwt, "central_hub_manager");
-        boolean isHubManager = roleExtractor.hasRole(jwt, "hub_manager");
-
-        // Central hub manager can manage all hubs
-        if (isCentralHubManager) {
-            return true;
-        }
-
-        // Regular hub manager can only manage their assigned hub
-        return isHubManager && hubId != null && hubId.equals(userHubId);
+        CompiledPrincipal principal = roleExtractor.compile(jwt);
+        boolean isCentralHubManager = principal.hasRole("central_hub_manager");
+        boolean isHubManager = principal.hasRole("hub_manager");
+
+        // Central hub manager can manage all hubs, regular hub manager only their assigned hub
+        boolean allowed = isCentralHubManager || (isHubManager && hubId != null && hubId.equals(userHubId));
+        audit(jwt, principal, "MANAGE_HUB", "HUB", hubId, allowed, null, null, null);
+        return allowed;
     }
 
     /**
@@ -182,8 +227,10 @@ public class WorkflowAuthorizationService {
         boolean isPocAttribute = roleExtractor.isPoc(jwt);
         String userDepartment = roleExtractor.getDepartment(jwt);
 
-        return hasPocRole && isPocAttribute &&
+        boolean allowed = hasPocRole && isPocAttribute &&
                department != null && department.equalsIgnoreCase(userDepartment);
+        audit(jwt, "DEPARTMENT_POC", "DEPARTMENT", department, allowed, null);
+        return allowed;
     }
 
     /**
@@ -193,7 +240,9 @@ public class WorkflowAuthorizationService {
      * @return true if authorized
      */
     public boolean canDesignWorkflows(Jwt jwt) {
-        return roleExtractor.hasAnyRole(jwt, "workflow_designer", "super_admin");
+        boolean allowed = roleExtractor.hasAnyRole(jwt, "workflow_designer", "super_admin");
+        audit(jwt, "DESIGN_WORKFLOWS", null, null, allowed, null);
+        return allowed;
     }
 
     /**
@@ -252,13 +301,39 @@ public class WorkflowAuthorizationService {
             roleExtractor.getFullName(jwt),
             roleExtractor.getDepartment(jwt),
             roleExtractor.getEmployeeId(jwt),
-            roleExtractor.getDoaLevel(jwt),
+            getEffectiveDoaLevel(jwt),
             roleExtractor.isPoc(jwt),
             getUserRoles(jwt),
             getUserGroups(jwt)
         );
     }
 
+    private void audit(Jwt jwt, String action, String resourceType, String resourceId,
+                       boolean allowed, String reason) {
+        audit(jwt, roleExtractor.compile(jwt), action, resourceType, resourceId, allowed, reason, null, null);
+    }
+
+    private void audit(Jwt jwt, CompiledPrincipal principal, String action, String resourceType,
+                       String resourceId, boolean allowed, String reason,
+                       Integer doaLevel, Integer requiredDoaLevel) {
+        auditWriter.record(new AuthorizationAuditEvent(
+            roleExtractor.getUserId(jwt),
+            roleExtractor.getUserEmail(jwt),
+            roleExtractor.getUsername(jwt),
+            action,
+            resourceType,
+            resourceId,
+            null,
+            null,
+            principal,
+            allowed,
+            reason,
+            doaLevel,
+            requiredDoaLevel,
+            LocalDateTime.now()
+        ));
+    }
+
     /**
      * User context record for passing around user information
      */
@@ -3,8 +3,12 @@ package com.werkflow.engine.security;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Service for routing workflow tasks to appropriate users/groups based on Keycloak attributes.
@@ -13,10 +17,27 @@ import java.util.List;
 @Service
 public class WorkflowTaskRouter {
 
+    private static final String FINANCE_APPROVERS_GROUP = "/Finance Department/Approvers";
+
     private final KeycloakUserService keycloakUserService;
+    private final TaskRoutingRuleIndex ruleIndex;
+    private final DoaOverrideIndex doaOverrideIndex;
+    private final Map<String, RoutingHandler> customLogicHandlers;
 
-    public WorkflowTaskRouter(KeycloakUserService keycloakUserService) {
+    public WorkflowTaskRouter(KeycloakUserService keycloakUserService,
+                              TaskRoutingRuleIndex ruleIndex,
+                              DoaOverrideIndex doaOverrideIndex) {
         this.keycloakUserService = keycloakUserService;
+        this.ruleIndex = ruleIndex;
+        this.doaOverrideIndex = doaOverrideIndex;
+        this.customLogicHandlers = Map.of(
+            "manager_id_match", (rule, variables) ->
+                List.of(routeToLineManager((String) variables.get("submitter_user_id"), rule.requiredRoles())),
+            "doa_level_check", (rule, variables) ->
+                routeToApproversByDoa(toAmount(variables.get("amount")), groupsOrDefault(rule, FINANCE_APPROVERS_GROUP)),
+            "hub_match", (rule, variables) ->
+                List.of(routeToHubManager((String) variables.get("assigned_hub_id")))
+        );
     }
 
     /**
@@ -26,6 +47,10 @@ public class WorkflowTaskRouter {
      * @return Manager's user ID, or null if not found
      */
     public String routeToLineManager(String submitterUserId) {
+        return routeToLineManager(submitterUserId, List.of("asset_request_approver"));
+    }
+
+    private String routeToLineManager(String submitterUserId, List<String> approverRoles) {
         // Get manager ID from submitter's profile
         String managerId = keycloakUserService.getUserAttribute(submitterUserId, "manager_id");
 
@@ -34,7 +59,8 @@ public class WorkflowTaskRouter {
         }
 
         // Verify manager has approver role
-        if (!keycloakUserService.hasRole(managerId, "asset_request_approver")) {
+        List<String> managerRoles = keycloakUserService.getUserRoles(managerId);
+        if (approverRoles.stream().noneMatch(managerRoles::contains)) {
             throw new IllegalStateException("Manager " + managerId + " does not have approver role");
         }
 
@@ -93,20 +119,12 @@ public class WorkflowTaskRouter {
         int requiredDoaLevel = calculateRequiredDoaLevel(amount);
 
         // Get all members of Finance Approvers group
-        List<String> financeApprovers = keycloakUserService.getGroupMembers("/Finance Department/Approvers");
+        List<String> financeApprovers = keycloakUserService.getGroupMembers(FINANCE_APPROVERS_GROUP);
 
         // Find first approver with sufficient DOA level
         for (String userId : financeApprovers) {
-            String doaLevelStr = keycloakUserService.getUserAttribute(userId, "doa_level");
-            if (doaLevelStr != null && !doaLevelStr.isEmpty()) {
-                try {
-                    int userDoaLevel = Integer.parseInt(doaLevelStr);
-                    if (userDoaLevel >= requiredDoaLevel) {
-                        return userId;
-                    }
-                } catch (NumberFormatException e) {
-                    // Skip this user
-                }
+            if (hasDoaLevel(userId, requiredDoaLevel)) {
+                return userId;
             }
         }
 
@@ -122,24 +140,17 @@ public class WorkflowTaskRouter {
      * @return List of user IDs with sufficient DOA level
      */
     public List<String> routeToFinanceByDoaMultiple(BigDecimal amount) {
+        return routeToApproversByDoa(amount, List.of(FINANCE_APPROVERS_GROUP));
+    }
+
+    private List<String> routeToApproversByDoa(BigDecimal amount, List<String> approverGroups) {
         int requiredDoaLevel = calculateRequiredDoaLevel(amount);
         List<String> eligibleApprovers = new ArrayList<>();
 
-        // Get all members of Finance Approvers group
-        List<String> financeApprovers = keycloakUserService.getGroupMembers("/Finance Department/Approvers");
-
         // Find all approvers with sufficient DOA level
-        for (String userId : financeApprovers) {
-            String doaLevelStr = keycloakUserService.getUserAttribute(userId, "doa_level");
-            if (doaLevelStr != null && !doaLevelStr.isEmpty()) {
-                try {
-                    int userDoaLevel = Integer.parseInt(doaLevelStr);
-                    if (userDoaLevel >= requiredDoaLevel) {
-                        eligibleApprovers.add(userId);
-                    }
-                } catch (NumberFormatException e) {
-                    // Skip this user
-                }
+        for (String userId : getMembersOfGroups(approverGroups)) {
+            if (hasDoaLevel(userId, requiredDoaLevel)) {
+                eligibleApprovers.add(userId);
             }
         }
 
@@ -152,6 +163,26 @@ public class WorkflowTaskRouter {
         return eligibleApprovers;
     }
 
+    /**
+     * Check a user's DOA level, considering active DOA overrides before the Keycloak attribute
+     */
+    private boolean hasDoaLevel(String userId, int requiredDoaLevel) {
+        Integer overrideLevel = doaOverrideIndex.getOverrideLevel(userId, LocalDateTime.now());
+        if (overrideLevel != null && overrideLevel >= requiredDoaLevel) {
+            return true;
+        }
+
+        String doaLevelStr = keycloakUserService.getUserAttribute(userId, "doa_level");
+        if (doaLevelStr != null && !doaLevelStr.isEmpty()) {
+            try {
+                return Integer.parseInt(doaLevelStr) >= requiredDoaLevel;
+            } catch (NumberFormatException e) {
+                // Skip this user
+            }
+        }
+        return false;
+    }
+
     /**
      * Route task to specific warehouse hub manager
      *
@@ -244,37 +275,75 @@ public class WorkflowTaskRouter {
     }
 
     /**
-     * Get candidates for a specific workflow task
+     * Get candidates for a specific workflow task.
+     *
+     * The task's rule is looked up in the in-memory index built from workflow_role_mappings.
+     * Tasks with custom logic are routed by the matching handler; otherwise candidates are the
+     * members of the required groups, and it is an error if the groups have no members. Rules
+     * without groups (e.g. submit_request for employee) have no candidate users: the required
+     * roles are checked when the task is claimed, as for tasks without a mapping.
      *
      * @param workflowKey Workflow definition key
      * @param taskKey     Task definition key
      * @param variables   Process variables (may contain amount, submitter, etc.)
      * @return List of candidate user IDs
      */
-    public List<String> getTaskCandidates(String workflowKey, String taskKey, java.util.Map<String, Object> variables) {
-        // This would typically query workflow_role_mappings table
-        // For now, implementing basic routing logic
-
-        if ("asset_request".equals(workflowKey)) {
-            return switch (taskKey) {
-                case "line_manager_approval" -> {
-                    String submitterId = (String) variables.get("submitter_user_id");
-                    yield List.of(routeToLineManager(submitterId));
-                }
-                case "it_approval" -> routeToItDepartment();
-                case "procurement_approval" -> routeToProcurement();
-                case "finance_doa_approval" -> {
-                    BigDecimal amount = (BigDecimal) variables.get("amount");
-                    yield routeToFinanceByDoaMultiple(amount);
-                }
-                case "hub_assignment" -> {
-                    String hubId = (String) variables.get("assigned_hub_id");
-                    yield List.of(routeToHubManager(hubId));
-                }
-                default -> List.of();
-            };
+    public List<String> getTaskCandidates(String workflowKey, String taskKey, Map<String, Object> variables) {
+        TaskRoutingRule rule = ruleIndex.getRule(workflowKey, taskKey);
+        if (rule == null) {
+            return List.of();
         }
 
-        return List.of();
+        if (rule.customLogic() != null) {
+            RoutingHandler handler = customLogicHandlers.get(rule.customLogic());
+            if (handler == null) {
+                throw new IllegalStateException(
+                    "Unknown custom routing logic '" + rule.customLogic() + "' for " + workflowKey + "/" + taskKey
+                );
+            }
+            return handler.route(rule, variables);
+        }
+
+        if (rule.requiredGroups().isEmpty()) {
+            return List.of();
+        }
+
+        List<String> candidates = getMembersOfGroups(rule.requiredGroups());
+        if (candidates.isEmpty()) {
+            throw new IllegalStateException(
+                "No approvers found in " + rule.requiredGroups() + " for " + workflowKey + "/" + taskKey
+            );
+        }
+        return candidates;
+    }
+
+    private List<String> getMembersOfGroups(List<String> groupPaths) {
+        Set<String> members = new LinkedHashSet<>();
+        for (String groupPath : groupPaths) {
+            members.addAll(keycloakUserService.getGroupMembers(groupPath));
+        }
+        return new ArrayList<>(members);
+    }
+
+    private static List<String> groupsOrDefault(TaskRoutingRule rule, String defaultGroup) {
+        return rule.requiredGroups().isEmpty() ? List.of(defaultGroup) : rule.requiredGroups();
+    }
+
+    private static BigDecimal toAmount(Object amount) {
+        if (amount instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        if (amount == null) {
+            throw new IllegalArgumentException("Process variable 'amount' is required for DOA routing");
+        }
+        return new BigDecimal(amount.toString());
+    }
+
+    /**
+     * Routing handler for a custom_logic value of workflow_role_mappings
+     */
+    @FunctionalInterface
+    private interface RoutingHandler {
+        List<String> route(TaskRoutingRule rule, Map<String, Object> variables);
     }
 }
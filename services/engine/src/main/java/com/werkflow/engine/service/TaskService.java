@@ -1,5 +1,6 @@
 package com.werkflow.engine.service;
 
+import com.werkflow.delegates.approval.ApprovalEscalationService;
 import com.werkflow.engine.dto.CompleteTaskRequest;
 import com.werkflow.engine.dto.TaskResponse;
 import lombok.RequiredArgsConstructor;
@@ -24,6 +25,7 @@ import java.util.stream.Collectors;
 public class TaskService {
 
     private final org.flowable.engine.TaskService flowableTaskService;
+    private final ApprovalEscalationService approvalEscalationService;
 
     /**
      * Get all tasks for a specific user
@@ -123,6 +125,12 @@ public class TaskService {
 
         flowableTaskService.setAssignee(taskId, userId);
 
+        // Restart the escalation clock of the process's pending approval for the new assignee
+        Task task = flowableTaskService.createTaskQuery().taskId(taskId).singleResult();
+        if (task != null && task.getProcessInstanceId() != null) {
+            approvalEscalationService.reassign(task.getProcessInstanceId(), userId);
+        }
+
         log.info("Task assigned successfully");
     }
 
@@ -0,0 +1,13 @@
+-- ================================================================
+-- Form Request Correlation Claims for Werkflow Engine
+-- ================================================================
+-- FormRequestOutboxDispatcher claims SENT / FAILED / DISCARDED
+-- rows with FOR UPDATE SKIP LOCKED and a lease in locked_until
+-- before delivering the outcome, so two engine nodes never trigger
+-- the same completion message
+-- ================================================================
+
+CREATE INDEX idx_form_request_outbox_uncorrelated ON form_request_outbox(created_at)
+    WHERE status IN ('SENT', 'FAILED', 'DISCARDED') AND completed_at IS NULL;
+
+COMMENT ON COLUMN form_request_outbox.locked_until IS 'Lease of the node sending (IN_FLIGHT) or correlating (SENT, FAILED, DISCARDED) the submission';
@@ -0,0 +1,24 @@
+-- ================================================================
+-- Email Digest Event Uniqueness for Werkflow Engine
+-- ================================================================
+-- An event is queued at most once per recipient while it waits
+-- for or is part of a digest being sent; EmailOutbox.enqueueDigest
+-- relies on this index with INSERT ... ON CONFLICT
+-- ================================================================
+
+-- Duplicates queued before the index existed keep their row but lose the event key;
+-- the digest still drops them when it is composed
+UPDATE email_outbox duplicate SET event_key = NULL
+FROM email_outbox original
+WHERE duplicate.digest_key = original.digest_key
+  AND duplicate.event_key = original.event_key
+  AND duplicate.status IN ('PENDING', 'IN_FLIGHT')
+  AND original.status IN ('PENDING', 'IN_FLIGHT')
+  AND duplicate.id > original.id;
+
+DROP INDEX idx_email_outbox_digest;
+
+CREATE UNIQUE INDEX idx_email_outbox_digest_event ON email_outbox(digest_key, event_key)
+    WHERE status IN ('PENDING', 'IN_FLIGHT');
+CREATE INDEX idx_email_outbox_digest_due ON email_outbox(digest_key, next_attempt_at)
+    WHERE status = 'PENDING' AND digest_key IS NOT NULL;
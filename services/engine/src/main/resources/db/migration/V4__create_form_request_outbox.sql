@@ -0,0 +1,40 @@
+-- ================================================================
+-- Form Request Outbox for Werkflow Engine
+-- ================================================================
+-- FormRequestDelegate writes submissions here in the engine
+-- transaction; FormRequestOutboxDispatcher sends them to the
+-- department services after commit and correlates the result
+-- back to the process instance
+-- ================================================================
+
+CREATE TABLE form_request_outbox (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    idempotency_key VARCHAR(255) NOT NULL,
+    process_instance_id VARCHAR(64) NOT NULL,
+    target_url VARCHAR(1024) NOT NULL,
+    payload TEXT NOT NULL,
+    target_department VARCHAR(100),
+    form_type VARCHAR(100),
+    response_variable VARCHAR(255) NOT NULL,
+    message_name VARCHAR(255) NOT NULL,
+    notify_on_creation BOOLEAN DEFAULT TRUE,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING' CHECK (status IN ('PENDING', 'IN_FLIGHT', 'SENT', 'COMPLETED', 'FAILED')),
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    locked_until TIMESTAMP,
+    last_error TEXT,
+    response TEXT,
+    created_at TIMESTAMP DEFAULT NOW(),
+    sent_at TIMESTAMP,
+    completed_at TIMESTAMP,
+    CONSTRAINT unique_form_request_idempotency_key UNIQUE (idempotency_key)
+);
+
+CREATE INDEX idx_form_request_outbox_due ON form_request_outbox(next_attempt_at) WHERE status = 'PENDING';
+CREATE INDEX idx_form_request_outbox_in_flight ON form_request_outbox(locked_until) WHERE status = 'IN_FLIGHT';
+CREATE INDEX idx_form_request_outbox_sent ON form_request_outbox(sent_at) WHERE status = 'SENT';
+CREATE INDEX idx_form_request_outbox_process ON form_request_outbox(process_instance_id);
+
+COMMENT ON TABLE form_request_outbox IS 'Transactional outbox for cross-department form request submissions';
+COMMENT ON COLUMN form_request_outbox.idempotency_key IS 'Sent as Idempotency-Key header so retries do not create duplicate requests';
+COMMENT ON COLUMN form_request_outbox.status IS 'PENDING -> IN_FLIGHT -> SENT -> COMPLETED (correlated), or FAILED after max attempts';
@@ -0,0 +1,37 @@
+-- ================================================================
+-- Email Outbox for Werkflow Engine
+-- ================================================================
+-- EmailDelegate and NotificationDelegate write outgoing mail here
+-- in the engine transaction; EmailOutboxDispatcher sends it over
+-- pooled SMTP connections after commit
+-- ================================================================
+
+CREATE TABLE email_outbox (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    process_instance_id VARCHAR(64),
+    relay VARCHAR(100) NOT NULL,
+    recipients TEXT NOT NULL,
+    cc TEXT,
+    bcc TEXT,
+    subject VARCHAR(998) NOT NULL,
+    body TEXT NOT NULL,
+    is_html BOOLEAN NOT NULL DEFAULT FALSE,
+    from_address VARCHAR(320),
+    from_name VARCHAR(255),
+    reply_to VARCHAR(320),
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING' CHECK (status IN ('PENDING', 'IN_FLIGHT', 'SENT', 'FAILED')),
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    locked_until TIMESTAMP,
+    last_error TEXT,
+    created_at TIMESTAMP DEFAULT NOW(),
+    sent_at TIMESTAMP
+);
+
+CREATE INDEX idx_email_outbox_due ON email_outbox(next_attempt_at) WHERE status = 'PENDING';
+CREATE INDEX idx_email_outbox_in_flight ON email_outbox(locked_until) WHERE status = 'IN_FLIGHT';
+CREATE INDEX idx_email_outbox_process ON email_outbox(process_instance_id);
+
+COMMENT ON TABLE email_outbox IS 'Transactional outbox for workflow email';
+COMMENT ON COLUMN email_outbox.relay IS 'Name of the SMTP relay under app.delegates.email.relays';
+COMMENT ON COLUMN email_outbox.status IS 'PENDING -> IN_FLIGHT -> SENT, or FAILED after max attempts or a permanent rejection';
@@ -0,0 +1,33 @@
+-- ================================================================
+-- In-App Notifications for Werkflow Engine
+-- ================================================================
+-- Written in batches by InAppNotificationStore; the portal reads
+-- them through /api/notifications
+-- ================================================================
+
+CREATE TABLE in_app_notifications (
+    id BIGSERIAL PRIMARY KEY,
+    user_id VARCHAR(255) NOT NULL,
+    process_instance_id VARCHAR(64),
+    title VARCHAR(500),
+    message TEXT NOT NULL,
+    priority VARCHAR(20) NOT NULL DEFAULT 'normal',
+    action_url VARCHAR(1024),
+    action_label VARCHAR(255),
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    read_at TIMESTAMP
+);
+
+-- Keyset paging: newest first per user
+CREATE INDEX idx_in_app_notifications_user ON in_app_notifications(user_id, id DESC);
+CREATE INDEX idx_in_app_notifications_user_unread ON in_app_notifications(user_id, id DESC) WHERE read_at IS NULL;
+
+-- Unread counters, maintained incrementally alongside inserts and mark-as-read
+CREATE TABLE in_app_notification_counters (
+    user_id VARCHAR(255) PRIMARY KEY,
+    unread_count BIGINT NOT NULL DEFAULT 0 CHECK (unread_count >= 0),
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+COMMENT ON TABLE in_app_notifications IS 'Notifications shown in the portal notification center';
+COMMENT ON TABLE in_app_notification_counters IS 'Per-user unread count, so the badge is one primary key lookup instead of COUNT(*)';
@@ -0,0 +1,15 @@
+-- ================================================================
+-- Email Digests for Werkflow Engine
+-- ================================================================
+-- Non-urgent notification email is held per recipient for the
+-- digest window and sent as one message; identical events within
+-- the window are stored once
+-- ================================================================
+
+ALTER TABLE email_outbox ADD COLUMN digest_key VARCHAR(320);
+ALTER TABLE email_outbox ADD COLUMN event_key VARCHAR(64);
+
+CREATE INDEX idx_email_outbox_digest ON email_outbox(digest_key, event_key) WHERE status = 'PENDING';
+
+COMMENT ON COLUMN email_outbox.digest_key IS 'Recipient the email is coalesced under; NULL for email sent on its own';
+COMMENT ON COLUMN email_outbox.event_key IS 'SHA-256 of subject and body, used to drop duplicate events within a digest window';
@@ -0,0 +1,33 @@
+-- ================================================================
+-- Approval Escalations for Werkflow Engine
+-- ================================================================
+-- ApprovalDelegate records each pending approval's escalation due
+-- time here; ApprovalEscalationService loads the approvals due
+-- within its horizon into an in-memory timing wheel and escalates
+-- them in batches, instead of one BPMN timer job per approval
+-- ================================================================
+
+CREATE TABLE approval_escalations (
+    id BIGSERIAL PRIMARY KEY,
+    process_instance_id VARCHAR(64) NOT NULL,
+    approval_key VARCHAR(255) NOT NULL,
+    assigned_to VARCHAR(255) NOT NULL,
+    assignment_type VARCHAR(20) NOT NULL,
+    escalation_role VARCHAR(255) NOT NULL,
+    escalation_minutes INT NOT NULL,
+    due_at TIMESTAMP NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING' CHECK (status IN ('PENDING', 'ESCALATED', 'COMPLETED', 'CANCELLED')),
+    attempts INT NOT NULL DEFAULT 0,
+    locked_until TIMESTAMP,
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    escalated_at TIMESTAMP,
+    CONSTRAINT uq_approval_escalations UNIQUE (process_instance_id, approval_key)
+);
+
+CREATE INDEX idx_approval_escalations_due ON approval_escalations(due_at) WHERE status = 'PENDING';
+
+COMMENT ON TABLE approval_escalations IS 'Due times of pending approval escalations';
+COMMENT ON COLUMN approval_escalations.approval_key IS 'Activity ID of the ApprovalDelegate task that set up the approval';
+COMMENT ON COLUMN approval_escalations.status IS 'PENDING -> ESCALATED, or COMPLETED/CANCELLED when the approval ends first';
+COMMENT ON COLUMN approval_escalations.locked_until IS 'Set while a node applies the escalation; expired locks are picked up again';
@@ -0,0 +1,26 @@
+-- ================================================================
+-- Outbox Dead Letters for Werkflow Engine
+-- ================================================================
+-- FAILED outbox rows are the dead letters of the email and form
+-- request delegates; operators requeue or discard them through
+-- /api/dead-letters
+-- ================================================================
+
+ALTER TABLE email_outbox ADD COLUMN failed_at TIMESTAMP;
+ALTER TABLE form_request_outbox ADD COLUMN failed_at TIMESTAMP;
+
+ALTER TABLE email_outbox DROP CONSTRAINT email_outbox_status_check;
+ALTER TABLE email_outbox ADD CONSTRAINT email_outbox_status_check
+    CHECK (status IN ('PENDING', 'IN_FLIGHT', 'SENT', 'FAILED', 'DISCARDED'));
+
+ALTER TABLE form_request_outbox DROP CONSTRAINT form_request_outbox_status_check;
+ALTER TABLE form_request_outbox ADD CONSTRAINT form_request_outbox_status_check
+    CHECK (status IN ('PENDING', 'IN_FLIGHT', 'SENT', 'COMPLETED', 'FAILED', 'DISCARDED'));
+
+CREATE INDEX idx_email_outbox_failed ON email_outbox(failed_at) WHERE status = 'FAILED';
+CREATE INDEX idx_form_request_outbox_failed ON form_request_outbox(failed_at) WHERE status = 'FAILED';
+
+COMMENT ON COLUMN email_outbox.failed_at IS 'When the email was given up on (status FAILED)';
+COMMENT ON COLUMN form_request_outbox.failed_at IS 'When the submission was given up on (status FAILED)';
+COMMENT ON COLUMN email_outbox.status IS 'PENDING -> IN_FLIGHT -> SENT, or FAILED after max attempts or a permanent rejection; FAILED -> PENDING (retried) or DISCARDED by an operator';
+COMMENT ON COLUMN form_request_outbox.status IS 'PENDING -> IN_FLIGHT -> SENT -> COMPLETED (correlated), or FAILED after max attempts; FAILED -> PENDING (retried) or DISCARDED by an operator';
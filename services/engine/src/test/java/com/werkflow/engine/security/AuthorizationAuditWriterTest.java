@@ -0,0 +1,105 @@
+package com.werkflow.engine.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.Invocation;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AuthorizationAuditWriter batch failure handling
+ */
+class AuthorizationAuditWriterTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private List<Integer> statementRows;
+    private AuthorizationAuditWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        statementRows = new ArrayList<>();
+        // Reject any statement that binds a null user_id, like the NOT NULL column does
+        when(jdbcTemplate.update(any(PreparedStatementCreator.class))).thenAnswer(invocation -> {
+            PreparedStatement statement = mock(PreparedStatement.class);
+            Connection connection = mock(Connection.class, call -> statement);
+            invocation.<PreparedStatementCreator>getArgument(0).createPreparedStatement(connection);
+
+            int rows = 0;
+            for (Invocation call : mockingDetails(statement).getInvocations()) {
+                if (call.getMethod().getName().equals("setString") && (int) call.getArgument(0) % 15 == 1) {
+                    rows++;
+                    if (call.getArgument(1) == null) {
+                        statementRows.add(-rows);
+                        throw new DataIntegrityViolationException("null value in column \"user_id\"");
+                    }
+                }
+            }
+            statementRows.add(rows);
+            return rows;
+        });
+        writer = new AuthorizationAuditWriter(jdbcTemplate, true, 16, 16, 10,
+            AuthorizationAuditWriter.OverflowPolicy.DROP_NEWEST);
+    }
+
+    @Test
+    @DisplayName("Should write a batch with one multi-row insert")
+    void shouldWriteBatch() {
+        writer.record(event("u1"));
+        writer.record(event("u2"));
+
+        writer.start();
+        writer.shutdown();
+
+        assertEquals(2, writer.getWrittenEvents());
+        assertEquals(0, writer.getFailedEvents());
+        assertEquals(List.of(2), statementRows);
+    }
+
+    @Test
+    @DisplayName("Should retry a rejected batch row by row and drop only the bad row")
+    void shouldIsolateBadRow() {
+        writer.record(event("u1"));
+        writer.record(event(null));
+        writer.record(event("u3"));
+
+        writer.start();
+        writer.shutdown();
+
+        assertEquals(2, writer.getWrittenEvents());
+        assertEquals(1, writer.getFailedEvents());
+        assertEquals(List.of(-2, 1, -1, 1), statementRows);
+    }
+
+    @Test
+    @DisplayName("Should not retry row by row when the database is unavailable")
+    void shouldNotRetryTransientFailures() {
+        doThrow(new QueryTimeoutException("timeout")).when(jdbcTemplate).update(any(PreparedStatementCreator.class));
+        writer.record(event("u1"));
+        writer.record(event("u2"));
+
+        writer.start();
+        writer.shutdown();
+
+        assertEquals(0, writer.getWrittenEvents());
+        assertEquals(2, writer.getFailedEvents());
+        verify(jdbcTemplate, times(1)).update(any(PreparedStatementCreator.class));
+    }
+
+    private static AuthorizationAuditEvent event(String userId) {
+        return new AuthorizationAuditEvent(userId, null, null, "COMPLETE_TASK", "TASK", "t1",
+            "asset_request", "it_approval", null, true, null, null, null, LocalDateTime.now());
+    }
+}
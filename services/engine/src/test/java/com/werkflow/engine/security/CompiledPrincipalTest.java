@@ -0,0 +1,79 @@
+package com.werkflow.engine.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CompiledPrincipal and AuthorityIndex
+ */
+class CompiledPrincipalTest {
+
+    @Test
+    @DisplayName("Should answer role and group checks in any role spelling")
+    void shouldCheckRolesAndGroups() {
+        AuthorityIndex index = new AuthorityIndex(16);
+        CompiledPrincipal principal = CompiledPrincipal.compile(index, "token",
+            List.of(List.of("hr_manager"), List.of("Doa_Approver_Level2")), List.of("/HR/Managers"));
+
+        assertTrue(principal.hasRole("HR_MANAGER"));
+        assertTrue(principal.hasRole("doa_approver_level2"));
+        assertTrue(principal.hasAnyRole("FINANCE_MANAGER", "hr_manager"));
+        assertFalse(principal.hasRole("finance_manager"));
+        assertTrue(principal.isMemberOfGroup("/HR/Managers"));
+        assertFalse(principal.isMemberOfAnyGroup("/Finance", "/IT"));
+        assertEquals(Set.of("ROLE_HR_MANAGER", "ROLE_DOA_APPROVER_LEVEL2"), authorityNames(principal));
+    }
+
+    @Test
+    @DisplayName("Should not intern role names and groups used only in checks")
+    void shouldNotInternCheckSideNames() {
+        AuthorityIndex index = new AuthorityIndex(16);
+        CompiledPrincipal principal = CompiledPrincipal.compile(index, "token", List.of(List.of("employee")), null);
+        int size = index.size();
+
+        for (int level = 1; level <= 100; level++) {
+            assertFalse(principal.hasRole("doa_approver_level" + level));
+            assertFalse(principal.isMemberOfGroup("/dept-" + level));
+        }
+
+        assertEquals(size, index.size());
+        assertNull(principal.getGroups());
+    }
+
+    @Test
+    @DisplayName("Should keep token authorities beyond the index capacity by name")
+    void shouldKeepAuthoritiesBeyondCapacity() {
+        AuthorityIndex index = new AuthorityIndex(2);
+        CompiledPrincipal principal = CompiledPrincipal.compile(index, "token",
+            List.of(List.of("employee", "hr_manager", "finance_manager")), List.of("/HR", "/HR/Managers", "/IT"));
+
+        assertEquals(4, index.size());
+        assertTrue(principal.hasRole("employee"));
+        assertTrue(principal.hasRole("Finance_Manager"));
+        assertTrue(principal.isMemberOfGroup("/IT"));
+        assertFalse(principal.hasRole("legal_manager"));
+        assertEquals(Set.of("ROLE_EMPLOYEE", "ROLE_HR_MANAGER", "ROLE_FINANCE_MANAGER"), authorityNames(principal));
+    }
+
+    @Test
+    @DisplayName("Should share authority instances between principals")
+    void shouldShareAuthorities() {
+        AuthorityIndex index = new AuthorityIndex(16);
+        CompiledPrincipal first = CompiledPrincipal.compile(index, "a", List.of(List.of("employee")), null);
+        CompiledPrincipal second = CompiledPrincipal.compile(index, "b", List.of(List.of("EMPLOYEE")), null);
+
+        assertSame(first.getAuthorities().iterator().next(), second.getAuthorities().iterator().next());
+        assertSame(first.getAuthorities(), first.getAuthorities());
+    }
+
+    private static Set<String> authorityNames(CompiledPrincipal principal) {
+        return principal.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.toSet());
+    }
+}
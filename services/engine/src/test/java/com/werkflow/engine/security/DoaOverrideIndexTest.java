@@ -0,0 +1,100 @@
+package com.werkflow.engine.security;
+
+import com.werkflow.engine.entity.DoaOverride;
+import com.werkflow.engine.repository.DoaOverrideRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DoaOverrideIndex
+ */
+class DoaOverrideIndexTest {
+
+    private DoaOverrideRepository repository;
+    private DoaOverrideIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(DoaOverrideRepository.class);
+        index = new DoaOverrideIndex(repository);
+    }
+
+    @Test
+    @DisplayName("Should refresh incrementally even when no override was active at startup")
+    void shouldRefreshIncrementallyAfterEmptyLoad() {
+        index.load();
+        index.refresh();
+        index.refresh();
+
+        verify(repository, times(1)).findByRevokedFalseAndValidUntilAfter(any());
+        verify(repository, times(2)).findByUpdatedAtGreaterThanEqual(any());
+    }
+
+    @Test
+    @DisplayName("Should look back past the previous refresh for rows committed late")
+    void shouldLookBackForLateCommits() {
+        index.load();
+        LocalDateTime lateUpdatedAt = LocalDateTime.now().minusSeconds(30);
+        DoaOverride late = override("u1", 3, LocalDateTime.now().plusHours(1), lateUpdatedAt);
+        when(repository.findByUpdatedAtGreaterThanEqual(any())).thenReturn(List.of(late));
+
+        index.refresh();
+
+        ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(repository).findByUpdatedAtGreaterThanEqual(since.capture());
+        assertFalse(since.getValue().isAfter(LocalDateTime.now().minus(DoaOverrideIndex.COMMIT_LAG)));
+        assertEquals(3, index.getOverrideLevel("u1", LocalDateTime.now()));
+    }
+
+    @Test
+    @DisplayName("Should drop an override when its row is revoked")
+    void shouldApplyRevocation() {
+        DoaOverride active = override("u1", 3, LocalDateTime.now().plusHours(1), LocalDateTime.now().minusHours(1));
+        when(repository.findByRevokedFalseAndValidUntilAfter(any())).thenReturn(List.of(active));
+        index.load();
+        assertEquals(4, index.getEffectiveDoaLevel("u1", 4));
+        assertEquals(3, index.getEffectiveDoaLevel("u1", 1));
+
+        DoaOverride revoked = override("u1", 3, active.getValidUntil(), LocalDateTime.now());
+        revoked.setId(active.getId());
+        revoked.setRevoked(true);
+        when(repository.findByUpdatedAtGreaterThanEqual(any())).thenReturn(List.of(active, revoked));
+        index.refresh();
+
+        assertNull(index.getOverrideLevel("u1", LocalDateTime.now()));
+        assertEquals(1, index.getEffectiveDoaLevel("u1", 1));
+        assertTrue(index.getUsersWithActiveOverride().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should ignore expired overrides")
+    void shouldIgnoreExpiredOverrides() {
+        DoaOverride expired = override("u1", 3, LocalDateTime.now().minusMinutes(1), LocalDateTime.now().minusHours(1));
+        when(repository.findByRevokedFalseAndValidUntilAfter(any())).thenReturn(List.of(expired));
+
+        index.load();
+
+        assertNull(index.getOverrideLevel("u1", LocalDateTime.now()));
+    }
+
+    static DoaOverride override(String userId, int level, LocalDateTime validUntil, LocalDateTime updatedAt) {
+        return DoaOverride.builder()
+            .id(UUID.randomUUID())
+            .userId(userId)
+            .overrideDoaLevel(level)
+            .validFrom(validUntil.minusDays(1))
+            .validUntil(validUntil)
+            .reason("Covering for vacation")
+            .updatedAt(updatedAt)
+            .build();
+    }
+}
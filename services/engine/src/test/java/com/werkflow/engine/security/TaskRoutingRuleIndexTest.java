@@ -0,0 +1,102 @@
+package com.werkflow.engine.security;
+
+import com.werkflow.engine.entity.WorkflowRoleMapping;
+import com.werkflow.engine.repository.WorkflowRoleMappingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TaskRoutingRuleIndex
+ */
+class TaskRoutingRuleIndexTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    private WorkflowRoleMappingRepository repository;
+    private TaskRoutingRuleIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(WorkflowRoleMappingRepository.class);
+        when(repository.count()).thenReturn(1L);
+        when(repository.findLastUpdatedAt()).thenReturn(UPDATED_AT);
+        when(repository.findByIsActiveTrue()).thenReturn(List.of(
+            mapping("it_approval", new String[]{"/IT Department/Managers"}, null)));
+        index = new TaskRoutingRuleIndex(repository);
+        index.load();
+    }
+
+    @Test
+    @DisplayName("Should compile active mappings into rules")
+    void shouldCompileRules() {
+        TaskRoutingRule rule = index.getRule("asset_request", "it_approval");
+
+        assertEquals(List.of("asset_request_approver"), rule.requiredRoles());
+        assertEquals(List.of("/IT Department/Managers"), rule.requiredGroups());
+        assertNull(rule.customLogic());
+        assertNull(index.getRule("asset_request", "unknown"));
+    }
+
+    @Test
+    @DisplayName("Should not reload while row count and latest updated_at are unchanged")
+    void shouldSkipUnchangedTable() {
+        index.refresh();
+        index.refresh();
+
+        verify(repository, times(1)).findByIsActiveTrue();
+    }
+
+    @Test
+    @DisplayName("Should reload when the latest updated_at changes")
+    void shouldReloadOnUpdate() {
+        when(repository.findLastUpdatedAt()).thenReturn(UPDATED_AT.plusSeconds(1));
+        when(repository.findByIsActiveTrue()).thenReturn(List.of(
+            mapping("it_approval", null, " manager_id_match ")));
+
+        index.refresh();
+
+        assertEquals("manager_id_match", index.getRule("asset_request", "it_approval").customLogic());
+        assertTrue(index.getRule("asset_request", "it_approval").requiredGroups().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reload when the row count changes")
+    void shouldReloadOnCountChange() {
+        when(repository.count()).thenReturn(2L);
+        when(repository.findByIsActiveTrue()).thenReturn(List.of(
+            mapping("it_approval", null, null), mapping("procurement_approval", null, null)));
+
+        index.refresh();
+
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    @DisplayName("Should keep the last good rules when a reload fails")
+    void shouldKeepRulesOnFailure() {
+        when(repository.count()).thenReturn(2L);
+        when(repository.findByIsActiveTrue()).thenThrow(new IllegalStateException("connection refused"));
+
+        index.refresh();
+
+        assertEquals(1, index.size());
+        assertNotNull(index.getRule("asset_request", "it_approval"));
+    }
+
+    private static WorkflowRoleMapping mapping(String taskKey, String[] groups, String customLogic) {
+        return WorkflowRoleMapping.builder()
+            .workflowKey("asset_request")
+            .taskKey(taskKey)
+            .requiredRoles(new String[]{"asset_request_approver"})
+            .requiredGroups(groups)
+            .customLogic(customLogic)
+            .build();
+    }
+}
@@ -0,0 +1,87 @@
+package com.werkflow.engine.security;
+
+import com.werkflow.engine.entity.DoaOverride;
+import com.werkflow.engine.repository.DoaOverrideRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DOA decisions in WorkflowAuthorizationService
+ */
+class WorkflowAuthorizationServiceTest {
+
+    private static final BigDecimal LEVEL3_AMOUNT = BigDecimal.valueOf(50000);
+
+    private DoaOverrideRepository overrideRepository;
+    private WorkflowAuthorizationService service;
+
+    @BeforeEach
+    void setUp() {
+        overrideRepository = mock(DoaOverrideRepository.class);
+    }
+
+    @Test
+    @DisplayName("Should allow an approver whose role and level cover the amount")
+    void shouldAllowByTokenLevel() {
+        loadOverrides();
+
+        assertTrue(service.canApproveByDoaLevel(financeApprover(3), LEVEL3_AMOUNT));
+        assertFalse(service.canApproveByDoaLevel(financeApprover(1), LEVEL3_AMOUNT));
+    }
+
+    @Test
+    @DisplayName("Should allow an approver whose active override raises the level")
+    void shouldAllowByOverride() {
+        loadOverrides(DoaOverrideIndexTest.override("u1", 3, LocalDateTime.now().plusHours(1), LocalDateTime.now()));
+
+        assertEquals(3, service.getEffectiveDoaLevel(financeApprover(1)));
+        assertTrue(service.canApproveByDoaLevel(financeApprover(1), LEVEL3_AMOUNT));
+    }
+
+    @Test
+    @DisplayName("Should deny once the override has expired")
+    void shouldDenyAfterOverrideExpired() {
+        loadOverrides(DoaOverrideIndexTest.override("u1", 3, LocalDateTime.now().minusMinutes(1), LocalDateTime.now()));
+
+        assertEquals(1, service.getEffectiveDoaLevel(financeApprover(1)));
+        assertFalse(service.canApproveByDoaLevel(financeApprover(1), LEVEL3_AMOUNT));
+    }
+
+    @Test
+    @DisplayName("Should deny an override that does not reach the required level")
+    void shouldDenyInsufficientOverride() {
+        loadOverrides(DoaOverrideIndexTest.override("u1", 2, LocalDateTime.now().plusHours(1), LocalDateTime.now()));
+
+        assertFalse(service.canApproveByDoaLevel(financeApprover(1), LEVEL3_AMOUNT));
+    }
+
+    private void loadOverrides(DoaOverride... overrides) {
+        DoaOverrideIndex index = new DoaOverrideIndex(overrideRepository);
+        when(overrideRepository.findByRevokedFalseAndValidUntilAfter(any())).thenReturn(List.of(overrides));
+        index.load();
+        service = new WorkflowAuthorizationService(new KeycloakRoleExtractor(),
+            mock(AuthorizationAuditWriter.class), index);
+    }
+
+    private static Jwt financeApprover(int doaLevel) {
+        return new Jwt("token-" + doaLevel, Instant.now(), Instant.now().plusSeconds(300),
+            Map.of("alg", "RS256"),
+            Map.of(
+                "sub", "u1",
+                "doa_level", doaLevel,
+                "realm_access", Map.of("roles", List.of("doa_approver_level" + doaLevel)),
+                "groups", List.of("/Finance Department/Approvers")
+            ));
+    }
+}
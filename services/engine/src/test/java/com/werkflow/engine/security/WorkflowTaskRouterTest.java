@@ -0,0 +1,72 @@
+package com.werkflow.engine.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for rule-based task routing in WorkflowTaskRouter
+ */
+class WorkflowTaskRouterTest {
+
+    private KeycloakUserService keycloakUserService;
+    private TaskRoutingRuleIndex ruleIndex;
+    private WorkflowTaskRouter router;
+
+    @BeforeEach
+    void setUp() {
+        keycloakUserService = mock(KeycloakUserService.class);
+        ruleIndex = mock(TaskRoutingRuleIndex.class);
+        router = new WorkflowTaskRouter(keycloakUserService, ruleIndex, mock(DoaOverrideIndex.class));
+    }
+
+    @Test
+    @DisplayName("Should return the members of the required groups without duplicates")
+    void shouldRouteToGroupMembers() {
+        rule("it_approval", List.of("/IT Department/Managers", "/IT Department/POC"), null);
+        when(keycloakUserService.getGroupMembers("/IT Department/Managers")).thenReturn(List.of("u1", "u2"));
+        when(keycloakUserService.getGroupMembers("/IT Department/POC")).thenReturn(List.of("u2", "u3"));
+
+        assertEquals(List.of("u1", "u2", "u3"), router.getTaskCandidates("asset_request", "it_approval", Map.of()));
+    }
+
+    @Test
+    @DisplayName("Should fail when the required groups have no members")
+    void shouldFailOnEmptyGroups() {
+        rule("it_approval", List.of("/IT Department/Managers"), null);
+        when(keycloakUserService.getGroupMembers("/IT Department/Managers")).thenReturn(List.of());
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+            () -> router.getTaskCandidates("asset_request", "it_approval", Map.of()));
+        assertTrue(e.getMessage().startsWith("No approvers found"));
+    }
+
+    @Test
+    @DisplayName("Should not expand role-only rules into every holder of the role")
+    void shouldNotExpandRoleOnlyRules() {
+        rule("submit_request", List.of(), null);
+
+        assertEquals(List.of(), router.getTaskCandidates("asset_request", "submit_request", Map.of()));
+        verify(keycloakUserService, never()).getUsersWithRole(anyString());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown custom logic")
+    void shouldRejectUnknownCustomLogic() {
+        rule("it_approval", List.of(), "round_robin");
+
+        assertThrows(IllegalStateException.class,
+            () -> router.getTaskCandidates("asset_request", "it_approval", Map.of()));
+    }
+
+    private void rule(String taskKey, List<String> groups, String customLogic) {
+        when(ruleIndex.getRule("asset_request", taskKey)).thenReturn(
+            new TaskRoutingRule("asset_request", taskKey, List.of("employee"), groups, customLogic));
+    }
+}
@@ -25,7 +25,7 @@ public class BudgetAvailabilityDelegate implements JavaDelegate {
 
     @Override
     public void execute(DelegateExecution execution) {
-        log.info("Executing BudgetAvailabilityDelegate for process instance: {}",
+        log.debug("Executing BudgetAvailabilityDelegate for process instance: {}",
                  execution.getProcessInstanceId());
 
         try {
@@ -34,7 +34,7 @@ public class BudgetAvailabilityDelegate implements JavaDelegate {
             String costCenter = (String) execution.getVariable("costCenter");
             Integer fiscalYear = (Integer) execution.getVariable("fiscalYear");
 
-            log.info("Checking budget availability - Department: {}, Amount: {}, Cost Center: {}, Fiscal Year: {}",
+            log.debug("Checking budget availability - Department: {}, Amount: {}, Cost Center: {}, Fiscal Year: {}",
                      departmentId, requestedAmount, costCenter, fiscalYear);
 
             BudgetCheckRequest request = BudgetCheckRequest.builder()
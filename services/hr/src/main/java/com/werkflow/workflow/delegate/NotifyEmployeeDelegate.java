@@ -17,7 +17,7 @@ public class NotifyEmployeeDelegate implements JavaDelegate {
 
     @Override
     public void execute(DelegateExecution execution) {
-        log.info("Executing NotifyEmployeeDelegate for process instance: {}", execution.getProcessInstanceId());
+        log.debug("Executing NotifyEmployeeDelegate for process instance: {}", execution.getProcessInstanceId());
 
         Long employeeId = (Long) execution.getVariable("employeeId");
         String employeeName = (String) execution.getVariable("employeeName");
@@ -19,7 +19,7 @@ public class NotifyHRDelegate implements JavaDelegate {
 
     @Override
     public void execute(DelegateExecution execution) {
-        log.info("Executing NotifyHRDelegate for process instance: {}", execution.getProcessInstanceId());
+        log.debug("Executing NotifyHRDelegate for process instance: {}", execution.getProcessInstanceId());
 
         Long leaveId = (Long) execution.getVariable("leaveId");
         Long employeeId = (Long) execution.getVariable("employeeId");
@@ -19,7 +19,7 @@ public class NotifyReviewStakeholdersDelegate implements JavaDelegate {
 
     @Override
     public void execute(DelegateExecution execution) {
-        log.info("Executing NotifyReviewStakeholdersDelegate for process instance: {}", execution.getProcessInstanceId());
+        log.debug("Executing NotifyReviewStakeholdersDelegate for process instance: {}", execution.getProcessInstanceId());
 
         Long reviewId = (Long) execution.getVariable("reviewId");
         Long employeeId = (Long) execution.getVariable("employeeId");
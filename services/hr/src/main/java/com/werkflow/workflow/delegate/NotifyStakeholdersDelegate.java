@@ -17,7 +17,7 @@ public class NotifyStakeholdersDelegate implements JavaDelegate {
 
     @Override
     public void execute(DelegateExecution execution) {
-        log.info("Executing NotifyStakeholdersDelegate for process instance: {}", execution.getProcessInstanceId());
+        log.debug("Executing NotifyStakeholdersDelegate for process instance: {}", execution.getProcessInstanceId());
 
         Long employeeId = (Long) execution.getVariable("employeeId");
         String employeeName = (String) execution.getVariable("employeeName");
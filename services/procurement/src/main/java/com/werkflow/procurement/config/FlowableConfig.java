@@ -0,0 +1,26 @@
+package com.werkflow.procurement.config;
+
+import com.werkflow.common.delegate.DelegateMetricsInterceptor;
+import org.flowable.spring.SpringProcessEngineConfiguration;
+import org.flowable.spring.boot.EngineConfigurationConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Flowable Engine Configuration
+ *
+ * Registers the shared delegate metrics (werkflow-common) on the embedded process engine,
+ * so this service's delegates are timed and end in a delegate_execution event like those
+ * of the engine service (see app.delegates.metrics).
+ */
+@Configuration
+@ComponentScan("com.werkflow.common.delegate")
+public class FlowableConfig {
+
+    @Bean
+    public EngineConfigurationConfigurer<SpringProcessEngineConfiguration> delegateMetricsConfigurer(
+            DelegateMetricsInterceptor delegateMetricsInterceptor) {
+        return engineConfiguration -> engineConfiguration.setDelegateInterceptor(delegateMetricsInterceptor);
+    }
+}
@@ -28,7 +28,7 @@ public class PurchaseOrderCreationDelegate implements JavaDelegate {
 
     @Override
     public void execute(DelegateExecution execution) {
-        log.info("Executing PurchaseOrderCreationDelegate - Process Instance: {}",
+        log.debug("Executing PurchaseOrderCreationDelegate - Process Instance: {}",
                  execution.getProcessInstanceId());
 
         try {
@@ -36,7 +36,7 @@ public class PurchaseOrderCreationDelegate implements JavaDelegate {
             Long vendorId = (Long) execution.getVariable("selectedVendorId");
             String deliveryAddress = (String) execution.getVariable("deliveryAddress");
 
-            log.info("Creating PO for PR: {}, Vendor: {}", prId, vendorId);
+            log.debug("Creating PO for PR: {}, Vendor: {}", prId, vendorId);
 
             // Fetch vendor
             Vendor vendor = vendorRepository.findById(vendorId)
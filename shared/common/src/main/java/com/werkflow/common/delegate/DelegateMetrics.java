@@ -0,0 +1,217 @@
+package com.werkflow.common.delegate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.bpmn.model.FlowElement;
+import org.flowable.bpmn.model.ImplementationType;
+import org.flowable.bpmn.model.ServiceTask;
+import org.flowable.engine.delegate.DelegateExecution;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-delegate execution metrics and sampled execution events
+ *
+ * Meters (tag "delegate": the delegate's bean name, e.g. restServiceDelegate):
+ * - werkflow.delegate.execution: timer, tag "outcome" success or error; for a
+ *   FutureJavaDelegate it runs until the future completes
+ * - werkflow.delegate.errors: counter, tag "exception" (simple class name)
+ * - werkflow.delegate.variable.reads: process variables read through DelegateVariables
+ * - werkflow.delegate.variable.bytes.written: estimated size of variables written through
+ *   DelegateVariables
+ * - werkflow.delegate.retries: failed attempts scheduled for retry, tag "source" (job or
+ *   outbox); werkflow.delegate.retry.backoff: the delays they were scheduled with
+ * - werkflow.delegate.dead.letters: work given up on, tag "reason" exhausted or permanent
+ * - werkflow.delegate.dead.letters.resolved: dead letters retried or discarded by an
+ *   operator, tags "source" and "action" (no delegate tag)
+ *
+ * Each invocation ends with one "delegate_execution" event in key=value form; successful,
+ * fast invocations are sampled (app.delegates.metrics.event-sample-rate).
+ */
+@Slf4j
+@Component
+public class DelegateMetrics {
+
+    private static final String PREFIX = "werkflow.delegate";
+    private static final String UNKNOWN = "unknown";
+
+    private final MeterRegistry registry;
+    private final DelegateMetricsProperties properties;
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+    private final Map<String, String> names = new ConcurrentHashMap<>();
+
+    public DelegateMetrics(ObjectProvider<MeterRegistry> registry, DelegateMetricsProperties properties) {
+        this.registry = registry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.properties = properties;
+    }
+
+    DelegateScope open(Object target, DelegateExecution execution) {
+        return new DelegateScope(delegateName(execution, target),
+            execution != null ? execution.getProcessInstanceId() : null,
+            execution != null ? execution.getCurrentActivityId() : null);
+    }
+
+    void complete(DelegateScope scope, Throwable failure) {
+        long durationNanos = System.nanoTime() - scope.startNanos;
+        Meters delegateMeters = meters(scope.delegate);
+        (failure == null ? delegateMeters.success() : delegateMeters.failure())
+            .record(durationNanos, TimeUnit.NANOSECONDS);
+        if (scope.variableReads > 0) {
+            delegateMeters.variableReads().increment(scope.variableReads);
+        }
+        if (scope.bytesWritten > 0) {
+            delegateMeters.bytesWritten().increment(scope.bytesWritten);
+        }
+
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        if (failure != null) {
+            registry.counter(PREFIX + ".errors", "delegate", scope.delegate,
+                "exception", failure.getClass().getSimpleName()).increment();
+            log.warn("delegate_execution delegate={} processInstanceId={} activityId={} outcome=error " +
+                    "durationMs={} variableReads={} bytesWritten={} error=\"{}\"", scope.delegate,
+                scope.processInstanceId, scope.activityId, durationMs, scope.variableReads, scope.bytesWritten,
+                failure.getMessage());
+        } else if (durationMs >= properties.getSlowThresholdMs()
+            || ThreadLocalRandom.current().nextDouble() < properties.getEventSampleRate()) {
+            log.info("delegate_execution delegate={} processInstanceId={} activityId={} outcome=success " +
+                    "durationMs={} variableReads={} bytesWritten={}", scope.delegate, scope.processInstanceId,
+                scope.activityId, durationMs, scope.variableReads, scope.bytesWritten);
+        }
+    }
+
+    void recordReads(DelegateExecution execution, int count) {
+        DelegateScope scope = DelegateScope.current();
+        if (scope != null) {
+            scope.variableReads += count;
+        } else if (properties.getEnabled()) {
+            // Outside an intercepted invocation, e.g. FutureJavaDelegate.afterExecution
+            meters(delegateName(execution, null)).variableReads().increment(count);
+        }
+    }
+
+    void recordWrite(DelegateExecution execution, long bytes) {
+        DelegateScope scope = DelegateScope.current();
+        if (scope != null) {
+            scope.bytesWritten += bytes;
+        } else if (properties.getEnabled()) {
+            meters(delegateName(execution, null)).bytesWritten().increment(bytes);
+        }
+    }
+
+    /**
+     * A failed attempt was scheduled for retry after delay
+     *
+     * @param source job or outbox
+     */
+    public void recordRetry(String delegate, String source, Duration delay) {
+        registry.counter(PREFIX + ".retries", "delegate", delegate, "source", source).increment();
+        DistributionSummary.builder(PREFIX + ".retry.backoff")
+            .description("Delay before a retry")
+            .baseUnit("milliseconds")
+            .tag("delegate", delegate)
+            .register(registry)
+            .record(delay.toMillis());
+    }
+
+    /**
+     * Work was given up on and left for an operator to retry or discard
+     *
+     * @param retryable False if the failure was classified as permanent
+     */
+    public void recordDeadLetter(String delegate, boolean retryable) {
+        registry.counter(PREFIX + ".dead.letters", "delegate", delegate,
+            "reason", retryable ? "exhausted" : "permanent").increment();
+    }
+
+    /**
+     * Dead letters retried or discarded by an operator
+     *
+     * @param action retry or discard
+     */
+    public void recordDeadLettersResolved(String source, String action, int count) {
+        registry.counter(PREFIX + ".dead.letters.resolved", "source", source, "action", action).increment(count);
+    }
+
+    /**
+     * Bean name of the delegate: taken from a ${beanName} delegate expression, otherwise
+     * derived from the delegate class the way Spring names beans
+     */
+    String delegateName(DelegateExecution execution, Object target) {
+        String name = delegateName(execution != null ? execution.getCurrentFlowElement() : null);
+        if (name != null) {
+            return name;
+        }
+        return target != null ? beanName(ClassUtils.getUserClass(target).getName()) : UNKNOWN;
+    }
+
+    /**
+     * Bean name of the delegate a service task calls, from its delegate expression or class
+     *
+     * @return Bean name, or null if the element is not such a service task
+     */
+    public String delegateName(FlowElement element) {
+        if (element instanceof ServiceTask task && task.getImplementation() != null) {
+            return names.computeIfAbsent(task.getImplementation(),
+                implementation -> nameOf(task.getImplementationType(), implementation));
+        }
+        return null;
+    }
+
+    private Meters meters(String delegate) {
+        return meters.computeIfAbsent(delegate, name -> new Meters(
+            timer(name, "success"),
+            timer(name, "error"),
+            Counter.builder(PREFIX + ".variable.reads")
+                .description("Process variables read by the delegate")
+                .tag("delegate", name)
+                .register(registry),
+            Counter.builder(PREFIX + ".variable.bytes.written")
+                .description("Estimated size of process variables written by the delegate")
+                .baseUnit("bytes")
+                .tag("delegate", name)
+                .register(registry)));
+    }
+
+    private Timer timer(String delegate, String outcome) {
+        return Timer.builder(PREFIX + ".execution")
+            .description("Delegate execution time")
+            .tag("delegate", delegate)
+            .tag("outcome", outcome)
+            .publishPercentileHistogram(properties.getPercentileHistogram())
+            .register(registry);
+    }
+
+    private static String nameOf(String implementationType, String implementation) {
+        String expression = implementation.trim();
+        if (ImplementationType.IMPLEMENTATION_TYPE_DELEGATEEXPRESSION.equals(implementationType)
+            && expression.startsWith("${") && expression.endsWith("}")) {
+            String bean = expression.substring(2, expression.length() - 1).trim();
+            if (!bean.isEmpty() && bean.chars().allMatch(Character::isJavaIdentifierPart)) {
+                return bean;
+            }
+        }
+        if (ImplementationType.IMPLEMENTATION_TYPE_CLASS.equals(implementationType)) {
+            return beanName(expression);
+        }
+        return null;
+    }
+
+    private static String beanName(String className) {
+        return StringUtils.uncapitalize(ClassUtils.getShortName(className));
+    }
+
+    private record Meters(Timer success, Timer failure, Counter variableReads, Counter bytesWritten) {
+    }
+}
@@ -0,0 +1,72 @@
+package com.werkflow.common.delegate;
+
+import lombok.RequiredArgsConstructor;
+import org.flowable.engine.delegate.DelegateExecution;
+import org.flowable.engine.impl.delegate.invocation.DelegateInterceptor;
+import org.flowable.engine.impl.delegate.invocation.DelegateInvocation;
+import org.flowable.engine.impl.delegate.invocation.FutureJavaDelegateInvocation;
+import org.flowable.engine.impl.delegate.invocation.JavaDelegateInvocation;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Engine delegate interceptor that instruments every JavaDelegate and FutureJavaDelegate
+ *
+ * Registered on the process engine configuration (setDelegateInterceptor), so delegates
+ * need no instrumentation code of their own. While a delegate runs, variable access
+ * through DelegateVariables is counted against it. A FutureJavaDelegate is timed until
+ * its future completes; a DelegateOutcome result with a failure counts as an error.
+ * Listener and expression invocations are passed through unchanged.
+ */
+@Component
+@RequiredArgsConstructor
+public class DelegateMetricsInterceptor implements DelegateInterceptor {
+
+    private final DelegateMetrics metrics;
+    private final DelegateMetricsProperties properties;
+
+    @Override
+    public void handleInvocation(DelegateInvocation invocation) {
+        if (!properties.getEnabled()
+            || !(invocation instanceof JavaDelegateInvocation || invocation instanceof FutureJavaDelegateInvocation)) {
+            invocation.proceed();
+            return;
+        }
+
+        DelegateScope scope = metrics.open(invocation.getTarget(), executionOf(invocation));
+        DelegateScope previous = DelegateScope.enter(scope);
+        try {
+            invocation.proceed();
+        } catch (RuntimeException | Error e) {
+            metrics.complete(scope, e);
+            throw e;
+        } finally {
+            DelegateScope.restore(previous);
+        }
+
+        if (invocation.getInvocationResult() instanceof CompletableFuture<?> future) {
+            future.whenComplete((result, error) -> metrics.complete(scope,
+                error != null ? unwrap(error) : result instanceof DelegateOutcome outcome ? outcome.error() : null));
+        } else {
+            metrics.complete(scope, null);
+        }
+    }
+
+    private static DelegateExecution executionOf(DelegateInvocation invocation) {
+        Object[] parameters = invocation.getInvocationParameters();
+        if (parameters != null) {
+            for (Object parameter : parameters) {
+                if (parameter instanceof DelegateExecution execution) {
+                    return execution;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
@@ -0,0 +1,27 @@
+package com.werkflow.common.delegate;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Delegate execution metrics and event settings
+ *
+ * Errors and invocations slower than slowThresholdMs are always logged as an event; other
+ * invocations only with probability eventSampleRate.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.delegates.metrics")
+@Getter
+@Setter
+public class DelegateMetricsProperties {
+
+    private Boolean enabled = true;
+    private Double eventSampleRate = 0.01;
+    private Long slowThresholdMs = 2000L;
+    /**
+     * Publish histogram buckets for werkflow.delegate.execution (percentiles in Prometheus)
+     */
+    private Boolean percentileHistogram = true;
+}
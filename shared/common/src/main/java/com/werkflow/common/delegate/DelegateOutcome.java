@@ -0,0 +1,15 @@
+package com.werkflow.common.delegate;
+
+/**
+ * Result of a FutureJavaDelegate that carries its failure instead of completing exceptionally
+ *
+ * The failure is rethrown by afterExecution, which the engine calls without going through
+ * the delegate interceptor; implementing this lets DelegateMetricsInterceptor count it.
+ */
+public interface DelegateOutcome {
+
+    /**
+     * @return Failure of the delegate's work, or null if it succeeded
+     */
+    Throwable error();
+}
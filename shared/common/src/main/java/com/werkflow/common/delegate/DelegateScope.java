@@ -0,0 +1,43 @@
+package com.werkflow.common.delegate;
+
+/**
+ * Counters of one delegate invocation, bound to the engine thread while the delegate runs
+ */
+final class DelegateScope {
+
+    private static final ThreadLocal<DelegateScope> CURRENT = new ThreadLocal<>();
+
+    final String delegate;
+    final String processInstanceId;
+    final String activityId;
+    final long startNanos = System.nanoTime();
+    int variableReads;
+    long bytesWritten;
+
+    DelegateScope(String delegate, String processInstanceId, String activityId) {
+        this.delegate = delegate;
+        this.processInstanceId = processInstanceId;
+        this.activityId = activityId;
+    }
+
+    static DelegateScope current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @return Scope of the enclosing invocation, to be restored afterwards
+     */
+    static DelegateScope enter(DelegateScope scope) {
+        DelegateScope previous = CURRENT.get();
+        CURRENT.set(scope);
+        return previous;
+    }
+
+    static void restore(DelegateScope previous) {
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.werkflow.common.delegate;
+
+import lombok.RequiredArgsConstructor;
+import org.flowable.engine.delegate.DelegateExecution;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Process variable access for delegates, counted in the delegate metrics
+ *
+ * Written sizes are estimates (string length, 8 bytes per number, nested maps and
+ * collections summed), cheap enough for every write; they track payload growth, not the
+ * exact serialized size in ACT_RU_VARIABLE.
+ */
+@Component
+@RequiredArgsConstructor
+public class DelegateVariables {
+
+    private static final long SCALAR_SIZE = 8;
+    private static final long OBJECT_SIZE = 64;
+
+    private final DelegateMetrics metrics;
+
+    /**
+     * @throws IllegalArgumentException if the variable is not set or blank
+     */
+    public String getRequired(DelegateExecution execution, String variableName) {
+        Object value = read(execution, variableName);
+        if (value == null || value.toString().trim().isEmpty()) {
+            throw new IllegalArgumentException("Required variable '" + variableName + "' is not set");
+        }
+        return value.toString();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the variable is not set
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getRequiredValue(DelegateExecution execution, String variableName) {
+        Object value = read(execution, variableName);
+        if (value == null) {
+            throw new IllegalArgumentException("Required variable '" + variableName + "' is not set");
+        }
+        return (T) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(DelegateExecution execution, String variableName, T defaultValue) {
+        Object value = read(execution, variableName);
+        return value != null ? (T) value : defaultValue;
+    }
+
+    /**
+     * Values of the given variables that are set, without loading the others
+     */
+    public Map<String, Object> getAll(DelegateExecution execution, Collection<String> variableNames) {
+        if (variableNames.isEmpty()) {
+            return new HashMap<>();
+        }
+        metrics.recordReads(execution, variableNames.size());
+        return new HashMap<>(execution.getVariables(variableNames, false));
+    }
+
+    public void set(DelegateExecution execution, String variableName, Object value) {
+        execution.setVariable(variableName, value);
+        metrics.recordWrite(execution, estimateSize(value));
+    }
+
+    public void setAll(DelegateExecution execution, Map<String, ?> variables) {
+        execution.setVariables(variables);
+        metrics.recordWrite(execution, estimateSize(variables));
+    }
+
+    private Object read(DelegateExecution execution, String variableName) {
+        metrics.recordReads(execution, 1);
+        return execution.getVariable(variableName);
+    }
+
+    static long estimateSize(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof CharSequence text) {
+            return text.length();
+        }
+        if (value instanceof byte[] bytes) {
+            return bytes.length;
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+            return SCALAR_SIZE;
+        }
+        if (value instanceof Map<?, ?> map) {
+            long size = 0;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                size += estimateSize(entry.getKey()) + estimateSize(entry.getValue());
+            }
+            return size;
+        }
+        if (value instanceof Collection<?> collection) {
+            long size = 0;
+            for (Object element : collection) {
+                size += estimateSize(element);
+            }
+            return size;
+        }
+        return OBJECT_SIZE;
+    }
+}
@@ -0,0 +1,228 @@
+package com.werkflow.common.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JwtDecoder that caches successfully validated tokens.
+ *
+ * Portals send the same bearer token on every request of a session, so the RSA signature
+ * check and claim validation only need to run once per token. Decoded tokens are cached by
+ * the SHA-256 hash of the token value until shortly before their expiry; after that the
+ * token is decoded (and rejected) by the delegate as usual.
+ *
+ * Revocation hooks:
+ * - {@link #revokeToken(String)} rejects a single token until it expires
+ * - {@link #revokeSubject(String)} rejects all tokens of a subject issued before the current
+ *   second (e.g. on logout or role change); tokens issued afterwards are accepted again
+ * - {@link #invalidateAll()} drops all cached tokens, e.g. after a signing key rotation
+ *
+ * Expired cache entries and revocations are pruned at most once per {@link #PRUNE_INTERVAL}
+ * on the decode path, and whenever the cache is full. A revoked token is forgotten once it
+ * expires, a revoked subject once every token issued before the revocation has expired,
+ * i.e. after the maximum token lifetime.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    static final Duration PRUNE_INTERVAL = Duration.ofMinutes(1);
+
+    /**
+     * Keycloak access token lifespan of the werkflow realm
+     */
+    public static final Duration DEFAULT_MAX_TOKEN_LIFETIME = Duration.ofHours(1);
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingJwtDecoder.class);
+
+    private final JwtDecoder delegate;
+    private final int maxEntries;
+    private final Duration expirySkew;
+    private final Duration maxTokenLifetime;
+    private final Clock clock;
+
+    private final Map<String, Jwt> cache = new ConcurrentHashMap<>();
+    private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<String, Revocation> revokedSubjects = new ConcurrentHashMap<>();
+    private final AtomicLong nextPruneAt;
+
+    public CachingJwtDecoder(JwtDecoder delegate, int maxEntries, Duration expirySkew) {
+        this(delegate, maxEntries, expirySkew, DEFAULT_MAX_TOKEN_LIFETIME);
+    }
+
+    public CachingJwtDecoder(JwtDecoder delegate, int maxEntries, Duration expirySkew, Duration maxTokenLifetime) {
+        this(delegate, maxEntries, expirySkew, maxTokenLifetime, Clock.systemUTC());
+    }
+
+    CachingJwtDecoder(JwtDecoder delegate, int maxEntries, Duration expirySkew, Duration maxTokenLifetime, Clock clock) {
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.expirySkew = expirySkew;
+        this.maxTokenLifetime = maxTokenLifetime;
+        this.clock = clock;
+        this.nextPruneAt = new AtomicLong(clock.millis() + PRUNE_INTERVAL.toMillis());
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = hash(token);
+        Instant now = clock.instant();
+        pruneIfDue(now);
+
+        if (revokedTokens.containsKey(key)) {
+            throw new BadJwtException("Token has been revoked");
+        }
+
+        Jwt cached = cache.get(key);
+        if (cached != null) {
+            if (isUsable(cached, token, now)) {
+                return cached;
+            }
+            cache.remove(key, cached);
+        }
+
+        Jwt jwt = delegate.decode(token);
+        if (isRevokedSubject(jwt)) {
+            throw new BadJwtException("Token has been revoked");
+        }
+
+        if (isCacheable(jwt, now)) {
+            if (cache.size() >= maxEntries) {
+                evict(now);
+            }
+            cache.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    /**
+     * Reject a token until it expires, regardless of its signature
+     *
+     * @param token Raw bearer token
+     */
+    public void revokeToken(String token) {
+        String key = hash(token);
+        Jwt jwt = cache.remove(key);
+        if (jwt == null) {
+            try {
+                jwt = delegate.decode(token);
+            } catch (JwtException e) {
+                // Already rejected by the delegate, nothing to remember
+                return;
+            }
+        }
+        Instant expiresAt = jwt.getExpiresAt() != null ? jwt.getExpiresAt() : clock.instant().plus(maxTokenLifetime);
+        revokedTokens.put(key, expiresAt);
+        logger.info("Revoked JWT for subject: {}", jwt.getSubject());
+    }
+
+    /**
+     * Reject all tokens of a subject issued before the current second
+     *
+     * @param subject Keycloak user ID
+     */
+    public void revokeSubject(String subject) {
+        Instant now = clock.instant();
+        revokedSubjects.put(subject, new Revocation(now.truncatedTo(ChronoUnit.SECONDS), now.plus(maxTokenLifetime)));
+        cache.values().removeIf(jwt -> subject.equals(jwt.getSubject()));
+        logger.info("Revoked cached JWTs for subject: {}", subject);
+    }
+
+    /**
+     * Drop all cached tokens; revocations are kept
+     */
+    public void invalidateAll() {
+        cache.clear();
+        logger.info("Invalidated JWT cache");
+    }
+
+    /**
+     * Number of cached tokens
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Number of remembered token and subject revocations
+     */
+    public int revocations() {
+        return revokedTokens.size() + revokedSubjects.size();
+    }
+
+    private boolean isUsable(Jwt jwt, String token, Instant now) {
+        return jwt.getTokenValue().equals(token) && isFresh(jwt, now) && !isRevokedSubject(jwt);
+    }
+
+    private boolean isCacheable(Jwt jwt, Instant now) {
+        return jwt.getExpiresAt() != null && isFresh(jwt, now);
+    }
+
+    private boolean isFresh(Jwt jwt, Instant now) {
+        return now.isBefore(jwt.getExpiresAt().minus(expirySkew));
+    }
+
+    /**
+     * Tokens issued within the revocation second are accepted, since iat has second precision
+     */
+    private boolean isRevokedSubject(Jwt jwt) {
+        if (revokedSubjects.isEmpty() || jwt.getSubject() == null) {
+            return false;
+        }
+        Revocation revocation = revokedSubjects.get(jwt.getSubject());
+        return revocation != null && (jwt.getIssuedAt() == null || jwt.getIssuedAt().isBefore(revocation.issuedBefore()));
+    }
+
+    private void pruneIfDue(Instant now) {
+        long due = nextPruneAt.get();
+        if (now.toEpochMilli() >= due
+            && nextPruneAt.compareAndSet(due, now.toEpochMilli() + PRUNE_INTERVAL.toMillis())) {
+            prune(now);
+        }
+    }
+
+    private void prune(Instant now) {
+        cache.values().removeIf(jwt -> !isFresh(jwt, now));
+        revokedTokens.values().removeIf(expiresAt -> !now.isBefore(expiresAt));
+        revokedSubjects.values().removeIf(revocation -> !now.isBefore(revocation.keepUntil()));
+    }
+
+    private void evict(Instant now) {
+        prune(now);
+
+        // Still full: drop arbitrary entries, they will simply be decoded again
+        Iterator<String> keys = cache.keySet().iterator();
+        while (cache.size() >= maxEntries && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private record Revocation(Instant issuedBefore, Instant keepUntil) {
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.werkflow.common.delegate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flowable.engine.delegate.DelegateExecution;
+import org.flowable.engine.delegate.JavaDelegate;
+import org.flowable.engine.impl.delegate.invocation.JavaDelegateInvocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the delegate metrics interceptor
+ */
+class DelegateMetricsInterceptorTest {
+
+    private MeterRegistry registry;
+    private DelegateVariables variables;
+    private DelegateMetricsInterceptor interceptor;
+    private DelegateExecution execution;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        DelegateMetricsProperties properties = new DelegateMetricsProperties();
+        DelegateMetrics metrics = new DelegateMetrics(
+            new StaticListableBeanFactory(Map.of("registry", registry)).getBeanProvider(MeterRegistry.class),
+            properties);
+        variables = new DelegateVariables(metrics);
+        interceptor = new DelegateMetricsInterceptor(metrics, properties);
+
+        execution = mock(DelegateExecution.class);
+        when(execution.getVariable("url")).thenReturn("http://localhost");
+        when(execution.getVariable("method")).thenReturn(null);
+    }
+
+    @Test
+    @DisplayName("Should time the invocation and count variable reads and written bytes")
+    void shouldRecordSuccessfulInvocation() {
+        JavaDelegate delegate = exec -> {
+            variables.getRequired(exec, "url");
+            variables.get(exec, "method", "POST");
+            variables.set(exec, "status", "DONE");
+        };
+
+        interceptor.handleInvocation(new JavaDelegateInvocation(delegate, execution));
+
+        assertEquals(1, registry.get("werkflow.delegate.execution").tag("outcome", "success").timer().count());
+        assertEquals(2, registry.get("werkflow.delegate.variable.reads").counter().count());
+        assertEquals(4, registry.get("werkflow.delegate.variable.bytes.written").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should count failures and rethrow them")
+    void shouldRecordFailedInvocation() {
+        JavaDelegate delegate = exec -> variables.getRequired(exec, "missing");
+
+        assertThrows(IllegalArgumentException.class,
+            () -> interceptor.handleInvocation(new JavaDelegateInvocation(delegate, execution)));
+
+        assertEquals(1, registry.get("werkflow.delegate.execution").tag("outcome", "error").timer().count());
+        assertEquals(1, registry.get("werkflow.delegate.errors")
+            .tag("exception", "IllegalArgumentException").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should estimate nested variable sizes")
+    void shouldEstimateSizes() {
+        assertEquals(0, DelegateVariables.estimateSize(null));
+        assertEquals(5 + 8 + 4 + 2 + 3,
+            DelegateVariables.estimateSize(Map.of("count", 1, "list", List.of("ab", "cde"))));
+    }
+}
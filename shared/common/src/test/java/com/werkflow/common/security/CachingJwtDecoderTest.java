@@ -0,0 +1,171 @@
+package com.werkflow.common.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CachingJwtDecoder
+ */
+class CachingJwtDecoderTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T10:00:00Z");
+    private static final Duration LIFETIME = Duration.ofMinutes(10);
+
+    private final AtomicInteger decodeCount = new AtomicInteger();
+    private CachingJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        JwtDecoder delegate = token -> {
+            decodeCount.incrementAndGet();
+            return createJwt(token, "user-" + token, NOW.plusSeconds(300));
+        };
+        decoder = new CachingJwtDecoder(delegate, 2, Duration.ofSeconds(30), LIFETIME, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    @DisplayName("Should decode a repeated token only once")
+    void shouldDecodeRepeatedTokenOnce() {
+        Jwt first = decoder.decode("a");
+        Jwt second = decoder.decode("a");
+
+        assertSame(first, second);
+        assertEquals(1, decodeCount.get());
+    }
+
+    @Test
+    @DisplayName("Should not cache tokens that expire within the skew")
+    void shouldNotCacheTokensCloseToExpiry() {
+        JwtDecoder delegate = token -> {
+            decodeCount.incrementAndGet();
+            return createJwt(token, "user", NOW.plusSeconds(10));
+        };
+        CachingJwtDecoder shortLived = new CachingJwtDecoder(delegate, 2, Duration.ofSeconds(30), LIFETIME, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        shortLived.decode("a");
+        shortLived.decode("a");
+
+        assertEquals(2, decodeCount.get());
+        assertEquals(0, shortLived.size());
+    }
+
+    @Test
+    @DisplayName("Should stay within the configured bound")
+    void shouldStayWithinBound() {
+        decoder.decode("a");
+        decoder.decode("b");
+        decoder.decode("c");
+
+        assertTrue(decoder.size() <= 2);
+    }
+
+    @Test
+    @DisplayName("Should prune expired tokens without waiting for the cache to fill")
+    void shouldPruneExpiredTokens() {
+        MutableClock clock = new MutableClock(NOW);
+        JwtDecoder delegate = token -> createJwt(token, "user", NOW.plusSeconds(90));
+        CachingJwtDecoder pruning = new CachingJwtDecoder(delegate, 100, Duration.ofSeconds(30), LIFETIME, clock);
+
+        pruning.decode("a");
+        pruning.decode("b");
+        assertEquals(2, pruning.size());
+
+        clock.now = NOW.plus(CachingJwtDecoder.PRUNE_INTERVAL);
+        pruning.decode("c");
+
+        assertEquals(0, pruning.size());
+    }
+
+    @Test
+    @DisplayName("Should reject a revoked token until it expires")
+    void shouldRejectRevokedToken() {
+        MutableClock clock = new MutableClock(NOW);
+        JwtDecoder delegate = token -> createJwt(token, "user", NOW.plusSeconds(90));
+        CachingJwtDecoder revoking = new CachingJwtDecoder(delegate, 100, Duration.ofSeconds(30), LIFETIME, clock);
+
+        revoking.decode("a");
+        revoking.revokeToken("a");
+
+        assertThrows(BadJwtException.class, () -> revoking.decode("a"));
+        assertEquals(0, revoking.size());
+        assertEquals(1, revoking.revocations());
+
+        clock.now = NOW.plus(CachingJwtDecoder.PRUNE_INTERVAL).plusSeconds(30);
+        revoking.decode("b");
+
+        assertEquals(0, revoking.revocations());
+    }
+
+    @Test
+    @DisplayName("Should reject tokens of a revoked subject issued before the revocation")
+    void shouldRejectRevokedSubject() {
+        MutableClock clock = new MutableClock(NOW.plusMillis(500));
+        JwtDecoder delegate = token -> createJwt(token, "user", NOW.plusSeconds(300), Instant.parse(token));
+        CachingJwtDecoder revoking = new CachingJwtDecoder(delegate, 100, Duration.ofSeconds(30), LIFETIME, clock);
+
+        String before = NOW.minusSeconds(1).toString();
+        String sameSecond = NOW.toString();
+        revoking.decode(before);
+        revoking.revokeSubject("user");
+
+        assertThrows(BadJwtException.class, () -> revoking.decode(before));
+        assertNotNull(revoking.decode(sameSecond));
+
+        clock.now = NOW.plus(LIFETIME).plusSeconds(1);
+        revoking.decode(sameSecond);
+
+        assertEquals(0, revoking.revocations());
+    }
+
+    private Jwt createJwt(String token, String subject, Instant expiresAt) {
+        return createJwt(token, subject, expiresAt, NOW.minusSeconds(60));
+    }
+
+    private Jwt createJwt(String token, String subject, Instant expiresAt, Instant issuedAt) {
+        return new Jwt(
+            token,
+            issuedAt,
+            expiresAt,
+            Map.of("alg", "RS256"),
+            Map.of("sub", subject, "iss", "http://keycloak:8080/realms/werkflow")
+        );
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.werkflow.delegates.validation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * One ValidationDelegate call: a five-field rule set (required, email, min/max, in:, date:,
+ * pattern:, minLength/maxLength) against valid values
+ *
+ * - legacyValidate: the rule strings are split and their arguments parsed per value,
+ *   as ValidationDelegate.validateField did before compiled rule sets
+ * - cachedValidate: the program is looked up in ValidationPrograms by a fresh rule map
+ *   (as built from a BPMN expression per execution) and then run
+ * - compiledValidate: the compiled program only
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec (add -Djmh.args="-prof gc" for allocation)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationProgramBenchmark {
+
+    private static final Pattern EMAIL_PATTERN = Pattern.compile(
+        "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$"
+    );
+
+    private Map<String, String> rules;
+    private Map<String, Object> values;
+    private ValidationPrograms programs;
+    private ValidationProgram program;
+
+    @Setup
+    public void setUp() {
+        rules = new LinkedHashMap<>();
+        rules.put("email", "required,email");
+        rules.put("age", "required,min:18,max:100");
+        rules.put("department", "required,in:HR|IT|Finance");
+        rules.put("startDate", "required,date:yyyy-MM-dd");
+        rules.put("code", "pattern:[A-Z]{3}-\\d+,minLength:5,maxLength:8");
+
+        values = Map.of(
+            "email", "jane@example.com",
+            "age", 30,
+            "department", "IT",
+            "startDate", "2026-01-15",
+            "code", "ABC-12"
+        );
+
+        programs = new ValidationPrograms(new ValidationProperties());
+        program = programs.get(rules);
+    }
+
+    @Benchmark
+    public Map<String, List<String>> legacyValidate() {
+        Map<String, List<String>> errors = new HashMap<>();
+        for (Map.Entry<String, String> entry : rules.entrySet()) {
+            List<String> fieldErrors = legacyValidateField(entry.getKey(), values.get(entry.getKey()), entry.getValue());
+            if (!fieldErrors.isEmpty()) {
+                errors.put(entry.getKey(), fieldErrors);
+            }
+        }
+        return errors;
+    }
+
+    @Benchmark
+    public Map<String, List<String>> cachedValidate() {
+        return programs.get(new LinkedHashMap<>(rules)).validate(values);
+    }
+
+    @Benchmark
+    public Map<String, List<String>> compiledValidate() {
+        return program.validate(values);
+    }
+
+    private static List<String> legacyValidateField(String fieldName, Object value, String rules) {
+        List<String> errors = new ArrayList<>();
+        for (String rule : rules.split(",")) {
+            rule = rule.trim();
+
+            if (rule.equals("required")) {
+                if (value == null || value.toString().trim().isEmpty()) {
+                    errors.add(fieldName + " is required");
+                }
+            } else if (rule.equals("email")) {
+                if (value != null && !EMAIL_PATTERN.matcher(value.toString()).matches()) {
+                    errors.add(fieldName + " must be a valid email");
+                }
+            } else if (rule.startsWith("minLength:")) {
+                int minLength = Integer.parseInt(rule.substring(10));
+                if (value != null && value.toString().length() < minLength) {
+                    errors.add(fieldName + " must be at least " + minLength + " characters");
+                }
+            } else if (rule.startsWith("maxLength:")) {
+                int maxLength = Integer.parseInt(rule.substring(10));
+                if (value != null && value.toString().length() > maxLength) {
+                    errors.add(fieldName + " must be at most " + maxLength + " characters");
+                }
+            } else if (rule.startsWith("min:")) {
+                BigDecimal min = new BigDecimal(rule.substring(4));
+                if (value != null && new BigDecimal(value.toString()).compareTo(min) < 0) {
+                    errors.add(fieldName + " must be at least " + min);
+                }
+            } else if (rule.startsWith("max:")) {
+                BigDecimal max = new BigDecimal(rule.substring(4));
+                if (value != null && new BigDecimal(value.toString()).compareTo(max) > 0) {
+                    errors.add(fieldName + " must be at most " + max);
+                }
+            } else if (rule.startsWith("pattern:")) {
+                if (value != null && !Pattern.matches(rule.substring(8), value.toString())) {
+                    errors.add(fieldName + " does not match required pattern");
+                }
+            } else if (rule.startsWith("date:")) {
+                String format = rule.substring(5);
+                if (value != null) {
+                    try {
+                        LocalDate.parse(value.toString(), DateTimeFormatter.ofPattern(format));
+                    } catch (DateTimeParseException e) {
+                        errors.add(fieldName + " must be a valid date in format " + format);
+                    }
+                }
+            } else if (rule.startsWith("in:")) {
+                String allowedValues = rule.substring(3);
+                if (value != null && !Arrays.asList(allowedValues.split("\\|")).contains(value.toString())) {
+                    errors.add(fieldName + " must be one of: " + allowedValues.replace("|", ", "));
+                }
+            }
+        }
+        return errors;
+    }
+}
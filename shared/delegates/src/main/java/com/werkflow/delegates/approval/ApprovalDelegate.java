@@ -1,8 +1,9 @@
 package com.werkflow.delegates.approval;
 
+import com.werkflow.common.delegate.DelegateVariables;
+import com.werkflow.delegates.config.DelegateConfigBinder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.flowable.engine.RuntimeService;
 import org.flowable.engine.delegate.DelegateExecution;
 import org.flowable.engine.delegate.JavaDelegate;
 import org.springframework.stereotype.Component;
@@ -15,7 +16,7 @@ import java.util.Map;
 /**
  * Generic Approval Delegate for standard approval logic
  *
- * Configurable via BPMN process variables:
+ * Configurable via BPMN field extensions or process variables (see DelegateConfigBinder):
  * - approverRole: Role/group of approvers (required)
  * - approverUserId: Specific user ID to assign (optional, overrides role)
  * - escalationEnabled: Enable escalation (default: true)
@@ -30,6 +31,14 @@ import java.util.Map;
  * - approvalAssignedTo: user ID or role
  * - approvalDueDate: escalation due date
  * - approvalStartTime: when approval started
+ * - approvalKey: activity ID of this task, identifying the approval for escalation
+ *
+ * Escalation is scheduled with ApprovalEscalationService, so no BPMN timer is needed. When
+ * the due date passes it sets the escalation variables (approvalEscalated, approvalAssignedTo
+ * = escalationRole, sendEscalationNotification, ...), moves the process's open tasks from the
+ * approver to the escalationRole group and sends the "approvalEscalated" message. To notify
+ * anyone, model a message boundary event (non-interrupting) for that message on the approval
+ * task. Call completeApproval when the approval is decided.
  *
  * Example BPMN configuration:
  * <serviceTask id="setupApproval" flowable:delegateExpression="${approvalDelegate}">
@@ -54,30 +63,30 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class ApprovalDelegate implements JavaDelegate {
 
-    private final RuntimeService runtimeService;
+    private final ApprovalEscalationService escalationService;
+    private final DelegateVariables delegateVariables;
+    private final DelegateConfigBinder configBinder;
 
     @Override
     public void execute(DelegateExecution execution) {
-        log.info("Executing ApprovalDelegate for process: {}", execution.getProcessInstanceId());
-
-        // Get configuration
-        String approverRole = getRequiredVariable(execution, "approverRole");
-        String approverUserId = getVariable(execution, "approverUserId", null);
-        Boolean escalationEnabled = getVariable(execution, "escalationEnabled", true);
-        Integer escalationTimeMinutes = getVariable(execution, "escalationTimeMinutes", 1440);
-        String escalationRole = getVariable(execution, "escalationRole", "MANAGER");
-        Double autoApproveThreshold = getVariable(execution, "autoApproveThreshold", null);
-        Boolean requireComment = getVariable(execution, "requireComment", true);
-        Boolean notifyApprover = getVariable(execution, "notifyApprover", true);
+        log.debug("Executing ApprovalDelegate for process: {}", execution.getProcessInstanceId());
+
+        ApprovalConfig config = configBinder.bind(execution, ApprovalConfig.class);
+        String approverRole = config.approverRole();
+        String approverUserId = config.approverUserId();
+        Boolean escalationEnabled = config.escalationEnabled();
+        Integer escalationTimeMinutes = config.escalationTimeMinutes();
+        String escalationRole = config.escalationRole();
+        Double autoApproveThreshold = config.autoApproveThreshold();
 
         // Check for auto-approval
         if (autoApproveThreshold != null) {
-            Double amount = getVariable(execution, "amount", 0.0);
+            Double amount = delegateVariables.get(execution, "amount", 0.0);
             if (amount <= autoApproveThreshold) {
-                log.info("Auto-approving: amount {} is below threshold {}", amount, autoApproveThreshold);
-                execution.setVariable("approved", true);
-                execution.setVariable("autoApproved", true);
-                execution.setVariable("approvalRequired", false);
+                log.debug("Auto-approving: amount {} is below threshold {}", amount, autoApproveThreshold);
+                delegateVariables.set(execution, "approved", true);
+                delegateVariables.set(execution, "autoApproved", true);
+                delegateVariables.set(execution, "approvalRequired", false);
                 return;
             }
         }
@@ -92,7 +101,8 @@ public class ApprovalDelegate implements JavaDelegate {
         approvalMetadata.put("approvalDueDate", dueDate.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
         approvalMetadata.put("approvalEscalationEnabled", escalationEnabled);
         approvalMetadata.put("approvalEscalationRole", escalationRole);
-        approvalMetadata.put("approvalRequireComment", requireComment);
+        approvalMetadata.put("approvalRequireComment", config.requireComment());
+        approvalMetadata.put("approvalKey", execution.getCurrentActivityId());
 
         if (approverUserId != null) {
             approvalMetadata.put("approvalAssignedTo", approverUserId);
@@ -103,20 +113,26 @@ public class ApprovalDelegate implements JavaDelegate {
         }
 
         // Set all approval variables
-        execution.setVariables(approvalMetadata);
+        delegateVariables.setAll(execution, approvalMetadata);
 
-        log.info("Approval setup complete. Assignee: {}, Due: {}",
+        if (escalationEnabled) {
+            escalationService.schedule(execution.getProcessInstanceId(), execution.getCurrentActivityId(),
+                (String) approvalMetadata.get("approvalAssignedTo"),
+                (String) approvalMetadata.get("approvalAssignmentType"), escalationRole, escalationTimeMinutes);
+        }
+
+        log.debug("Approval setup complete. Assignee: {}, Due: {}",
             approverUserId != null ? approverUserId : approverRole,
             dueDate);
 
         // Trigger notification if enabled
-        if (notifyApprover) {
+        if (config.notifyApprover()) {
             Map<String, Object> notificationData = new HashMap<>();
             notificationData.put("notificationType", "approval_required");
             notificationData.put("assignee", approverUserId != null ? approverUserId : approverRole);
             notificationData.put("dueDate", dueDate);
-            execution.setVariable("sendApprovalNotification", true);
-            execution.setVariable("approvalNotificationData", notificationData);
+            delegateVariables.set(execution, "sendApprovalNotification", true);
+            delegateVariables.set(execution, "approvalNotificationData", notificationData);
         }
     }
 
@@ -124,9 +140,9 @@ public class ApprovalDelegate implements JavaDelegate {
      * Complete approval (call this from user task completion)
      */
     public void completeApproval(DelegateExecution execution) {
-        Boolean approved = getVariable(execution, "approved", false);
-        String comment = getVariable(execution, "approvalComment", "");
-        String approver = getVariable(execution, "approver", "");
+        Boolean approved = delegateVariables.get(execution, "approved", false);
+        String comment = delegateVariables.get(execution, "approvalComment", "");
+        String approver = delegateVariables.get(execution, "approver", "");
 
         LocalDateTime completedAt = LocalDateTime.now();
 
@@ -138,21 +154,41 @@ public class ApprovalDelegate implements JavaDelegate {
         completionData.put("approvalCompletedAt", completedAt.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
         completionData.put("approvalComment", comment);
 
-        execution.setVariables(completionData);
+        delegateVariables.setAll(execution, completionData);
 
-        log.info("Approval completed. Result: {}, Approver: {}",
+        String approvalKey = delegateVariables.get(execution, "approvalKey", null);
+        if (approvalKey != null) {
+            escalationService.complete(execution.getProcessInstanceId(), approvalKey);
+        }
+
+        log.debug("Approval completed. Result: {}, Approver: {}",
             approved ? "APPROVED" : "REJECTED", approver);
     }
 
     /**
      * Handle escalation (called by timer event)
+     *
+     * Processes that still escalate with a BPMN timer can keep calling this; the scheduled
+     * escalation of the approval is then closed so it is not escalated twice.
      */
     public void escalateApproval(DelegateExecution execution) {
-        String escalationRole = getVariable(execution, "approvalEscalationRole", "MANAGER");
-        String originalAssignee = getVariable(execution, "approvalAssignedTo", "");
+        String escalationRole = delegateVariables.get(execution, "approvalEscalationRole", "MANAGER");
+        String originalAssignee = delegateVariables.get(execution, "approvalAssignedTo", "");
 
         log.warn("Escalating approval from {} to {}", originalAssignee, escalationRole);
 
+        delegateVariables.setAll(execution, escalationVariables(originalAssignee, escalationRole));
+
+        String approvalKey = delegateVariables.get(execution, "approvalKey", null);
+        if (approvalKey != null) {
+            escalationService.escalated(execution.getProcessInstanceId(), approvalKey);
+        }
+    }
+
+    /**
+     * Variables set when an approval is escalated
+     */
+    static Map<String, Object> escalationVariables(String originalAssignee, String escalationRole) {
         Map<String, Object> escalationData = new HashMap<>();
         escalationData.put("approvalEscalated", true);
         escalationData.put("approvalEscalatedAt", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
@@ -160,23 +196,25 @@ public class ApprovalDelegate implements JavaDelegate {
         escalationData.put("approvalAssignedTo", escalationRole);
         escalationData.put("approvalAssignmentType", "role");
 
-        execution.setVariables(escalationData);
-
         // Trigger escalation notification
-        execution.setVariable("sendEscalationNotification", true);
+        escalationData.put("sendEscalationNotification", true);
+        return escalationData;
     }
 
-    private String getRequiredVariable(DelegateExecution execution, String variableName) {
-        Object value = execution.getVariable(variableName);
-        if (value == null || value.toString().trim().isEmpty()) {
-            throw new IllegalArgumentException("Required variable '" + variableName + "' is not set");
+    /**
+     * Approval configuration, resolved once per activity where static
+     */
+    record ApprovalConfig(String approverRole, String approverUserId, Boolean escalationEnabled,
+                          Integer escalationTimeMinutes, String escalationRole, Double autoApproveThreshold,
+                          Boolean requireComment, Boolean notifyApprover) {
+
+        ApprovalConfig {
+            DelegateConfigBinder.required(approverRole, "approverRole");
+            escalationEnabled = escalationEnabled != null ? escalationEnabled : true;
+            escalationTimeMinutes = escalationTimeMinutes != null ? escalationTimeMinutes : 1440;
+            escalationRole = escalationRole != null ? escalationRole : "MANAGER";
+            requireComment = requireComment != null ? requireComment : true;
+            notifyApprover = notifyApprover != null ? notifyApprover : true;
         }
-        return value.toString();
-    }
-
-    @SuppressWarnings("unchecked")
-    private <T> T getVariable(DelegateExecution execution, String variableName, T defaultValue) {
-        Object value = execution.getVariable(variableName);
-        return value != null ? (T) value : defaultValue;
     }
 }
@@ -0,0 +1,36 @@
+package com.werkflow.delegates.approval;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Approval escalation scheduler settings
+ *
+ * Approvals due within horizonSeconds are held in the timing wheel (tickMs resolution);
+ * the rest stay in approval_escalations until a later load brings them into the horizon.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.delegates.approval.escalation")
+@Getter
+@Setter
+public class ApprovalEscalationProperties {
+
+    private Boolean enabled = true;
+    private Long tickMs = 1000L;
+    private Integer wheelSize = 64;
+    private Long horizonSeconds = 900L;
+    /**
+     * Approvals loaded into the wheel per node at most
+     */
+    private Integer maxLoaded = 100000;
+    private Integer batchSize = 500;
+    private Long lockTimeoutSeconds = 120L;
+    private Integer maxAttempts = 5;
+    private Long retryDelaySeconds = 60L;
+    /**
+     * Message delivered to the process when an approval is escalated; blank to disable
+     */
+    private String messageName = "approvalEscalated";
+}
@@ -0,0 +1,234 @@
+package com.werkflow.delegates.approval;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.common.engine.api.FlowableObjectNotFoundException;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.TaskService;
+import org.flowable.engine.runtime.Execution;
+import org.flowable.task.api.Task;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Escalates pending approvals when their escalation time is reached
+ *
+ * Replaces one BPMN timer job per approval. Due times live in approval_escalations; every
+ * load interval, the approvals due within the horizon are loaded into a hierarchical
+ * timing wheel (ApprovalDelegate also adds new approvals directly). Each tick, the
+ * approvals that became due are claimed in batches of batch-size with a single UPDATE.
+ *
+ * Escalating an approval, in one transaction with the engine:
+ * - sets the same variables as ApprovalDelegate.escalateApproval (approvalEscalated,
+ *   approvalAssignedTo = escalationRole, sendEscalationNotification, ...)
+ * - moves the process's open user tasks from the approver (assignee, or candidate group for
+ *   a role) to the escalationRole candidate group
+ * - delivers the message-name message (default approvalEscalated) to the executions
+ *   subscribed to it, so a message boundary event on the approval task can notify or
+ *   reroute; without one, nothing in the process reacts to sendEscalationNotification
+ * - marks the approval escalated, fenced by the claim
+ * A failure rolls all of it back, so an escalation takes effect once even if it is retried.
+ *
+ * Memory is bounded by the approvals due within the horizon, not by all pending approvals.
+ * Every node loads the same approvals; the claim keeps them from all applying each one.
+ * Completed or reassigned approvals simply fail the claim when their old entry fires.
+ */
+@Slf4j
+@Component
+public class ApprovalEscalationService {
+
+    private final ApprovalEscalationStore store;
+    private final RuntimeService runtimeService;
+    private final TaskService taskService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApprovalEscalationProperties properties;
+    private final TimingWheel<Entry> wheel;
+    private final Map<Long, Long> tracked = new ConcurrentHashMap<>();
+
+    public ApprovalEscalationService(ApprovalEscalationStore store, RuntimeService runtimeService,
+                                     TaskService taskService, PlatformTransactionManager transactionManager,
+                                     ApprovalEscalationProperties properties) {
+        this.store = store;
+        this.runtimeService = runtimeService;
+        this.taskService = taskService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+
+        long horizonTicks = Duration.ofSeconds(properties.getHorizonSeconds()).toMillis() / properties.getTickMs();
+        int levels = 1;
+        for (long span = properties.getWheelSize() - 1; span < horizonTicks * 2; span *= properties.getWheelSize()) {
+            levels++;
+        }
+        this.wheel = new TimingWheel<>(properties.getTickMs(), properties.getWheelSize(), levels,
+            System.currentTimeMillis());
+    }
+
+    /**
+     * Record the escalation of a new approval in the current transaction
+     */
+    public void schedule(String processInstanceId, String approvalKey, String assignedTo, String assignmentType,
+                         String escalationRole, int escalationMinutes) {
+        track(store.schedule(processInstanceId, approvalKey, assignedTo, assignmentType, escalationRole,
+            escalationMinutes));
+    }
+
+    /**
+     * Restart the escalation clock of a process's pending approvals after reassignment
+     */
+    public void reassign(String processInstanceId, String assignee) {
+        store.reassign(processInstanceId, assignee).forEach(this::track);
+    }
+
+    /**
+     * Approval decided; it is no longer escalated
+     */
+    public void complete(String processInstanceId, String approvalKey) {
+        store.close(processInstanceId, approvalKey, "COMPLETED");
+    }
+
+    /**
+     * Approval escalated by the process itself (BPMN timer calling escalateApproval)
+     */
+    public void escalated(String processInstanceId, String approvalKey) {
+        store.close(processInstanceId, approvalKey, "ESCALATED");
+    }
+
+    /**
+     * Load approvals that become due within the horizon into the wheel
+     */
+    @Scheduled(fixedDelayString = "${app.delegates.approval.escalation.load-interval-ms:60000}")
+    public void load() {
+        if (!properties.getEnabled()) {
+            return;
+        }
+        try {
+            List<ApprovalEscalationStore.Scheduled> due = store.findDueWithin(
+                Duration.ofSeconds(properties.getHorizonSeconds()), properties.getMaxLoaded());
+            due.forEach(this::track);
+            log.debug("Loaded {} approval escalations, {} tracked", due.size(), tracked.size());
+        } catch (RuntimeException e) {
+            log.warn("Loading approval escalations failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Escalate the approvals that became due since the last tick
+     */
+    @Scheduled(fixedDelayString = "${app.delegates.approval.escalation.tick-ms:1000}")
+    public void tick() {
+        if (!properties.getEnabled()) {
+            return;
+        }
+        List<Long> due = new ArrayList<>();
+        for (Entry entry : wheel.advance(System.currentTimeMillis())) {
+            // Skip entries superseded by a later reschedule of the same approval
+            if (tracked.remove(entry.id(), entry.dueMs())) {
+                due.add(entry.id());
+            }
+        }
+        for (int start = 0; start < due.size(); start += properties.getBatchSize()) {
+            List<Long> batch = due.subList(start, Math.min(start + properties.getBatchSize(), due.size()));
+            try {
+                escalate(batch);
+            } catch (RuntimeException e) {
+                // Still pending in the table; picked up again by the next load
+                log.warn("Escalating {} approvals failed: {}", batch.size(), e.getMessage());
+            }
+        }
+    }
+
+    public int getTrackedCount() {
+        return tracked.size();
+    }
+
+    void escalate(List<Long> ids) {
+        List<ApprovalEscalationStore.Escalation> claimed = store.claim(ids,
+            Duration.ofMillis(properties.getTickMs()), Duration.ofSeconds(properties.getLockTimeoutSeconds()));
+        int escalated = 0;
+
+        for (ApprovalEscalationStore.Escalation escalation : claimed) {
+            try {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> apply(escalation)))) {
+                    escalated++;
+                }
+            } catch (FlowableObjectNotFoundException e) {
+                store.markCancelled(escalation.id(), "Process instance no longer exists");
+            } catch (RuntimeException e) {
+                log.warn("Escalating approval {} of process {} failed (attempt {}): {}", escalation.approvalKey(),
+                    escalation.processInstanceId(), escalation.attempts(), e.getMessage());
+                if (escalation.attempts() >= properties.getMaxAttempts()) {
+                    store.markCancelled(escalation.id(), e.getMessage());
+                } else {
+                    store.markRetry(escalation.id(), e.getMessage(),
+                        Duration.ofSeconds(properties.getRetryDelaySeconds()));
+                }
+            }
+        }
+
+        if (escalated > 0) {
+            log.info("Escalated {} approvals", escalated);
+        }
+    }
+
+    /**
+     * Apply one escalation; runs in the transaction that marks it escalated
+     *
+     * @return false if the approval changed since it was claimed
+     */
+    private boolean apply(ApprovalEscalationStore.Escalation escalation) {
+        // First, so that a concurrent attempt blocks on the row and then skips it
+        if (!store.markEscalated(escalation)) {
+            return false;
+        }
+        String processInstanceId = escalation.processInstanceId();
+        runtimeService.setVariables(processInstanceId,
+            ApprovalDelegate.escalationVariables(escalation.assignedTo(), escalation.escalationRole()));
+
+        boolean assignedToUser = "user".equals(escalation.assignmentType());
+        List<Task> tasks = assignedToUser
+            ? taskService.createTaskQuery().processInstanceId(processInstanceId).active()
+                .taskAssignee(escalation.assignedTo()).list()
+            : taskService.createTaskQuery().processInstanceId(processInstanceId).active()
+                .taskCandidateGroup(escalation.assignedTo()).list();
+        for (Task task : tasks) {
+            if (assignedToUser) {
+                taskService.setAssignee(task.getId(), null);
+            } else {
+                taskService.deleteCandidateGroup(task.getId(), escalation.assignedTo());
+            }
+            taskService.addCandidateGroup(task.getId(), escalation.escalationRole());
+        }
+
+        String messageName = properties.getMessageName();
+        if (messageName != null && !messageName.isBlank()) {
+            List<Execution> subscribed = runtimeService.createExecutionQuery().processInstanceId(processInstanceId)
+                .messageEventSubscriptionName(messageName).list();
+            for (Execution execution : subscribed) {
+                runtimeService.messageEventReceived(messageName, execution.getId());
+            }
+        }
+        return true;
+    }
+
+    private void track(ApprovalEscalationStore.Scheduled scheduled) {
+        long dueMs = System.currentTimeMillis() + Math.max(0, scheduled.delayMs());
+        Long previous = tracked.get(scheduled.id());
+        if (previous != null && Math.abs(previous - dueMs) < properties.getTickMs()) {
+            // Already in the wheel for this due time
+            return;
+        }
+        if (wheel.add(new Entry(scheduled.id(), dueMs), dueMs)) {
+            tracked.put(scheduled.id(), dueMs);
+        }
+    }
+
+    private record Entry(long id, long dueMs) {
+    }
+}
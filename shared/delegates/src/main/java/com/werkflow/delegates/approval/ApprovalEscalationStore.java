@@ -0,0 +1,165 @@
+package com.werkflow.delegates.approval;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Data access for the approval_escalations table
+ *
+ * Due times are computed by the database (NOW() + interval) and returned as a delay, so
+ * the wheel is not affected by clock or time zone differences between nodes and the
+ * database. Claiming sets a lock that expires after the lock timeout, so several engine
+ * nodes can load the same approvals without all applying them; markEscalated is fenced by
+ * the claim, so a node whose lock expired mid-escalation cannot apply it a second time.
+ */
+@Component
+@RequiredArgsConstructor
+public class ApprovalEscalationStore {
+
+    private static final String DELAY_MS = "CEIL(EXTRACT(EPOCH FROM (due_at - NOW())) * 1000)::BIGINT AS delay_ms";
+
+    private static final RowMapper<Scheduled> SCHEDULED_MAPPER = (rs, rowNum) -> new Scheduled(
+        rs.getLong("id"),
+        rs.getLong("delay_ms")
+    );
+
+    private static final RowMapper<Escalation> ESCALATION_MAPPER = (rs, rowNum) -> new Escalation(
+        rs.getLong("id"),
+        rs.getString("process_instance_id"),
+        rs.getString("approval_key"),
+        rs.getString("assigned_to"),
+        rs.getString("assignment_type"),
+        rs.getString("escalation_role"),
+        rs.getInt("attempts")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Record (or replace) the escalation of an approval in the current transaction
+     */
+    public Scheduled schedule(String processInstanceId, String approvalKey, String assignedTo,
+                              String assignmentType, String escalationRole, int escalationMinutes) {
+        return jdbcTemplate.queryForObject(
+            "INSERT INTO approval_escalations (process_instance_id, approval_key, assigned_to, assignment_type, " +
+                "escalation_role, escalation_minutes, due_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, NOW() + (? * INTERVAL '1 minute')) " +
+                "ON CONFLICT (process_instance_id, approval_key) DO UPDATE SET assigned_to = EXCLUDED.assigned_to, " +
+                "assignment_type = EXCLUDED.assignment_type, escalation_role = EXCLUDED.escalation_role, " +
+                "escalation_minutes = EXCLUDED.escalation_minutes, due_at = EXCLUDED.due_at, status = 'PENDING', " +
+                "attempts = 0, locked_until = NULL, last_error = NULL, escalated_at = NULL " +
+                "RETURNING id, " + DELAY_MS,
+            SCHEDULED_MAPPER,
+            processInstanceId, approvalKey, assignedTo, assignmentType, escalationRole, escalationMinutes,
+            escalationMinutes);
+    }
+
+    /**
+     * Restart the escalation clock of a process's pending approvals for a new assignee
+     */
+    public List<Scheduled> reassign(String processInstanceId, String assignee) {
+        return jdbcTemplate.query(
+            "UPDATE approval_escalations SET assigned_to = ?, assignment_type = 'user', locked_until = NULL, " +
+                "due_at = NOW() + (escalation_minutes * INTERVAL '1 minute') " +
+                "WHERE process_instance_id = ? AND status = 'PENDING' RETURNING id, " + DELAY_MS,
+            SCHEDULED_MAPPER, assignee, processInstanceId);
+    }
+
+    /**
+     * End an approval's escalation without escalating
+     *
+     * @param status COMPLETED, or ESCALATED if the process escalated it itself
+     */
+    public void close(String processInstanceId, String approvalKey, String status) {
+        jdbcTemplate.update(
+            "UPDATE approval_escalations SET status = ?, locked_until = NULL, " +
+                "escalated_at = CASE WHEN CAST(? AS VARCHAR) = 'ESCALATED' THEN NOW() ELSE escalated_at END " +
+                "WHERE process_instance_id = ? AND approval_key = ? AND status = 'PENDING'",
+            status, status, processInstanceId, approvalKey);
+    }
+
+    /**
+     * Pending, unclaimed escalations due within the horizon (including overdue ones)
+     */
+    public List<Scheduled> findDueWithin(Duration horizon, int limit) {
+        return jdbcTemplate.query(
+            "SELECT id, " + DELAY_MS + " FROM approval_escalations WHERE status = 'PENDING' " +
+                "AND due_at <= NOW() + (? * INTERVAL '1 millisecond') " +
+                "AND (locked_until IS NULL OR locked_until < NOW()) ORDER BY due_at LIMIT ?",
+            SCHEDULED_MAPPER, horizon.toMillis(), limit);
+    }
+
+    /**
+     * Claim escalations that are due
+     *
+     * @param tolerance   How far ahead of its due time an escalation may be claimed (one tick)
+     * @param lockTimeout How long the claim is held
+     * @return Claimed rows, attempts already incremented; rows completed, rescheduled or
+     *         claimed elsewhere in the meantime are skipped
+     */
+    public List<Escalation> claim(Collection<Long> ids, Duration tolerance, Duration lockTimeout) {
+        Long[] idArray = ids.toArray(new Long[0]);
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                "UPDATE approval_escalations SET attempts = attempts + 1, " +
+                    "locked_until = NOW() + (? * INTERVAL '1 millisecond') " +
+                    "WHERE id IN (SELECT id FROM approval_escalations WHERE id = ANY(?) AND status = 'PENDING' " +
+                    "AND due_at <= NOW() + (? * INTERVAL '1 millisecond') " +
+                    "AND (locked_until IS NULL OR locked_until < NOW()) FOR UPDATE SKIP LOCKED) " +
+                    "RETURNING id, process_instance_id, approval_key, assigned_to, assignment_type, escalation_role, " +
+                    "attempts");
+            statement.setLong(1, lockTimeout.toMillis());
+            statement.setArray(2, connection.createArrayOf("bigint", idArray));
+            statement.setLong(3, tolerance.toMillis());
+            return statement;
+        }, ESCALATION_MAPPER);
+    }
+
+    /**
+     * Mark a claimed escalation as escalated, in the transaction that applies it
+     *
+     * Locks the row until that transaction ends, so a concurrent attempt waits and then fails.
+     *
+     * @return false if the approval was completed, rescheduled or claimed again since the claim
+     */
+    public boolean markEscalated(Escalation escalation) {
+        return jdbcTemplate.update(
+            "UPDATE approval_escalations SET status = 'ESCALATED', escalated_at = NOW(), locked_until = NULL, " +
+                "last_error = NULL WHERE id = ? AND status = 'PENDING' AND attempts = ? AND locked_until IS NOT NULL",
+            escalation.id(), escalation.attempts()) > 0;
+    }
+
+    public void markRetry(long id, String error, Duration delay) {
+        jdbcTemplate.update(
+            "UPDATE approval_escalations SET last_error = ?, locked_until = NULL, " +
+                "due_at = NOW() + (? * INTERVAL '1 millisecond') WHERE id = ? AND status = 'PENDING'",
+            error, delay.toMillis(), id);
+    }
+
+    public void markCancelled(long id, String error) {
+        jdbcTemplate.update(
+            "UPDATE approval_escalations SET status = 'CANCELLED', last_error = ?, locked_until = NULL " +
+                "WHERE id = ? AND status = 'PENDING'",
+            error, id);
+    }
+
+    /**
+     * Escalation due time, as a delay from now
+     */
+    public record Scheduled(long id, long delayMs) {
+    }
+
+    /**
+     * Claimed escalation
+     */
+    public record Escalation(long id, String processInstanceId, String approvalKey, String assignedTo,
+                             String assignmentType, String escalationRole, int attempts) {
+    }
+}
@@ -0,0 +1,133 @@
+package com.werkflow.delegates.approval;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel
+ *
+ * Level 0 has one slot per tick; each higher level has one slot per full turn of the level
+ * below, so levels wheels of wheelSize slots cover tickMs * wheelSize^levels. Adding an
+ * item and advancing by a tick are O(1) (amortized: an item moves down at most once per
+ * level), regardless of how many items are scheduled. Items are released at tick
+ * granularity, never early.
+ *
+ * Thread-safe; meant to be advanced by a single scheduler thread.
+ *
+ * @param <T> Scheduled item
+ */
+public final class TimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long[] unitTicks;
+    private final List<Entry<T>>[][] slots;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMs, int wheelSize, int levels, long nowMs) {
+        if (tickMs <= 0 || wheelSize < 2 || levels < 1) {
+            throw new IllegalArgumentException("Invalid timing wheel dimensions");
+        }
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.unitTicks = new long[levels];
+        this.slots = new List[levels][wheelSize];
+        long unit = 1;
+        for (int level = 0; level < levels; level++) {
+            unitTicks[level] = unit;
+            unit = Math.multiplyExact(unit, wheelSize);
+        }
+        this.currentTick = nowMs / tickMs;
+    }
+
+    /**
+     * Furthest time ahead an item can be scheduled
+     */
+    public long getSpanMs() {
+        return tickMs * unitTicks[unitTicks.length - 1] * (wheelSize - 1);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Schedule an item; items already due are released on the next advance
+     *
+     * @return false if dueMs lies beyond the wheel's span (the item is not scheduled)
+     */
+    public synchronized boolean add(T item, long dueMs) {
+        long dueTick = Math.max(Math.floorDiv(dueMs + tickMs - 1, tickMs), currentTick + 1);
+        if (!place(new Entry<>(item, dueTick))) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * Advance to nowMs
+     *
+     * @return Items that became due, in due order
+     */
+    public synchronized List<T> advance(long nowMs) {
+        long nowTick = nowMs / tickMs;
+        List<T> due = new ArrayList<>();
+        if (size == 0) {
+            currentTick = Math.max(currentTick, nowTick);
+            return due;
+        }
+        while (currentTick < nowTick && size > 0) {
+            currentTick++;
+            // Move the higher-level slots that start at this tick down, highest level first
+            for (int level = unitTicks.length - 1; level > 0; level--) {
+                if (currentTick % unitTicks[level] == 0) {
+                    List<Entry<T>> cascaded = take(level, (int) ((currentTick / unitTicks[level]) % wheelSize));
+                    for (Entry<T> entry : cascaded) {
+                        if (entry.dueTick() <= currentTick) {
+                            due.add(entry.item());
+                            size--;
+                        } else {
+                            place(entry);
+                        }
+                    }
+                }
+            }
+            for (Entry<T> entry : take(0, (int) (currentTick % wheelSize))) {
+                due.add(entry.item());
+                size--;
+            }
+        }
+        currentTick = Math.max(currentTick, nowTick);
+        return due;
+    }
+
+    private boolean place(Entry<T> entry) {
+        for (int level = 0; level < unitTicks.length; level++) {
+            long bucket = entry.dueTick() / unitTicks[level];
+            if (bucket - currentTick / unitTicks[level] < wheelSize) {
+                int slot = (int) (bucket % wheelSize);
+                if (slots[level][slot] == null) {
+                    slots[level][slot] = new ArrayList<>();
+                }
+                slots[level][slot].add(entry);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Entry<T>> take(int level, int slot) {
+        List<Entry<T>> entries = slots[level][slot];
+        if (entries == null) {
+            return List.of();
+        }
+        slots[level][slot] = null;
+        return entries;
+    }
+
+    private record Entry<T>(T item, long dueTick) {
+    }
+}
@@ -0,0 +1,175 @@
+package com.werkflow.delegates.config;
+
+import com.werkflow.common.delegate.DelegateVariables;
+import org.flowable.bpmn.model.FieldExtension;
+import org.flowable.bpmn.model.FlowElement;
+import org.flowable.bpmn.model.TaskWithFieldExtensions;
+import org.flowable.common.engine.api.delegate.Expression;
+import org.flowable.common.engine.impl.el.ExpressionManager;
+import org.flowable.engine.delegate.DelegateExecution;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.RecordComponent;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binding of one config record type at one activity
+ *
+ * Holds, per record component, the converted field value (null if unset), the compiled
+ * field expression or the process variable to read. Immutable apart from the lazily
+ * created constant, so it is shared by all executions of the activity.
+ *
+ * @param <C> Config record type
+ */
+final class ConfigBinding<C extends Record> {
+
+    private static final ConversionService CONVERSION = DefaultConversionService.getSharedInstance();
+
+    private final Constructor<C> constructor;
+    private final String[] names;
+    private final Class<?>[] types;
+    private final Source[] sources;
+    private final boolean constant;
+    private volatile C constantConfig;
+
+    private ConfigBinding(Constructor<C> constructor, String[] names, Class<?>[] types, Source[] sources) {
+        this.constructor = constructor;
+        this.names = names;
+        this.types = types;
+        this.sources = sources;
+        boolean allFixed = true;
+        for (Source source : sources) {
+            allFixed &= source instanceof Fixed;
+        }
+        this.constant = allFixed;
+    }
+
+    /**
+     * @param element           Activity whose field extensions supply values (may be null)
+     * @param expressionManager Compiles field expressions
+     */
+    static <C extends Record> ConfigBinding<C> create(Class<C> type, FlowElement element,
+                                                      ExpressionManager expressionManager) {
+        RecordComponent[] components = type.getRecordComponents();
+        String[] names = new String[components.length];
+        Class<?>[] types = new Class<?>[components.length];
+        for (int i = 0; i < components.length; i++) {
+            names[i] = components[i].getName();
+            types[i] = components[i].getType();
+        }
+
+        Map<String, FieldExtension> fields = new HashMap<>();
+        if (element instanceof TaskWithFieldExtensions task) {
+            for (FieldExtension field : task.getFieldExtensions()) {
+                fields.put(field.getFieldName(), field);
+            }
+        }
+
+        // An activity configured with fields takes nothing from the variables; without fields,
+        // every component comes from its process variable
+        boolean fromVariables = fields.isEmpty();
+        Source[] sources = new Source[components.length];
+        for (int i = 0; i < components.length; i++) {
+            FieldExtension field = fields.get(names[i]);
+            if (components[i].isAnnotationPresent(Literal.class)) {
+                sources[i] = new Fixed(field != null ? convert(literal(field), names[i], types[i]) : null);
+            } else if (field == null) {
+                sources[i] = fromVariables ? new ProcessVariable() : new Fixed(null);
+            } else if (field.getStringValue() != null) {
+                sources[i] = new Fixed(convert(field.getStringValue(), names[i], types[i]));
+            } else if (isDynamic(field.getExpression())) {
+                sources[i] = new FieldExpression(expressionManager.createExpression(field.getExpression()));
+            } else {
+                sources[i] = new Fixed(convert(field.getExpression(), names[i], types[i]));
+            }
+        }
+
+        try {
+            Constructor<C> constructor = type.getDeclaredConstructor(types);
+            constructor.setAccessible(true);
+            return new ConfigBinding<>(constructor, names, types, sources);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("No canonical constructor for " + type.getName(), e);
+        }
+    }
+
+    /**
+     * @return True if the config is the same for every execution of the activity
+     */
+    boolean isConstant() {
+        return constant;
+    }
+
+    C bind(DelegateExecution execution, DelegateVariables delegateVariables) {
+        C config = constantConfig;
+        if (config != null) {
+            return config;
+        }
+
+        Object[] values = new Object[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            values[i] = switch (sources[i]) {
+                case Fixed fixed -> fixed.value();
+                case FieldExpression field -> convert(field.expression().getValue(execution), names[i], types[i]);
+                case ProcessVariable variable -> convert(delegateVariables.get(execution, names[i], null),
+                    names[i], types[i]);
+            };
+        }
+
+        config = instantiate(values);
+        if (constant) {
+            constantConfig = config;
+        }
+        return config;
+    }
+
+    private C instantiate(Object[] values) {
+        try {
+            return constructor.newInstance(values);
+        } catch (InvocationTargetException e) {
+            // Required checks and defaults live in the record's compact constructor
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create " + constructor.getDeclaringClass().getName(), e);
+        }
+    }
+
+    private static String literal(FieldExtension field) {
+        return field.getStringValue() != null ? field.getStringValue() : field.getExpression();
+    }
+
+    private static boolean isDynamic(String expression) {
+        return expression != null && (expression.contains("${") || expression.contains("#{"));
+    }
+
+    private static Object convert(Object value, String name, Class<?> type) {
+        if (value == null || type.isInstance(value)) {
+            return value;
+        }
+        try {
+            return CONVERSION.convert(value, type);
+        } catch (ConversionException e) {
+            throw new IllegalArgumentException("Invalid value for '" + name + "': " + value, e);
+        }
+    }
+
+    private sealed interface Source {
+    }
+
+    private record Fixed(Object value) implements Source {
+    }
+
+    private record FieldExpression(Expression expression) implements Source {
+    }
+
+    private record ProcessVariable() implements Source {
+    }
+}
@@ -0,0 +1,109 @@
+package com.werkflow.delegates.config;
+
+import com.werkflow.common.delegate.DelegateVariables;
+import org.flowable.engine.delegate.DelegateExecution;
+import org.flowable.engine.impl.util.CommandContextUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Binds a delegate's configuration onto an immutable, typed config record
+ *
+ * Each record component is taken from the service task's field extension of the same name
+ * (flowable:string, or flowable:expression). A component without a field is unset (null)
+ * for that activity; to take it from a process variable, use an expression field such as
+ * ${requestBody}. Only an activity without any field extensions reads every component
+ * from the process variable of the same name. Field strings and expressions without ${...}
+ * or #{...} are converted once, and expressions compiled once, per (process definition,
+ * activity); an execution then only evaluates its dynamic expressions. When every
+ * component is static or unset, the record itself is reused. A component annotated
+ * {@link Literal} only ever takes the field text as written.
+ *
+ * Values are converted to the component types with Spring's conversion service (use
+ * wrapper types; null means not configured). Defaults and required checks belong in the
+ * record's compact constructor, see {@link #required}.
+ *
+ * Bindings of at most app.delegates.config.cache-size activities are kept; the least
+ * recently used one is evicted to make room.
+ */
+@Component
+public class DelegateConfigBinder {
+
+    private final DelegateVariables delegateVariables;
+    private final Map<BindingKey, ConfigBinding<?>> bindings;
+
+    public DelegateConfigBinder(DelegateVariables delegateVariables,
+                                @Value("${app.delegates.config.cache-size:1000}") int cacheSize) {
+        this.delegateVariables = delegateVariables;
+        this.bindings = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<BindingKey, ConfigBinding<?>> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Configuration of the current activity
+     *
+     * @throws IllegalArgumentException if a value cannot be converted or a required value is missing
+     */
+    public <C extends Record> C bind(DelegateExecution execution, Class<C> type) {
+        BindingKey key = new BindingKey(execution.getProcessDefinitionId(), execution.getCurrentActivityId(), type);
+        ConfigBinding<C> binding = binding(key, () -> ConfigBinding.create(type, execution.getCurrentFlowElement(),
+            CommandContextUtil.getProcessEngineConfiguration().getExpressionManager()));
+        return binding.bind(execution, delegateVariables);
+    }
+
+    /**
+     * Cached binding, created outside the lock on a miss
+     */
+    @SuppressWarnings("unchecked")
+    <C extends Record> ConfigBinding<C> binding(BindingKey key, Supplier<ConfigBinding<C>> factory) {
+        ConfigBinding<C> binding;
+        synchronized (bindings) {
+            binding = (ConfigBinding<C>) bindings.get(key);
+        }
+        if (binding == null) {
+            ConfigBinding<C> created = factory.get();
+            synchronized (bindings) {
+                binding = (ConfigBinding<C>) bindings.putIfAbsent(key, created);
+            }
+            if (binding == null) {
+                binding = created;
+            }
+        }
+        return binding;
+    }
+
+    /**
+     * Required check for config record constructors
+     *
+     * @throws IllegalArgumentException if the value is null or a blank string
+     */
+    public static <T> T required(T value, String name) {
+        if (value == null || value instanceof String text && text.isBlank()) {
+            throw new IllegalArgumentException("Required variable '" + name + "' is not set");
+        }
+        return value;
+    }
+
+    public int size() {
+        synchronized (bindings) {
+            return bindings.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (bindings) {
+            bindings.clear();
+        }
+    }
+
+    record BindingKey(String processDefinitionId, String activityId, Class<?> type) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.werkflow.delegates.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a config record component that is taken verbatim from the activity's field extension
+ *
+ * The field text is never evaluated as an expression and the component is never read from a
+ * process variable, so its value is the same for every execution of the activity. Use it for
+ * values that must not carry process data, such as template source.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.RECORD_COMPONENT, ElementType.PARAMETER})
+public @interface Literal {
+}
@@ -1,31 +1,60 @@
 package com.werkflow.delegates.email;
 
+import com.werkflow.common.delegate.DelegateVariables;
+import com.werkflow.delegates.config.DelegateConfigBinder;
+import com.werkflow.delegates.config.Literal;
+import com.werkflow.delegates.template.CompiledTemplate;
+import com.werkflow.delegates.template.NotificationTemplates;
+import com.werkflow.delegates.template.RenderedMessage;
+import com.werkflow.delegates.template.TemplateFormat;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.flowable.engine.delegate.DelegateExecution;
 import org.flowable.engine.delegate.JavaDelegate;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Component;
 
-import jakarta.mail.internet.MimeMessage;
-import java.util.List;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
+import java.util.HashSet;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 /**
  * Generic Email Delegate for sending emails from workflows
  *
- * Configurable via BPMN process variables:
+ * The email is written to the email outbox in the process transaction and sent by
+ * EmailOutboxDispatcher after commit, so the step neither waits for SMTP nor fails when
+ * the relay is briefly unavailable. Addresses are validated here so that a misconfigured
+ * task still fails immediately.
+ *
+ * Configurable via BPMN field extensions or process variables (see DelegateConfigBinder):
  * - to: Recipient email address or comma-separated list (required)
  * - cc: CC recipients (optional)
  * - bcc: BCC recipients (optional)
- * - subject: Email subject (required)
- * - body: Email body content (required)
- * - isHtml: Whether body is HTML (default: false)
+ * - subject: Email subject (required unless template is set)
+ * - body: Email body content, sent exactly as given (required unless template or
+ *   bodyTemplate is set)
+ * - bodyTemplate: Inline body template with {{placeholders}} (optional, instead of body);
+ *   taken verbatim from a flowable:string field, never from an expression or a process
+ *   variable, so process data cannot add template tags
+ * - isHtml: Whether body or bodyTemplate is HTML (default: false)
+ * - template: Stored template key (optional, see NotificationTemplates); supplies subject
+ *   and body
+ * - variables: Extra template variables (optional Map); templates are rendered with these
+ *   plus the process variables they reference
+ * - locale: Template locale, e.g. "de" or "de_CH" (optional)
  * - from: Sender email (optional, uses default from config)
  * - fromName: Sender name (optional)
  * - replyTo: Reply-to address (optional)
+ * - relay: SMTP relay name under app.delegates.email.relays (optional, uses the default relay)
+ * - priority: low, normal, high or urgent (default: normal); urgent email is never digested
+ * - digest: Whether a single-recipient email may be coalesced into the recipient's digest
+ *   (default: true, see EmailDigester)
+ *
+ * Sets emailSent (true once the email is queued), emailSentTo, emailStatus ("QUEUED")
+ * and emailId (outbox id).
  *
  * Example BPMN configuration:
  * <serviceTask id="sendEmail" flowable:delegateExpression="${emailDelegate}">
@@ -47,104 +76,111 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class EmailDelegate implements JavaDelegate {
 
-    private final JavaMailSender mailSender;
+    private final EmailOutbox emailOutbox;
+    private final EmailDigester emailDigester;
+    private final EmailRelays emailRelays;
+    private final NotificationTemplates notificationTemplates;
+    private final DelegateVariables delegateVariables;
+    private final DelegateConfigBinder configBinder;
 
     @Override
     public void execute(DelegateExecution execution) {
-        log.info("Executing EmailDelegate for process: {}", execution.getProcessInstanceId());
-
-        // Get configuration from process variables
-        String to = getRequiredVariable(execution, "to");
-        String subject = getRequiredVariable(execution, "subject");
-        String body = getRequiredVariable(execution, "body");
-
-        String cc = getVariable(execution, "cc", null);
-        String bcc = getVariable(execution, "bcc", null);
-        Boolean isHtml = getVariable(execution, "isHtml", false);
-        String from = getVariable(execution, "from", null);
-        String fromName = getVariable(execution, "fromName", null);
-        String replyTo = getVariable(execution, "replyTo", null);
+        log.debug("Executing EmailDelegate for process: {}", execution.getProcessInstanceId());
+
+        EmailConfig config = configBinder.bind(execution, EmailConfig.class);
+        String to = config.to();
+        String cc = config.cc();
+        String bcc = config.bcc();
+        String template = config.template();
+        String subject = config.subject();
+        String bodyTemplate = config.bodyTemplate();
+        String body = config.body();
+        Boolean isHtml = config.isHtml();
 
         log.debug("Email configuration: to={}, subject={}, isHtml={}", to, subject, isHtml);
 
         try {
-            if (isHtml) {
-                sendHtmlEmail(to, cc, bcc, subject, body, from, fromName, replyTo);
-            } else {
-                sendSimpleEmail(to, cc, bcc, subject, body, from, replyTo);
+            validateEmails(to);
+            if (cc != null) validateEmails(cc);
+            if (bcc != null) validateEmails(bcc);
+
+            if (template != null) {
+                Locale locale = config.locale() != null
+                    ? Locale.forLanguageTag(config.locale().replace('_', '-')) : null;
+                RenderedMessage rendered = notificationTemplates.render(template, locale,
+                    templateVariables(execution, notificationTemplates.variables(template, locale), config));
+                subject = subject != null ? subject : rendered.subject();
+                body = rendered.body();
+                isHtml = rendered.isHtml();
+            } else if (bodyTemplate != null) {
+                CompiledTemplate compiled = notificationTemplates.inline(bodyTemplate,
+                    isHtml ? TemplateFormat.HTML : TemplateFormat.TEXT);
+                body = compiled.render(templateVariables(execution, compiled.getVariables(), config));
             }
 
-            log.info("Email sent successfully to: {}", to);
+            OutboundEmail email = new OutboundEmail(execution.getProcessInstanceId(),
+                emailRelays.resolveName(config.relay()), to, cc, bcc, subject, body, isHtml, config.from(),
+                config.fromName(), config.replyTo());
+            UUID emailId = config.digest()
+                ? emailDigester.submit(email, config.priority())
+                : emailOutbox.enqueue(email);
+
+            log.debug("Email queued for: {}", to);
 
             // Mark as successful
-            execution.setVariable("emailSent", true);
-            execution.setVariable("emailSentTo", to);
+            delegateVariables.set(execution, "emailSent", true);
+            delegateVariables.set(execution, "emailSentTo", to);
+            delegateVariables.set(execution, "emailStatus", "QUEUED");
+            delegateVariables.set(execution, "emailId", emailId.toString());
 
         } catch (Exception e) {
-            log.error("Failed to send email: {}", e.getMessage(), e);
+            log.error("Failed to queue email: {}", e.getMessage(), e);
 
             // Store error information
-            execution.setVariable("emailSent", false);
-            execution.setVariable("emailError", e.getMessage());
+            delegateVariables.set(execution, "emailSent", false);
+            delegateVariables.set(execution, "emailError", e.getMessage());
 
             throw new RuntimeException("Email sending failed: " + e.getMessage(), e);
         }
     }
 
-    private void sendSimpleEmail(String to, String cc, String bcc, String subject,
-                                  String body, String from, String replyTo) {
-        SimpleMailMessage message = new SimpleMailMessage();
-
-        message.setTo(splitEmails(to));
-        if (cc != null) message.setCc(splitEmails(cc));
-        if (bcc != null) message.setBcc(splitEmails(bcc));
-        if (from != null) message.setFrom(from);
-        if (replyTo != null) message.setReplyTo(replyTo);
-
-        message.setSubject(subject);
-        message.setText(body);
-
-        mailSender.send(message);
+    /**
+     * Referenced process variables, overridden by the configured variables
+     */
+    private Map<String, Object> templateVariables(DelegateExecution execution, Set<String> names, EmailConfig config) {
+        Set<String> missing = new HashSet<>(names);
+        missing.removeAll(config.variables().keySet());
+        Map<String, Object> variables = delegateVariables.getAll(execution, missing);
+        variables.putAll(config.variables());
+        return variables;
     }
 
-    private void sendHtmlEmail(String to, String cc, String bcc, String subject,
-                                String body, String from, String fromName, String replyTo) throws Exception {
-        MimeMessage message = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-        helper.setTo(splitEmails(to));
-        if (cc != null) helper.setCc(splitEmails(cc));
-        if (bcc != null) helper.setBcc(splitEmails(bcc));
-
-        if (from != null && fromName != null) {
-            helper.setFrom(from, fromName);
-        } else if (from != null) {
-            helper.setFrom(from);
+    private void validateEmails(String emails) throws AddressException {
+        for (String email : emails.split("[,;]\\s*")) {
+            new InternetAddress(email, true);
         }
-
-        if (replyTo != null) helper.setReplyTo(replyTo);
-
-        helper.setSubject(subject);
-        helper.setText(body, true); // true = isHtml
-
-        mailSender.send(message);
     }
 
-    private String[] splitEmails(String emails) {
-        return emails.split("[,;]\\s*");
-    }
-
-    private String getRequiredVariable(DelegateExecution execution, String variableName) {
-        Object value = execution.getVariable(variableName);
-        if (value == null || value.toString().trim().isEmpty()) {
-            throw new IllegalArgumentException("Required variable '" + variableName + "' is not set");
+    /**
+     * Email configuration, resolved once per activity where static
+     */
+    record EmailConfig(String to, String cc, String bcc, String subject, String body,
+                       @Literal String bodyTemplate, Boolean isHtml, String template,
+                       Map<String, Object> variables, String locale, String from, String fromName,
+                       String replyTo, String relay, String priority, Boolean digest) {
+
+        EmailConfig {
+            DelegateConfigBinder.required(to, "to");
+            if (template == null) {
+                DelegateConfigBinder.required(subject, "subject");
+                if (bodyTemplate == null) {
+                    DelegateConfigBinder.required(body, "body");
+                }
+            }
+            isHtml = isHtml != null ? isHtml : false;
+            variables = variables != null ? variables : Map.of();
+            priority = priority != null ? priority : "normal";
+            digest = digest != null ? digest : true;
         }
-        return value.toString();
-    }
-
-    @SuppressWarnings("unchecked")
-    private <T> T getVariable(DelegateExecution execution, String variableName, T defaultValue) {
-        Object value = execution.getVariable(variableName);
-        return value != null ? (T) value : defaultValue;
     }
 }
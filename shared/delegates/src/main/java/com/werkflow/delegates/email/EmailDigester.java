@@ -0,0 +1,120 @@
+package com.werkflow.delegates.email;
+
+import com.werkflow.delegates.template.NotificationTemplates;
+import com.werkflow.delegates.template.RenderedMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.HtmlUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Coalesces workflow email per recipient into digests
+ *
+ * During bulk runs one approver can receive hundreds of notifications within minutes.
+ * Email to a single recipient is therefore held in the outbox for the digest window and
+ * sent together with everything else queued for that recipient in the window, as one
+ * message. Identical events (same subject and body) within a window are sent once.
+ *
+ * Email is sent on its own, without waiting, when its priority is listed in
+ * bypass-priorities (urgent by default), when it has several recipients or CC/BCC, or
+ * when digesting is disabled.
+ */
+@Component
+@RequiredArgsConstructor
+public class EmailDigester {
+
+    private final EmailOutbox outbox;
+    private final EmailProperties properties;
+    private final NotificationTemplates templates;
+
+    /**
+     * Queue an email, coalescing it into the recipient's digest where allowed
+     *
+     * @param email    Email to queue
+     * @param priority Notification priority (low, normal, high, urgent)
+     * @return Outbox id of the email, or of the identical pending event it was merged into
+     */
+    public UUID submit(OutboundEmail email, String priority) {
+        if (!isDigestible(email, priority)) {
+            return outbox.enqueue(email);
+        }
+        String recipient = email.to().trim().toLowerCase(Locale.ROOT);
+        return outbox.enqueueDigest(email, recipient, eventKey(email),
+            Duration.ofSeconds(properties.getDigest().getWindowSeconds()));
+    }
+
+    /**
+     * Merge emails queued for one recipient into a single message
+     *
+     * Duplicate events are dropped. A single remaining event is sent unchanged; otherwise
+     * the events are rendered through the digest template (app.delegates.email.digest.template),
+     * as HTML if any event is HTML.
+     */
+    public OutboundEmail compose(List<OutboundEmail> emails) {
+        Map<String, OutboundEmail> events = new LinkedHashMap<>();
+        for (OutboundEmail email : emails) {
+            events.putIfAbsent(eventKey(email), email);
+        }
+        if (events.size() == 1) {
+            return events.values().iterator().next();
+        }
+
+        OutboundEmail first = emails.get(0);
+        boolean html = events.values().stream().anyMatch(OutboundEmail::html);
+
+        List<Map<String, Object>> eventVariables = new ArrayList<>(events.size());
+        for (OutboundEmail event : events.values()) {
+            String bodyHtml = event.html()
+                ? event.body()
+                : HtmlUtils.htmlEscape(event.body()).replace("\n", "<br>\n");
+            eventVariables.add(Map.of("subject", event.subject(), "body", event.body(), "bodyHtml", bodyHtml));
+        }
+        RenderedMessage digest = templates.render(properties.getDigest().getTemplate(), null,
+            Map.of("count", events.size(), "events", eventVariables));
+        String subject = digest.subject();
+        String body = html ? digest.html() : digest.text();
+
+        boolean sameSender = events.values().stream()
+            .allMatch(event -> first.from() == null ? event.from() == null : first.from().equals(event.from()));
+        return new OutboundEmail(null, first.relay(), first.to(), null, null, subject, body, html,
+            sameSender ? first.from() : null, sameSender ? first.fromName() : null, null);
+    }
+
+    public int getMaxEvents() {
+        return properties.getDigest().getMaxEvents();
+    }
+
+    private boolean isDigestible(OutboundEmail email, String priority) {
+        EmailProperties.Digest digest = properties.getDigest();
+        return digest.getEnabled()
+            && digest.getWindowSeconds() > 0
+            && (priority == null || digest.getBypassPriorities().stream().noneMatch(priority::equalsIgnoreCase))
+            && email.cc() == null
+            && email.bcc() == null
+            && !email.to().contains(",")
+            && !email.to().contains(";");
+    }
+
+    private static String eventKey(OutboundEmail email) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            sha256.update(email.subject().getBytes(StandardCharsets.UTF_8));
+            sha256.update((byte) 0);
+            sha256.update(email.body().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(sha256.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
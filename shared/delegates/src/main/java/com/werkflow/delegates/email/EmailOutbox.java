@@ -0,0 +1,216 @@
+package com.werkflow.delegates.email;
+
+import com.werkflow.delegates.retry.DeadLetter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Data access for the email_outbox table
+ *
+ * Rows are inserted by the delegates through the engine's DataSource, so an email is only
+ * sent if the process step that produced it commits. Claiming uses FOR UPDATE SKIP LOCKED,
+ * so several engine nodes can drain the same outbox; a claim expires after the lock timeout
+ * in case the claiming node dies mid-send.
+ *
+ * Digest rows carry the recipient they are coalesced under. A digest is claimed as a
+ * whole: once any of its rows is due, every pending row for the recipient is claimed
+ * under a transaction-scoped advisory lock on the digest key, so a digest is never split
+ * across polls or nodes. A unique index on (digest_key, event_key) over queued rows keeps
+ * an event from being queued twice for a recipient, even by concurrent transactions.
+ *
+ * FAILED rows are the dead letters of the email delegates; an operator requeues or
+ * discards them (see DeadLetterQueue).
+ */
+@Component
+@RequiredArgsConstructor
+public class EmailOutbox {
+
+    private static final String COLUMNS = "id, process_instance_id, relay, recipients, cc, bcc, subject, body, " +
+        "is_html, from_address, from_name, reply_to, attempts, digest_key";
+
+    private static final String DUE = "(status = 'PENDING' AND next_attempt_at <= NOW()) " +
+        "OR (status = 'IN_FLIGHT' AND locked_until < NOW())";
+
+    private static final RowMapper<Entry> ENTRY_MAPPER = (rs, rowNum) -> new Entry(
+        rs.getObject("id", UUID.class),
+        rs.getInt("attempts"),
+        rs.getString("digest_key"),
+        new OutboundEmail(
+            rs.getString("process_instance_id"),
+            rs.getString("relay"),
+            rs.getString("recipients"),
+            rs.getString("cc"),
+            rs.getString("bcc"),
+            rs.getString("subject"),
+            rs.getString("body"),
+            rs.getBoolean("is_html"),
+            rs.getString("from_address"),
+            rs.getString("from_name"),
+            rs.getString("reply_to")
+        )
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Queue an email in the current transaction
+     *
+     * @return Outbox id of the email
+     */
+    public UUID enqueue(OutboundEmail email) {
+        return jdbcTemplate.queryForObject(
+            "INSERT INTO email_outbox (process_instance_id, relay, recipients, cc, bcc, subject, body, is_html, " +
+                "from_address, from_name, reply_to) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) RETURNING id",
+            UUID.class,
+            email.processInstanceId(), email.relay(), email.to(), email.cc(), email.bcc(), email.subject(),
+            email.body(), email.html(), email.from(), email.fromName(), email.replyTo());
+    }
+
+    /**
+     * Queue an email to be coalesced with the recipient's other pending email
+     *
+     * The row becomes due when the recipient's open digest window closes, or after window
+     * if none is open. An identical event already queued for the recipient is not queued again.
+     *
+     * @param email     Email for a single recipient
+     * @param digestKey Recipient the email is coalesced under
+     * @param eventKey  Identity of the event, for deduplication
+     * @param window    Digest window opened if none is pending
+     * @return Outbox id of the new row, or of the queued row it duplicates
+     */
+    public UUID enqueueDigest(OutboundEmail email, String digestKey, String eventKey, Duration window) {
+        // The no-op update makes RETURNING yield the id of the row already queued
+        return jdbcTemplate.queryForObject(
+            "INSERT INTO email_outbox (process_instance_id, relay, recipients, cc, bcc, subject, body, is_html, " +
+                "from_address, from_name, reply_to, digest_key, event_key, next_attempt_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, COALESCE((SELECT MIN(next_attempt_at) " +
+                "FROM email_outbox WHERE status = 'PENDING' AND digest_key = ? AND relay = ?), " +
+                "NOW() + (? * INTERVAL '1 millisecond'))) " +
+                "ON CONFLICT (digest_key, event_key) WHERE status IN ('PENDING', 'IN_FLIGHT') " +
+                "DO UPDATE SET event_key = EXCLUDED.event_key RETURNING id",
+            UUID.class,
+            email.processInstanceId(), email.relay(), email.to(), email.cc(), email.bcc(), email.subject(),
+            email.body(), email.html(), email.from(), email.fromName(), email.replyTo(), digestKey, eventKey,
+            digestKey, email.relay(), window.toMillis());
+    }
+
+    /**
+     * Claim due emails (and emails whose claim expired) for sending
+     *
+     * Plain emails are claimed row by row. Digests are claimed whole: up to limit digests
+     * with a due row are picked, and all their pending rows are claimed by the node that
+     * gets the digest's advisory lock; the others skip the digest.
+     *
+     * @param limit       Maximum plain emails, and maximum digests, to claim
+     * @param lockTimeout How long the claim is held
+     * @return Claimed rows, attempts already incremented
+     */
+    public List<Entry> claimDue(int limit, Duration lockTimeout) {
+        return jdbcTemplate.query(
+            "WITH due_emails AS (" +
+                "SELECT id FROM email_outbox WHERE digest_key IS NULL AND (" + DUE + ") " +
+                "ORDER BY next_attempt_at LIMIT ? FOR UPDATE SKIP LOCKED), " +
+                "due_digests AS (" +
+                "SELECT digest_key FROM email_outbox WHERE digest_key IS NOT NULL AND (" + DUE + ") " +
+                "GROUP BY digest_key ORDER BY MIN(next_attempt_at) LIMIT ?), " +
+                "claimed_digests AS MATERIALIZED (" +
+                "SELECT digest_key FROM due_digests " +
+                "WHERE pg_try_advisory_xact_lock(hashtextextended('email_outbox:' || digest_key, 0))) " +
+                "UPDATE email_outbox SET status = 'IN_FLIGHT', attempts = attempts + 1, " +
+                "locked_until = NOW() + (? * INTERVAL '1 millisecond') " +
+                "WHERE id IN (SELECT id FROM due_emails) " +
+                "OR (digest_key IN (SELECT digest_key FROM claimed_digests) " +
+                "AND (status = 'PENDING' OR (status = 'IN_FLIGHT' AND locked_until < NOW()))) " +
+                "RETURNING " + COLUMNS,
+            ENTRY_MAPPER, limit, limit, lockTimeout.toMillis());
+    }
+
+    public void markSent(Collection<UUID> ids) {
+        jdbcTemplate.batchUpdate(
+            "UPDATE email_outbox SET status = 'SENT', sent_at = NOW(), locked_until = NULL, last_error = NULL " +
+                "WHERE id = ?",
+            ids.stream().map(id -> new Object[]{id}).toList());
+    }
+
+    public void markRetry(UUID id, String error, Duration delay) {
+        jdbcTemplate.update(
+            "UPDATE email_outbox SET status = 'PENDING', last_error = ?, locked_until = NULL, " +
+                "next_attempt_at = NOW() + (? * INTERVAL '1 millisecond') WHERE id = ?",
+            error, delay.toMillis(), id);
+    }
+
+    public void markFailed(UUID id, String error) {
+        jdbcTemplate.update(
+            "UPDATE email_outbox SET status = 'FAILED', last_error = ?, locked_until = NULL, failed_at = NOW() " +
+                "WHERE id = ?",
+            error, id);
+    }
+
+    /**
+     * FAILED rows, most recently failed first
+     */
+    public List<DeadLetter> findFailed(int limit) {
+        return jdbcTemplate.query(
+            "SELECT id, process_instance_id, recipients, attempts, last_error, failed_at FROM email_outbox " +
+                "WHERE status = 'FAILED' ORDER BY failed_at DESC NULLS LAST, created_at DESC LIMIT ?",
+            (rs, rowNum) -> new DeadLetter(
+                DeadLetter.Source.EMAIL,
+                rs.getObject("id", UUID.class).toString(),
+                "emailDelegate",
+                rs.getString("process_instance_id"),
+                rs.getString("recipients"),
+                rs.getInt("attempts"),
+                rs.getString("last_error"),
+                rs.getTimestamp("failed_at") != null ? rs.getTimestamp("failed_at").toInstant() : null),
+            limit);
+    }
+
+    /**
+     * Queue FAILED rows for sending again, with a fresh set of attempts
+     *
+     * The event key is cleared so a requeued row never collides with an identical event
+     * queued in the meantime; the digest still drops the duplicate when it is composed.
+     *
+     * @return Rows requeued
+     */
+    public int requeueFailed(Collection<UUID> ids) {
+        return updateFailed(
+            "status = 'PENDING', attempts = 0, next_attempt_at = NOW(), failed_at = NULL, event_key = NULL", ids);
+    }
+
+    /**
+     * Give up on FAILED rows for good
+     *
+     * @return Rows discarded
+     */
+    public int discardFailed(Collection<UUID> ids) {
+        return updateFailed("status = 'DISCARDED'", ids);
+    }
+
+    private int updateFailed(String assignments, Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        UUID[] idArray = ids.toArray(new UUID[0]);
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                "UPDATE email_outbox SET " + assignments + " WHERE id = ANY(?) AND status = 'FAILED'");
+            statement.setArray(1, connection.createArrayOf("uuid", idArray));
+            return statement;
+        });
+    }
+
+    /**
+     * Outbox row
+     */
+    public record Entry(UUID id, int attempts, String digestKey, OutboundEmail email) {
+    }
+}
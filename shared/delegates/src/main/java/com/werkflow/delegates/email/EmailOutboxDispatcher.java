@@ -0,0 +1,251 @@
+package com.werkflow.delegates.email;
+
+import com.werkflow.common.delegate.DelegateMetrics;
+import com.werkflow.delegates.retry.RetryPolicy;
+import com.werkflow.delegates.retry.RetryProperties;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends queued email over pooled SMTP connections
+ *
+ * Each poll claims a batch of due emails and groups them by relay. A relay's share of the
+ * batch is split across up to maxConnections workers; each worker borrows one pooled
+ * connection and sends its messages over it back to back, paced by the relay's rate
+ * limiter. Outcomes are recorded on the scheduler thread once the batch is done.
+ *
+ * Digest rows claimed for the same recipient are merged by EmailDigester into one message
+ * (at most max-events per message) and share its outcome.
+ *
+ * Messages the relay rejects outright (malformed or refused addresses) or that name an
+ * unknown relay are marked FAILED. Other failures, such as a dropped connection or a 4xx
+ * reply, are retried under the emailDelegate retry policy (app.delegates.retry) until its
+ * maxAttempts is reached.
+ */
+@Slf4j
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final String DELEGATE = "emailDelegate";
+
+    private final EmailOutbox outbox;
+    private final EmailRelays relays;
+    private final EmailDigester digester;
+    private final EmailProperties.Outbox config;
+    private final RetryPolicy retryPolicy;
+    private final DelegateMetrics metrics;
+    private final Duration lockTimeout;
+    private final ExecutorService workers;
+
+    public EmailOutboxDispatcher(EmailOutbox outbox, EmailRelays relays, EmailDigester digester,
+                                 EmailProperties properties, RetryProperties retryProperties,
+                                 DelegateMetrics metrics) {
+        this.outbox = outbox;
+        this.relays = relays;
+        this.digester = digester;
+        this.config = properties.getOutbox();
+        this.retryPolicy = retryProperties.policy(DELEGATE);
+        this.metrics = metrics;
+        this.lockTimeout = Duration.ofSeconds(config.getLockTimeoutSeconds());
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(config.getWorkerThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "email-outbox-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Send due emails
+     */
+    @Scheduled(fixedDelayString = "${app.delegates.email.outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        if (!config.getEnabled()) {
+            return;
+        }
+        try {
+            relays.evictIdle();
+            List<EmailOutbox.Entry> batch = outbox.claimDue(config.getBatchSize(), lockTimeout);
+            if (!batch.isEmpty()) {
+                record(send(batch));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Email outbox dispatch failed: {}", e.getMessage());
+        }
+    }
+
+    private List<SendOutcome> send(List<EmailOutbox.Entry> batch) {
+        Map<String, List<Delivery>> byRelay = new LinkedHashMap<>();
+        for (Delivery delivery : toDeliveries(batch)) {
+            byRelay.computeIfAbsent(delivery.email().relay(), key -> new ArrayList<>()).add(delivery);
+        }
+
+        List<SendOutcome> outcomes = new ArrayList<>();
+        List<CompletableFuture<List<SendOutcome>>> chunks = new ArrayList<>();
+        for (Map.Entry<String, List<Delivery>> group : byRelay.entrySet()) {
+            EmailRelay relay;
+            try {
+                relay = relays.get(group.getKey());
+            } catch (IllegalArgumentException e) {
+                group.getValue().forEach(delivery -> outcomes.add(new SendOutcome(delivery, e, true)));
+                continue;
+            }
+            for (List<Delivery> chunk : partition(group.getValue(), relay.getConfig().getMaxConnections())) {
+                chunks.add(CompletableFuture.supplyAsync(() -> sendChunk(relay, chunk), workers));
+            }
+        }
+
+        chunks.forEach(chunk -> outcomes.addAll(chunk.join()));
+        return outcomes;
+    }
+
+    /**
+     * One message per plain entry, one digest per recipient (split at max-events)
+     */
+    private List<Delivery> toDeliveries(List<EmailOutbox.Entry> batch) {
+        List<Delivery> deliveries = new ArrayList<>();
+        Map<String, List<EmailOutbox.Entry>> digests = new LinkedHashMap<>();
+        for (EmailOutbox.Entry entry : batch) {
+            if (entry.digestKey() == null) {
+                deliveries.add(new Delivery(List.of(entry), entry.email()));
+            } else {
+                digests.computeIfAbsent(entry.email().relay() + "|" + entry.digestKey(), key -> new ArrayList<>())
+                    .add(entry);
+            }
+        }
+        int maxEvents = Math.max(1, digester.getMaxEvents());
+        for (List<EmailOutbox.Entry> digest : digests.values()) {
+            for (int from = 0; from < digest.size(); from += maxEvents) {
+                List<EmailOutbox.Entry> entries = digest.subList(from, Math.min(from + maxEvents, digest.size()));
+                deliveries.add(new Delivery(entries,
+                    digester.compose(entries.stream().map(EmailOutbox.Entry::email).toList())));
+            }
+        }
+        return deliveries;
+    }
+
+    /**
+     * Send a chunk over one pooled connection; runs on a worker thread
+     */
+    private List<SendOutcome> sendChunk(EmailRelay relay, List<Delivery> chunk) {
+        List<SendOutcome> outcomes = new ArrayList<>(chunk.size());
+        SmtpConnectionPool.Connection connection = null;
+        try {
+            for (Delivery delivery : chunk) {
+                try {
+                    MimeMessage message = relay.createMessage(delivery.email());
+                    relay.getRateLimiter().acquire();
+                    if (connection == null) {
+                        connection = relay.getPool().borrow(lockTimeout);
+                    }
+                    connection.send(message);
+                    outcomes.add(new SendOutcome(delivery, null, false));
+                } catch (AddressException | SendFailedException e) {
+                    // Rejected message; the connection is still usable
+                    outcomes.add(new SendOutcome(delivery, e, isPermanent(e)));
+                } catch (MessagingException e) {
+                    if (connection != null) {
+                        relay.getPool().invalidate(connection);
+                        connection = null;
+                    }
+                    outcomes.add(new SendOutcome(delivery, e, false));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (Delivery delivery : chunk.subList(outcomes.size(), chunk.size())) {
+                outcomes.add(new SendOutcome(delivery, e, false));
+            }
+        } finally {
+            if (connection != null) {
+                relay.getPool().release(connection);
+            }
+        }
+        return outcomes;
+    }
+
+    private void record(List<SendOutcome> outcomes) {
+        List<UUID> sent = new ArrayList<>();
+        for (SendOutcome outcome : outcomes) {
+            for (EmailOutbox.Entry entry : outcome.delivery().entries()) {
+                if (outcome.error() == null) {
+                    sent.add(entry.id());
+                } else if (outcome.permanent() || retryPolicy.exhausted(entry.attempts())) {
+                    outbox.markFailed(entry.id(), describe(outcome.error()));
+                    metrics.recordDeadLetter(DELEGATE, !outcome.permanent());
+                    log.error("Email {} to {} failed permanently after {} attempts: {}",
+                        entry.id(), entry.email().to(), entry.attempts(), describe(outcome.error()));
+                } else {
+                    Duration delay = retryPolicy.backoff(entry.attempts());
+                    outbox.markRetry(entry.id(), describe(outcome.error()), delay);
+                    metrics.recordRetry(DELEGATE, "outbox", delay);
+                    log.warn("Email {} failed (attempt {}), retrying in {} ms: {}",
+                        entry.id(), entry.attempts(), delay.toMillis(), describe(outcome.error()));
+                }
+            }
+        }
+        if (!sent.isEmpty()) {
+            outbox.markSent(sent);
+            log.info("Sent {} queued emails", sent.size());
+        }
+    }
+
+    /**
+     * Malformed addresses and recipients the relay refused will not succeed on retry
+     */
+    private static boolean isPermanent(MessagingException e) {
+        if (e instanceof AddressException) {
+            return true;
+        }
+        SendFailedException failed = (SendFailedException) e;
+        return failed.getInvalidAddresses() != null && failed.getInvalidAddresses().length > 0;
+    }
+
+    private static String describe(Throwable e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    private static <T> List<List<T>> partition(List<T> items, int parts) {
+        int count = Math.max(1, Math.min(parts, items.size()));
+        List<List<T>> partitions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        for (int i = 0; i < items.size(); i++) {
+            partitions.get(i % count).add(items.get(i));
+        }
+        return partitions;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * One message to send, covering one outbox row or a recipient's digest rows
+     */
+    private record Delivery(List<EmailOutbox.Entry> entries, OutboundEmail email) {
+    }
+
+    private record SendOutcome(Delivery delivery, Throwable error, boolean permanent) {
+    }
+}
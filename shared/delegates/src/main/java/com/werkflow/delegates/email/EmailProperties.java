@@ -0,0 +1,69 @@
+package com.werkflow.delegates.email;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outgoing mail settings shared by the email and notification delegates
+ *
+ * Each entry under relays is an SMTP server with its own connection pool and send rate.
+ * Mail is queued for the relay named by the task (or defaultRelay) and sent by
+ * EmailOutboxDispatcher. Non-urgent email to a single recipient is coalesced into a
+ * digest per recipient (see EmailDigester).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.delegates.email")
+@Getter
+@Setter
+public class EmailProperties {
+
+    private String defaultRelay = "default";
+    private Map<String, Relay> relays = new HashMap<>();
+    private Outbox outbox = new Outbox();
+    private Digest digest = new Digest();
+
+    @Getter
+    @Setter
+    public static class Relay {
+        private String host = "localhost";
+        private Integer port = 587;
+        private String username;
+        private String password;
+        private Boolean startTls = true;
+        private Boolean ssl = false;
+        private String from;
+        private String fromName;
+        private Integer maxConnections = 4;
+        private Integer maxMessagesPerConnection = 100;
+        private Double maxMessagesPerSecond = 10.0;
+        private Long idleTimeoutMs = 60000L;
+        private Long connectTimeoutMs = 10000L;
+        private Long timeoutMs = 30000L;
+    }
+
+    @Getter
+    @Setter
+    public static class Outbox {
+        private Boolean enabled = true;
+        private Integer batchSize = 100;
+        private Long lockTimeoutSeconds = 300L;
+        private Integer workerThreads = 8;
+    }
+
+    @Getter
+    @Setter
+    public static class Digest {
+        private Boolean enabled = true;
+        private Long windowSeconds = 300L;
+        private Integer maxEvents = 50;
+        private String template = "digest";
+        private List<String> bypassPriorities = new ArrayList<>(List.of("urgent"));
+    }
+}
@@ -0,0 +1,92 @@
+package com.werkflow.delegates.email;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import lombok.Getter;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.io.UnsupportedEncodingException;
+import java.time.Duration;
+import java.util.Properties;
+
+/**
+ * One configured SMTP relay: mail session, connection pool and send rate
+ */
+@Getter
+public class EmailRelay implements AutoCloseable {
+
+    private final String name;
+    private final EmailProperties.Relay config;
+    private final Session session;
+    private final SmtpConnectionPool pool;
+    private final RelayRateLimiter rateLimiter;
+
+    public EmailRelay(String name, EmailProperties.Relay config) {
+        this.name = name;
+        this.config = config;
+        this.session = Session.getInstance(sessionProperties(config));
+        this.pool = new SmtpConnectionPool(session, config.getHost(), config.getPort(),
+            hasCredentials(config) ? config.getUsername() : null,
+            hasCredentials(config) ? config.getPassword() : null,
+            config.getMaxConnections(), config.getMaxMessagesPerConnection(),
+            Duration.ofMillis(config.getIdleTimeoutMs()));
+        this.rateLimiter = new RelayRateLimiter(config.getMaxMessagesPerSecond());
+    }
+
+    /**
+     * Build the MIME message for a queued email, using the relay's sender if none is set
+     */
+    public MimeMessage createMessage(OutboundEmail email) throws MessagingException {
+        MimeMessage message = new MimeMessage(session);
+        MimeMessageHelper helper = new MimeMessageHelper(message, email.html(), "UTF-8");
+
+        helper.setTo(splitEmails(email.to()));
+        if (email.cc() != null) helper.setCc(splitEmails(email.cc()));
+        if (email.bcc() != null) helper.setBcc(splitEmails(email.bcc()));
+
+        String from = email.from() != null ? email.from() : config.getFrom();
+        String fromName = email.from() != null ? email.fromName() : config.getFromName();
+        if (from != null && fromName != null) {
+            try {
+                helper.setFrom(from, fromName);
+            } catch (UnsupportedEncodingException e) {
+                throw new MessagingException("Invalid sender name: " + fromName, e);
+            }
+        } else if (from != null) {
+            helper.setFrom(from);
+        }
+
+        if (email.replyTo() != null) helper.setReplyTo(email.replyTo());
+
+        helper.setSubject(email.subject());
+        helper.setText(email.body(), email.html());
+        return message;
+    }
+
+    @Override
+    public void close() {
+        pool.close();
+    }
+
+    private static String[] splitEmails(String emails) {
+        return emails.split("[,;]\\s*");
+    }
+
+    private static boolean hasCredentials(EmailProperties.Relay config) {
+        return config.getUsername() != null && !config.getUsername().isBlank();
+    }
+
+    private static Properties sessionProperties(EmailProperties.Relay config) {
+        Properties properties = new Properties();
+        properties.put("mail.smtp.host", config.getHost());
+        properties.put("mail.smtp.port", String.valueOf(config.getPort()));
+        properties.put("mail.smtp.auth", String.valueOf(hasCredentials(config)));
+        properties.put("mail.smtp.starttls.enable", String.valueOf(config.getStartTls()));
+        properties.put("mail.smtp.ssl.enable", String.valueOf(config.getSsl()));
+        properties.put("mail.smtp.connectiontimeout", String.valueOf(config.getConnectTimeoutMs()));
+        properties.put("mail.smtp.timeout", String.valueOf(config.getTimeoutMs()));
+        properties.put("mail.smtp.writetimeout", String.valueOf(config.getTimeoutMs()));
+        return properties;
+    }
+}
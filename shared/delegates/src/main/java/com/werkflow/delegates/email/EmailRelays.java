@@ -0,0 +1,61 @@
+package com.werkflow.delegates.email;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the SMTP relays configured under app.delegates.email.relays
+ *
+ * Relays are created on first use and keep their connection pool for the lifetime of the
+ * application.
+ */
+@Component
+@RequiredArgsConstructor
+public class EmailRelays {
+
+    private final EmailProperties properties;
+    private final Map<String, EmailRelay> relays = new ConcurrentHashMap<>();
+
+    /**
+     * @param name Relay name, or null for the default relay
+     * @return The relay
+     * @throws IllegalArgumentException if no relay with that name is configured
+     */
+    public EmailRelay get(String name) {
+        String relayName = resolveName(name);
+        return relays.computeIfAbsent(relayName, key -> {
+            EmailProperties.Relay config = properties.getRelays().get(key);
+            if (config == null) {
+                throw new IllegalArgumentException("Unknown email relay: " + key);
+            }
+            return new EmailRelay(key, config);
+        });
+    }
+
+    /**
+     * Name the email will be queued under; fails fast for unknown relays
+     */
+    public String resolveName(String name) {
+        String relayName = name != null ? name : properties.getDefaultRelay();
+        if (!properties.getRelays().containsKey(relayName)) {
+            throw new IllegalArgumentException("Unknown email relay: " + relayName);
+        }
+        return relayName;
+    }
+
+    /**
+     * Close connections that have been idle past their relay's idle timeout
+     */
+    public void evictIdle() {
+        relays.values().forEach(relay -> relay.getPool().evictIdle());
+    }
+
+    @PreDestroy
+    public void close() {
+        relays.values().forEach(EmailRelay::close);
+    }
+}
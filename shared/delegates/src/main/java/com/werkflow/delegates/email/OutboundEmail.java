@@ -0,0 +1,33 @@
+package com.werkflow.delegates.email;
+
+/**
+ * Email to be queued in the outbox
+ *
+ * Address fields hold comma or semicolon separated lists.
+ *
+ * @param processInstanceId Process that sent the email (may be null)
+ * @param relay             Relay name under app.delegates.email.relays
+ * @param to                Recipients
+ * @param cc                CC recipients (may be null)
+ * @param bcc               BCC recipients (may be null)
+ * @param subject           Subject
+ * @param body              Body, plain text or HTML
+ * @param html              Whether body is HTML
+ * @param from              Sender address (null for the relay's default)
+ * @param fromName          Sender name (may be null)
+ * @param replyTo           Reply-to address (may be null)
+ */
+public record OutboundEmail(
+    String processInstanceId,
+    String relay,
+    String to,
+    String cc,
+    String bcc,
+    String subject,
+    String body,
+    boolean html,
+    String from,
+    String fromName,
+    String replyTo
+) {
+}
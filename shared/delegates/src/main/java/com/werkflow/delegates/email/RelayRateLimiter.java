@@ -0,0 +1,53 @@
+package com.werkflow.delegates.email;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket limiting the send rate to one relay
+ *
+ * Relays throttle or temporarily block senders that exceed their agreed rate, so the
+ * dispatcher paces messages instead of sending a claimed batch as fast as the connections
+ * allow. Up to one second's worth of permits can be used in a burst. Callers that find the
+ * bucket empty reserve the next permit and sleep until it is due, so waiting senders are
+ * served in order.
+ */
+public class RelayRateLimiter {
+
+    private final double permitsPerNano;
+    private final double capacity;
+
+    private double permits;
+    private long lastRefillNanos;
+
+    /**
+     * @param permitsPerSecond Sustained rate; zero or negative disables limiting
+     */
+    public RelayRateLimiter(double permitsPerSecond) {
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = Math.max(1.0, permitsPerSecond);
+        this.permits = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Take one permit, sleeping until it is available
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private synchronized long reserve() {
+        if (permitsPerNano <= 0) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        permits = Math.min(capacity, permits + (now - lastRefillNanos) * permitsPerNano);
+        lastRefillNanos = now;
+
+        permits -= 1;
+        return permits >= 0 ? 0 : (long) (-permits / permitsPerNano);
+    }
+}
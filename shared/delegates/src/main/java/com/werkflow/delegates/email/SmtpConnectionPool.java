@@ -0,0 +1,168 @@
+package com.werkflow.delegates.email;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool of open SMTP connections to one relay
+ *
+ * Opening an SMTP connection costs a TCP handshake, STARTTLS and AUTH, which is usually
+ * far more than sending one message. Connections are kept open between sends and reused
+ * until they have been idle for idleTimeout or have sent maxMessagesPerConnection messages
+ * (many relays drop a session after a fixed number of messages). At most maxConnections
+ * are open at a time; borrowers wait for a free one.
+ */
+@Slf4j
+public class SmtpConnectionPool implements AutoCloseable {
+
+    private final Session session;
+    private final String host;
+    private final int port;
+    private final String username;
+    private final String password;
+    private final int maxMessagesPerConnection;
+    private final long idleTimeoutNanos;
+
+    private final Semaphore permits;
+    private final Deque<Connection> idle = new ArrayDeque<>();
+
+    public SmtpConnectionPool(Session session, String host, int port, String username, String password,
+                              int maxConnections, int maxMessagesPerConnection, Duration idleTimeout) {
+        this.session = session;
+        this.host = host;
+        this.port = port;
+        this.username = username;
+        this.password = password;
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.permits = new Semaphore(maxConnections, true);
+    }
+
+    /**
+     * Take an open connection, opening one if none is idle
+     *
+     * @param timeout How long to wait for a free connection
+     * @return Connection, to be handed back with release or invalidate
+     */
+    public Connection borrow(Duration timeout) throws MessagingException, InterruptedException {
+        if (!permits.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+            throw new MessagingException("No SMTP connection to " + host + ":" + port + " available within " + timeout);
+        }
+        try {
+            Connection connection;
+            while ((connection = pollIdle()) != null) {
+                if (!connection.isExpired(System.nanoTime()) && connection.transport.isConnected()) {
+                    return connection;
+                }
+                connection.close();
+            }
+            Transport transport = session.getTransport("smtp");
+            transport.connect(host, port, username, password);
+            log.debug("Opened SMTP connection to {}:{}", host, port);
+            return new Connection(transport);
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Return a healthy connection to the pool
+     */
+    public void release(Connection connection) {
+        if (connection.messagesSent >= maxMessagesPerConnection) {
+            connection.close();
+        } else {
+            connection.lastUsedNanos = System.nanoTime();
+            synchronized (idle) {
+                idle.push(connection);
+            }
+        }
+        permits.release();
+    }
+
+    /**
+     * Close a connection that failed instead of returning it
+     */
+    public void invalidate(Connection connection) {
+        connection.close();
+        permits.release();
+    }
+
+    /**
+     * Close connections that have been idle longer than the idle timeout
+     */
+    public void evictIdle() {
+        long now = System.nanoTime();
+        List<Connection> expired = new ArrayList<>();
+        synchronized (idle) {
+            idle.removeIf(connection -> connection.isExpired(now) && expired.add(connection));
+        }
+        expired.forEach(Connection::close);
+    }
+
+    public int getIdleCount() {
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+
+    @Override
+    public void close() {
+        List<Connection> open;
+        synchronized (idle) {
+            open = new ArrayList<>(idle);
+            idle.clear();
+        }
+        open.forEach(Connection::close);
+    }
+
+    private Connection pollIdle() {
+        synchronized (idle) {
+            return idle.poll();
+        }
+    }
+
+    /**
+     * Open SMTP connection, used by one thread at a time
+     */
+    public final class Connection {
+
+        private final Transport transport;
+        private int messagesSent;
+        private long lastUsedNanos = System.nanoTime();
+
+        private Connection(Transport transport) {
+            this.transport = transport;
+        }
+
+        public void send(MimeMessage message) throws MessagingException {
+            message.saveChanges();
+            transport.sendMessage(message, message.getAllRecipients());
+            messagesSent++;
+        }
+
+        private boolean isExpired(long now) {
+            return now - lastUsedNanos > idleTimeoutNanos;
+        }
+
+        private void close() {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Failed to close SMTP connection to {}:{}: {}", host, port, e.getMessage());
+            }
+        }
+    }
+}
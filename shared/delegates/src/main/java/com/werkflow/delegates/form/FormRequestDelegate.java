@@ -1,17 +1,20 @@
 package com.werkflow.delegates.form;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.werkflow.common.delegate.DelegateVariables;
+import com.werkflow.delegates.config.DelegateConfigBinder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.flowable.engine.delegate.DelegateExecution;
 import org.flowable.engine.delegate.JavaDelegate;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * Generic Form Request Delegate for cross-department form-based requests
@@ -19,7 +22,7 @@ import java.util.Map;
  * This delegate enables departments to handle form-based requests from other departments
  * without code changes. Each department maintains their own resource catalogs.
  *
- * Configurable via BPMN process variables:
+ * Configurable via BPMN field extensions or process variables (see DelegateConfigBinder):
  * - targetDepartment: Department to handle request (IT, Admin, HR, Finance, etc.) (required)
  * - formType: Type of request form (asset, access, facility, equipment, training) (required)
  * - formData: Form submission data (required)
@@ -30,6 +33,22 @@ import java.util.Map;
  * - targetServiceUrl: Department service URL (optional, defaults to convention)
  * - notifyOnCreation: Send notification when request created (default: true)
  * - responseVariable: Variable to store response (default: "formRequestResponse")
+ * - completionMessage: Message event triggered when the department service has answered
+ *   (default: "formRequestCompleted")
+ *
+ * Submissions are not sent from the engine transaction. They are written to the
+ * form_request_outbox table in the same transaction as the process step, so a rolled back
+ * step never reaches the department service, and the task no longer waits on it.
+ * FormRequestOutboxDispatcher sends them after commit with an Idempotency-Key header,
+ * retries with backoff, and correlates the outcome back to the process.
+ *
+ * Contract: when the task completes formRequestId is not set yet, formRequestStatus is
+ * "QUEUED" and responseVariable holds the idempotency key. The process must wait on an
+ * intermediate message catch event named completionMessage, which receives
+ * responseVariable, formRequestId, formRequestStatus (and the notification variables)
+ * once the department service has answered or the submission failed. The outcome is
+ * only delivered to that event: it is kept until the process reaches it and dropped if
+ * the process ends first.
  *
  * Example use cases:
  * 1. Asset Request (IT Department):
@@ -77,7 +96,10 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class FormRequestDelegate implements JavaDelegate {
 
-    private final WebClient.Builder webClientBuilder;
+    private final FormRequestOutbox outbox;
+    private final ObjectMapper objectMapper;
+    private final DelegateVariables delegateVariables;
+    private final DelegateConfigBinder configBinder;
 
     private static final Map<String, String> SERVICE_URL_MAP = new HashMap<>();
 
@@ -92,20 +114,13 @@ public class FormRequestDelegate implements JavaDelegate {
 
     @Override
     public void execute(DelegateExecution execution) {
-        log.info("Executing FormRequestDelegate for process: {}", execution.getProcessInstanceId());
-
-        // Get configuration
-        String targetDepartment = getRequiredVariable(execution, "targetDepartment");
-        String formType = getRequiredVariable(execution, "formType");
-        Map<String, Object> formData = getRequiredVariable(execution, "formData");
-        String requestorId = getRequiredVariable(execution, "requestorId");
+        log.debug("Executing FormRequestDelegate for process: {}", execution.getProcessInstanceId());
 
-        String requestorDepartment = getVariable(execution, "requestorDepartment", "");
-        String priority = getVariable(execution, "priority", "normal");
-        String autoAssignToRole = getVariable(execution, "autoAssignToRole", null);
-        String targetServiceUrl = getVariable(execution, "targetServiceUrl", null);
-        Boolean notifyOnCreation = getVariable(execution, "notifyOnCreation", true);
-        String responseVariable = getVariable(execution, "responseVariable", "formRequestResponse");
+        FormRequestConfig config = configBinder.bind(execution, FormRequestConfig.class);
+        String targetDepartment = config.targetDepartment();
+        String formType = config.formType();
+        String requestorId = config.requestorId();
+        String responseVariable = config.responseVariable();
 
         log.debug("Form request: department={}, type={}, requestor={}",
             targetDepartment, formType, requestorId);
@@ -114,96 +129,73 @@ public class FormRequestDelegate implements JavaDelegate {
         Map<String, Object> requestPayload = new HashMap<>();
         requestPayload.put("department", targetDepartment);
         requestPayload.put("formType", formType);
-        requestPayload.put("formData", formData);
+        requestPayload.put("formData", config.formData());
         requestPayload.put("requestorId", requestorId);
-        requestPayload.put("requestorDepartment", requestorDepartment);
-        requestPayload.put("priority", priority);
+        requestPayload.put("requestorDepartment", config.requestorDepartment());
+        requestPayload.put("priority", config.priority());
         requestPayload.put("processInstanceId", execution.getProcessInstanceId());
         requestPayload.put("submittedAt", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
 
-        if (autoAssignToRole != null) {
-            requestPayload.put("autoAssignToRole", autoAssignToRole);
+        if (config.autoAssignToRole() != null) {
+            requestPayload.put("autoAssignToRole", config.autoAssignToRole());
         }
 
         // Determine target service URL
-        String serviceUrl = targetServiceUrl != null ? targetServiceUrl :
+        String serviceUrl = config.targetServiceUrl() != null ? config.targetServiceUrl() :
             SERVICE_URL_MAP.getOrDefault(targetDepartment.toUpperCase(), null);
 
         if (serviceUrl == null) {
             throw new IllegalArgumentException("No service URL configured for department: " + targetDepartment);
         }
 
-        try {
-            // Submit request to department service
-            WebClient webClient = webClientBuilder.build();
-
-            Map<String, Object> response = webClient
-                .post()
-                .uri(serviceUrl)
-                .header("Content-Type", "application/json")
-                .bodyValue(requestPayload)
-                .retrieve()
-                .bodyToMono(Map.class)
-                .timeout(java.time.Duration.ofSeconds(30))
-                .block();
-
-            log.info("Form request submitted successfully. Request ID: {}", response.get("requestId"));
-
-            // Store response
-            Map<String, Object> result = new HashMap<>();
-            result.put("success", true);
-            result.put("requestId", response.get("requestId"));
-            result.put("status", response.get("status"));
-            result.put("assignedTo", response.get("assignedTo"));
-            result.put("targetDepartment", targetDepartment);
-            result.put("formType", formType);
-            result.put("submittedAt", requestPayload.get("submittedAt"));
-
-            execution.setVariable(responseVariable, result);
-            execution.setVariable("formRequestId", response.get("requestId"));
-            execution.setVariable("formRequestStatus", response.get("status"));
-
-            // Trigger notification if enabled
-            if (notifyOnCreation) {
-                Map<String, Object> notificationData = new HashMap<>();
-                notificationData.put("type", "form_request_created");
-                notificationData.put("requestId", response.get("requestId"));
-                notificationData.put("department", targetDepartment);
-                notificationData.put("formType", formType);
-                notificationData.put("assignedTo", response.get("assignedTo"));
-
-                execution.setVariable("sendFormRequestNotification", true);
-                execution.setVariable("formRequestNotificationData", notificationData);
-            }
-
-        } catch (Exception e) {
-            log.error("Failed to submit form request: {}", e.getMessage(), e);
-
-            // Store error
-            Map<String, Object> errorResult = new HashMap<>();
-            errorResult.put("success", false);
-            errorResult.put("error", e.getMessage());
-            errorResult.put("targetDepartment", targetDepartment);
-            errorResult.put("formType", formType);
-
-            execution.setVariable(responseVariable, errorResult);
-
-            throw new RuntimeException("Form request submission failed: " + e.getMessage(), e);
-        }
+        // Queue the submission in the engine transaction; FormRequestOutboxDispatcher sends it after commit
+        String idempotencyKey = UUID.randomUUID().toString();
+        requestPayload.put("idempotencyKey", idempotencyKey);
+
+        outbox.enqueue(idempotencyKey, execution.getProcessInstanceId(), serviceUrl, toJson(requestPayload),
+            targetDepartment, formType, responseVariable, config.completionMessage(), config.notifyOnCreation());
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("status", "QUEUED");
+        result.put("idempotencyKey", idempotencyKey);
+        result.put("targetDepartment", targetDepartment);
+        result.put("formType", formType);
+        result.put("submittedAt", requestPayload.get("submittedAt"));
+
+        delegateVariables.set(execution, responseVariable, result);
+        delegateVariables.set(execution, "formRequestStatus", "QUEUED");
+        delegateVariables.set(execution, "formRequestIdempotencyKey", idempotencyKey);
+
+        log.debug("Form request queued for {} (idempotency key {})", serviceUrl, idempotencyKey);
     }
 
-    @SuppressWarnings("unchecked")
-    private <T> T getRequiredVariable(DelegateExecution execution, String variableName) {
-        Object value = execution.getVariable(variableName);
-        if (value == null) {
-            throw new IllegalArgumentException("Required variable '" + variableName + "' is not set");
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Form request payload is not serializable: " + e.getMessage(), e);
         }
-        return (T) value;
     }
 
-    @SuppressWarnings("unchecked")
-    private <T> T getVariable(DelegateExecution execution, String variableName, T defaultValue) {
-        Object value = execution.getVariable(variableName);
-        return value != null ? (T) value : defaultValue;
+    /**
+     * Form request configuration, resolved once per activity where static
+     */
+    record FormRequestConfig(String targetDepartment, String formType, Map<String, Object> formData,
+                             String requestorId, String requestorDepartment, String priority,
+                             String autoAssignToRole, String targetServiceUrl, Boolean notifyOnCreation,
+                             String responseVariable, String completionMessage) {
+
+        FormRequestConfig {
+            DelegateConfigBinder.required(targetDepartment, "targetDepartment");
+            DelegateConfigBinder.required(formType, "formType");
+            DelegateConfigBinder.required(formData, "formData");
+            DelegateConfigBinder.required(requestorId, "requestorId");
+            requestorDepartment = requestorDepartment != null ? requestorDepartment : "";
+            priority = priority != null ? priority : "normal";
+            notifyOnCreation = notifyOnCreation != null ? notifyOnCreation : true;
+            responseVariable = responseVariable != null ? responseVariable : "formRequestResponse";
+            completionMessage = completionMessage != null ? completionMessage : "formRequestCompleted";
+        }
     }
 }
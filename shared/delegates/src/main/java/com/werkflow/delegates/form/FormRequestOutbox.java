@@ -0,0 +1,218 @@
+package com.werkflow.delegates.form;
+
+import com.werkflow.delegates.retry.DeadLetter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Data access for the form_request_outbox table
+ *
+ * Rows are inserted by FormRequestDelegate through the engine's DataSource, so they are
+ * committed or rolled back together with the process step. Claiming uses
+ * FOR UPDATE SKIP LOCKED, so several engine nodes can dispatch the same outbox without
+ * sending or correlating a submission twice; a claim expires after the lock timeout in
+ * case the claiming node dies mid-send.
+ *
+ * FAILED rows are the dead letters of FormRequestDelegate. A requeued row is sent again
+ * and its outcome correlated again; a discarded one is correlated as a failure if that
+ * has not happened yet.
+ */
+@Component
+@RequiredArgsConstructor
+public class FormRequestOutbox {
+
+    private static final String COLUMNS = "id, idempotency_key, process_instance_id, target_url, payload, " +
+        "target_department, form_type, response_variable, message_name, notify_on_creation, status, attempts, " +
+        "last_error, response";
+
+    private static final RowMapper<Entry> ENTRY_MAPPER = (rs, rowNum) -> new Entry(
+        rs.getObject("id", UUID.class),
+        rs.getString("idempotency_key"),
+        rs.getString("process_instance_id"),
+        rs.getString("target_url"),
+        rs.getString("payload"),
+        rs.getString("target_department"),
+        rs.getString("form_type"),
+        rs.getString("response_variable"),
+        rs.getString("message_name"),
+        rs.getBoolean("notify_on_creation"),
+        rs.getString("status"),
+        rs.getInt("attempts"),
+        rs.getString("last_error"),
+        rs.getString("response")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Queue a submission in the current transaction
+     */
+    public void enqueue(String idempotencyKey, String processInstanceId, String targetUrl, String payload,
+                        String targetDepartment, String formType, String responseVariable, String messageName,
+                        boolean notifyOnCreation) {
+        jdbcTemplate.update(
+            "INSERT INTO form_request_outbox (idempotency_key, process_instance_id, target_url, payload, " +
+                "target_department, form_type, response_variable, message_name, notify_on_creation) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            idempotencyKey, processInstanceId, targetUrl, payload, targetDepartment, formType,
+            responseVariable, messageName, notifyOnCreation);
+    }
+
+    /**
+     * Claim due submissions (and submissions whose claim expired) for sending
+     *
+     * @param limit       Maximum rows to claim
+     * @param lockTimeout How long the claim is held
+     * @return Claimed rows, attempts already incremented
+     */
+    public List<Entry> claimDue(int limit, Duration lockTimeout) {
+        return jdbcTemplate.query(
+            "UPDATE form_request_outbox SET status = 'IN_FLIGHT', attempts = attempts + 1, " +
+                "locked_until = NOW() + (? * INTERVAL '1 millisecond') " +
+                "WHERE id IN (SELECT id FROM form_request_outbox " +
+                "WHERE (status = 'PENDING' AND next_attempt_at <= NOW()) " +
+                "OR (status = 'IN_FLIGHT' AND locked_until < NOW()) " +
+                "ORDER BY created_at LIMIT ? FOR UPDATE SKIP LOCKED) " +
+                "RETURNING " + COLUMNS,
+            ENTRY_MAPPER, lockTimeout.toMillis(), limit);
+    }
+
+    /**
+     * Claim sent, failed and discarded submissions not yet correlated back to their process
+     *
+     * Uses the same lease as claimDue, so an outcome is delivered by one node at a time.
+     *
+     * @param limit       Maximum rows to claim
+     * @param lockTimeout How long the claim is held
+     */
+    public List<Entry> claimUncorrelated(int limit, Duration lockTimeout) {
+        return jdbcTemplate.query(
+            "UPDATE form_request_outbox SET locked_until = NOW() + (? * INTERVAL '1 millisecond') " +
+                "WHERE id IN (SELECT id FROM form_request_outbox " +
+                "WHERE status IN ('SENT', 'FAILED', 'DISCARDED') AND completed_at IS NULL " +
+                "AND (locked_until IS NULL OR locked_until < NOW()) " +
+                "ORDER BY created_at LIMIT ? FOR UPDATE SKIP LOCKED) " +
+                "RETURNING " + COLUMNS,
+            ENTRY_MAPPER, lockTimeout.toMillis(), limit);
+    }
+
+    /**
+     * Keep a claimed row uncorrelated and offer it again after the delay
+     */
+    public void deferCorrelation(UUID id, Duration delay) {
+        jdbcTemplate.update(
+            "UPDATE form_request_outbox SET locked_until = NOW() + (? * INTERVAL '1 millisecond') WHERE id = ?",
+            delay.toMillis(), id);
+    }
+
+    public void markSent(UUID id, String response) {
+        jdbcTemplate.update(
+            "UPDATE form_request_outbox SET status = 'SENT', response = ?, sent_at = NOW(), " +
+                "locked_until = NULL, last_error = NULL WHERE id = ?",
+            response, id);
+    }
+
+    public void markRetry(UUID id, String error, Duration delay) {
+        jdbcTemplate.update(
+            "UPDATE form_request_outbox SET status = 'PENDING', last_error = ?, locked_until = NULL, " +
+                "next_attempt_at = NOW() + (? * INTERVAL '1 millisecond') WHERE id = ?",
+            error, delay.toMillis(), id);
+    }
+
+    public void markFailed(UUID id, String error) {
+        jdbcTemplate.update(
+            "UPDATE form_request_outbox SET status = 'FAILED', last_error = ?, locked_until = NULL, " +
+                "failed_at = NOW() WHERE id = ?",
+            error, id);
+    }
+
+    /**
+     * FAILED rows, most recently failed first
+     */
+    public List<DeadLetter> findFailed(int limit) {
+        return jdbcTemplate.query(
+            "SELECT id, process_instance_id, target_url, attempts, last_error, failed_at FROM form_request_outbox " +
+                "WHERE status = 'FAILED' ORDER BY failed_at DESC NULLS LAST, created_at DESC LIMIT ?",
+            (rs, rowNum) -> new DeadLetter(
+                DeadLetter.Source.FORM_REQUEST,
+                rs.getObject("id", UUID.class).toString(),
+                "formRequestDelegate",
+                rs.getString("process_instance_id"),
+                rs.getString("target_url"),
+                rs.getInt("attempts"),
+                rs.getString("last_error"),
+                rs.getTimestamp("failed_at") != null ? rs.getTimestamp("failed_at").toInstant() : null),
+            limit);
+    }
+
+    /**
+     * Queue FAILED rows for sending again, with a fresh set of attempts
+     *
+     * @return Rows requeued
+     */
+    public int requeueFailed(Collection<UUID> ids) {
+        return updateFailed(
+            "status = 'PENDING', attempts = 0, next_attempt_at = NOW(), failed_at = NULL, completed_at = NULL", ids);
+    }
+
+    /**
+     * Give up on FAILED rows for good
+     *
+     * @return Rows discarded
+     */
+    public int discardFailed(Collection<UUID> ids) {
+        return updateFailed("status = 'DISCARDED'", ids);
+    }
+
+    private int updateFailed(String assignments, Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        UUID[] idArray = ids.toArray(new UUID[0]);
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                "UPDATE form_request_outbox SET " + assignments + " WHERE id = ANY(?) AND status = 'FAILED'");
+            statement.setArray(1, connection.createArrayOf("uuid", idArray));
+            return statement;
+        });
+    }
+
+    /**
+     * Record that the outcome was delivered to the process instance
+     */
+    public void markCorrelated(UUID id) {
+        jdbcTemplate.update(
+            "UPDATE form_request_outbox SET status = CASE WHEN status = 'SENT' THEN 'COMPLETED' ELSE status END, " +
+                "completed_at = NOW(), locked_until = NULL WHERE id = ?",
+            id);
+    }
+
+    /**
+     * Outbox row
+     */
+    public record Entry(
+        UUID id,
+        String idempotencyKey,
+        String processInstanceId,
+        String targetUrl,
+        String payload,
+        String targetDepartment,
+        String formType,
+        String responseVariable,
+        String messageName,
+        boolean notifyOnCreation,
+        String status,
+        int attempts,
+        String lastError,
+        String response
+    ) {
+    }
+}
@@ -0,0 +1,242 @@
+package com.werkflow.delegates.form;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.werkflow.common.delegate.DelegateMetrics;
+import com.werkflow.delegates.rest.RestCallExecutor;
+import com.werkflow.delegates.rest.RestRequest;
+import com.werkflow.delegates.retry.RetryPolicy;
+import com.werkflow.delegates.retry.RetryProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.runtime.Execution;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends queued form request submissions and correlates the outcome back to the process
+ *
+ * Each poll claims a batch of due submissions, sends them concurrently with their
+ * Idempotency-Key header, and records the outcome. Failed sends are retried under the
+ * formRequestDelegate retry policy (app.delegates.retry); permanent failures (see
+ * RetryPolicy#isRetryable) and submissions that exhausted its maxAttempts are marked FAILED.
+ *
+ * Finished submissions are then claimed and their outcome delivered to the process
+ * instance by triggering the execution waiting on a message catch event named after the
+ * submission's completion message. Variables: responseVariable, formRequestId,
+ * formRequestStatus and, when notifyOnCreation is set, sendFormRequestNotification /
+ * formRequestNotificationData. While the process is not (yet) waiting on the message
+ * the row stays uncorrelated and is offered again after correlation-retry-ms; if the
+ * process instance has ended the outcome is dropped.
+ */
+@Slf4j
+@Component
+public class FormRequestOutboxDispatcher {
+
+    private static final String DELEGATE = "formRequestDelegate";
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+
+    private final FormRequestOutbox outbox;
+    private final RestCallExecutor restCallExecutor;
+    private final RuntimeService runtimeService;
+    private final ObjectMapper objectMapper;
+    private final DelegateMetrics metrics;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final RetryPolicy retryPolicy;
+    private final Duration lockTimeout;
+    private final Duration correlationRetry;
+    private final int timeoutSeconds;
+
+    public FormRequestOutboxDispatcher(
+        FormRequestOutbox outbox,
+        RestCallExecutor restCallExecutor,
+        RuntimeService runtimeService,
+        ObjectMapper objectMapper,
+        RetryProperties retryProperties,
+        DelegateMetrics metrics,
+        @Value("${app.delegates.form-outbox.enabled:true}") boolean enabled,
+        @Value("${app.delegates.form-outbox.batch-size:50}") int batchSize,
+        @Value("${app.delegates.form-outbox.lock-timeout-seconds:120}") long lockTimeoutSeconds,
+        @Value("${app.delegates.form-outbox.correlation-retry-ms:5000}") long correlationRetryMs,
+        @Value("${app.delegates.form-outbox.timeout-seconds:30}") int timeoutSeconds
+    ) {
+        this.outbox = outbox;
+        this.restCallExecutor = restCallExecutor;
+        this.runtimeService = runtimeService;
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.retryPolicy = retryProperties.policy(DELEGATE);
+        this.lockTimeout = Duration.ofSeconds(lockTimeoutSeconds);
+        this.correlationRetry = Duration.ofMillis(correlationRetryMs);
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    /**
+     * Send due submissions and deliver finished ones to their processes
+     */
+    @Scheduled(fixedDelayString = "${app.delegates.form-outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            List<FormRequestOutbox.Entry> batch = outbox.claimDue(batchSize, lockTimeout);
+            if (!batch.isEmpty()) {
+                send(batch);
+            }
+            correlate();
+        } catch (RuntimeException e) {
+            log.warn("Form request outbox dispatch failed: {}", e.getMessage());
+        }
+    }
+
+    private void send(List<FormRequestOutbox.Entry> batch) {
+        // Send concurrently, record outcomes on this thread (JDBC must not run on Netty threads)
+        List<SendOutcome> outcomes = Flux.fromIterable(batch)
+            .flatMap(entry -> restCallExecutor.execute(toRequest(entry))
+                .defaultIfEmpty(Map.of())
+                .map(response -> new SendOutcome(entry, response, null))
+                .onErrorResume(e -> Mono.just(new SendOutcome(entry, null, e))), batch.size())
+            .collectList()
+            .block();
+
+        for (SendOutcome outcome : outcomes) {
+            FormRequestOutbox.Entry entry = outcome.entry();
+            boolean retryable = outcome.error() != null && RetryPolicy.isRetryable(outcome.error());
+            if (outcome.error() == null) {
+                outbox.markSent(entry.id(), toJson(outcome.response()));
+                log.info("Form request {} sent to {}", entry.idempotencyKey(), entry.targetUrl());
+            } else if (!retryable || retryPolicy.exhausted(entry.attempts())) {
+                outbox.markFailed(entry.id(), outcome.error().getMessage());
+                metrics.recordDeadLetter(DELEGATE, retryable);
+                log.error("Form request {} failed permanently after {} attempts: {}",
+                    entry.idempotencyKey(), entry.attempts(), outcome.error().getMessage());
+            } else {
+                Duration delay = retryPolicy.backoff(entry.attempts());
+                outbox.markRetry(entry.id(), outcome.error().getMessage(), delay);
+                metrics.recordRetry(DELEGATE, "outbox", delay);
+                log.warn("Form request {} failed (attempt {}), retrying in {} ms: {}",
+                    entry.idempotencyKey(), entry.attempts(), delay.toMillis(), outcome.error().getMessage());
+            }
+        }
+    }
+
+    void correlate() {
+        for (FormRequestOutbox.Entry entry : outbox.claimUncorrelated(batchSize, lockTimeout)) {
+            try {
+                List<Execution> waiting = runtimeService.createExecutionQuery()
+                    .processInstanceId(entry.processInstanceId())
+                    .messageEventSubscriptionName(entry.messageName())
+                    .list();
+
+                if (!waiting.isEmpty()) {
+                    Map<String, Object> variables = "SENT".equals(entry.status())
+                        ? successVariables(entry)
+                        : failureVariables(entry);
+                    runtimeService.messageEventReceived(entry.messageName(), waiting.get(0).getId(), variables);
+                    outbox.markCorrelated(entry.id());
+                } else if (runtimeService.createProcessInstanceQuery()
+                    .processInstanceId(entry.processInstanceId()).count() > 0) {
+                    // Not waiting on the completion message yet; keep the outcome until it is
+                    outbox.deferCorrelation(entry.id(), correlationRetry);
+                } else {
+                    log.warn("Process instance {} ended before form request {} completed",
+                        entry.processInstanceId(), entry.idempotencyKey());
+                    outbox.markCorrelated(entry.id());
+                }
+            } catch (RuntimeException e) {
+                // The claim expires after the lock timeout and the row is offered again
+                log.warn("Failed to correlate form request {}: {}", entry.idempotencyKey(), e.getMessage());
+            }
+        }
+    }
+
+    private Map<String, Object> successVariables(FormRequestOutbox.Entry entry) {
+        Map<String, Object> response = fromJson(entry.response());
+        Map<String, Object> payload = fromJson(entry.payload());
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("requestId", response.get("requestId"));
+        result.put("status", response.get("status"));
+        result.put("assignedTo", response.get("assignedTo"));
+        result.put("targetDepartment", entry.targetDepartment());
+        result.put("formType", entry.formType());
+        result.put("submittedAt", payload.get("submittedAt"));
+        result.put("idempotencyKey", entry.idempotencyKey());
+
+        Map<String, Object> variables = new HashMap<>();
+        variables.put(entry.responseVariable(), result);
+        variables.put("formRequestId", response.get("requestId"));
+        variables.put("formRequestStatus", response.get("status"));
+
+        if (entry.notifyOnCreation()) {
+            Map<String, Object> notificationData = new HashMap<>();
+            notificationData.put("type", "form_request_created");
+            notificationData.put("requestId", response.get("requestId"));
+            notificationData.put("department", entry.targetDepartment());
+            notificationData.put("formType", entry.formType());
+            notificationData.put("assignedTo", response.get("assignedTo"));
+
+            variables.put("sendFormRequestNotification", true);
+            variables.put("formRequestNotificationData", notificationData);
+        }
+        return variables;
+    }
+
+    private Map<String, Object> failureVariables(FormRequestOutbox.Entry entry) {
+        Map<String, Object> errorResult = new HashMap<>();
+        errorResult.put("success", false);
+        errorResult.put("error", entry.lastError());
+        errorResult.put("targetDepartment", entry.targetDepartment());
+        errorResult.put("formType", entry.formType());
+        errorResult.put("idempotencyKey", entry.idempotencyKey());
+
+        Map<String, Object> variables = new HashMap<>();
+        variables.put(entry.responseVariable(), errorResult);
+        variables.put("formRequestStatus", "FAILED");
+        return variables;
+    }
+
+    private RestRequest toRequest(FormRequestOutbox.Entry entry) {
+        return new RestRequest(entry.targetUrl(), "POST", Map.of("Idempotency-Key", entry.idempotencyKey()),
+            fromJson(entry.payload()), timeoutSeconds, null, null, null, false, null);
+    }
+
+    private String toJson(Map<String, Object> value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize form request response", e);
+        }
+    }
+
+    private Map<String, Object> fromJson(String json) {
+        if (json == null || json.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(json, MAP_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to parse form request outbox JSON", e);
+        }
+    }
+
+    private record SendOutcome(FormRequestOutbox.Entry entry, Map<String, Object> response, Throwable error) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.werkflow.delegates.http;
+
+/**
+ * Thrown when a call is rejected by an open circuit breaker or a full bulkhead
+ */
+public class CallNotPermittedException extends RuntimeException {
+
+    public CallNotPermittedException(HostCircuitBreaker breaker) {
+        super("Call to '" + breaker.getName() + "' not permitted (circuit breaker "
+            + breaker.getState() + ", " + breaker.getConcurrentCalls() + " calls in flight)");
+    }
+}
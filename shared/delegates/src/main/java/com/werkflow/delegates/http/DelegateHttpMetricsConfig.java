@@ -0,0 +1,48 @@
+package com.werkflow.delegates.http;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Micrometer metrics for delegate HTTP resilience state, registered only when Micrometer
+ * is on the classpath. Connection pool metrics are published by Reactor Netty itself.
+ *
+ * Per breaker (tag "name"):
+ * - werkflow.delegates.circuitbreaker.state: 0 closed, 1 open, 2 half-open
+ * - werkflow.delegates.circuitbreaker.failure.rate / slow.call.rate: percent of the window
+ * - werkflow.delegates.circuitbreaker.concurrent.calls: calls in flight (bulkhead usage)
+ * - werkflow.delegates.circuitbreaker.rejected.calls: calls failed fast
+ */
+@Configuration
+@ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+public class DelegateHttpMetricsConfig {
+
+    private static final String PREFIX = "werkflow.delegates.circuitbreaker";
+
+    @Bean
+    public MeterBinder delegateCircuitBreakerMetrics(HostCircuitBreakers circuitBreakers) {
+        return registry -> circuitBreakers.onBreakerCreated(breaker -> {
+            Tags tags = Tags.of("name", breaker.getName());
+            Gauge.builder(PREFIX + ".state", breaker, b -> b.getState().ordinal())
+                .tags(tags)
+                .register(registry);
+            Gauge.builder(PREFIX + ".failure.rate", breaker, HostCircuitBreaker::getFailureRate)
+                .tags(tags)
+                .register(registry);
+            Gauge.builder(PREFIX + ".slow.call.rate", breaker, HostCircuitBreaker::getSlowCallRate)
+                .tags(tags)
+                .register(registry);
+            Gauge.builder(PREFIX + ".concurrent.calls", breaker, HostCircuitBreaker::getConcurrentCalls)
+                .tags(tags)
+                .register(registry);
+            FunctionCounter.builder(PREFIX + ".rejected.calls", breaker, HostCircuitBreaker::getRejectedCalls)
+                .tags(tags)
+                .register(registry);
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package com.werkflow.delegates.http;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * HTTP client settings shared by all delegates making outbound calls
+ *
+ * Pool settings apply to each target host; entries under hosts (keyed by "host:port")
+ * override them for a specific downstream service. Circuit breaker settings work the same
+ * way, keyed by breaker name, which is "host:port" unless a task names its breaker.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.delegates.http")
+@Getter
+@Setter
+public class DelegateHttpProperties {
+
+    private Pool pool = new Pool();
+    private Map<String, Pool> hosts = new HashMap<>();
+
+    private Resilience resilience = new Resilience();
+    private Map<String, Resilience> circuitBreakers = new HashMap<>();
+
+    private int connectTimeoutMs = 2000;
+    private boolean http2Enabled = true;
+    private boolean compressionEnabled = true;
+    private int maxResponseBytes = 256 * 1024;
+    private boolean metricsEnabled = true;
+
+    @Getter
+    @Setter
+    public static class Pool {
+        private Integer maxConnections = 50;
+        private Integer pendingAcquireMaxCount = 500;
+        private Long pendingAcquireTimeoutMs = 5000L;
+        private Long maxIdleTimeMs = 30000L;
+        private Long maxLifeTimeMs = 300000L;
+    }
+
+    @Getter
+    @Setter
+    public static class Resilience {
+        private Boolean enabled = true;
+        private Integer failureRateThreshold = 50;
+        private Integer slowCallRateThreshold = 80;
+        private Long slowCallDurationMs = 5000L;
+        private Integer minimumCalls = 20;
+        private Integer windowSize = 50;
+        private Long openStateMs = 30000L;
+        private Integer halfOpenCalls = 5;
+        private Integer maxConcurrentCalls = 50;
+    }
+}
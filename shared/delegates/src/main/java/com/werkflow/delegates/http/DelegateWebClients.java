@@ -0,0 +1,110 @@
+package com.werkflow.delegates.http;
+
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Shared WebClient for delegates making inter-service calls
+ *
+ * All delegates use one Reactor Netty connection provider, which keeps a separate
+ * keep-alive connection pool per target host, so process instances reuse established
+ * connections instead of paying TCP (and TLS) setup on every call. HTTP/2 is negotiated
+ * via ALPN for https targets when enabled, and response bodies buffered in memory are
+ * bounded by app.delegates.http.max-response-bytes.
+ *
+ * With Micrometer on the classpath the pools publish reactor.netty.connection.provider.*
+ * metrics (active, idle, pending connections and pending acquire time) per remote host.
+ */
+@Slf4j
+@Component
+public class DelegateWebClients {
+
+    private static final String POOL_NAME = "werkflow-delegates";
+
+    private final ConnectionProvider connectionProvider;
+    private final WebClient webClient;
+
+    public DelegateWebClients(WebClient.Builder webClientBuilder, DelegateHttpProperties properties) {
+        this.connectionProvider = createConnectionProvider(properties);
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, properties.getConnectTimeoutMs())
+            .option(ChannelOption.SO_KEEPALIVE, true)
+            .keepAlive(true)
+            .compress(properties.isCompressionEnabled())
+            .protocol(properties.isHttp2Enabled()
+                ? new HttpProtocol[]{HttpProtocol.HTTP11, HttpProtocol.H2}
+                : new HttpProtocol[]{HttpProtocol.HTTP11});
+
+        this.webClient = webClientBuilder.clone()
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
+            .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(properties.getMaxResponseBytes()))
+            .build();
+
+        log.info("Delegate HTTP client initialized (maxConnections/host={}, hostOverrides={}, http2={})",
+            properties.getPool().getMaxConnections(), properties.getHosts().keySet(), properties.isHttp2Enabled());
+    }
+
+    /**
+     * Shared, pooled WebClient. Safe to use concurrently.
+     */
+    public WebClient webClient() {
+        return webClient;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        connectionProvider.disposeLater().block(Duration.ofSeconds(10));
+    }
+
+    private ConnectionProvider createConnectionProvider(DelegateHttpProperties properties) {
+        DelegateHttpProperties.Pool defaults = properties.getPool();
+
+        ConnectionProvider.Builder builder = ConnectionProvider.builder(POOL_NAME)
+            .maxConnections(defaults.getMaxConnections())
+            .pendingAcquireMaxCount(defaults.getPendingAcquireMaxCount())
+            .pendingAcquireTimeout(Duration.ofMillis(defaults.getPendingAcquireTimeoutMs()))
+            .maxIdleTime(Duration.ofMillis(defaults.getMaxIdleTimeMs()))
+            .maxLifeTime(Duration.ofMillis(defaults.getMaxLifeTimeMs()))
+            .evictInBackground(Duration.ofMillis(defaults.getMaxIdleTimeMs()))
+            .metrics(properties.isMetricsEnabled());
+
+        for (Map.Entry<String, DelegateHttpProperties.Pool> entry : properties.getHosts().entrySet()) {
+            DelegateHttpProperties.Pool host = entry.getValue();
+            builder.forRemoteHost(toAddress(entry.getKey()), spec -> {
+                spec.maxConnections(valueOr(host.getMaxConnections(), defaults.getMaxConnections()));
+                spec.pendingAcquireMaxCount(valueOr(host.getPendingAcquireMaxCount(), defaults.getPendingAcquireMaxCount()));
+                spec.pendingAcquireTimeout(Duration.ofMillis(valueOr(host.getPendingAcquireTimeoutMs(), defaults.getPendingAcquireTimeoutMs())));
+                spec.maxIdleTime(Duration.ofMillis(valueOr(host.getMaxIdleTimeMs(), defaults.getMaxIdleTimeMs())));
+                spec.maxLifeTime(Duration.ofMillis(valueOr(host.getMaxLifeTimeMs(), defaults.getMaxLifeTimeMs())));
+            });
+        }
+
+        return builder.build();
+    }
+
+    private static InetSocketAddress toAddress(String hostAndPort) {
+        int separator = hostAndPort.lastIndexOf(':');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Host pool key must be host:port, got: " + hostAndPort);
+        }
+        return InetSocketAddress.createUnresolved(
+            hostAndPort.substring(0, separator),
+            Integer.parseInt(hostAndPort.substring(separator + 1)));
+    }
+
+    private static <T> T valueOr(T value, T defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+}
@@ -0,0 +1,186 @@
+package com.werkflow.delegates.http;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker and concurrency bulkhead for one downstream service.
+ *
+ * Outcomes of the last windowSize calls are kept in a ring. Once at least minimumCalls
+ * have been recorded and either the failure rate or the slow-call rate reaches its
+ * threshold the breaker opens and rejects calls for openStateMs. It then lets
+ * halfOpenCalls trial calls through and closes again only if they stay below both
+ * thresholds. Independently, at most maxConcurrentCalls calls may be in flight.
+ *
+ * State changes are rare and the critical sections are a few field updates, so the
+ * breaker simply synchronizes on itself.
+ */
+public class HostCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    private final String name;
+    private final int failureRateThreshold;
+    private final int slowCallRateThreshold;
+    private final long slowCallDurationNanos;
+    private final int minimumCalls;
+    private final long openStateNanos;
+    private final int halfOpenCalls;
+    private final int maxConcurrentCalls;
+    private final LongSupplier nanoTime;
+
+    private final byte[] outcomes;
+    private int next;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int concurrentCalls;
+    private long rejectedCalls;
+
+    public HostCircuitBreaker(String name, DelegateHttpProperties.Resilience settings) {
+        this(name, settings, System::nanoTime);
+    }
+
+    HostCircuitBreaker(String name, DelegateHttpProperties.Resilience settings, LongSupplier nanoTime) {
+        this.name = name;
+        this.nanoTime = nanoTime;
+        this.failureRateThreshold = settings.getFailureRateThreshold();
+        this.slowCallRateThreshold = settings.getSlowCallRateThreshold();
+        this.slowCallDurationNanos = TimeUnit.MILLISECONDS.toNanos(settings.getSlowCallDurationMs());
+        this.minimumCalls = settings.getMinimumCalls();
+        this.openStateNanos = TimeUnit.MILLISECONDS.toNanos(settings.getOpenStateMs());
+        this.halfOpenCalls = settings.getHalfOpenCalls();
+        this.maxConcurrentCalls = settings.getMaxConcurrentCalls();
+        this.outcomes = new byte[Math.max(settings.getWindowSize(), settings.getMinimumCalls())];
+    }
+
+    /**
+     * Try to start a call. Every successful acquire must be followed by exactly one
+     * {@link #onResult} or {@link #release}.
+     *
+     * @return false if the breaker is open or the bulkhead is full
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (nanoTime.getAsLong() - openedAt < openStateNanos) {
+                rejectedCalls++;
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (concurrentCalls >= maxConcurrentCalls) {
+            rejectedCalls++;
+            return false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                rejectedCalls++;
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        concurrentCalls++;
+        return true;
+    }
+
+    /**
+     * Record the outcome of a call started with {@link #tryAcquire}
+     *
+     * @param durationNanos Call duration
+     * @param failed        Whether the call failed in a way attributable to the downstream service
+     */
+    public synchronized void onResult(long durationNanos, boolean failed) {
+        concurrentCalls--;
+        if (state == State.OPEN) {
+            return;
+        }
+
+        byte outcome = (byte) ((failed ? FAILED : 0) | (durationNanos >= slowCallDurationNanos ? SLOW : 0));
+        record(outcome);
+
+        if (state == State.HALF_OPEN) {
+            if (recorded >= halfOpenCalls) {
+                transitionTo(exceedsThresholds() ? State.OPEN : State.CLOSED);
+            }
+        } else if (recorded >= minimumCalls && exceedsThresholds()) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    /**
+     * Give back a permit without recording an outcome (e.g. the call was cancelled)
+     */
+    public synchronized void release() {
+        concurrentCalls--;
+        if (state == State.HALF_OPEN) {
+            halfOpenPermits++;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized int getConcurrentCalls() {
+        return concurrentCalls;
+    }
+
+    public synchronized long getRejectedCalls() {
+        return rejectedCalls;
+    }
+
+    public synchronized double getFailureRate() {
+        return recorded == 0 ? 0 : failures * 100.0 / recorded;
+    }
+
+    public synchronized double getSlowCallRate() {
+        return recorded == 0 ? 0 : slowCalls * 100.0 / recorded;
+    }
+
+    private void record(byte outcome) {
+        if (recorded == outcomes.length) {
+            byte evicted = outcomes[next];
+            failures -= evicted & FAILED;
+            slowCalls -= (evicted & SLOW) >> 1;
+        } else {
+            recorded++;
+        }
+        outcomes[next] = outcome;
+        next = (next + 1) % outcomes.length;
+        failures += outcome & FAILED;
+        slowCalls += (outcome & SLOW) >> 1;
+    }
+
+    private boolean exceedsThresholds() {
+        return failures * 100 >= failureRateThreshold * recorded
+            || slowCalls * 100 >= slowCallRateThreshold * recorded;
+    }
+
+    private void transitionTo(State newState) {
+        state = newState;
+        next = 0;
+        recorded = 0;
+        failures = 0;
+        slowCalls = 0;
+        if (newState == State.OPEN) {
+            openedAt = nanoTime.getAsLong();
+        } else if (newState == State.HALF_OPEN) {
+            halfOpenPermits = halfOpenCalls;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.werkflow.delegates.http;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Registry of circuit breakers, one per downstream service
+ *
+ * Breakers are created on first use and named after the target "host:port" unless the
+ * caller names them explicitly. Settings come from app.delegates.http.resilience, with
+ * overrides per breaker name under app.delegates.http.circuit-breakers.
+ */
+@Slf4j
+@Component
+public class HostCircuitBreakers {
+
+    private final DelegateHttpProperties properties;
+    private final Map<String, HostCircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final List<Consumer<HostCircuitBreaker>> listeners = new CopyOnWriteArrayList<>();
+
+    public HostCircuitBreakers(DelegateHttpProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Run a call through the breaker for the given name
+     *
+     * @param name Breaker name, or null to derive it from the URL
+     * @param url  Target URL
+     * @param call Supplier of the call, only subscribed if the breaker permits it
+     * @return Mono failing with CallNotPermittedException when the call is rejected
+     */
+    public <T> Mono<T> protect(String name, String url, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            // Resolved on subscription, so a malformed URL fails the Mono instead of the caller
+            String breakerName = name != null ? name : breakerName(url);
+            if (!isEnabled(breakerName)) {
+                return call.get();
+            }
+
+            HostCircuitBreaker breaker = getBreaker(breakerName);
+            if (!breaker.tryAcquire()) {
+                return Mono.error(new CallNotPermittedException(breaker));
+            }
+
+            long start = System.nanoTime();
+            AtomicBoolean completed = new AtomicBoolean();
+            return Mono.defer(call)
+                .doOnSuccess(value -> {
+                    if (completed.compareAndSet(false, true)) {
+                        breaker.onResult(System.nanoTime() - start, false);
+                    }
+                })
+                .doOnError(e -> {
+                    if (completed.compareAndSet(false, true)) {
+                        breaker.onResult(System.nanoTime() - start, isDownstreamFailure(e));
+                    }
+                })
+                .doOnCancel(() -> {
+                    if (completed.compareAndSet(false, true)) {
+                        breaker.release();
+                    }
+                });
+        });
+    }
+
+    /**
+     * Get or create the breaker with the given name
+     */
+    public HostCircuitBreaker getBreaker(String name) {
+        HostCircuitBreaker breaker = breakers.get(name);
+        if (breaker != null) {
+            return breaker;
+        }
+        HostCircuitBreaker created = new HostCircuitBreaker(name, settingsFor(name));
+        HostCircuitBreaker existing = breakers.putIfAbsent(name, created);
+        if (existing != null) {
+            return existing;
+        }
+        listeners.forEach(listener -> listener.accept(created));
+        return created;
+    }
+
+    /**
+     * Snapshot of all breakers created so far
+     */
+    public Map<String, HostCircuitBreaker> getBreakers() {
+        return Map.copyOf(breakers);
+    }
+
+    /**
+     * Be notified of every breaker, existing and future (used to register metrics)
+     */
+    public void onBreakerCreated(Consumer<HostCircuitBreaker> listener) {
+        listeners.add(listener);
+        breakers.values().forEach(listener);
+    }
+
+    /**
+     * Default breaker name for a URL: "host:port"
+     *
+     * @throws IllegalArgumentException if the URL is malformed or has no host, rather than
+     *                                  sharing one "null:port" breaker between such URLs
+     */
+    public static String breakerName(String url) {
+        URI uri = URI.create(url);
+        if (uri.getHost() == null) {
+            throw new IllegalArgumentException("URL has no host: " + url);
+        }
+        int port = uri.getPort();
+        if (port == -1) {
+            port = "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+        }
+        return uri.getHost() + ":" + port;
+    }
+
+    private boolean isEnabled(String name) {
+        DelegateHttpProperties.Resilience override = properties.getCircuitBreakers().get(name);
+        if (override != null && override.getEnabled() != null) {
+            return override.getEnabled();
+        }
+        return !Boolean.FALSE.equals(properties.getResilience().getEnabled());
+    }
+
+    private DelegateHttpProperties.Resilience settingsFor(String name) {
+        DelegateHttpProperties.Resilience defaults = properties.getResilience();
+        DelegateHttpProperties.Resilience override = properties.getCircuitBreakers().get(name);
+        if (override == null) {
+            return defaults;
+        }
+        log.info("Using circuit breaker settings for: {}", name);
+        return override;
+    }
+
+    /**
+     * Client errors (4xx) are the caller's fault and do not count against the downstream service
+     */
+    private static boolean isDownstreamFailure(Throwable e) {
+        return !(e instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError());
+    }
+}
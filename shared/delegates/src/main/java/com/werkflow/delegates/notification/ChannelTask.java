@@ -0,0 +1,55 @@
+package com.werkflow.delegates.notification;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Channel delivery submitted to the AsyncTaskInvoker that can be cancelled on timeout
+ *
+ * Completing the returned future with a timeout does not stop the task, so the delegate
+ * also calls {@link #cancel()}: a task that has not started yet is skipped, a running one
+ * is interrupted. The interrupt is cleared when the task ends, so it never leaks into the
+ * next task of the pool thread.
+ */
+final class ChannelTask implements Callable<Runnable> {
+
+    private final Callable<Runnable> send;
+    private Thread runner;
+    private boolean finished;
+    private boolean cancelled;
+
+    ChannelTask(Callable<Runnable> send) {
+        this.send = send;
+    }
+
+    @Override
+    public Runnable call() throws Exception {
+        synchronized (this) {
+            if (cancelled) {
+                throw new CancellationException("Cancelled before start");
+            }
+            runner = Thread.currentThread();
+        }
+        try {
+            return send.call();
+        } finally {
+            synchronized (this) {
+                finished = true;
+                runner = null;
+                if (cancelled) {
+                    Thread.interrupted();
+                }
+            }
+        }
+    }
+
+    synchronized void cancel() {
+        if (finished || cancelled) {
+            return;
+        }
+        cancelled = true;
+        if (runner != null) {
+            runner.interrupt();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.werkflow.delegates.notification;
+
+import java.time.Instant;
+
+/**
+ * Notification shown in the portal notification center
+ *
+ * @param id                Row id, null until written; also the paging cursor
+ * @param userId            Recipient user ID
+ * @param processInstanceId Process that raised the notification (may be null)
+ * @param title             Title (may be null)
+ * @param message           Message
+ * @param priority          low, normal, high or urgent
+ * @param actionUrl         URL for the action button (may be null)
+ * @param actionLabel       Label for the action button (may be null)
+ * @param createdAt         Creation time
+ * @param readAt            Time the user read it, null while unread
+ */
+public record InAppNotification(
+    Long id,
+    String userId,
+    String processInstanceId,
+    String title,
+    String message,
+    String priority,
+    String actionUrl,
+    String actionLabel,
+    Instant createdAt,
+    Instant readAt
+) {
+}
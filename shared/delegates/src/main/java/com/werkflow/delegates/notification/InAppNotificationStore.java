@@ -0,0 +1,396 @@
+package com.werkflow.delegates.notification;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Store for in-app notifications with write-behind inserts and incremental unread counters
+ *
+ * Notifications are queued in memory and written by a background thread in multi-row
+ * INSERTs, so raising a notification costs a queue offer on the engine thread. When called
+ * inside a transaction the notification is only queued after commit, so a rolled-back step
+ * raises nothing. If the queue is full the notification is written on the calling thread.
+ *
+ * Text that does not fit its column is truncated and an unknown priority is stored as
+ * "normal". If the database still rejects a batch, its rows are retried one by one so only
+ * the offending notification is dropped (and counted as failed).
+ *
+ * Each batch updates in_app_notification_counters in the same transaction as the insert,
+ * and mark-as-read decrements it by the number of rows actually changed, so the unread
+ * badge is a primary key lookup. Notifications still queued are not yet visible or counted;
+ * they appear within one flush interval.
+ *
+ * Reads are keyset-paged on the notification id (newest first), so deep pages cost the
+ * same as the first one.
+ */
+@Slf4j
+@Component
+public class InAppNotificationStore {
+
+    private static final String INSERT_PREFIX = "INSERT INTO in_app_notifications " +
+        "(user_id, process_instance_id, title, message, priority, action_url, action_label, created_at) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Column sizes of in_app_notifications
+    private static final int MAX_USER_ID = 255;
+    private static final int MAX_PROCESS_INSTANCE_ID = 64;
+    private static final int MAX_TITLE = 500;
+    private static final int MAX_ACTION_URL = 1024;
+    private static final int MAX_ACTION_LABEL = 255;
+    private static final Set<String> PRIORITIES = Set.of("low", "normal", "high", "urgent");
+
+    private static final String COLUMNS = "id, user_id, process_instance_id, title, message, priority, " +
+        "action_url, action_label, created_at, read_at";
+
+    private static final RowMapper<InAppNotification> NOTIFICATION_MAPPER = (rs, rowNum) -> new InAppNotification(
+        rs.getLong("id"),
+        rs.getString("user_id"),
+        rs.getString("process_instance_id"),
+        rs.getString("title"),
+        rs.getString("message"),
+        rs.getString("priority"),
+        rs.getString("action_url"),
+        rs.getString("action_label"),
+        rs.getTimestamp("created_at").toInstant(),
+        rs.getTimestamp("read_at") != null ? rs.getTimestamp("read_at").toInstant() : null
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final BlockingQueue<InAppNotification> queue;
+
+    private final AtomicLong writtenNotifications = new AtomicLong();
+    private final AtomicLong failedNotifications = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public InAppNotificationStore(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        @Value("${app.delegates.in-app.buffer-capacity:10000}") int bufferCapacity,
+        @Value("${app.delegates.in-app.batch-size:500}") int batchSize,
+        @Value("${app.delegates.in-app.flush-interval-ms:200}") long flushIntervalMs
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Writes may run in afterCommit of a process transaction, so never join the caller's
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.queue = new ArrayBlockingQueue<>(bufferCapacity);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        writerThread = new Thread(this::runWriter, "in-app-notification-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Queue notifications for writing, after commit if a transaction is active
+     */
+    public void record(List<InAppNotification> notifications) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(notifications);
+                }
+            });
+        } else {
+            enqueue(notifications);
+        }
+    }
+
+    /**
+     * Unread notifications written for the user so far
+     */
+    public long getUnreadCount(String userId) {
+        List<Long> counts = jdbcTemplate.queryForList(
+            "SELECT unread_count FROM in_app_notification_counters WHERE user_id = ?", Long.class, userId);
+        return counts.isEmpty() ? 0 : counts.get(0);
+    }
+
+    /**
+     * One page of a user's notifications, newest first
+     *
+     * @param userId     User ID
+     * @param beforeId   Return notifications older than this id (null for the first page)
+     * @param limit      Page size
+     * @param unreadOnly Only return unread notifications
+     * @return Page; the last element's id is the cursor for the next page
+     */
+    public List<InAppNotification> list(String userId, Long beforeId, int limit, boolean unreadOnly) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS)
+            .append(" FROM in_app_notifications WHERE user_id = ?");
+        args.add(userId);
+        if (unreadOnly) {
+            sql.append(" AND read_at IS NULL");
+        }
+        if (beforeId != null) {
+            sql.append(" AND id < ?");
+            args.add(beforeId);
+        }
+        sql.append(" ORDER BY id DESC LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), NOTIFICATION_MAPPER, args.toArray());
+    }
+
+    /**
+     * Mark the given notifications of a user as read
+     *
+     * @return Number of notifications that were unread
+     */
+    public int markRead(String userId, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Long[] idArray = ids.toArray(new Long[0]);
+        return transactionTemplate.execute(status -> {
+            int updated = jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                    "UPDATE in_app_notifications SET read_at = NOW() " +
+                        "WHERE user_id = ? AND id = ANY(?) AND read_at IS NULL");
+                statement.setString(1, userId);
+                statement.setArray(2, connection.createArrayOf("bigint", idArray));
+                return statement;
+            });
+            decrementUnread(userId, updated);
+            return updated;
+        });
+    }
+
+    /**
+     * Mark all written notifications of a user as read
+     *
+     * @return Number of notifications that were unread
+     */
+    public int markAllRead(String userId) {
+        return transactionTemplate.execute(status -> {
+            int updated = jdbcTemplate.update(
+                "UPDATE in_app_notifications SET read_at = NOW() WHERE user_id = ? AND read_at IS NULL", userId);
+            decrementUnread(userId, updated);
+            return updated;
+        });
+    }
+
+    public int getQueuedNotifications() {
+        return queue.size();
+    }
+
+    public long getWrittenNotifications() {
+        return writtenNotifications.get();
+    }
+
+    public long getFailedNotifications() {
+        return failedNotifications.get();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        log.info("In-app notification writer stopped (written={}, failed={})",
+            writtenNotifications.get(), failedNotifications.get());
+    }
+
+    private void enqueue(List<InAppNotification> notifications) {
+        List<InAppNotification> overflow = new ArrayList<>();
+        for (InAppNotification notification : notifications) {
+            if (!queue.offer(notification)) {
+                overflow.add(notification);
+            }
+        }
+        if (!overflow.isEmpty()) {
+            // Queue full: write on the caller rather than lose notifications
+            write(overflow);
+        }
+    }
+
+    private void decrementUnread(String userId, int count) {
+        if (count > 0) {
+            jdbcTemplate.update(
+                "UPDATE in_app_notification_counters SET unread_count = GREATEST(unread_count - ?, 0), " +
+                    "updated_at = NOW() WHERE user_id = ?",
+                count, userId);
+        }
+    }
+
+    private void runWriter() {
+        List<InAppNotification> batch = new ArrayList<>(batchSize);
+        while (running) {
+            if (queue.drainTo(batch, batchSize) == 0) {
+                LockSupport.parkNanos(flushIntervalNanos);
+                continue;
+            }
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void flush() {
+        List<InAppNotification> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<InAppNotification> notifications) {
+        List<InAppNotification> rows = new ArrayList<>(notifications.size());
+        for (InAppNotification notification : notifications) {
+            InAppNotification row = fitColumns(notification);
+            if (row != null) {
+                rows.add(row);
+            } else {
+                failedNotifications.incrementAndGet();
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        try {
+            insert(rows);
+            writtenNotifications.addAndGet(rows.size());
+        } catch (TransientDataAccessException | RecoverableDataAccessException e) {
+            // Database unavailable: row-by-row inserts would fail the same way
+            failedNotifications.addAndGet(rows.size());
+            log.warn("Failed to write {} in-app notifications: {}", rows.size(), e.getMessage());
+        } catch (RuntimeException e) {
+            if (rows.size() == 1) {
+                quarantine(rows.get(0), e);
+                return;
+            }
+            // One bad row fails the whole statement; write the rows one by one so only it is lost
+            log.debug("Multi-row notification insert failed, retrying {} rows individually: {}",
+                rows.size(), e.getMessage());
+            for (InAppNotification row : rows) {
+                try {
+                    insert(List.of(row));
+                    writtenNotifications.incrementAndGet();
+                } catch (RuntimeException rowFailure) {
+                    quarantine(row, rowFailure);
+                }
+            }
+        }
+    }
+
+    /**
+     * Insert notifications and bump their users' unread counters in one transaction
+     */
+    private void insert(List<InAppNotification> notifications) {
+        // Sorted so concurrent writers lock counter rows in the same order
+        Map<String, Integer> unreadByUser = new TreeMap<>();
+        for (InAppNotification notification : notifications) {
+            unreadByUser.merge(notification.userId(), 1, Integer::sum);
+        }
+
+        String sql = INSERT_PREFIX + String.join(", ", Collections.nCopies(notifications.size(), ROW_PLACEHOLDERS));
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql);
+                int index = 1;
+                for (InAppNotification notification : notifications) {
+                    statement.setString(index++, notification.userId());
+                    statement.setString(index++, notification.processInstanceId());
+                    statement.setString(index++, notification.title());
+                    statement.setString(index++, notification.message());
+                    statement.setString(index++, notification.priority());
+                    statement.setString(index++, notification.actionUrl());
+                    statement.setString(index++, notification.actionLabel());
+                    statement.setTimestamp(index++, Timestamp.from(notification.createdAt()));
+                }
+                return statement;
+            });
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO in_app_notification_counters (user_id, unread_count) VALUES (?, ?) " +
+                    "ON CONFLICT (user_id) DO UPDATE SET unread_count = " +
+                    "in_app_notification_counters.unread_count + EXCLUDED.unread_count, updated_at = NOW()",
+                unreadByUser.entrySet().stream()
+                    .map(entry -> new Object[]{entry.getKey(), entry.getValue()})
+                    .toList());
+        });
+    }
+
+    /**
+     * Fit a notification to the table's columns: display text is truncated and an unknown
+     * priority becomes "normal"
+     *
+     * @return Row to insert, or null if the notification has no usable recipient
+     */
+    static InAppNotification fitColumns(InAppNotification notification) {
+        String userId = notification.userId();
+        if (userId == null || userId.isBlank() || userId.length() > MAX_USER_ID) {
+            log.warn("Dropped in-app notification without a valid recipient: user={}, process={}",
+                userId, notification.processInstanceId());
+            return null;
+        }
+        String priority = notification.priority() != null ? notification.priority().toLowerCase(Locale.ROOT) : null;
+        return new InAppNotification(
+            notification.id(),
+            userId,
+            truncate(notification.processInstanceId(), MAX_PROCESS_INSTANCE_ID),
+            truncate(notification.title(), MAX_TITLE),
+            notification.message() != null ? notification.message() : "",
+            PRIORITIES.contains(priority) ? priority : "normal",
+            truncate(notification.actionUrl(), MAX_ACTION_URL),
+            truncate(notification.actionLabel(), MAX_ACTION_LABEL),
+            notification.createdAt() != null ? notification.createdAt() : Instant.now(),
+            notification.readAt());
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    /**
+     * Give up on a notification the table rejects, keeping it in the log
+     */
+    private void quarantine(InAppNotification notification, RuntimeException e) {
+        failedNotifications.incrementAndGet();
+        log.warn("Dropped in-app notification rejected by the database ({}): user={}, process={}, title={}",
+            e.getMessage(), notification.userId(), notification.processInstanceId(), notification.title());
+    }
+}
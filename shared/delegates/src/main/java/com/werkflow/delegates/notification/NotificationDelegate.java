@@ -1,20 +1,39 @@
 package com.werkflow.delegates.notification;
 
+import com.werkflow.common.delegate.DelegateVariables;
+import com.werkflow.delegates.config.DelegateConfigBinder;
+import com.werkflow.delegates.email.EmailDigester;
+import com.werkflow.delegates.email.EmailRelays;
+import com.werkflow.delegates.email.OutboundEmail;
+import com.werkflow.delegates.template.NotificationTemplates;
+import com.werkflow.delegates.template.RenderedMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.flowable.common.engine.api.async.AsyncTaskInvoker;
 import org.flowable.engine.delegate.DelegateExecution;
-import org.flowable.engine.delegate.JavaDelegate;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.flowable.engine.delegate.FutureJavaDelegate;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Generic Notification Delegate for multi-channel notifications
  *
- * Configurable via BPMN process variables:
+ * Configurable via BPMN field extensions or process variables (see DelegateConfigBinder):
  * - recipients: Comma-separated user IDs or emails (required)
  * - channels: Comma-separated channels (email, sms, push, in-app) - default: email
  * - message: Notification message (required)
@@ -22,6 +41,21 @@ import java.util.List;
  * - priority: Notification priority (low, normal, high, urgent) - default: normal
  * - actionUrl: URL for action button (optional)
  * - actionLabel: Label for action button (optional)
+ * - template: Email template key (default: "notification", see NotificationTemplates);
+ *   rendered per recipient with subject, message, priority, actionUrl, actionLabel and
+ *   recipient, plus the process variables the template references
+ * - locale: Template locale, e.g. "de" or "de_CH" (optional)
+ *
+ * Every channel runs on Flowable's AsyncTaskInvoker, so the step takes as long as the
+ * slowest channel rather than the sum of all of them: email is rendered per recipient,
+ * in-app notifications are built, SMS and push are sent. Each channel has its own timeout
+ * (app.delegates.notification.timeout-ms, overridable per channel); a timed-out channel is
+ * cancelled, interrupting its task if it is running. Work that must join the process
+ * transaction runs afterwards on the engine thread in afterExecution: email is queued in
+ * the email outbox and sent after the step commits (see EmailOutboxDispatcher), and
+ * in-app notifications are handed to InAppNotificationStore. A channel that fails or times
+ * out is reported in notificationFailedChannels without affecting the others. Email below
+ * urgent priority is coalesced per recipient into digests (see EmailDigester).
  *
  * Example BPMN configuration:
  * <serviceTask id="notifyManager" flowable:delegateExpression="${notificationDelegate}">
@@ -44,112 +78,218 @@ import java.util.List;
 @Slf4j
 @Component("notificationDelegate")
 @RequiredArgsConstructor
-public class NotificationDelegate implements JavaDelegate {
+public class NotificationDelegate implements FutureJavaDelegate<NotificationDelegate.NotificationResult> {
 
-    private final JavaMailSender mailSender;
+    private static final String DEFAULT_TEMPLATE = "notification";
+    private static final Set<String> MESSAGE_VARIABLES =
+        Set.of("subject", "message", "priority", "actionUrl", "actionLabel", "recipient");
+    private static final Runnable NO_HAND_OFF = () -> {
+    };
 
-    @Override
-    public void execute(DelegateExecution execution) {
-        log.info("Executing NotificationDelegate for process: {}", execution.getProcessInstanceId());
+    private final EmailDigester emailDigester;
+    private final EmailRelays emailRelays;
+    private final InAppNotificationStore inAppNotificationStore;
+    private final NotificationTemplates notificationTemplates;
+    private final NotificationProperties properties;
+    private final DelegateVariables delegateVariables;
+    private final DelegateConfigBinder configBinder;
 
-        // Get configuration from process variables
-        String recipients = getRequiredVariable(execution, "recipients");
-        String message = getRequiredVariable(execution, "message");
+    @Override
+    public CompletableFuture<NotificationResult> execute(DelegateExecution execution, AsyncTaskInvoker taskInvoker) {
+        log.debug("Executing NotificationDelegate for process: {}", execution.getProcessInstanceId());
 
-        String channels = getVariable(execution, "channels", "email");
-        String subject = getVariable(execution, "subject", "Workflow Notification");
-        String priority = getVariable(execution, "priority", "normal");
-        String actionUrl = getVariable(execution, "actionUrl", null);
-        String actionLabel = getVariable(execution, "actionLabel", "View Details");
+        NotificationConfig config = configBinder.bind(execution, NotificationConfig.class);
+        String recipients = config.recipients();
+        String message = config.message();
+        String channels = config.channels();
+        String subject = config.subject();
+        String priority = config.priority();
+        String actionUrl = config.actionUrl();
+        String actionLabel = config.actionLabel();
 
         log.debug("Notification configuration: recipients={}, channels={}, priority={}",
             recipients, channels, priority);
 
         List<String> channelList = parseChannels(channels);
         List<String> recipientList = parseRecipients(recipients);
+        String processInstanceId = execution.getProcessInstanceId();
 
-        List<String> sentChannels = new ArrayList<>();
-        List<String> failedChannels = new ArrayList<>();
+        // Process variables are read here, on the engine thread; the channel tasks only see copies
+        Map<String, Object> templateVariables = null;
+        Locale locale = config.locale() != null ? Locale.forLanguageTag(config.locale().replace('_', '-')) : null;
+        if (channelList.stream().anyMatch("email"::equalsIgnoreCase)) {
+            Set<String> referenced = new HashSet<>(notificationTemplates.variables(config.template(), locale));
+            referenced.removeAll(MESSAGE_VARIABLES);
+            templateVariables = delegateVariables.getAll(execution, referenced);
+            templateVariables.put("subject", subject);
+            templateVariables.put("message", message);
+            templateVariables.put("priority", priority);
+            templateVariables.put("actionUrl", actionUrl);
+            templateVariables.put("actionLabel", actionLabel);
+        }
+        Map<String, Object> emailVariables = templateVariables;
 
-        // Send to each channel
+        // Start every channel before waiting on any of them. Each task yields the hand-off that
+        // afterExecution runs in the process transaction
+        Map<String, CompletableFuture<Runnable>> deliveries = new LinkedHashMap<>();
         for (String channel : channelList) {
+            String name = channel.toLowerCase();
+            switch (name) {
+                case "email":
+                    deliveries.put(name, submit(taskInvoker, name, () -> prepareEmailNotification(processInstanceId,
+                        recipientList, config.template(), locale, emailVariables, priority)));
+                    break;
+                case "sms":
+                    deliveries.put(name, submit(taskInvoker, name, () -> sendSmsNotification(recipientList, message)));
+                    break;
+                case "push":
+                    deliveries.put(name, submit(taskInvoker, name,
+                        () -> sendPushNotification(recipientList, subject, message, actionUrl)));
+                    break;
+                case "in-app":
+                    deliveries.put(name, submit(taskInvoker, name, () -> prepareInAppNotification(processInstanceId,
+                        recipientList, subject, message, priority, actionUrl, actionLabel)));
+                    break;
+                default:
+                    log.warn("Unknown notification channel: {}", channel);
+            }
+        }
+
+        return CompletableFuture.allOf(deliveries.values().toArray(new CompletableFuture[0]))
+            .handle((ignored, e) -> {
+                Map<String, Runnable> handOffs = new LinkedHashMap<>();
+                List<String> failedChannels = new ArrayList<>();
+                deliveries.forEach((channel, delivery) -> {
+                    try {
+                        handOffs.put(channel, delivery.join());
+                    } catch (CompletionException | CancellationException failure) {
+                        Throwable cause = failure.getCause() != null ? failure.getCause() : failure;
+                        log.error("Failed to send notification via {}: {}", channel,
+                            cause instanceof TimeoutException ? "timed out" : cause.getMessage());
+                        failedChannels.add(channel);
+                    }
+                });
+                return new NotificationResult(handOffs, failedChannels, recipientList.size());
+            });
+    }
+
+    @Override
+    public void afterExecution(DelegateExecution execution, NotificationResult result) {
+        List<String> sentChannels = new ArrayList<>();
+        List<String> failedChannels = new ArrayList<>(result.failedChannels());
+        result.handOffs().forEach((channel, handOff) -> {
             try {
-                switch (channel.toLowerCase()) {
-                    case "email":
-                        sendEmailNotification(recipientList, subject, message, actionUrl, actionLabel);
-                        sentChannels.add("email");
-                        break;
-                    case "sms":
-                        sendSmsNotification(recipientList, message);
-                        sentChannels.add("sms");
-                        break;
-                    case "push":
-                        sendPushNotification(recipientList, subject, message, actionUrl);
-                        sentChannels.add("push");
-                        break;
-                    case "in-app":
-                        sendInAppNotification(recipientList, subject, message, priority, actionUrl, actionLabel);
-                        sentChannels.add("in-app");
-                        break;
-                    default:
-                        log.warn("Unknown notification channel: {}", channel);
-                }
-            } catch (Exception e) {
+                handOff.run();
+                sentChannels.add(channel);
+            } catch (RuntimeException e) {
                 log.error("Failed to send notification via {}: {}", channel, e.getMessage());
                 failedChannels.add(channel);
             }
-        }
-
-        log.info("Notifications sent via channels: {}", sentChannels);
+        });
+        log.debug("Notifications sent via channels: {}", sentChannels);
 
         // Store results
-        execution.setVariable("notificationSent", !sentChannels.isEmpty());
-        execution.setVariable("notificationChannels", sentChannels);
-        execution.setVariable("notificationFailedChannels", failedChannels);
-        execution.setVariable("notificationRecipients", recipientList.size());
+        delegateVariables.set(execution, "notificationSent", !sentChannels.isEmpty());
+        delegateVariables.set(execution, "notificationChannels", sentChannels);
+        delegateVariables.set(execution, "notificationFailedChannels", failedChannels);
+        delegateVariables.set(execution, "notificationRecipients", result.recipientCount());
     }
 
-    private void sendEmailNotification(List<String> recipients, String subject, String message,
-                                        String actionUrl, String actionLabel) {
-        String emailBody = buildEmailBody(message, actionUrl, actionLabel);
+    /**
+     * Notification configuration, resolved once per activity where static
+     */
+    record NotificationConfig(String recipients, String message, String channels, String subject, String priority,
+                              String actionUrl, String actionLabel, String template, String locale) {
 
-        SimpleMailMessage mailMessage = new SimpleMailMessage();
-        mailMessage.setTo(recipients.toArray(new String[0]));
-        mailMessage.setSubject(subject);
-        mailMessage.setText(emailBody);
+        NotificationConfig {
+            DelegateConfigBinder.required(recipients, "recipients");
+            DelegateConfigBinder.required(message, "message");
+            channels = channels != null ? channels : "email";
+            subject = subject != null ? subject : "Workflow Notification";
+            priority = priority != null ? priority : "normal";
+            actionLabel = actionLabel != null ? actionLabel : "View Details";
+            template = template != null ? template : DEFAULT_TEMPLATE;
+        }
+    }
 
-        mailSender.send(mailMessage);
+    /**
+     * Outcome of the fan-out: per delivered channel, the hand-off to run in the process
+     * transaction (outbox insert, in-app store), and the channels that already failed
+     */
+    public record NotificationResult(Map<String, Runnable> handOffs, List<String> failedChannels,
+                                     int recipientCount) {
+    }
+
+    private CompletableFuture<Runnable> submit(AsyncTaskInvoker taskInvoker, String channel,
+                                               Callable<Runnable> send) {
+        ChannelTask task = new ChannelTask(send);
+        CompletableFuture<Runnable> delivery = taskInvoker.submit(task)
+            .orTimeout(properties.timeoutFor(channel), TimeUnit.MILLISECONDS);
+        delivery.whenComplete((handOff, e) -> {
+            if (e != null) {
+                task.cancel();
+            }
+        });
+        return delivery;
+    }
 
-        log.debug("Email notification sent to {} recipients", recipients.size());
+    /**
+     * Renders the emails on the invoker; queuing them is left to the hand-off
+     */
+    private Runnable prepareEmailNotification(String processInstanceId, List<String> recipients, String template,
+                                              Locale locale, Map<String, Object> variables, String priority) {
+        List<Map<String, Object>> perRecipient = new ArrayList<>(recipients.size());
+        for (String recipient : recipients) {
+            Map<String, Object> recipientVariables = new HashMap<>(variables);
+            recipientVariables.put("recipient", recipient);
+            perRecipient.add(recipientVariables);
+        }
+        List<RenderedMessage> messages = notificationTemplates.renderBatch(template, locale, perRecipient);
+        String relay = emailRelays.resolveName(null);
+
+        return () -> {
+            // One email per recipient, so each can be coalesced into that recipient's digest
+            for (int i = 0; i < recipients.size(); i++) {
+                RenderedMessage rendered = messages.get(i);
+                emailDigester.submit(new OutboundEmail(processInstanceId, relay, recipients.get(i), null, null,
+                    rendered.subject(), rendered.body(), rendered.isHtml(), null, null, null), priority);
+            }
+            log.debug("Email notification queued for {} recipients", recipients.size());
+        };
     }
 
-    private void sendSmsNotification(List<String> recipients, String message) {
+    private Runnable sendSmsNotification(List<String> recipients, String message) {
         // TODO: Integrate with SMS provider (Twilio, AWS SNS, etc.)
         log.info("SMS notification would be sent to {} recipients: {}", recipients.size(), message);
         // This is a placeholder - actual SMS integration would go here
+        return NO_HAND_OFF;
     }
 
-    private void sendPushNotification(List<String> recipients, String title, String message, String actionUrl) {
+    private Runnable sendPushNotification(List<String> recipients, String title, String message, String actionUrl) {
         // TODO: Integrate with push notification service (Firebase, OneSignal, etc.)
         log.info("Push notification would be sent to {} recipients: {}", recipients.size(), message);
         // This is a placeholder - actual push notification integration would go here
+        return NO_HAND_OFF;
     }
 
-    private void sendInAppNotification(List<String> recipients, String title, String message,
-                                        String priority, String actionUrl, String actionLabel) {
-        // TODO: Store in-app notification in database for user to see in UI
-        log.info("In-app notification would be created for {} recipients: {}", recipients.size(), message);
-        // This is a placeholder - actual in-app notification storage would go here
-    }
-
-    private String buildEmailBody(String message, String actionUrl, String actionLabel) {
-        StringBuilder body = new StringBuilder(message);
-
-        if (actionUrl != null) {
-            body.append("\n\n").append(actionLabel).append(": ").append(actionUrl);
+    /**
+     * Builds the notifications on the invoker; the store queues them once the process
+     * transaction commits, so recording them is left to the hand-off
+     */
+    private Runnable prepareInAppNotification(String processInstanceId, List<String> recipients, String title,
+                                              String message, String priority, String actionUrl,
+                                              String actionLabel) {
+        Instant now = Instant.now();
+        List<InAppNotification> notifications = new ArrayList<>(recipients.size());
+        for (String recipient : recipients) {
+            notifications.add(new InAppNotification(null, recipient, processInstanceId, title, message,
+                priority, actionUrl, actionLabel, now, null));
         }
 
-        return body.toString();
+        return () -> {
+            inAppNotificationStore.record(notifications);
+            log.debug("In-app notification queued for {} recipients", recipients.size());
+        };
     }
 
     private List<String> parseChannels(String channels) {
@@ -167,18 +307,4 @@ public class NotificationDelegate implements JavaDelegate {
         }
         return recipientList;
     }
-
-    private String getRequiredVariable(DelegateExecution execution, String variableName) {
-        Object value = execution.getVariable(variableName);
-        if (value == null || value.toString().trim().isEmpty()) {
-            throw new IllegalArgumentException("Required variable '" + variableName + "' is not set");
-        }
-        return value.toString();
-    }
-
-    @SuppressWarnings("unchecked")
-    private <T> T getVariable(DelegateExecution execution, String variableName, T defaultValue) {
-        Object value = execution.getVariable(variableName);
-        return value != null ? (T) value : defaultValue;
-    }
 }
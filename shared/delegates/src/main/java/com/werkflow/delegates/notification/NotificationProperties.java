@@ -0,0 +1,29 @@
+package com.werkflow.delegates.notification;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Notification delegate settings
+ *
+ * Each channel is given timeoutMs to deliver, unless channelTimeoutsMs has an entry for it
+ * (keyed by channel name, e.g. "sms").
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.delegates.notification")
+@Getter
+@Setter
+public class NotificationProperties {
+
+    private Long timeoutMs = 5000L;
+    private Map<String, Long> channelTimeoutsMs = new HashMap<>();
+
+    public long timeoutFor(String channel) {
+        return channelTimeoutsMs.getOrDefault(channel, timeoutMs);
+    }
+}
@@ -0,0 +1,122 @@
+package com.werkflow.delegates.rest;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * Collects single-key lookups and dispatches them as one bulk request (DataLoader style).
+ *
+ * The first lookup of a batch opens a window of windowMs; every lookup arriving within
+ * the window joins the batch. The batch is dispatched when the window closes or as soon
+ * as it holds maxBatchSize distinct keys. Concurrent lookups of the same key share one
+ * slot in the batch. Lookups in different groups (e.g. sent with different headers) are
+ * never mixed: each group is dispatched as its own bulk request. Each waiter receives its
+ * own copy of a map result.
+ *
+ * @param <G> Group type
+ */
+public class BatchLoader<G> {
+
+    private final BiFunction<G, List<String>, Mono<Map<String, Object>>> dispatcher;
+    private final long windowMs;
+    private final int maxBatchSize;
+    private final Scheduler scheduler;
+
+    private Map<G, Map<String, List<MonoSink<Object>>>> pending = new LinkedHashMap<>();
+    private boolean flushScheduled;
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong keys = new AtomicLong();
+
+    /**
+     * @param dispatcher   Bulk call: group and keys in, results by key out
+     * @param windowMs     How long to collect lookups before dispatching
+     * @param maxBatchSize Dispatch a group immediately once it has this many distinct keys pending
+     * @param scheduler    Scheduler for closing the window
+     */
+    public BatchLoader(BiFunction<G, List<String>, Mono<Map<String, Object>>> dispatcher,
+                       long windowMs, int maxBatchSize, Scheduler scheduler) {
+        this.dispatcher = dispatcher;
+        this.windowMs = windowMs;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Look up a single key
+     *
+     * @param group Group the lookup is batched with
+     * @param key   Entity key
+     * @return Mono with the entity, empty if the bulk response has no entry for the key
+     */
+    public Mono<Object> load(G group, String key) {
+        return Mono.create(sink -> enqueue(group, key, sink));
+    }
+
+    /**
+     * Number of bulk requests sent
+     */
+    public long getBatches() {
+        return batches.get();
+    }
+
+    /**
+     * Number of distinct keys requested across all batches
+     */
+    public long getKeys() {
+        return keys.get();
+    }
+
+    private void enqueue(G group, String key, MonoSink<Object> sink) {
+        Map<String, List<MonoSink<Object>>> full = null;
+        synchronized (this) {
+            Map<String, List<MonoSink<Object>>> batch = pending.computeIfAbsent(group, g -> new LinkedHashMap<>());
+            batch.computeIfAbsent(key, k -> new ArrayList<>()).add(sink);
+            if (batch.size() >= maxBatchSize) {
+                full = pending.remove(group);
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                scheduler.schedule(this::flush, windowMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (full != null) {
+            dispatch(group, full);
+        }
+    }
+
+    private void flush() {
+        Map<G, Map<String, List<MonoSink<Object>>>> groups;
+        synchronized (this) {
+            flushScheduled = false;
+            if (pending.isEmpty()) {
+                return;
+            }
+            groups = pending;
+            pending = new LinkedHashMap<>();
+        }
+        groups.forEach(this::dispatch);
+    }
+
+    private void dispatch(G group, Map<String, List<MonoSink<Object>>> batch) {
+        batches.incrementAndGet();
+        keys.addAndGet(batch.size());
+
+        dispatcher.apply(group, new ArrayList<>(batch.keySet()))
+            .defaultIfEmpty(Map.of())
+            .subscribe(
+                results -> batch.forEach((key, sinks) -> {
+                    Object value = results.get(key);
+                    sinks.forEach(sink -> sink.success(ResponseMaps.copy(value)));
+                }),
+                e -> batch.values().forEach(sinks -> sinks.forEach(sink -> sink.error(e))));
+    }
+}
@@ -0,0 +1,120 @@
+package com.werkflow.delegates.rest;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of batch loaders, one per bulk endpoint
+ *
+ * Lookups from all process instances on this node that target the same bulk endpoint
+ * (URL and request/response layout) share one loader, so they are batched together
+ * regardless of which execution issued them. Lookups with different headers share the
+ * loader but are sent as separate bulk requests. At most max-loaders endpoints are kept;
+ * the least recently used loader is dropped beyond that, after dispatching what it holds.
+ * Bulk requests go through RestCallExecutor and therefore share its connection pool,
+ * budget and circuit breakers.
+ */
+@Component
+public class BatchLoaders {
+
+    private final RestCallExecutor restCallExecutor;
+
+    // Access-ordered, guarded by itself
+    private final Map<BatchEndpoint, BatchLoader<Map<String, String>>> loaders;
+
+    public BatchLoaders(RestCallExecutor restCallExecutor,
+                        @Value("${app.delegates.rest.batch.max-loaders:256}") int maxLoaders) {
+        this.restCallExecutor = restCallExecutor;
+        this.loaders = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<BatchEndpoint, BatchLoader<Map<String, String>>> eldest) {
+                // Lookups already pending in the evicted loader are still dispatched by its window
+                return size() > maxLoaders;
+            }
+        };
+    }
+
+    /**
+     * Look up one key through the loader for the given endpoint
+     *
+     * @param endpoint Bulk endpoint configuration
+     * @param headers  HTTP headers (may be null)
+     * @param key      Entity key
+     * @return Mono with the entity, empty if the endpoint returned nothing for the key
+     */
+    public Mono<Object> load(BatchEndpoint endpoint, Map<String, String> headers, String key) {
+        BatchLoader<Map<String, String>> loader;
+        synchronized (loaders) {
+            loader = loaders.computeIfAbsent(endpoint, this::createLoader);
+        }
+        return loader.load(headers != null ? headers : Map.of(), key);
+    }
+
+    /**
+     * Loaders currently kept, for statistics
+     */
+    public Map<BatchEndpoint, BatchLoader<Map<String, String>>> getLoaders() {
+        synchronized (loaders) {
+            return Map.copyOf(loaders);
+        }
+    }
+
+    private BatchLoader<Map<String, String>> createLoader(BatchEndpoint endpoint) {
+        return new BatchLoader<>((headers, keys) -> dispatch(endpoint, headers, keys),
+            endpoint.windowMs(), endpoint.maxBatchSize(), Schedulers.parallel());
+    }
+
+    private Mono<Map<String, Object>> dispatch(BatchEndpoint endpoint, Map<String, String> headers, List<String> keys) {
+        RestRequest request = new RestRequest(endpoint.url(), "POST", headers,
+            Map.of(endpoint.keysField(), keys), endpoint.timeoutSeconds(), null, null,
+            endpoint.circuitBreaker(), false, null);
+
+        return restCallExecutor.execute(request).map(response -> {
+            if (endpoint.itemsField() == null) {
+                // Response is keyed by entity key
+                return response;
+            }
+            Map<String, Object> byKey = new LinkedHashMap<>();
+            Object items = response.get(endpoint.itemsField());
+            if (items instanceof List<?> list) {
+                for (Object item : list) {
+                    if (item instanceof Map<?, ?> entity && entity.get(endpoint.idField()) != null) {
+                        byKey.put(String.valueOf(entity.get(endpoint.idField())), entity);
+                    }
+                }
+            }
+            return byKey;
+        });
+    }
+
+    /**
+     * Bulk endpoint configuration; lookups with equal configuration share a loader
+     *
+     * @param url            Bulk endpoint URL, called with POST
+     * @param keysField      Request body field holding the list of keys, e.g. "ids"
+     * @param itemsField     Response field holding the list of entities, or null if the
+     *                       response is an object keyed by entity key
+     * @param idField        Entity field holding the key (used with itemsField)
+     * @param windowMs       Batching window
+     * @param maxBatchSize   Maximum keys per bulk request
+     * @param timeoutSeconds Timeout of the bulk request
+     * @param circuitBreaker Circuit breaker name (null for the target "host:port")
+     */
+    public record BatchEndpoint(
+        String url,
+        String keysField,
+        String itemsField,
+        String idField,
+        long windowMs,
+        int maxBatchSize,
+        int timeoutSeconds,
+        String circuitBreaker
+    ) {
+    }
+}
@@ -0,0 +1,135 @@
+package com.werkflow.delegates.rest;
+
+import com.werkflow.common.delegate.DelegateOutcome;
+import com.werkflow.common.delegate.DelegateVariables;
+import com.werkflow.delegates.config.DelegateConfigBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.common.engine.api.async.AsyncTaskInvoker;
+import org.flowable.engine.delegate.DelegateExecution;
+import org.flowable.engine.delegate.FutureJavaDelegate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Batch Lookup Delegate for fetching a single entity through a bulk endpoint
+ *
+ * Lookups issued by many process instances at about the same time (vendor 1, vendor 2,
+ * vendor 3, ...) are collected for a short window and sent as one bulk request, e.g.
+ * POST /api/vendors/batch {"ids": ["1", "2", "3"]}. Each execution then receives its own
+ * entity. Under load this replaces N requests with one.
+ *
+ * Configurable via BPMN field extensions or process variables (see DelegateConfigBinder):
+ * - batchUrl: Bulk endpoint URL, called with POST (required)
+ * - lookupKey: Key of the entity to fetch (required)
+ * - keysField: Request body field holding the keys (default: "ids")
+ * - itemsField: Response field holding the list of entities (optional; if not set the
+ *   response must be an object keyed by entity key)
+ * - idField: Entity field holding the key, used with itemsField (default: "id")
+ * - batchWindowMs: Batching window in milliseconds (default: 5)
+ * - maxBatchSize: Maximum keys per bulk request (default: 100)
+ * - headers: Map of HTTP headers (optional)
+ * - circuitBreaker: Circuit breaker name (default: target "host:port")
+ * - timeoutSeconds: Timeout including the batching window (default: 30)
+ * - responseVariable: Variable name to store the entity (default: "lookupResult")
+ *
+ * If the bulk response has no entry for the key, the response variable is set to null
+ * and responseVariable + "Found" to false.
+ *
+ * Example BPMN configuration:
+ * <serviceTask id="lookupVendor" flowable:delegateExpression="${batchLookupDelegate}">
+ *   <extensionElements>
+ *     <flowable:field name="batchUrl">
+ *       <flowable:string>http://procurement-service:8085/api/vendors/batch</flowable:string>
+ *     </flowable:field>
+ *     <flowable:field name="lookupKey">
+ *       <flowable:expression>${vendorId}</flowable:expression>
+ *     </flowable:field>
+ *     <flowable:field name="itemsField">
+ *       <flowable:string>vendors</flowable:string>
+ *     </flowable:field>
+ *     <flowable:field name="responseVariable">
+ *       <flowable:string>vendor</flowable:string>
+ *     </flowable:field>
+ *   </extensionElements>
+ * </serviceTask>
+ */
+@Slf4j
+@Component("batchLookupDelegate")
+@RequiredArgsConstructor
+public class BatchLookupDelegate implements FutureJavaDelegate<BatchLookupDelegate.LookupResult> {
+
+    private final BatchLoaders batchLoaders;
+    private final DelegateVariables delegateVariables;
+    private final DelegateConfigBinder configBinder;
+
+    @Override
+    public CompletableFuture<LookupResult> execute(DelegateExecution execution, AsyncTaskInvoker taskInvoker) {
+        log.debug("Executing BatchLookupDelegate for process: {}", execution.getProcessInstanceId());
+
+        LookupConfig config = configBinder.bind(execution, LookupConfig.class);
+        String lookupKey = config.lookupKey();
+        String responseVariable = config.responseVariable();
+
+        BatchLoaders.BatchEndpoint endpoint = new BatchLoaders.BatchEndpoint(config.batchUrl(), config.keysField(),
+            config.itemsField(), config.idField(), config.batchWindowMs(), config.maxBatchSize(),
+            config.timeoutSeconds(), config.circuitBreaker());
+
+        return batchLoaders.load(endpoint, config.headers(), lookupKey)
+            .map(Optional::of)
+            .defaultIfEmpty(Optional.empty())
+            .timeout(Duration.ofSeconds(config.timeoutSeconds()))
+            .map(entity -> new LookupResult(responseVariable, lookupKey, entity.orElse(null), entity.isPresent(), null))
+            .onErrorResume(e -> Mono.just(new LookupResult(responseVariable, lookupKey, null, false, e)))
+            .toFuture();
+    }
+
+    @Override
+    public void afterExecution(DelegateExecution execution, LookupResult result) {
+        if (result.error() != null) {
+            Throwable e = result.error();
+            log.error("Batch lookup of '{}' failed: {}", result.key(), e.getMessage(), e);
+
+            delegateVariables.set(execution, result.responseVariable() + "Error", e.getMessage());
+            delegateVariables.set(execution, result.responseVariable() + "Success", false);
+
+            throw new RuntimeException("Batch lookup failed: " + e.getMessage(), e);
+        }
+
+        delegateVariables.set(execution, result.responseVariable(), result.entity());
+        delegateVariables.set(execution, result.responseVariable() + "Found", result.found());
+
+        log.debug("Batch lookup of '{}' completed (found={})", result.key(), result.found());
+    }
+
+    /**
+     * Lookup configuration, resolved once per activity where static
+     */
+    record LookupConfig(String batchUrl, String lookupKey, String keysField, String itemsField, String idField,
+                        Integer batchWindowMs, Integer maxBatchSize, Map<String, String> headers,
+                        String circuitBreaker, Integer timeoutSeconds, String responseVariable) {
+
+        LookupConfig {
+            DelegateConfigBinder.required(batchUrl, "batchUrl");
+            DelegateConfigBinder.required(lookupKey, "lookupKey");
+            keysField = keysField != null ? keysField : "ids";
+            idField = idField != null ? idField : "id";
+            batchWindowMs = batchWindowMs != null ? batchWindowMs : 5;
+            maxBatchSize = maxBatchSize != null ? maxBatchSize : 100;
+            timeoutSeconds = timeoutSeconds != null ? timeoutSeconds : 30;
+            responseVariable = responseVariable != null ? responseVariable : "lookupResult";
+        }
+    }
+
+    /**
+     * Outcome of a lookup, applied to the execution in afterExecution
+     */
+    public record LookupResult(String responseVariable, String key, Object entity, boolean found, Throwable error)
+        implements DelegateOutcome {
+    }
+}
@@ -0,0 +1,217 @@
+package com.werkflow.delegates.rest;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking limit on the number of concurrent outbound REST calls.
+ *
+ * Calls beyond the budget wait in a bounded FIFO queue and are started when a running
+ * call completes; no thread is parked while waiting. When the queue is full the call
+ * fails immediately with a RejectedExecutionException, and a call that waits longer than
+ * maxQueueWait fails with a TimeoutException. A call cancelled while waiting leaves the
+ * queue and is never started.
+ */
+public class InFlightBudget {
+
+    private final int maxInFlight;
+    private final int maxQueued;
+    private final Duration maxQueueWait;
+    private final Scheduler timer;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Queue<Waiter<?>> waiting = new ConcurrentLinkedQueue<>();
+
+    public InFlightBudget(int maxInFlight, int maxQueued, Duration maxQueueWait) {
+        this(maxInFlight, maxQueued, maxQueueWait, Schedulers.parallel());
+    }
+
+    InFlightBudget(int maxInFlight, int maxQueued, Duration maxQueueWait, Scheduler timer) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1");
+        }
+        this.maxInFlight = maxInFlight;
+        this.maxQueued = Math.max(0, maxQueued);
+        this.maxQueueWait = maxQueueWait;
+        this.timer = timer;
+    }
+
+    /**
+     * Run a call within the budget
+     *
+     * @param call Supplier of the call, invoked once a slot is free; a supplier that throws
+     *             fails the returned Mono and frees the slot
+     * @return Mono completing with the call's result
+     */
+    public <T> Mono<T> run(Supplier<Mono<T>> call) {
+        return Mono.create(sink -> {
+            Waiter<T> waiter = new Waiter<>(call, sink);
+            sink.onCancel(waiter::cancel);
+
+            if (tryAcquire()) {
+                if (waiter.claim(Waiter.NEW)) {
+                    waiter.start();
+                } else {
+                    release();
+                }
+                return;
+            }
+            if (queued.incrementAndGet() > maxQueued) {
+                queued.decrementAndGet();
+                sink.error(new RejectedExecutionException(
+                    "REST call budget exhausted (" + maxInFlight + " in flight, " + maxQueued + " queued)"));
+                return;
+            }
+            if (!waiter.enqueue()) {
+                queued.decrementAndGet();
+                return;
+            }
+            if (maxQueueWait != null && maxQueueWait.toMillis() > 0) {
+                waiter.timeout = timer.schedule(waiter::expire, maxQueueWait.toMillis(), TimeUnit.MILLISECONDS);
+            }
+            waiting.add(waiter);
+            // A slot may have been released between tryAcquire and add
+            drain();
+        });
+    }
+
+    /**
+     * Number of calls currently in flight
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Number of calls waiting for a slot
+     */
+    public int getQueued() {
+        return queued.get();
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    private boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= maxInFlight) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void release() {
+        inFlight.decrementAndGet();
+        drain();
+    }
+
+    private void drain() {
+        while (!waiting.isEmpty() && tryAcquire()) {
+            Waiter<?> next = waiting.poll();
+            if (next == null || !next.claim(Waiter.QUEUED)) {
+                // Queue emptied concurrently, or the waiter was cancelled or timed out
+                inFlight.decrementAndGet();
+                continue;
+            }
+            queued.decrementAndGet();
+            next.start();
+        }
+    }
+
+    /**
+     * A call and its subscriber; leaves the NEW and QUEUED states exactly once
+     */
+    private final class Waiter<T> {
+
+        static final int NEW = 0;
+        static final int QUEUED = 1;
+        static final int STARTED = 2;
+        static final int ABANDONED = 3;
+
+        private final Supplier<Mono<T>> call;
+        private final MonoSink<T> sink;
+        private final AtomicInteger state = new AtomicInteger(NEW);
+
+        private volatile Disposable timeout;
+        private volatile Disposable subscription;
+        private volatile boolean cancelled;
+
+        private Waiter(Supplier<Mono<T>> call, MonoSink<T> sink) {
+            this.call = call;
+            this.sink = sink;
+        }
+
+        boolean enqueue() {
+            return state.compareAndSet(NEW, QUEUED);
+        }
+
+        boolean claim(int expected) {
+            return state.compareAndSet(expected, STARTED);
+        }
+
+        /**
+         * Start the call in a slot acquired by the caller
+         */
+        void start() {
+            Disposable pending = timeout;
+            if (pending != null) {
+                pending.dispose();
+            }
+            subscription = Mono.defer(call)
+                .doFinally(signal -> release())
+                .subscribe(sink::success, sink::error, () -> sink.success());
+            if (cancelled) {
+                subscription.dispose();
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+            if (state.compareAndSet(NEW, ABANDONED) || abandon()) {
+                return;
+            }
+            Disposable running = subscription;
+            if (running != null) {
+                running.dispose();
+            }
+        }
+
+        void expire() {
+            if (abandon()) {
+                sink.error(new TimeoutException(
+                    "Timed out after " + maxQueueWait.toMillis() + " ms waiting for a REST call slot"));
+            }
+        }
+
+        private boolean abandon() {
+            if (!state.compareAndSet(QUEUED, ABANDONED)) {
+                return false;
+            }
+            waiting.remove(this);
+            queued.decrementAndGet();
+            Disposable pending = timeout;
+            if (pending != null) {
+                pending.dispose();
+            }
+            return true;
+        }
+    }
+}
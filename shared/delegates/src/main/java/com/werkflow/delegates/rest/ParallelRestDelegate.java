@@ -0,0 +1,194 @@
+package com.werkflow.delegates.rest;
+
+import com.werkflow.common.delegate.DelegateOutcome;
+import com.werkflow.common.delegate.DelegateVariables;
+import com.werkflow.delegates.config.DelegateConfigBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.common.engine.api.async.AsyncTaskInvoker;
+import org.flowable.engine.delegate.DelegateExecution;
+import org.flowable.engine.delegate.FutureJavaDelegate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Parallel REST Delegate for calling several independent services in one service task
+ *
+ * All requests are started at once and share one deadline, so the task takes as long as
+ * the slowest call instead of the sum of all calls. Each request goes through the same
+ * pipeline as RestServiceDelegate (pooling, circuit breakers, coalescing, caching).
+ *
+ * Configurable via BPMN field extensions or process variables (see DelegateConfigBinder):
+ * - requests: List of request specifications (required), each a map with
+ *   - name: Request name (required, unique within the task)
+ *   - url, method, headers, body, cacheTtlSeconds, cacheKey, circuitBreaker, coalesce,
+ *     responseMapping: as for RestServiceDelegate
+ *   - responseVariable: Variable name to store the response (default: name + "Response")
+ * - timeoutSeconds: Deadline for all requests together (default: 30)
+ * - failureMode: ALL_OR_NOTHING (default) fails the task on the first failed request and
+ *   cancels the others; BEST_EFFORT stores what succeeded and records the failures
+ * - resultVariable: Variable name for the per-request success map (default: "parallelRestResults")
+ *
+ * A failed request stores responseVariable + "Error" and responseVariable + "Success" = false.
+ *
+ * Example BPMN configuration:
+ * <serviceTask id="gatherPurchaseData" flowable:delegateExpression="${parallelRestDelegate}">
+ *   <extensionElements>
+ *     <flowable:field name="requests">
+ *       <flowable:expression>${purchaseLookups}</flowable:expression>
+ *     </flowable:field>
+ *     <flowable:field name="failureMode">
+ *       <flowable:string>BEST_EFFORT</flowable:string>
+ *     </flowable:field>
+ *   </extensionElements>
+ * </serviceTask>
+ */
+@Slf4j
+@Component("parallelRestDelegate")
+@RequiredArgsConstructor
+public class ParallelRestDelegate implements FutureJavaDelegate<ParallelRestDelegate.ParallelResult> {
+
+    public enum FailureMode {
+        ALL_OR_NOTHING,
+        BEST_EFFORT
+    }
+
+    private final RestCallExecutor restCallExecutor;
+    private final DelegateVariables delegateVariables;
+    private final DelegateConfigBinder configBinder;
+
+    @Override
+    public CompletableFuture<ParallelResult> execute(DelegateExecution execution, AsyncTaskInvoker taskInvoker) {
+        log.debug("Executing ParallelRestDelegate for process: {}", execution.getProcessInstanceId());
+
+        ParallelConfig config = configBinder.bind(execution, ParallelConfig.class);
+        List<Map<String, Object>> specs = config.requests();
+        Integer timeoutSeconds = config.timeoutSeconds();
+        FailureMode failureMode = FailureMode.valueOf(config.failureMode().toUpperCase().replace('-', '_'));
+        String resultVariable = config.resultVariable();
+
+        List<NamedRequest> requests = new ArrayList<>();
+        for (Map<String, Object> spec : specs) {
+            Object name = spec.get("name");
+            if (name == null) {
+                throw new IllegalArgumentException("Each request specification requires a 'name'");
+            }
+            Object responseVariable = spec.get("responseVariable");
+            requests.add(new NamedRequest(
+                name.toString(),
+                responseVariable != null ? responseVariable.toString() : name + "Response",
+                RestRequest.fromSpec(spec, timeoutSeconds)));
+        }
+
+        log.debug("Parallel REST calls: requests={}, deadline={}s, failureMode={}",
+            requests.size(), timeoutSeconds, failureMode);
+
+        Duration deadline = Duration.ofSeconds(timeoutSeconds);
+        Flux<Outcome> outcomes = Flux.fromIterable(requests)
+            .flatMap(request -> {
+                Mono<Outcome> outcome = restCallExecutor.execute(request.request())
+                    .timeout(deadline)
+                    .map(response -> new Outcome(request, response, null))
+                    .defaultIfEmpty(new Outcome(request, null, null));
+                if (failureMode == FailureMode.BEST_EFFORT) {
+                    return outcome.onErrorResume(e -> Mono.just(new Outcome(request, null, e)));
+                }
+                return outcome.onErrorMap(e -> new RequestFailedException(request, e));
+            }, Math.max(1, requests.size()));
+
+        return outcomes.collectList()
+            .map(results -> new ParallelResult(failureMode, resultVariable, results, null))
+            .onErrorResume(e -> Mono.just(new ParallelResult(failureMode, resultVariable, List.of(), e)))
+            .toFuture();
+    }
+
+    @Override
+    public void afterExecution(DelegateExecution execution, ParallelResult result) {
+        if (result.failure() != null) {
+            Throwable e = result.failure();
+            log.error("Parallel REST call failed: {}", e.getMessage(), e);
+
+            if (e instanceof RequestFailedException failed) {
+                delegateVariables.set(execution, failed.request.responseVariable() + "Error",
+                    e.getCause().getMessage());
+                delegateVariables.set(execution, failed.request.responseVariable() + "Success", false);
+            }
+            throw new RuntimeException("Parallel REST call failed: " + e.getMessage(), e);
+        }
+
+        Map<String, Boolean> successes = new LinkedHashMap<>();
+        for (Outcome outcome : result.outcomes()) {
+            NamedRequest request = outcome.request();
+            successes.put(request.name(), outcome.error() == null);
+
+            if (outcome.error() != null) {
+                log.warn("REST call '{}' failed: {}", request.name(), outcome.error().getMessage());
+                delegateVariables.set(execution, request.responseVariable() + "Error", outcome.error().getMessage());
+                delegateVariables.set(execution, request.responseVariable() + "Success", false);
+                continue;
+            }
+
+            ResponseProjection projection = request.request().projection();
+            if (projection != null) {
+                for (String variable : projection.variableNames()) {
+                    delegateVariables.set(execution, variable,
+                        outcome.response() != null ? outcome.response().get(variable) : null);
+                }
+            } else {
+                delegateVariables.set(execution, request.responseVariable(), outcome.response());
+            }
+        }
+        delegateVariables.set(execution, result.resultVariable(), successes);
+
+        log.debug("Parallel REST calls completed: {}", successes);
+    }
+
+    /**
+     * Parallel call configuration, resolved once per activity where static
+     */
+    record ParallelConfig(List<Map<String, Object>> requests, Integer timeoutSeconds, String failureMode,
+                          String resultVariable) {
+
+        ParallelConfig {
+            DelegateConfigBinder.required(requests, "requests");
+            timeoutSeconds = timeoutSeconds != null ? timeoutSeconds : 30;
+            failureMode = failureMode != null ? failureMode : FailureMode.ALL_OR_NOTHING.name();
+            resultVariable = resultVariable != null ? resultVariable : "parallelRestResults";
+        }
+    }
+
+    record NamedRequest(String name, String responseVariable, RestRequest request) {
+    }
+
+    record Outcome(NamedRequest request, Map<String, Object> response, Throwable error) {
+    }
+
+    /**
+     * Outcome of all calls, applied to the execution in afterExecution
+     */
+    public record ParallelResult(FailureMode failureMode, String resultVariable,
+                                 List<Outcome> outcomes, Throwable failure) implements DelegateOutcome {
+
+        @Override
+        public Throwable error() {
+            return failure;
+        }
+    }
+
+    private static class RequestFailedException extends RuntimeException {
+        private final NamedRequest request;
+
+        RequestFailedException(NamedRequest request, Throwable cause) {
+            super("Request '" + request.name() + "' failed: " + cause.getMessage(), cause);
+            this.request = request;
+        }
+    }
+}
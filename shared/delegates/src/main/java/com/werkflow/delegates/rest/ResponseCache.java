@@ -0,0 +1,162 @@
+package com.werkflow.delegates.rest;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, node-local cache of REST responses for idempotent GET calls.
+ *
+ * Entries are fresh for their TTL and may then be served stale for a further grace
+ * period while a single caller refreshes them in the background (stale-while-revalidate).
+ * Once past the grace period an entry is treated as missing. When full, entries past their
+ * grace period are dropped first, then the least recently used ones.
+ */
+public class ResponseCache {
+
+    public enum State {
+        FRESH,
+        STALE,
+        MISSING
+    }
+
+    private final int maxEntries;
+    private final Duration staleWhileRevalidate;
+    private final Clock clock;
+
+    // Access-ordered, guarded by itself
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ResponseCache(int maxEntries, Duration staleWhileRevalidate) {
+        this(maxEntries, staleWhileRevalidate, Clock.systemUTC());
+    }
+
+    ResponseCache(int maxEntries, Duration staleWhileRevalidate, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        this.clock = clock;
+    }
+
+    /**
+     * Look up a cached response
+     *
+     * @param key Cache key
+     * @return Lookup result; the response is a copy safe to store as a process variable
+     */
+    public Lookup get(String key) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        Instant now = clock.instant();
+        if (entry == null || !now.isBefore(entry.expiresAt.plus(staleWhileRevalidate))) {
+            misses.incrementAndGet();
+            return new Lookup(State.MISSING, null, false);
+        }
+        if (now.isBefore(entry.expiresAt)) {
+            hits.incrementAndGet();
+            return new Lookup(State.FRESH, ResponseMaps.deepCopy(entry.response), false);
+        }
+        staleHits.incrementAndGet();
+        // Only the first caller to see the stale entry revalidates it
+        boolean revalidate = entry.refreshing.compareAndSet(false, true);
+        return new Lookup(State.STALE, ResponseMaps.deepCopy(entry.response), revalidate);
+    }
+
+    /**
+     * Store a response
+     *
+     * @param key      Cache key
+     * @param response Response body
+     * @param ttl      Time the response is considered fresh
+     */
+    public void put(String key, Map<String, Object> response, Duration ttl) {
+        if (response == null) {
+            return;
+        }
+        Entry entry = new Entry(ResponseMaps.deepCopy(response), clock.instant().plus(ttl));
+        synchronized (entries) {
+            if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+                evict();
+            }
+            entries.put(key, entry);
+        }
+    }
+
+    /**
+     * Allow the next caller to retry revalidation after a failed refresh
+     */
+    public void revalidationFailed(String key) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry != null) {
+            entry.refreshing.set(false);
+        }
+    }
+
+    public void invalidate(String key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getStaleHits() {
+        return staleHits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private void evict() {
+        Instant now = clock.instant();
+        entries.values().removeIf(entry -> !now.isBefore(entry.expiresAt.plus(staleWhileRevalidate)));
+
+        // Still full: drop the least recently used entries, they will simply be fetched again
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    public record Lookup(State state, Map<String, Object> response, boolean revalidate) {
+    }
+
+    private static final class Entry {
+        private final Map<String, Object> response;
+        private final Instant expiresAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Entry(Map<String, Object> response, Instant expiresAt) {
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.werkflow.delegates.rest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copies of decoded JSON responses handed out to more than one caller
+ */
+final class ResponseMaps {
+
+    private ResponseMaps() {
+    }
+
+    /**
+     * Copy a response together with its nested objects and arrays, so that a caller
+     * modifying the result cannot affect anyone else holding the same response
+     */
+    static Map<String, Object> deepCopy(Map<String, Object> response) {
+        Map<String, Object> result = new LinkedHashMap<>(Math.max(16, (int) (response.size() / 0.75f) + 1));
+        response.forEach((key, value) -> result.put(key, copy(value)));
+        return result;
+    }
+
+    /**
+     * Deep copy of a decoded JSON value; scalars are returned as they are
+     */
+    @SuppressWarnings("unchecked")
+    static Object copy(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            return deepCopy((Map<String, Object>) map);
+        }
+        if (value instanceof List<?> list) {
+            List<Object> result = new ArrayList<>(list.size());
+            list.forEach(element -> result.add(copy(element)));
+            return result;
+        }
+        // Strings, numbers, booleans and null are immutable
+        return value;
+    }
+}
@@ -0,0 +1,193 @@
+package com.werkflow.delegates.rest;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Extracts selected values from a JSON response without binding the whole document.
+ *
+ * Paths are JSON pointers ("/data/vendor/name") or simple JSONPath expressions
+ * ("$.data.vendor.name", "$.items[0].id", "$['a.b']"); wildcards, filters, slices and
+ * recursive descent are rejected. The body is received as one buffer, bounded by
+ * app.delegates.http.max-response-bytes, and then read with a streaming parser: subtrees
+ * that cannot contain a requested path are skipped token by token, and only the requested
+ * values are bound to Java objects, so no Map or tree of the full document is built.
+ * Each value is stored as its own process variable, which keeps large payloads out of
+ * ACT_RU_VARIABLE / ACT_HI_VARINST.
+ */
+public class ResponseProjection {
+
+    private final Map<String, String> variablesByPointer;
+    private final Set<String> ancestors = new HashSet<>();
+
+    private ResponseProjection(Map<String, String> variablesByPointer) {
+        this.variablesByPointer = variablesByPointer;
+        for (String pointer : variablesByPointer.keySet()) {
+            int separator = pointer.lastIndexOf('/');
+            while (separator >= 0) {
+                pointer = pointer.substring(0, separator);
+                ancestors.add(pointer);
+                separator = pointer.lastIndexOf('/');
+            }
+        }
+    }
+
+    /**
+     * Build a projection from a path to variable name mapping
+     *
+     * @param mapping JSON pointer or JSONPath to process variable name
+     * @return Projection, or null if the mapping is empty
+     */
+    public static ResponseProjection of(Map<String, String> mapping) {
+        if (mapping == null || mapping.isEmpty()) {
+            return null;
+        }
+        // Sorted so that the projection has a stable textual form for cache and coalescing keys
+        Map<String, String> variablesByPointer = new TreeMap<>();
+        mapping.forEach((path, variable) -> variablesByPointer.put(toPointer(path), variable));
+        return new ResponseProjection(variablesByPointer);
+    }
+
+    /**
+     * Names of the variables this projection produces
+     */
+    public Iterable<String> variableNames() {
+        return variablesByPointer.values();
+    }
+
+    /**
+     * Extract the mapped values from a JSON document
+     *
+     * @param objectMapper Mapper used to bind the selected values
+     * @param json         Response body
+     * @return Variable name to value; paths missing from the document map to null
+     */
+    public Map<String, Object> extract(ObjectMapper objectMapper, byte[] json) throws IOException {
+        Map<String, Object> values = new LinkedHashMap<>();
+        variablesByPointer.values().forEach(variable -> values.put(variable, null));
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            if (parser.nextToken() != null) {
+                walk(objectMapper, parser, "", values);
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return variablesByPointer.toString();
+    }
+
+    /**
+     * Visit the value the parser is positioned on; leaves the parser on the value's last token
+     */
+    private void walk(ObjectMapper objectMapper, JsonParser parser, String pointer,
+                      Map<String, Object> values) throws IOException {
+        if (variablesByPointer.containsKey(pointer)) {
+            JsonNode node = objectMapper.readTree(parser);
+            values.put(variablesByPointer.get(pointer), objectMapper.treeToValue(node, Object.class));
+            // Paths below this one are resolved from the bound subtree
+            for (Map.Entry<String, String> entry : variablesByPointer.entrySet()) {
+                if (entry.getKey().startsWith(pointer + "/")) {
+                    JsonNode child = node.at(entry.getKey().substring(pointer.length()));
+                    values.put(entry.getValue(), child.isMissingNode() ? null : objectMapper.treeToValue(child, Object.class));
+                }
+            }
+            return;
+        }
+
+        if (!ancestors.contains(pointer)) {
+            parser.skipChildren();
+            return;
+        }
+
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                walk(objectMapper, parser, pointer + "/" + escape(field), values);
+            }
+        } else if (token == JsonToken.START_ARRAY) {
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                walk(objectMapper, parser, pointer + "/" + index++, values);
+            }
+        }
+    }
+
+    /**
+     * Translate a JSON pointer or simple JSONPath expression to a JSON pointer
+     */
+    static String toPointer(String path) {
+        String trimmed = path.trim();
+        if (trimmed.isEmpty() || trimmed.startsWith("/")) {
+            return trimmed;
+        }
+        if (!trimmed.startsWith("$")) {
+            throw new IllegalArgumentException("Response mapping path must be a JSON pointer or start with '$': " + path);
+        }
+
+        StringBuilder pointer = new StringBuilder();
+        int i = 1;
+        while (i < trimmed.length()) {
+            char c = trimmed.charAt(i);
+            if (c == '.') {
+                int end = i + 1;
+                while (end < trimmed.length() && trimmed.charAt(end) != '.' && trimmed.charAt(end) != '[') {
+                    end++;
+                }
+                String segment = trimmed.substring(i + 1, end);
+                // Empty for recursive descent ("..") or a trailing dot
+                if (segment.isEmpty() || segment.equals("*")) {
+                    throw unsupported(path);
+                }
+                pointer.append('/').append(escape(segment));
+                i = end;
+            } else if (c == '[') {
+                int end = trimmed.indexOf(']', i);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unterminated '[' in response mapping path: " + path);
+                }
+                pointer.append('/').append(escape(bracketSegment(trimmed.substring(i + 1, end).trim(), path)));
+                i = end + 1;
+            } else {
+                throw unsupported(path);
+            }
+        }
+        return pointer.toString();
+    }
+
+    /**
+     * A bracket segment is either a quoted member name or an array index
+     */
+    private static String bracketSegment(String segment, String path) {
+        if (segment.length() >= 2 && (segment.charAt(0) == '\'' || segment.charAt(0) == '"')
+            && segment.charAt(segment.length() - 1) == segment.charAt(0)) {
+            return segment.substring(1, segment.length() - 1);
+        }
+        if (segment.isEmpty() || !segment.chars().allMatch(Character::isDigit)) {
+            // Wildcards, filters, slices, unions and negative indexes
+            throw unsupported(path);
+        }
+        return segment;
+    }
+
+    private static IllegalArgumentException unsupported(String path) {
+        return new IllegalArgumentException("Unsupported JSONPath syntax in response mapping: " + path);
+    }
+
+    private static String escape(String segment) {
+        return segment.replace("~", "~0").replace("/", "~1");
+    }
+}
@@ -0,0 +1,218 @@
+package com.werkflow.delegates.rest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.werkflow.delegates.http.DelegateWebClients;
+import com.werkflow.delegates.http.HostCircuitBreakers;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Executes outbound REST calls for the REST delegates
+ *
+ * Each call passes through, outermost first:
+ * - the response cache (GET with cacheTtlSeconds, stale-while-revalidate)
+ * - single-flight coalescing of concurrent identical requests
+ * - the in-flight budget (app.delegates.rest.max-in-flight / max-queued / max-queue-wait-ms)
+ * - the per-service circuit breaker and bulkhead
+ * - the pooled WebClient, optionally projecting the buffered response with a streaming parser
+ *
+ * All calls are non-blocking; the returned Mono completes on a Reactor Netty thread.
+ */
+@Slf4j
+@Component
+public class RestCallExecutor {
+
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+    private final InFlightBudget budget;
+    private final ResponseCache responseCache;
+    private final HostCircuitBreakers circuitBreakers;
+    private final SingleFlight singleFlight = new SingleFlight();
+
+    public RestCallExecutor(
+        DelegateWebClients webClients,
+        HostCircuitBreakers circuitBreakers,
+        ObjectMapper objectMapper,
+        @Value("${app.delegates.rest.max-in-flight:200}") int maxInFlight,
+        @Value("${app.delegates.rest.max-queued:1000}") int maxQueued,
+        @Value("${app.delegates.rest.max-queue-wait-ms:30000}") long maxQueueWaitMs,
+        @Value("${app.delegates.rest.cache.max-entries:5000}") int cacheMaxEntries,
+        @Value("${app.delegates.rest.cache.stale-while-revalidate-seconds:60}") long staleWhileRevalidateSeconds
+    ) {
+        this.webClient = webClients.webClient();
+        this.circuitBreakers = circuitBreakers;
+        this.objectMapper = objectMapper;
+        this.budget = new InFlightBudget(maxInFlight, maxQueued, Duration.ofMillis(maxQueueWaitMs));
+        this.responseCache = new ResponseCache(cacheMaxEntries, Duration.ofSeconds(staleWhileRevalidateSeconds));
+    }
+
+    /**
+     * Execute a call
+     *
+     * @param request Call configuration
+     * @return Mono with the response body (or the projected values), empty for an empty body
+     */
+    public Mono<Map<String, Object>> execute(RestRequest request) {
+        Mono<Map<String, Object>> response = budget.run(() ->
+            circuitBreakers.protect(request.circuitBreaker(), request.url(), () -> call(request)));
+        if (request.coalesce()) {
+            Mono<Map<String, Object>> outbound = response;
+            response = singleFlight.execute(requestKey(request), () -> outbound);
+        }
+        if (request.cacheTtlSeconds() != null && request.cacheTtlSeconds() > 0 && request.method().equalsIgnoreCase("GET")) {
+            response = cached(cacheKey(request), Duration.ofSeconds(request.cacheTtlSeconds()), response);
+        }
+        return response;
+    }
+
+    /**
+     * Cache of GET responses, for statistics and invalidation
+     */
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * Coalescing of concurrent identical requests, for statistics
+     */
+    public SingleFlight getSingleFlight() {
+        return singleFlight;
+    }
+
+    /**
+     * Number of REST calls currently in flight
+     */
+    public int getInFlightCalls() {
+        return budget.getInFlight();
+    }
+
+    /**
+     * Number of REST calls waiting for an in-flight slot
+     */
+    public int getQueuedCalls() {
+        return budget.getQueued();
+    }
+
+    private Mono<Map<String, Object>> cached(String key, Duration ttl, Mono<Map<String, Object>> fetch) {
+        ResponseCache.Lookup lookup = responseCache.get(key);
+        if (lookup.state() == ResponseCache.State.FRESH) {
+            log.debug("REST response served from cache: {}", key);
+            return Mono.just(lookup.response());
+        }
+        if (lookup.state() == ResponseCache.State.STALE) {
+            if (lookup.revalidate()) {
+                fetch.subscribe(
+                    fresh -> responseCache.put(key, fresh, ttl),
+                    e -> {
+                        responseCache.revalidationFailed(key);
+                        log.warn("Background refresh of cached REST response failed: {}", e.getMessage());
+                    });
+            }
+            log.debug("Stale REST response served from cache: {}", key);
+            return Mono.just(lookup.response());
+        }
+        return fetch.doOnNext(fresh -> responseCache.put(key, fresh, ttl));
+    }
+
+    static String cacheKey(RestRequest request) {
+        String key = request.cacheKey() != null
+            ? request.cacheKey()
+            : "GET " + request.url() + " " + headersHash(request.headers());
+        return request.projection() != null ? key + " " + request.projection() : key;
+    }
+
+    String requestKey(RestRequest request) {
+        StringBuilder key = new StringBuilder(request.method().toUpperCase()).append(' ').append(request.url());
+        if (request.headers() != null && !request.headers().isEmpty()) {
+            key.append(' ').append(headersHash(request.headers()));
+        }
+        if (request.body() != null) {
+            key.append(' ').append(bodyHash(request.body()));
+        }
+        if (request.projection() != null) {
+            key.append(' ').append(request.projection());
+        }
+        return key.toString();
+    }
+
+    /**
+     * Hash of the request headers, so keys (which are logged) never carry credentials
+     * such as Authorization while requests with different credentials stay apart
+     */
+    private static String headersHash(Map<String, String> headers) {
+        String canonical = headers != null ? new TreeMap<>(headers).toString() : "{}";
+        return sha256(canonical.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(byte[] value) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(value);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private String bodyHash(Object body) {
+        try {
+            return sha256(objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            // Unhashable body: fall back to a key that is never shared
+            return UUID.randomUUID().toString();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Mono<Map<String, Object>> call(RestRequest request) {
+        String method = request.method();
+
+        // Build request
+        WebClient.RequestBodySpec requestSpec = webClient
+            .method(HttpMethod.valueOf(method.toUpperCase()))
+            .uri(request.url())
+            .headers(httpHeaders -> {
+                httpHeaders.setContentType(MediaType.APPLICATION_JSON);
+                if (request.headers() != null) {
+                    request.headers().forEach(httpHeaders::add);
+                }
+            });
+
+        // Add body if present
+        WebClient.ResponseSpec responseSpec;
+        if (request.body() != null && (method.equalsIgnoreCase("POST") ||
+                                       method.equalsIgnoreCase("PUT") ||
+                                       method.equalsIgnoreCase("PATCH"))) {
+            responseSpec = requestSpec.bodyValue(request.body()).retrieve();
+        } else {
+            responseSpec = requestSpec.retrieve();
+        }
+
+        Mono<Map<String, Object>> responseMono;
+        ResponseProjection projection = request.projection();
+        if (projection != null) {
+            // Buffer the body (bounded by max-response-bytes) and bind only the mapped values
+            responseMono = responseSpec.bodyToMono(byte[].class)
+                .flatMap(json -> Mono.fromCallable(() -> projection.extract(objectMapper, json)));
+        } else {
+            responseMono = responseSpec.bodyToMono(Map.class)
+                .map(response -> (Map<String, Object>) response);
+        }
+
+        return responseMono.timeout(Duration.ofSeconds(request.timeoutSeconds()));
+    }
+}
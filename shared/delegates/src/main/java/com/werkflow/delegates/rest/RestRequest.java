@@ -0,0 +1,70 @@
+package com.werkflow.delegates.rest;
+
+import java.util.Map;
+
+/**
+ * Outbound REST call as configured on a BPMN service task
+ *
+ * @param url             Target endpoint URL
+ * @param method          HTTP method
+ * @param headers         HTTP headers (may be null)
+ * @param body            Request body for POST/PUT/PATCH (may be null)
+ * @param timeoutSeconds  Request timeout
+ * @param cacheTtlSeconds Cache GET responses for this long (null for no caching)
+ * @param cacheKey        Explicit cache key (null to derive it from the request)
+ * @param circuitBreaker  Circuit breaker name (null for the target "host:port")
+ * @param coalesce        Share the call with concurrent identical requests
+ * @param projection      Values to extract from the response (null for the whole response)
+ */
+public record RestRequest(
+    String url,
+    String method,
+    Map<String, String> headers,
+    Object body,
+    int timeoutSeconds,
+    Integer cacheTtlSeconds,
+    String cacheKey,
+    String circuitBreaker,
+    boolean coalesce,
+    ResponseProjection projection
+) {
+
+    /**
+     * Build a request from a specification map using the same keys as the
+     * RestServiceDelegate fields (url, method, headers, body, timeoutSeconds, ...)
+     *
+     * @param spec                  Request specification
+     * @param defaultTimeoutSeconds Timeout used when the spec has none
+     * @return Request
+     */
+    @SuppressWarnings("unchecked")
+    public static RestRequest fromSpec(Map<String, Object> spec, int defaultTimeoutSeconds) {
+        Object url = spec.get("url");
+        if (url == null) {
+            throw new IllegalArgumentException("Request specification is missing 'url'");
+        }
+        String method = spec.get("method") != null ? spec.get("method").toString() : "POST";
+        Object timeout = spec.get("timeoutSeconds");
+        Object cacheTtl = spec.get("cacheTtlSeconds");
+        Object cacheKey = spec.get("cacheKey");
+        Object circuitBreaker = spec.get("circuitBreaker");
+        Object coalesce = spec.get("coalesce");
+
+        return new RestRequest(
+            url.toString(),
+            method,
+            (Map<String, String>) spec.get("headers"),
+            spec.get("body"),
+            timeout != null ? Integer.parseInt(timeout.toString()) : defaultTimeoutSeconds,
+            cacheTtl != null ? Integer.valueOf(cacheTtl.toString()) : null,
+            cacheKey != null ? cacheKey.toString() : null,
+            circuitBreaker != null ? circuitBreaker.toString() : null,
+            coalesce != null ? Boolean.parseBoolean(coalesce.toString()) : isIdempotentRead(method),
+            ResponseProjection.of((Map<String, String>) spec.get("responseMapping"))
+        );
+    }
+
+    public static boolean isIdempotentRead(String method) {
+        return method.equalsIgnoreCase("GET") || method.equalsIgnoreCase("HEAD");
+    }
+}
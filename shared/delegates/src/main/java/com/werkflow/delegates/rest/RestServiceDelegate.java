@@ -1,28 +1,42 @@
 package com.werkflow.delegates.rest;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.werkflow.common.delegate.DelegateOutcome;
+import com.werkflow.common.delegate.DelegateVariables;
+import com.werkflow.delegates.config.DelegateConfigBinder;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.flowable.common.engine.api.async.AsyncTaskInvoker;
 import org.flowable.engine.delegate.DelegateExecution;
-import org.flowable.engine.delegate.JavaDelegate;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.MediaType;
+import org.flowable.engine.delegate.FutureJavaDelegate;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Generic REST Service Delegate for making HTTP calls to external services
  *
- * Configurable via BPMN process variables:
+ * Configurable via BPMN field extensions or process variables (see DelegateConfigBinder):
  * - url: Target endpoint URL (required)
  * - method: HTTP method (GET, POST, PUT, DELETE, PATCH) - default: POST
  * - headers: Map of HTTP headers (optional)
  * - body: Request body object (optional, for POST/PUT/PATCH)
  * - responseVariable: Variable name to store response (default: "restResponse")
  * - timeoutSeconds: Request timeout in seconds (default: 30)
+ * - cacheTtlSeconds: Cache GET responses for this many seconds (optional, default: no caching)
+ * - cacheKey: Cache key, e.g. an expression over the entity ID (default: URL and headers)
+ * - circuitBreaker: Circuit breaker name (default: target "host:port")
+ * - responseMapping: Map of JSON pointer or JSONPath to variable name; when set only these
+ *   values are stored, as separate variables, instead of the whole response (optional)
+ * - coalesce: Share one outbound call between concurrent identical requests
+ *   (default: true for GET and HEAD, false otherwise)
+ *
+ * The call is non-blocking: the delegate returns a future to the engine and stores the
+ * response (or the mapped values) when it arrives. Calls go through RestCallExecutor,
+ * which adds caching, coalescing, the in-flight budget and the per-service circuit
+ * breaker. A failed call fails the task; async tasks are retried as described in
+ * JobRetryBackoffListener.
  *
  * Example BPMN configuration:
  * <serviceTask id="callHRService" flowable:delegateExpression="${restServiceDelegate}">
@@ -41,85 +55,96 @@ import java.util.Map;
  */
 @Slf4j
 @Component("restServiceDelegate")
-public class RestServiceDelegate implements JavaDelegate {
-
-    private final WebClient webClient;
-    private final ObjectMapper objectMapper;
+@RequiredArgsConstructor
+public class RestServiceDelegate implements FutureJavaDelegate<RestServiceDelegate.RestCallResult> {
 
-    public RestServiceDelegate(WebClient.Builder webClientBuilder, ObjectMapper objectMapper) {
-        this.webClient = webClientBuilder.build();
-        this.objectMapper = objectMapper;
-    }
+    private final RestCallExecutor restCallExecutor;
+    private final DelegateVariables delegateVariables;
+    private final DelegateConfigBinder configBinder;
 
     @Override
-    public void execute(DelegateExecution execution) {
-        log.info("Executing RestServiceDelegate for process: {}", execution.getProcessInstanceId());
+    public CompletableFuture<RestCallResult> execute(DelegateExecution execution, AsyncTaskInvoker taskInvoker) {
+        log.debug("Executing RestServiceDelegate for process: {}", execution.getProcessInstanceId());
 
-        // Get configuration from process variables
-        String url = getRequiredVariable(execution, "url");
-        String method = getVariable(execution, "method", "POST");
-        Map<String, String> headers = getVariable(execution, "headers", null);
-        Object body = getVariable(execution, "body", null);
-        String responseVariable = getVariable(execution, "responseVariable", "restResponse");
-        Integer timeoutSeconds = getVariable(execution, "timeoutSeconds", 30);
+        // Read configuration on the engine thread, the execution must not be touched from the response thread
+        RestConfig config = configBinder.bind(execution, RestConfig.class);
+        String method = config.method();
+        String responseVariable = config.responseVariable();
+        ResponseProjection projection = ResponseProjection.of(config.responseMapping());
 
         log.debug("REST call configuration: url={}, method={}, responseVariable={}",
-            url, method, responseVariable);
-
-        try {
-            // Build request
-            WebClient.RequestBodySpec requestSpec = webClient
-                .method(HttpMethod.valueOf(method.toUpperCase()))
-                .uri(url)
-                .headers(httpHeaders -> {
-                    httpHeaders.setContentType(MediaType.APPLICATION_JSON);
-                    if (headers != null) {
-                        headers.forEach(httpHeaders::add);
-                    }
-                });
-
-            // Add body if present
-            Mono<?> responseMono;
-            if (body != null && (method.equalsIgnoreCase("POST") ||
-                                 method.equalsIgnoreCase("PUT") ||
-                                 method.equalsIgnoreCase("PATCH"))) {
-                responseMono = requestSpec.bodyValue(body).retrieve().bodyToMono(Map.class);
-            } else {
-                responseMono = requestSpec.retrieve().bodyToMono(Map.class);
-            }
+            config.url(), method, responseVariable);
 
-            // Execute request and get response
-            Map<String, Object> response = (Map<String, Object>) responseMono
-                .timeout(java.time.Duration.ofSeconds(timeoutSeconds))
-                .block();
+        RestRequest request = new RestRequest(config.url(), method, config.headers(), config.body(),
+            config.timeoutSeconds(), config.cacheTtlSeconds(), config.cacheKey(), config.circuitBreaker(),
+            config.coalesce(), projection);
 
-            // Store response in process variable
-            execution.setVariable(responseVariable, response);
-
-            log.info("REST call successful. Response stored in variable: {}", responseVariable);
+        return restCallExecutor.execute(request)
+            .map(result -> RestCallResult.success(responseVariable, projection, result))
+            .onErrorResume(e -> Mono.just(RestCallResult.failure(responseVariable, e)))
+            .defaultIfEmpty(RestCallResult.success(responseVariable, projection, null))
+            .toFuture();
+    }
 
-        } catch (Exception e) {
+    @Override
+    public void afterExecution(DelegateExecution execution, RestCallResult result) {
+        if (result.error() != null) {
+            Throwable e = result.error();
             log.error("REST call failed: {}", e.getMessage(), e);
 
             // Store error information
-            execution.setVariable(responseVariable + "Error", e.getMessage());
-            execution.setVariable(responseVariable + "Success", false);
+            delegateVariables.set(execution, result.responseVariable() + "Error", e.getMessage());
+            delegateVariables.set(execution, result.responseVariable() + "Success", false);
 
             throw new RuntimeException("REST service call failed: " + e.getMessage(), e);
         }
+
+        if (result.projection() != null) {
+            // Store only the mapped values
+            for (String variable : result.projection().variableNames()) {
+                delegateVariables.set(execution, variable,
+                    result.response() != null ? result.response().get(variable) : null);
+            }
+            log.debug("REST call successful. Mapped response stored in variables: {}",
+                result.projection().variableNames());
+            return;
+        }
+
+        // Store response in process variable
+        delegateVariables.set(execution, result.responseVariable(), result.response());
+
+        log.debug("REST call successful. Response stored in variable: {}", result.responseVariable());
     }
 
-    private String getRequiredVariable(DelegateExecution execution, String variableName) {
-        Object value = execution.getVariable(variableName);
-        if (value == null) {
-            throw new IllegalArgumentException("Required variable '" + variableName + "' is not set");
+    /**
+     * REST call configuration, resolved once per activity where static
+     */
+    record RestConfig(String url, String method, Map<String, String> headers, Object body, String responseVariable,
+                      Integer timeoutSeconds, Integer cacheTtlSeconds, String cacheKey, String circuitBreaker,
+                      Boolean coalesce, Map<String, String> responseMapping) {
+
+        RestConfig {
+            DelegateConfigBinder.required(url, "url");
+            method = method != null ? method : "POST";
+            responseVariable = responseVariable != null ? responseVariable : "restResponse";
+            timeoutSeconds = timeoutSeconds != null ? timeoutSeconds : 30;
+            coalesce = coalesce != null ? coalesce : RestRequest.isIdempotentRead(method);
         }
-        return value.toString();
     }
 
-    @SuppressWarnings("unchecked")
-    private <T> T getVariable(DelegateExecution execution, String variableName, T defaultValue) {
-        Object value = execution.getVariable(variableName);
-        return value != null ? (T) value : defaultValue;
+    /**
+     * Outcome of a REST call, applied to the execution in afterExecution
+     */
+    public record RestCallResult(String responseVariable, ResponseProjection projection,
+                                 Map<String, Object> response, Throwable error) implements DelegateOutcome {
+
+        static RestCallResult success(String responseVariable, ResponseProjection projection,
+                                      Map<String, Object> response) {
+            return new RestCallResult(responseVariable, projection, response, null);
+        }
+
+        static RestCallResult failure(String responseVariable, Throwable error) {
+            return new RestCallResult(responseVariable, null, null, error);
+        }
     }
 }
@@ -0,0 +1,74 @@
+package com.werkflow.delegates.rest;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * De-duplicates concurrent identical REST calls.
+ *
+ * The first caller for a key starts the call; callers arriving while it is in flight
+ * subscribe to the same result instead of issuing their own request. The key is removed
+ * when the call completes, so nothing is cached beyond the call itself. Each waiter gets
+ * its own deep copy of the response, nested objects and arrays included.
+ */
+public class SingleFlight {
+
+    private final Map<String, Mono<Map<String, Object>>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * Run a call, sharing it with concurrent callers using the same key
+     *
+     * @param key  Request identity (method, URL, body hash, headers)
+     * @param call Supplier of the outbound call
+     * @return Mono completing with a private copy of the shared response
+     */
+    public Mono<Map<String, Object>> execute(String key, Supplier<Mono<Map<String, Object>>> call) {
+        return Mono.defer(() -> {
+            AtomicReference<Mono<Map<String, Object>>> created = new AtomicReference<>();
+            Mono<Map<String, Object>> shared = inFlight.computeIfAbsent(key, k -> {
+                AtomicReference<Mono<Map<String, Object>>> self = new AtomicReference<>();
+                Mono<Map<String, Object>> mono = Mono.defer(call)
+                    .doFinally(signal -> inFlight.remove(k, self.get()))
+                    .cache();
+                self.set(mono);
+                created.set(mono);
+                return mono;
+            });
+
+            if (created.get() != null) {
+                calls.incrementAndGet();
+            } else {
+                coalesced.incrementAndGet();
+            }
+            return shared.map(ResponseMaps::deepCopy);
+        });
+    }
+
+    /**
+     * Number of outbound calls started
+     */
+    public long getCalls() {
+        return calls.get();
+    }
+
+    /**
+     * Number of callers served by another caller's in-flight request
+     */
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    /**
+     * Number of distinct calls currently in flight
+     */
+    public int size() {
+        return inFlight.size();
+    }
+}
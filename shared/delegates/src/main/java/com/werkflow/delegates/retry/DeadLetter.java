@@ -0,0 +1,36 @@
+package com.werkflow.delegates.retry;
+
+import java.time.Instant;
+
+/**
+ * Delegate work that was given up on
+ *
+ * @param source            Where the work is parked
+ * @param id                Dead letter job id, or outbox row id
+ * @param delegate          Delegate bean name
+ * @param processInstanceId Process instance the work belongs to
+ * @param target            Activity id, email recipients or form request target URL
+ * @param attempts          Attempts made (for jobs, derived from the retries left under the job's policy)
+ * @param error             Last failure
+ * @param failedAt          When the work was given up on (null for rows failed before it was recorded)
+ */
+public record DeadLetter(
+    Source source,
+    String id,
+    String delegate,
+    String processInstanceId,
+    String target,
+    int attempts,
+    String error,
+    Instant failedAt
+) {
+
+    public enum Source {
+        /** Flowable dead letter job of an async activity */
+        JOB,
+        /** FAILED row of email_outbox */
+        EMAIL,
+        /** FAILED row of form_request_outbox */
+        FORM_REQUEST
+    }
+}
@@ -0,0 +1,170 @@
+package com.werkflow.delegates.retry;
+
+import com.werkflow.common.delegate.DelegateMetrics;
+import com.werkflow.delegates.email.EmailOutbox;
+import com.werkflow.delegates.form.FormRequestOutbox;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.bpmn.model.BpmnModel;
+import org.flowable.bpmn.model.FlowElement;
+import org.flowable.common.engine.api.FlowableObjectNotFoundException;
+import org.flowable.engine.ManagementService;
+import org.flowable.engine.RepositoryService;
+import org.flowable.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.flowable.job.api.Job;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Operator view of the work the delegates gave up on
+ *
+ * Combines the engine's dead letter jobs (async activities, see JobRetryBackoffListener)
+ * with the FAILED rows of the email and form request outboxes. Retrying gives the work a
+ * fresh set of attempts under its retry policy. Discarding a job deletes it, which leaves
+ * its execution waiting at the activity; discarding an outbox row drops the email or
+ * submission.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DeadLetterQueue {
+
+    private final ManagementService managementService;
+    private final RepositoryService repositoryService;
+    private final ProcessEngineConfigurationImpl engineConfiguration;
+    private final EmailOutbox emailOutbox;
+    private final FormRequestOutbox formRequestOutbox;
+    private final RetryProperties retryProperties;
+    private final DelegateMetrics metrics;
+
+    /**
+     * Dead letters of a source, most recent first
+     */
+    public List<DeadLetter> list(DeadLetter.Source source, int limit) {
+        return switch (source) {
+            case JOB -> managementService.createDeadLetterJobQuery()
+                .orderByJobDuedate().desc()
+                .listPage(0, limit)
+                .stream()
+                .map(this::toDeadLetter)
+                .toList();
+            case EMAIL -> emailOutbox.findFailed(limit);
+            case FORM_REQUEST -> formRequestOutbox.findFailed(limit);
+        };
+    }
+
+    /**
+     * Make dead letters due again
+     *
+     * @return Dead letters retried; ids that are no longer dead letters are skipped
+     * @throws IllegalArgumentException if an id is malformed
+     */
+    public int retry(DeadLetter.Source source, Collection<String> ids) {
+        validateIds(ids);
+        int retried = switch (source) {
+            case JOB -> forEachJob(ids, id ->
+                managementService.moveDeadLetterJobToExecutableJob(id, retriesOf(id)));
+            case EMAIL -> emailOutbox.requeueFailed(toUuids(ids));
+            case FORM_REQUEST -> formRequestOutbox.requeueFailed(toUuids(ids));
+        };
+        resolved(source, "retry", retried);
+        return retried;
+    }
+
+    /**
+     * Give up on dead letters for good
+     *
+     * @return Dead letters discarded; ids that are no longer dead letters are skipped
+     * @throws IllegalArgumentException if an id is malformed
+     */
+    public int discard(DeadLetter.Source source, Collection<String> ids) {
+        validateIds(ids);
+        int discarded = switch (source) {
+            case JOB -> forEachJob(ids, managementService::deleteDeadLetterJob);
+            case EMAIL -> emailOutbox.discardFailed(toUuids(ids));
+            case FORM_REQUEST -> formRequestOutbox.discardFailed(toUuids(ids));
+        };
+        resolved(source, "discard", discarded);
+        return discarded;
+    }
+
+    private DeadLetter toDeadLetter(Job job) {
+        String delegate = delegateName(job.getProcessDefinitionId(), job.getElementId());
+        return new DeadLetter(DeadLetter.Source.JOB, job.getId(), delegate, job.getProcessInstanceId(),
+            job.getElementId(), Math.max(0, maxAttempts(delegate) - job.getRetries()), job.getExceptionMessage(),
+            job.getCreateTime() != null ? job.getCreateTime().toInstant() : null);
+    }
+
+    private int retriesOf(String deadLetterJobId) {
+        Job job = managementService.createDeadLetterJobQuery().jobId(deadLetterJobId).singleResult();
+        if (job == null) {
+            throw new FlowableObjectNotFoundException("No dead letter job " + deadLetterJobId, Job.class);
+        }
+        return maxAttempts(delegateName(job.getProcessDefinitionId(), job.getElementId()));
+    }
+
+    /**
+     * Retries a job gets: its delegate's maxAttempts, or the engine's for other jobs
+     * (see JobRetryBackoffListener)
+     */
+    private int maxAttempts(String delegate) {
+        return delegate != null
+            ? retryProperties.policy(delegate).maxAttempts()
+            : engineConfiguration.getAsyncExecutorNumberOfRetries();
+    }
+
+    private String delegateName(String processDefinitionId, String elementId) {
+        if (processDefinitionId == null || elementId == null) {
+            return null;
+        }
+        BpmnModel model = repositoryService.getBpmnModel(processDefinitionId);
+        FlowElement element = model != null ? model.getFlowElement(elementId) : null;
+        return element != null ? metrics.delegateName(element) : null;
+    }
+
+    private static int forEachJob(Collection<String> ids, Consumer<String> action) {
+        int count = 0;
+        for (String id : ids) {
+            try {
+                action.accept(id);
+                count++;
+            } catch (FlowableObjectNotFoundException e) {
+                log.debug("Dead letter job {} no longer exists", id);
+            }
+        }
+        return count;
+    }
+
+    private static void validateIds(Collection<String> ids) {
+        for (String id : ids) {
+            if (id == null || id.isBlank()) {
+                throw new IllegalArgumentException("Dead letter id must not be blank");
+            }
+        }
+    }
+
+    private static List<UUID> toUuids(Collection<String> ids) {
+        List<UUID> uuids = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            // UUID.fromString also accepts shortened forms such as "1-2-3-4-5"
+            if (id.length() != 36) {
+                throw new IllegalArgumentException("Invalid dead letter id: " + id);
+            }
+            uuids.add(UUID.fromString(id));
+        }
+        return uuids;
+    }
+
+    private void resolved(DeadLetter.Source source, String action, int count) {
+        if (count > 0) {
+            metrics.recordDeadLettersResolved(source.name().toLowerCase(Locale.ROOT), action, count);
+            log.info("Dead letters ({}) {}: {}", source, action, count);
+        }
+    }
+}
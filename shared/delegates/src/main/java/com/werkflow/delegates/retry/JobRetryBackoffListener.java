@@ -0,0 +1,172 @@
+package com.werkflow.delegates.retry;
+
+import com.werkflow.common.delegate.DelegateMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.bpmn.model.Activity;
+import org.flowable.bpmn.model.FlowElement;
+import org.flowable.common.engine.api.delegate.event.AbstractFlowableEventListener;
+import org.flowable.common.engine.api.delegate.event.FlowableEngineEventType;
+import org.flowable.common.engine.api.delegate.event.FlowableEntityEvent;
+import org.flowable.common.engine.api.delegate.event.FlowableEvent;
+import org.flowable.common.engine.api.delegate.event.FlowableEventListener;
+import org.flowable.common.engine.api.delegate.event.FlowableExceptionEvent;
+import org.flowable.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.flowable.engine.impl.util.CommandContextUtil;
+import org.flowable.engine.impl.util.ProcessDefinitionUtil;
+import org.flowable.job.api.Job;
+import org.flowable.job.service.impl.persistence.entity.DeadLetterJobEntity;
+import org.flowable.job.service.impl.persistence.entity.JobEntity;
+import org.flowable.job.service.impl.persistence.entity.TimerJobEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies the delegates' retry policies to failed async jobs
+ *
+ * Without it a failed job is retried a fixed number of times at a fixed interval
+ * (asyncFailedJobWaitTime), so every task that failed during an outage of a service
+ * retries against it in lockstep. Registered as a typed event listener:
+ * - ENTITY_CREATED: a new async job of a delegate activity gets its policy's maxAttempts
+ *   as retries; other jobs, timers included, keep the engine's asyncExecutorNumberOfRetries
+ * - JOB_EXECUTION_FAILURE: the failure is remembered for the job that failed
+ * - JOB_RETRIES_DECREMENTED, which follows on the same thread: the timer job the engine just
+ *   created for that job is rescheduled with the policy's backoff, or moved to the dead letter
+ *   jobs right away when the policy is exhausted or the failure is permanent (see
+ *   RetryPolicy#isRetryable)
+ *
+ * Attempts are counted as the policy's maxAttempts minus the job's remaining retries; a job
+ * dead-lettered here keeps its remaining retries so the count survives (see DeadLetterQueue).
+ * Activities with their own failedJobRetryTimeCycle are left to the engine.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JobRetryBackoffListener extends AbstractFlowableEventListener {
+
+    /**
+     * Failure of the job the current thread is executing; keyed by job id so that a failure
+     * whose retry handling never ran cannot be applied to another job
+     */
+    private static final ThreadLocal<Failure> LAST_FAILURE = new ThreadLocal<>();
+
+    private final RetryProperties properties;
+    private final DelegateMetrics metrics;
+
+    /**
+     * Typed listeners to register on the process engine configuration
+     */
+    public Map<String, List<FlowableEventListener>> eventListeners() {
+        return Map.of(
+            FlowableEngineEventType.ENTITY_CREATED.name(), List.of(this),
+            FlowableEngineEventType.JOB_EXECUTION_FAILURE.name(), List.of(this),
+            FlowableEngineEventType.JOB_RETRIES_DECREMENTED.name(), List.of(this));
+    }
+
+    @Override
+    public void onEvent(FlowableEvent event) {
+        if (!properties.getEnabled()) {
+            return;
+        }
+        if (event.getType() == FlowableEngineEventType.ENTITY_CREATED) {
+            if (event instanceof FlowableEntityEvent entityEvent && entityEvent.getEntity() instanceof JobEntity job) {
+                grantAttempts(job);
+            }
+        } else if (event.getType() == FlowableEngineEventType.JOB_EXECUTION_FAILURE) {
+            if (event instanceof FlowableEntityEvent entityEvent && entityEvent.getEntity() instanceof Job job) {
+                LAST_FAILURE.set(new Failure(job.getId(),
+                    event instanceof FlowableExceptionEvent failure ? failure.getCause() : null));
+            } else {
+                LAST_FAILURE.remove();
+            }
+        } else if (event.getType() == FlowableEngineEventType.JOB_RETRIES_DECREMENTED
+            && event instanceof FlowableEntityEvent entityEvent) {
+            Failure failure = LAST_FAILURE.get();
+            LAST_FAILURE.remove();
+            if (entityEvent.getEntity() instanceof TimerJobEntity job) {
+                reschedule(job, failure != null && failure.jobId().equals(job.getId()) ? failure.cause() : null);
+            } else if (entityEvent.getEntity() instanceof DeadLetterJobEntity job) {
+                // The job's retries ran out: the policy's last attempt, or a job created with fewer retries
+                metrics.recordDeadLetter(delegateName(elementOf(job.getProcessDefinitionId(), job.getElementId())),
+                    true);
+            }
+        }
+    }
+
+    /**
+     * Give a new async job of a delegate activity the attempts of the delegate's policy
+     */
+    private void grantAttempts(JobEntity job) {
+        // Jobs moved back from the timer or dead letter jobs carry their failure and keep their retries
+        if (job.getExceptionMessage() != null || job.getExceptionByteArrayRef() != null) {
+            return;
+        }
+        String delegate = policyDelegate(elementOf(job.getProcessDefinitionId(), job.getElementId()));
+        if (delegate != null) {
+            job.setRetries(properties.policy(delegate).maxAttempts());
+        }
+    }
+
+    private void reschedule(TimerJobEntity job, Throwable failure) {
+        String delegate = policyDelegate(elementOf(job.getProcessDefinitionId(), job.getElementId()));
+        if (delegate == null) {
+            return;
+        }
+        RetryPolicy policy = properties.policy(delegate);
+
+        ProcessEngineConfigurationImpl engineConfiguration = CommandContextUtil.getProcessEngineConfiguration();
+        int attempts = policy.maxAttempts() - job.getRetries();
+        boolean retryable = failure == null || RetryPolicy.isRetryable(failure);
+
+        if (!retryable || policy.exhausted(attempts)) {
+            // Remaining retries are kept, so the dead letter shows the attempts made
+            engineConfiguration.getJobServiceConfiguration().getJobManager().moveJobToDeadLetterJob(job);
+            metrics.recordDeadLetter(delegate, retryable);
+            log.error("Job {} of {} ({}) dead-lettered after {} attempts{}: {}", job.getId(), job.getElementId(),
+                delegate, attempts, retryable ? "" : " (permanent failure)", job.getExceptionMessage());
+            return;
+        }
+
+        Duration delay = policy.backoff(attempts);
+        job.setDuedate(new Date(engineConfiguration.getClock().getCurrentTime().getTime() + delay.toMillis()));
+        metrics.recordRetry(delegate, "job", delay);
+        log.warn("Job {} of {} ({}) failed (attempt {}), retrying in {} ms: {}", job.getId(), job.getElementId(),
+            delegate, attempts, delay.toMillis(), job.getExceptionMessage());
+    }
+
+    /**
+     * Delegate whose policy applies to jobs of an element, null for elements left to the engine
+     * (not a delegate activity, or an activity with its own failedJobRetryTimeCycle)
+     */
+    private String policyDelegate(FlowElement element) {
+        if (element == null || element instanceof Activity activity
+            && activity.getFailedJobRetryTimeCycleValue() != null) {
+            return null;
+        }
+        return metrics.delegateName(element);
+    }
+
+    private String delegateName(FlowElement element) {
+        String name = element != null ? metrics.delegateName(element) : null;
+        return name != null ? name : "unknown";
+    }
+
+    private static FlowElement elementOf(String processDefinitionId, String elementId) {
+        if (processDefinitionId == null || elementId == null) {
+            return null;
+        }
+        return ProcessDefinitionUtil.getBpmnModel(processDefinitionId).getFlowElement(elementId);
+    }
+
+    @Override
+    public boolean isFailOnException() {
+        return false;
+    }
+
+    private record Failure(String jobId, Throwable cause) {
+    }
+}
@@ -0,0 +1,77 @@
+package com.werkflow.delegates.retry;
+
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retry policy of a delegate
+ *
+ * The delay before retry n (1-based) is initialBackoff * multiplier^(n-1), capped at
+ * maxBackoff, of which a random share of up to jitter is taken off, so callers that failed
+ * together (e.g. during an outage of the same service) do not retry together. A jitter of
+ * 1 is full jitter.
+ *
+ * @param maxAttempts    Attempts before the work is dead-lettered, including the first
+ * @param initialBackoff Delay before the first retry
+ * @param multiplier     Growth factor per retry
+ * @param maxBackoff     Upper bound of the delay
+ * @param jitter         Share of the delay that is randomized, 0 to 1
+ */
+public record RetryPolicy(int maxAttempts, Duration initialBackoff, double multiplier, Duration maxBackoff,
+                          double jitter) {
+
+    public RetryPolicy {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        if (multiplier < 1) {
+            throw new IllegalArgumentException("multiplier must be at least 1");
+        }
+        jitter = Math.max(0, Math.min(1, jitter));
+    }
+
+    /**
+     * @param attempts Attempts made so far
+     * @return True if no further attempt is allowed
+     */
+    public boolean exhausted(int attempts) {
+        return attempts >= maxAttempts;
+    }
+
+    /**
+     * Delay before the next attempt
+     *
+     * @param attempts Attempts made so far (at least 1)
+     */
+    public Duration backoff(int attempts) {
+        return backoff(attempts, ThreadLocalRandom.current().nextDouble());
+    }
+
+    Duration backoff(int attempts, double random) {
+        double delay = initialBackoff.toMillis() * Math.pow(multiplier, Math.max(0, attempts - 1));
+        double capped = Math.min(delay, maxBackoff.toMillis());
+        return Duration.ofMillis(Math.round(capped * (1 - jitter * random)));
+    }
+
+    /**
+     * Whether a failure can succeed on retry
+     *
+     * Client errors (4xx other than 408 and 429) and invalid input or configuration
+     * (IllegalArgumentException) are permanent; anything else, such as timeouts, refused
+     * connections, 5xx replies or an open circuit breaker, is assumed to be transient.
+     */
+    public static boolean isRetryable(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause() != e ? e.getCause() : null) {
+            if (e instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError()) {
+                int status = response.getStatusCode().value();
+                return status == 408 || status == 429;
+            }
+            if (e instanceof IllegalArgumentException) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
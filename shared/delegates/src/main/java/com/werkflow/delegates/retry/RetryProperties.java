@@ -0,0 +1,69 @@
+package com.werkflow.delegates.retry;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Retry policies of the delegates
+ *
+ * Policies are keyed by delegate bean name (e.g. restServiceDelegate); settings a delegate
+ * leaves unset are taken from defaults. The email and form request outboxes use the
+ * emailDelegate and formRequestDelegate policies; failed async jobs use the policy of
+ * their activity's delegate (see JobRetryBackoffListener).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.delegates.retry")
+@Getter
+@Setter
+public class RetryProperties {
+
+    private Boolean enabled = true;
+    private Policy defaults = new Policy(5, 10000L, 2.0, 600000L, 0.5);
+    private Map<String, Policy> delegates = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class Policy {
+        private Integer maxAttempts;
+        private Long initialBackoffMs;
+        private Double multiplier;
+        private Long maxBackoffMs;
+        private Double jitter;
+
+        public Policy() {
+        }
+
+        Policy(Integer maxAttempts, Long initialBackoffMs, Double multiplier, Long maxBackoffMs, Double jitter) {
+            this.maxAttempts = maxAttempts;
+            this.initialBackoffMs = initialBackoffMs;
+            this.multiplier = multiplier;
+            this.maxBackoffMs = maxBackoffMs;
+            this.jitter = jitter;
+        }
+    }
+
+    /**
+     * Policy of a delegate, defaults for settings it does not override
+     *
+     * @param delegate Delegate bean name, or null for the defaults
+     */
+    public RetryPolicy policy(String delegate) {
+        Policy policy = delegate != null ? delegates.getOrDefault(delegate, defaults) : defaults;
+        return new RetryPolicy(
+            valueOf(policy.getMaxAttempts(), defaults.getMaxAttempts()),
+            Duration.ofMillis(valueOf(policy.getInitialBackoffMs(), defaults.getInitialBackoffMs())),
+            valueOf(policy.getMultiplier(), defaults.getMultiplier()),
+            Duration.ofMillis(valueOf(policy.getMaxBackoffMs(), defaults.getMaxBackoffMs())),
+            valueOf(policy.getJitter(), defaults.getJitter()));
+    }
+
+    private static <T> T valueOf(T value, T fallback) {
+        return value != null ? value : fallback;
+    }
+}
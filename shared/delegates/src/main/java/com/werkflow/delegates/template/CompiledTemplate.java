@@ -0,0 +1,225 @@
+package com.werkflow.delegates.template;
+
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Template parsed into a render tree
+ *
+ * Immutable and safe to share between threads; rendering walks the tree once and appends
+ * to a single StringBuilder, with no re-parsing of the source.
+ *
+ * Placeholders are resolved against the render variables. Dotted paths ("employee.name")
+ * walk nested maps and bean properties; inside {{#each}} the current item is searched
+ * first and is itself available as "this".
+ *
+ * {@link #getVariables()} lists the top-level names the template can look up, so callers
+ * only need to load those rather than every process variable.
+ */
+public final class CompiledTemplate {
+
+    private final List<Node> nodes;
+    private final TemplateFormat format;
+    private final Set<String> variables;
+
+    CompiledTemplate(List<Node> nodes, TemplateFormat format) {
+        this.nodes = List.copyOf(nodes);
+        this.format = format;
+        Set<String> names = new LinkedHashSet<>();
+        collectVariables(this.nodes, names);
+        this.variables = Set.copyOf(names);
+    }
+
+    public TemplateFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Top-level variable names referenced anywhere in the template
+     *
+     * Names inside {{#each}} are included too, since they may fall back to the enclosing
+     * variables when the item has no such property.
+     */
+    public Set<String> getVariables() {
+        return variables;
+    }
+
+    public String render(Map<String, ?> variables) {
+        StringBuilder out = new StringBuilder(256);
+        render(variables, out);
+        return out.toString();
+    }
+
+    /**
+     * Render into an existing buffer, e.g. one digest entry after another
+     */
+    public void render(Map<String, ?> variables, StringBuilder out) {
+        Scope scope = new Scope(variables, null);
+        for (Node node : nodes) {
+            node.render(scope, format, out);
+        }
+    }
+
+    sealed interface Node permits Text, Value, If, Each {
+        void render(Scope scope, TemplateFormat format, StringBuilder out);
+    }
+
+    record Text(String text) implements Node {
+        @Override
+        public void render(Scope scope, TemplateFormat format, StringBuilder out) {
+            out.append(text);
+        }
+    }
+
+    record Value(String[] path, boolean raw) implements Node {
+        @Override
+        public void render(Scope scope, TemplateFormat format, StringBuilder out) {
+            Object value = scope.resolve(path);
+            if (value != null) {
+                String text = value.toString();
+                out.append(raw ? text : format.escape(text));
+            }
+        }
+    }
+
+    record If(String[] path, List<Node> then, List<Node> otherwise) implements Node {
+        @Override
+        public void render(Scope scope, TemplateFormat format, StringBuilder out) {
+            for (Node node : isTruthy(scope.resolve(path)) ? then : otherwise) {
+                node.render(scope, format, out);
+            }
+        }
+    }
+
+    record Each(String[] path, List<Node> body, List<Node> otherwise) implements Node {
+        @Override
+        public void render(Scope scope, TemplateFormat format, StringBuilder out) {
+            Object items = scope.resolve(path);
+            boolean any = false;
+            if (items instanceof Iterable<?> iterable) {
+                for (Object item : iterable) {
+                    renderItem(scope, item, format, out);
+                    any = true;
+                }
+            } else if (items != null && items.getClass().isArray()) {
+                for (int i = 0; i < Array.getLength(items); i++) {
+                    renderItem(scope, Array.get(items, i), format, out);
+                    any = true;
+                }
+            }
+            if (!any) {
+                for (Node node : otherwise) {
+                    node.render(scope, format, out);
+                }
+            }
+        }
+
+        private void renderItem(Scope scope, Object item, TemplateFormat format, StringBuilder out) {
+            Scope itemScope = new Scope(item, scope);
+            for (Node node : body) {
+                node.render(itemScope, format, out);
+            }
+        }
+    }
+
+    private static void collectVariables(List<Node> nodes, Set<String> names) {
+        for (Node node : nodes) {
+            switch (node) {
+                case Text text -> {
+                }
+                case Value value -> addRoot(value.path(), names);
+                case If block -> {
+                    addRoot(block.path(), names);
+                    collectVariables(block.then(), names);
+                    collectVariables(block.otherwise(), names);
+                }
+                case Each block -> {
+                    addRoot(block.path(), names);
+                    collectVariables(block.body(), names);
+                    collectVariables(block.otherwise(), names);
+                }
+            }
+        }
+    }
+
+    private static void addRoot(String[] path, Set<String> names) {
+        if (!"this".equals(path[0])) {
+            names.add(path[0]);
+        }
+    }
+
+    private static boolean isTruthy(Object value) {
+        if (value == null) {
+            return false;
+        }
+        if (value instanceof Boolean bool) {
+            return bool;
+        }
+        if (value instanceof CharSequence text) {
+            return !text.isEmpty();
+        }
+        if (value instanceof Collection<?> collection) {
+            return !collection.isEmpty();
+        }
+        if (value instanceof Map<?, ?> map) {
+            return !map.isEmpty();
+        }
+        return true;
+    }
+
+    /**
+     * Variable lookup chain: the current {{#each}} item, then the enclosing scopes
+     */
+    record Scope(Object value, Scope parent) {
+
+        Object resolve(String[] path) {
+            if (path.length == 1 && "this".equals(path[0])) {
+                return value;
+            }
+            for (Scope scope = this; scope != null; scope = scope.parent) {
+                if (hasProperty(scope.value, path[0])) {
+                    Object current = property(scope.value, path[0]);
+                    for (int i = 1; i < path.length && current != null; i++) {
+                        current = property(current, path[i]);
+                    }
+                    return current;
+                }
+            }
+            return null;
+        }
+
+        private static boolean hasProperty(Object target, String name) {
+            if (target instanceof Map<?, ?> map) {
+                return map.containsKey(name);
+            }
+            return target != null && !isSimple(target) && beanWrapper(target).isReadableProperty(name);
+        }
+
+        private static Object property(Object target, String name) {
+            if (target instanceof Map<?, ?> map) {
+                return map.get(name);
+            }
+            if (isSimple(target)) {
+                return null;
+            }
+            BeanWrapper wrapper = beanWrapper(target);
+            return wrapper.isReadableProperty(name) ? wrapper.getPropertyValue(name) : null;
+        }
+
+        private static boolean isSimple(Object target) {
+            return target instanceof CharSequence || target instanceof Number || target instanceof Boolean
+                || target instanceof Collection<?> || target.getClass().isArray();
+        }
+
+        private static BeanWrapper beanWrapper(Object target) {
+            return PropertyAccessorFactory.forBeanPropertyAccess(target);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.werkflow.delegates.template;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Email and notification templates, compiled once and cached
+ *
+ * Templates are stored by key and locale under the configured location:
+ *   {location}/{key}/subject[_{locale}].txt
+ *   {location}/{key}/body[_{locale}].txt
+ *   {location}/{key}/body[_{locale}].html
+ * A lookup for de_CH tries de_CH, then de, then the default file. Each (key, part, locale,
+ * format) is resolved and compiled on first use; misses are cached too, so later renders
+ * only walk the cached render tree. See TemplateParser for the syntax.
+ *
+ * Inline templates are template source configured on a BPMN task rather than stored. Their
+ * source must be static per activity, never built from process data, since any {{tag}} in
+ * it is evaluated against the process variables. They are compiled once per distinct
+ * source; at most inline-cache-size are kept, evicting the least recently used.
+ */
+@Slf4j
+@Component
+public class NotificationTemplates {
+
+    private static final Pattern VALID_KEY = Pattern.compile("[A-Za-z0-9_-]+(/[A-Za-z0-9_-]+)*");
+
+    private final ResourceLoader resourceLoader;
+    private final String location;
+
+    private final Map<TemplateId, Optional<CompiledTemplate>> templates = new ConcurrentHashMap<>();
+    private final Map<InlineId, CompiledTemplate> inlineTemplates;
+
+    public NotificationTemplates(
+        ResourceLoader resourceLoader,
+        @Value("${app.delegates.templates.location:classpath:/templates/notifications/}") String location,
+        @Value("${app.delegates.templates.inline-cache-size:1000}") int inlineCacheSize
+    ) {
+        this.resourceLoader = resourceLoader;
+        this.location = location.endsWith("/") ? location : location + "/";
+        this.inlineTemplates = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<InlineId, CompiledTemplate> eldest) {
+                return size() > inlineCacheSize;
+            }
+        };
+    }
+
+    /**
+     * Render subject and bodies of a stored template
+     *
+     * @throws IllegalArgumentException if the template has neither a text nor an HTML body
+     */
+    public RenderedMessage render(String key, Locale locale, Map<String, ?> variables) {
+        Parts parts = parts(key, locale);
+        return parts.render(variables);
+    }
+
+    /**
+     * Render a stored template once per variable set, resolving it only once
+     */
+    public List<RenderedMessage> renderBatch(String key, Locale locale, List<? extends Map<String, ?>> variables) {
+        Parts parts = parts(key, locale);
+        List<RenderedMessage> messages = new ArrayList<>(variables.size());
+        for (Map<String, ?> item : variables) {
+            messages.add(parts.render(item));
+        }
+        return messages;
+    }
+
+    /**
+     * Variable names referenced by any part of a stored template
+     *
+     * @throws IllegalArgumentException if the template has neither a text nor an HTML body
+     */
+    public Set<String> variables(String key, Locale locale) {
+        return parts(key, locale).variables();
+    }
+
+    /**
+     * Look up one compiled part of a stored template
+     *
+     * @param part "subject" or "body"
+     */
+    public Optional<CompiledTemplate> find(String key, String part, Locale locale, TemplateFormat format) {
+        if (!VALID_KEY.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid template key: " + key);
+        }
+        return templates.computeIfAbsent(new TemplateId(key, part, localeTag(locale), format), this::load);
+    }
+
+    /**
+     * Compiled template for static source configured on a BPMN task, compiled outside the
+     * lock on a miss
+     *
+     * @throws IllegalArgumentException if the source is not a valid template
+     */
+    public CompiledTemplate inline(String source, TemplateFormat format) {
+        InlineId id = new InlineId(source, format);
+        CompiledTemplate template;
+        synchronized (inlineTemplates) {
+            template = inlineTemplates.get(id);
+        }
+        if (template == null) {
+            CompiledTemplate compiled = TemplateParser.compile(source, format);
+            synchronized (inlineTemplates) {
+                template = inlineTemplates.putIfAbsent(id, compiled);
+            }
+            if (template == null) {
+                template = compiled;
+            }
+        }
+        return template;
+    }
+
+    /**
+     * Number of cached inline templates
+     */
+    public int inlineSize() {
+        synchronized (inlineTemplates) {
+            return inlineTemplates.size();
+        }
+    }
+
+    /**
+     * Drop all compiled templates, e.g. after editing template files
+     */
+    public void clear() {
+        templates.clear();
+        synchronized (inlineTemplates) {
+            inlineTemplates.clear();
+        }
+    }
+
+    private Parts parts(String key, Locale locale) {
+        Parts parts = new Parts(
+            find(key, "subject", locale, TemplateFormat.TEXT).orElse(null),
+            find(key, "body", locale, TemplateFormat.TEXT).orElse(null),
+            find(key, "body", locale, TemplateFormat.HTML).orElse(null));
+        if (parts.text() == null && parts.html() == null) {
+            throw new IllegalArgumentException("Template not found: " + key);
+        }
+        return parts;
+    }
+
+    private Optional<CompiledTemplate> load(TemplateId id) {
+        for (String candidate : candidates(id.locale())) {
+            String path = location + id.key() + "/" + id.part() + candidate + "." + id.format().getExtension();
+            Resource resource = resourceLoader.getResource(path);
+            if (!resource.exists()) {
+                continue;
+            }
+            try (InputStream in = resource.getInputStream()) {
+                String source = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                log.debug("Compiled template {}", path);
+                return Optional.of(TemplateParser.compile(source, id.format()));
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to read template " + path, e);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * File name suffixes to try, most specific first: "_de_CH", "_de", ""
+     */
+    private static List<String> candidates(String localeTag) {
+        List<String> candidates = new ArrayList<>(3);
+        if (!localeTag.isEmpty()) {
+            candidates.add("_" + localeTag);
+            int separator = localeTag.indexOf('_');
+            if (separator > 0) {
+                candidates.add("_" + localeTag.substring(0, separator));
+            }
+        }
+        candidates.add("");
+        return candidates;
+    }
+
+    private static String localeTag(Locale locale) {
+        if (locale == null || locale.getLanguage().isEmpty()) {
+            return "";
+        }
+        return locale.getCountry().isEmpty() ? locale.getLanguage() : locale.getLanguage() + "_" + locale.getCountry();
+    }
+
+    private record TemplateId(String key, String part, String locale, TemplateFormat format) {
+    }
+
+    private record InlineId(String source, TemplateFormat format) {
+    }
+
+    private record Parts(CompiledTemplate subject, CompiledTemplate text, CompiledTemplate html) {
+
+        RenderedMessage render(Map<String, ?> variables) {
+            return new RenderedMessage(
+                subject != null ? subject.render(variables).strip() : null,
+                text != null ? text.render(variables) : null,
+                html != null ? html.render(variables) : null);
+        }
+
+        Set<String> variables() {
+            Set<String> names = new LinkedHashSet<>();
+            for (CompiledTemplate part : new CompiledTemplate[]{subject, text, html}) {
+                if (part != null) {
+                    names.addAll(part.getVariables());
+                }
+            }
+            return names;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.werkflow.delegates.template;
+
+/**
+ * Message rendered from a template
+ *
+ * @param subject Subject line (null if the template has none)
+ * @param text    Plain text body (null if the template has none)
+ * @param html    HTML body (null if the template has none)
+ */
+public record RenderedMessage(String subject, String text, String html) {
+
+    /**
+     * HTML body if present, otherwise the text body
+     */
+    public String body() {
+        return html != null ? html : text;
+    }
+
+    public boolean isHtml() {
+        return html != null;
+    }
+}
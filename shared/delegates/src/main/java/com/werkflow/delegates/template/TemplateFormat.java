@@ -0,0 +1,29 @@
+package com.werkflow.delegates.template;
+
+import org.springframework.web.util.HtmlUtils;
+
+/**
+ * Output format of a template
+ *
+ * HTML templates escape {{value}} placeholders; {{{value}}} inserts the value as is.
+ * Text templates never escape.
+ */
+public enum TemplateFormat {
+
+    TEXT("txt"),
+    HTML("html");
+
+    private final String extension;
+
+    TemplateFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    String escape(String value) {
+        return this == HTML ? HtmlUtils.htmlEscape(value) : value;
+    }
+}
@@ -0,0 +1,123 @@
+package com.werkflow.delegates.template;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Compiles template source into a CompiledTemplate
+ *
+ * Supported tags:
+ * - {{name}} / {{employee.name}}: value, HTML-escaped in HTML templates
+ * - {{{name}}}: value, never escaped
+ * - {{#if name}} ... {{else}} ... {{/if}}: rendered if the value is set, true and non-empty
+ * - {{#each items}} ... {{else}} ... {{/each}}: repeated per item, else-branch when empty
+ * - {{! comment }}
+ */
+public final class TemplateParser {
+
+    private TemplateParser() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if tags are unterminated or unbalanced
+     */
+    public static CompiledTemplate compile(String source, TemplateFormat format) {
+        Deque<Block> blocks = new ArrayDeque<>();
+        Block root = new Block(null, null);
+        blocks.push(root);
+
+        int position = 0;
+        while (position < source.length()) {
+            int open = source.indexOf("{{", position);
+            if (open < 0) {
+                blocks.peek().add(new CompiledTemplate.Text(source.substring(position)));
+                break;
+            }
+            if (open > position) {
+                blocks.peek().add(new CompiledTemplate.Text(source.substring(position, open)));
+            }
+
+            boolean raw = source.startsWith("{{{", open);
+            String terminator = raw ? "}}}" : "}}";
+            int close = source.indexOf(terminator, open);
+            if (close < 0) {
+                throw error(source, open, "unterminated tag");
+            }
+            String tag = source.substring(open + terminator.length(), close).trim();
+            position = close + terminator.length();
+
+            if (raw) {
+                blocks.peek().add(new CompiledTemplate.Value(path(source, open, tag), true));
+            } else if (tag.startsWith("!")) {
+                // Comment
+            } else if (tag.startsWith("#if ") || tag.startsWith("#each ")) {
+                String kind = tag.substring(1, tag.indexOf(' '));
+                blocks.push(new Block(kind, path(source, open, tag.substring(kind.length() + 2).trim())));
+            } else if (tag.equals("else")) {
+                Block block = blocks.peek();
+                if (block == root || block.inElse) {
+                    throw error(source, open, "unexpected {{else}}");
+                }
+                block.inElse = true;
+            } else if (tag.startsWith("/")) {
+                Block block = blocks.pop();
+                if (block == root || !block.kind.equals(tag.substring(1).trim())) {
+                    throw error(source, open, "unexpected {{" + tag + "}}");
+                }
+                blocks.peek().add(block.toNode());
+            } else if (tag.startsWith("#")) {
+                throw error(source, open, "unknown block {{" + tag + "}}");
+            } else {
+                blocks.peek().add(new CompiledTemplate.Value(path(source, open, tag), false));
+            }
+        }
+
+        if (blocks.peek() != root) {
+            throw error(source, source.length(), "unclosed {{#" + blocks.peek().kind + "}}");
+        }
+        return new CompiledTemplate(root.nodes, format);
+    }
+
+    private static String[] path(String source, int offset, String name) {
+        if (name.isEmpty() || name.contains(" ")) {
+            throw error(source, offset, "invalid variable name '" + name + "'");
+        }
+        return name.split("\\.");
+    }
+
+    private static IllegalArgumentException error(String source, int offset, String message) {
+        int line = 1;
+        for (int i = 0; i < offset && i < source.length(); i++) {
+            if (source.charAt(i) == '\n') {
+                line++;
+            }
+        }
+        return new IllegalArgumentException("Template error at line " + line + ": " + message);
+    }
+
+    private static final class Block {
+
+        private final String kind;
+        private final String[] path;
+        private final List<CompiledTemplate.Node> nodes = new ArrayList<>();
+        private final List<CompiledTemplate.Node> otherwise = new ArrayList<>();
+        private boolean inElse;
+
+        private Block(String kind, String[] path) {
+            this.kind = kind;
+            this.path = path;
+        }
+
+        private void add(CompiledTemplate.Node node) {
+            (inElse ? otherwise : nodes).add(node);
+        }
+
+        private CompiledTemplate.Node toNode() {
+            return "if".equals(kind)
+                ? new CompiledTemplate.If(path, List.copyOf(nodes), List.copyOf(otherwise))
+                : new CompiledTemplate.Each(path, List.copyOf(nodes), List.copyOf(otherwise));
+        }
+    }
+}
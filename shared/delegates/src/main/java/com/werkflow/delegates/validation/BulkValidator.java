@@ -0,0 +1,160 @@
+package com.werkflow.delegates.validation;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Validates record streams (CSV/JSON imports) with ValidationDelegate rules
+ *
+ * Records are read on the calling thread in chunks of chunk-size and each chunk is
+ * validated on the bulk-validation pool. At most max-chunks-in-flight chunks are pending at
+ * a time, so memory stays bounded however large the import is. Errors are handed to the
+ * caller's sink row by row, in input order, as soon as their chunk is done; only invalid
+ * rows are kept until then, never an error map for the whole import.
+ */
+@Slf4j
+@Component
+public class BulkValidator {
+
+    private final ValidationProperties.Bulk config;
+    private final ExecutorService workers;
+
+    public BulkValidator(ValidationProperties properties) {
+        this.config = properties.getBulk();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(config.getThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "bulk-validation-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Errors of one record
+     *
+     * @param row    1-based record number in the input
+     * @param errors Errors by field name
+     */
+    public record RowErrors(long row, Map<String, List<String>> errors) {
+    }
+
+    /**
+     * @param rows        Records read
+     * @param invalidRows Records with at least one error
+     * @param errors      Error messages in total
+     */
+    public record Summary(long rows, long invalidRows, long errors) {
+    }
+
+    /**
+     * Validate every record of a source
+     *
+     * @param records Records to validate; read on the calling thread and not closed here
+     * @param program Compiled rule set (see ValidationPrograms)
+     * @param sink    Receives the errors of each invalid row, in row order, on the calling thread
+     * @return Counts for the whole input
+     * @throws IllegalArgumentException if the input is malformed; rows read before it have been reported
+     */
+    public Summary validate(Iterator<? extends Map<String, ?>> records, ValidationProgram program,
+                            Consumer<RowErrors> sink) {
+        int chunkSize = config.getChunkSize();
+        Deque<CompletableFuture<List<RowErrors>>> pending = new ArrayDeque<>();
+        Tally tally = new Tally();
+        long rows = 0;
+
+        try {
+            RuntimeException readFailure = null;
+            while (readFailure == null) {
+                List<Map<String, ?>> chunk = new ArrayList<>(chunkSize);
+                long firstRow = rows + 1;
+                try {
+                    while (chunk.size() < chunkSize && records.hasNext()) {
+                        chunk.add(records.next());
+                    }
+                } catch (RuntimeException e) {
+                    // Report the rows read so far before failing
+                    readFailure = e;
+                }
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                rows += chunk.size();
+                pending.addLast(CompletableFuture.supplyAsync(() -> validateChunk(program, firstRow, chunk), workers));
+
+                while (pending.size() >= config.getMaxChunksInFlight()) {
+                    tally.report(await(pending.removeFirst()), sink);
+                }
+            }
+            while (!pending.isEmpty()) {
+                tally.report(await(pending.removeFirst()), sink);
+            }
+            if (readFailure != null) {
+                throw readFailure;
+            }
+        } finally {
+            pending.forEach(chunk -> chunk.cancel(false));
+        }
+
+        log.debug("Bulk validation of {} rows: {} invalid", rows, tally.invalidRows);
+        return new Summary(rows, tally.invalidRows, tally.errors);
+    }
+
+    private static List<RowErrors> validateChunk(ValidationProgram program, long firstRow,
+                                                 List<Map<String, ?>> chunk) {
+        List<RowErrors> invalid = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Map<String, List<String>> errors = program.validate(chunk.get(i));
+            if (!errors.isEmpty()) {
+                invalid.add(new RowErrors(firstRow + i, errors));
+            }
+        }
+        return invalid;
+    }
+
+    private static List<RowErrors> await(CompletableFuture<List<RowErrors>> chunk) {
+        try {
+            return chunk.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private static final class Tally {
+
+        private long invalidRows;
+        private long errors;
+
+        private void report(List<RowErrors> rows, Consumer<RowErrors> sink) {
+            for (RowErrors row : rows) {
+                invalidRows++;
+                for (List<String> fieldErrors : row.errors().values()) {
+                    errors += fieldErrors.size();
+                }
+                sink.accept(row);
+            }
+        }
+    }
+}
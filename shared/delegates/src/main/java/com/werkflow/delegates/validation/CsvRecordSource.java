@@ -0,0 +1,142 @@
+package com.werkflow.delegates.validation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * CSV record source: the first row names the fields
+ *
+ * Fields may be quoted ("a, b", "say ""hi""") and quoted fields may span lines. Empty
+ * fields are read as absent (null); missing trailing fields too, and fields beyond the
+ * header are ignored. Blank lines are skipped.
+ */
+final class CsvRecordSource implements RecordSource {
+
+    private static final String BYTE_ORDER_MARK = "\uFEFF";
+
+    private final BufferedReader reader;
+    private final String[] header;
+    private List<String> next;
+    private boolean done;
+
+    CsvRecordSource(Reader reader) throws IOException {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader, 65536);
+        List<String> headerRow = readRow();
+        if (headerRow == null) {
+            throw new IllegalArgumentException("CSV input has no header row");
+        }
+        this.header = new String[headerRow.size()];
+        for (int i = 0; i < header.length; i++) {
+            String name = headerRow.get(i);
+            header[i] = name == null ? "" : name.strip();
+        }
+        if (header.length > 0 && header[0].startsWith(BYTE_ORDER_MARK)) {
+            header[0] = header[0].substring(1);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !done) {
+            try {
+                next = readRow();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            done = next == null;
+        }
+        return next != null;
+    }
+
+    @Override
+    public Map<String, Object> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        List<String> row = next;
+        next = null;
+        Map<String, Object> record = new HashMap<>(header.length * 2);
+        for (int i = 0; i < header.length && i < row.size(); i++) {
+            if (row.get(i) != null) {
+                record.put(header[i], row.get(i));
+            }
+        }
+        return record;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * @return Fields of the next non-blank row, null at end of input
+     */
+    private List<String> readRow() throws IOException {
+        List<String> fields = new ArrayList<>(header != null ? header.length : 16);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        boolean any = false;
+
+        int c;
+        while ((c = reader.read()) != -1) {
+            any = true;
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == ',') {
+                fields.add(value(field, wasQuoted));
+                field.setLength(0);
+                wasQuoted = false;
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                if (fields.isEmpty() && field.isEmpty() && !wasQuoted) {
+                    any = false;
+                    continue;
+                }
+                fields.add(value(field, wasQuoted));
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("CSV input ends inside a quoted field");
+        }
+        if (!any) {
+            return null;
+        }
+        fields.add(value(field, wasQuoted));
+        return fields;
+    }
+
+    private static String value(StringBuilder field, boolean quoted) {
+        return field.isEmpty() && !quoted ? null : field.toString();
+    }
+}
@@ -0,0 +1,209 @@
+package com.werkflow.delegates.validation;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Validation rules of one field, compiled from a rule string such as "required,min:18,max:100"
+ *
+ * Rule arguments are parsed once: lengths and bounds into numbers, patterns into Pattern,
+ * date formats into DateTimeFormatter and in-lists into a Set. Immutable and safe to share
+ * between threads. Unknown rules are ignored.
+ *
+ * min/max report a value that is not a number as "<field> must be a number". Before rule
+ * sets were compiled, such a value made ValidationDelegate fail with NumberFormatException;
+ * it is now a validation error like any other, so bulk imports report it per row.
+ */
+public final class FieldRules {
+
+    private static final Pattern EMAIL_PATTERN = Pattern.compile(
+        "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$"
+    );
+
+    private static final String NOT_A_NUMBER = " must be a number";
+
+    private final List<Rule> rules;
+
+    private FieldRules(List<Rule> rules) {
+        this.rules = List.copyOf(rules);
+    }
+
+    /**
+     * @throws IllegalArgumentException if a rule argument is invalid (bad number, regex or date format)
+     */
+    public static FieldRules compile(String rules) {
+        List<Rule> compiled = new ArrayList<>();
+        for (String rule : rules.split(",")) {
+            rule = rule.trim();
+
+            if (rule.equals("required")) {
+                compiled.add(new Required());
+            } else if (rule.equals("email")) {
+                compiled.add(new Email());
+            } else if (rule.startsWith("minLength:")) {
+                compiled.add(new MinLength(Integer.parseInt(rule.substring(10))));
+            } else if (rule.startsWith("maxLength:")) {
+                compiled.add(new MaxLength(Integer.parseInt(rule.substring(10))));
+            } else if (rule.startsWith("min:")) {
+                compiled.add(new Min(new BigDecimal(rule.substring(4))));
+            } else if (rule.startsWith("max:")) {
+                compiled.add(new Max(new BigDecimal(rule.substring(4))));
+            } else if (rule.startsWith("pattern:")) {
+                compiled.add(new Matches(Pattern.compile(rule.substring(8))));
+            } else if (rule.startsWith("date:")) {
+                String format = rule.substring(5);
+                compiled.add(new ValidDate(DateTimeFormatter.ofPattern(format), format));
+            } else if (rule.startsWith("in:")) {
+                String allowedValues = rule.substring(3);
+                compiled.add(new In(Set.copyOf(Arrays.asList(allowedValues.split("\\|"))),
+                    allowedValues.replace("|", ", ")));
+            }
+        }
+        return new FieldRules(compiled);
+    }
+
+    /**
+     * Validate one value
+     *
+     * @return Error messages, empty (and not allocated) if the value is valid
+     */
+    public List<String> validate(String fieldName, Object value) {
+        List<String> errors = List.of();
+        for (Rule rule : rules) {
+            String error = rule.check(value);
+            if (error != null) {
+                if (errors.isEmpty()) {
+                    errors = new ArrayList<>(2);
+                }
+                errors.add(fieldName + error);
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * A compiled rule; returns the error message suffix (after the field name), or null if valid
+     */
+    private sealed interface Rule permits Required, Email, MinLength, MaxLength, Min, Max, Matches, ValidDate, In {
+        String check(Object value);
+    }
+
+    private record Required() implements Rule {
+        @Override
+        public String check(Object value) {
+            return value == null || value.toString().trim().isEmpty() ? " is required" : null;
+        }
+    }
+
+    private record Email() implements Rule {
+        @Override
+        public String check(Object value) {
+            return value != null && !EMAIL_PATTERN.matcher(value.toString()).matches()
+                ? " must be a valid email"
+                : null;
+        }
+    }
+
+    private record MinLength(int minLength) implements Rule {
+        @Override
+        public String check(Object value) {
+            return value != null && value.toString().length() < minLength
+                ? " must be at least " + minLength + " characters"
+                : null;
+        }
+    }
+
+    private record MaxLength(int maxLength) implements Rule {
+        @Override
+        public String check(Object value) {
+            return value != null && value.toString().length() > maxLength
+                ? " must be at most " + maxLength + " characters"
+                : null;
+        }
+    }
+
+    private record Min(BigDecimal min) implements Rule {
+        @Override
+        public String check(Object value) {
+            if (value == null) {
+                return null;
+            }
+            BigDecimal number = toDecimal(value);
+            if (number == null) {
+                return NOT_A_NUMBER;
+            }
+            return number.compareTo(min) < 0 ? " must be at least " + min : null;
+        }
+    }
+
+    private record Max(BigDecimal max) implements Rule {
+        @Override
+        public String check(Object value) {
+            if (value == null) {
+                return null;
+            }
+            BigDecimal number = toDecimal(value);
+            if (number == null) {
+                return NOT_A_NUMBER;
+            }
+            return number.compareTo(max) > 0 ? " must be at most " + max : null;
+        }
+    }
+
+    private record Matches(Pattern pattern) implements Rule {
+        @Override
+        public String check(Object value) {
+            return value != null && !pattern.matcher(value.toString()).matches()
+                ? " does not match required pattern"
+                : null;
+        }
+    }
+
+    private record ValidDate(DateTimeFormatter formatter, String format) implements Rule {
+        @Override
+        public String check(Object value) {
+            if (value == null) {
+                return null;
+            }
+            try {
+                LocalDate.parse(value.toString(), formatter);
+                return null;
+            } catch (DateTimeParseException e) {
+                return " must be a valid date in format " + format;
+            }
+        }
+    }
+
+    private record In(Set<String> allowed, String allowedList) implements Rule {
+        @Override
+        public String check(Object value) {
+            return value != null && !allowed.contains(value.toString()) ? " must be one of: " + allowedList : null;
+        }
+    }
+
+    /**
+     * Numeric value without a toString/parse round trip for the common number types
+     *
+     * @return null if the value is not a number
+     */
+    private static BigDecimal toDecimal(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return BigDecimal.valueOf(((Number) value).longValue());
+        }
+        try {
+            return new BigDecimal(value.toString());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
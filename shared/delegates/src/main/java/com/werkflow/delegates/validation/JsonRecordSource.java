@@ -0,0 +1,78 @@
+package com.werkflow.delegates.validation;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * JSON record source: a top-level array of objects, or a sequence of objects (NDJSON)
+ *
+ * Objects are bound one at a time from a streaming parser; nested values become maps and
+ * lists as with ObjectMapper.
+ */
+final class JsonRecordSource implements RecordSource {
+
+    private static final TypeReference<Map<String, Object>> RECORD_TYPE = new TypeReference<>() {
+    };
+
+    private final JsonParser parser;
+    private final ObjectMapper objectMapper;
+    private final boolean array;
+    private JsonToken token;
+    private boolean advance;
+
+    JsonRecordSource(InputStream input, ObjectMapper objectMapper) throws IOException {
+        this.objectMapper = objectMapper;
+        this.parser = objectMapper.getFactory().createParser(input);
+        JsonToken first = parser.nextToken();
+        this.array = first == JsonToken.START_ARRAY;
+        this.token = array ? parser.nextToken() : first;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (advance) {
+            advance = false;
+            try {
+                token = parser.nextToken();
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Invalid JSON record: " + e.getOriginalMessage(), e);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return token != null && token != JsonToken.END_ARRAY;
+    }
+
+    @Override
+    public Map<String, Object> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new IllegalArgumentException("Expected a JSON object at " + parser.currentLocation());
+        }
+        try {
+            Map<String, Object> record = objectMapper.readValue(parser, RECORD_TYPE);
+            advance = true;
+            return record;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON record: " + e.getOriginalMessage(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
@@ -0,0 +1,34 @@
+package com.werkflow.delegates.validation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Stream of import records (field name → value), read one at a time
+ *
+ * Sources read lazily from the underlying input, so an import is never held in memory as a
+ * whole. Iteration methods throw UncheckedIOException on read errors and
+ * IllegalArgumentException on malformed input.
+ */
+public interface RecordSource extends Iterator<Map<String, Object>>, Closeable {
+
+    /**
+     * CSV with a header row (RFC 4180 quoting)
+     */
+    static RecordSource csv(Reader reader) throws IOException {
+        return new CsvRecordSource(reader);
+    }
+
+    /**
+     * A JSON array of objects, or newline-delimited JSON objects
+     */
+    static RecordSource json(InputStream input, ObjectMapper objectMapper) throws IOException {
+        return new JsonRecordSource(input, objectMapper);
+    }
+}
@@ -0,0 +1,57 @@
+package com.werkflow.delegates.validation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A validation rule set (field → rule string) compiled into FieldRules per field
+ *
+ * Immutable and safe to share between threads; obtained from ValidationPrograms, which
+ * caches one program per distinct rule set.
+ */
+public final class ValidationProgram {
+
+    private final List<String> fields;
+    private final List<FieldRules> rules;
+
+    private ValidationProgram(List<String> fields, List<FieldRules> rules) {
+        this.fields = List.copyOf(fields);
+        this.rules = List.copyOf(rules);
+    }
+
+    /**
+     * @throws IllegalArgumentException if a rule argument is invalid
+     */
+    public static ValidationProgram compile(Map<String, String> validationRules) {
+        List<String> fields = new ArrayList<>(validationRules.size());
+        List<FieldRules> rules = new ArrayList<>(validationRules.size());
+        for (Map.Entry<String, String> entry : validationRules.entrySet()) {
+            fields.add(entry.getKey());
+            rules.add(FieldRules.compile(entry.getValue()));
+        }
+        return new ValidationProgram(fields, rules);
+    }
+
+    /**
+     * Validate a set of values
+     *
+     * @return Errors by field name, empty if all values are valid
+     */
+    public Map<String, List<String>> validate(Map<String, ?> variables) {
+        Map<String, List<String>> errors = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            String field = fields.get(i);
+            List<String> fieldErrors = rules.get(i).validate(field, variables.get(field));
+            if (!fieldErrors.isEmpty()) {
+                errors.put(field, fieldErrors);
+            }
+        }
+        return errors;
+    }
+
+    public int getFieldCount() {
+        return fields.size();
+    }
+}
@@ -0,0 +1,79 @@
+package com.werkflow.delegates.validation;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of compiled validation programs
+ *
+ * Rule sets usually come from BPMN expressions and are rebuilt as new maps for every
+ * execution, but their content rarely changes. Programs are therefore keyed by the rule
+ * set's content (map equality, so the lookup costs one hash over cached String hashes)
+ * and compiled once. At most cache-size programs are kept; the least recently used one is
+ * evicted to make room. Named rule sets from configuration go through the same cache.
+ */
+@Component
+public class ValidationPrograms {
+
+    private final ValidationProperties properties;
+    private final Map<Map<String, String>, ValidationProgram> programs;
+
+    public ValidationPrograms(ValidationProperties properties) {
+        this.properties = properties;
+        int cacheSize = properties.getCacheSize();
+        this.programs = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Map<String, String>, ValidationProgram> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Program of a named rule set (app.delegates.validation.rule-sets)
+     *
+     * @throws IllegalArgumentException if the rule set is unknown or invalid
+     */
+    public ValidationProgram forRuleSet(String name) {
+        Map<String, String> rules = properties.getRuleSets().get(name);
+        if (rules == null) {
+            throw new IllegalArgumentException("Unknown validation rule set: " + name);
+        }
+        return get(rules);
+    }
+
+    /**
+     * @throws IllegalArgumentException if a rule argument is invalid
+     */
+    public ValidationProgram get(Map<String, String> validationRules) {
+        ValidationProgram program;
+        synchronized (programs) {
+            program = programs.get(validationRules);
+        }
+        if (program == null) {
+            // Compiled outside the lock; a concurrent compile of the same rule set keeps the first program
+            ValidationProgram compiled = ValidationProgram.compile(validationRules);
+            synchronized (programs) {
+                program = programs.putIfAbsent(Map.copyOf(validationRules), compiled);
+            }
+            if (program == null) {
+                program = compiled;
+            }
+        }
+        return program;
+    }
+
+    public int size() {
+        synchronized (programs) {
+            return programs.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (programs) {
+            programs.clear();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.werkflow.delegates.validation;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Validation settings
+ *
+ * Rule sets are named field → rule string maps in ValidationDelegate syntax, e.g.
+ * employees: {email: "required,email"}. They can be referenced by name from BPMN
+ * (ruleSet) and from bulk imports, so workflows and batch loads share one definition.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.delegates.validation")
+@Getter
+@Setter
+public class ValidationProperties {
+
+    /**
+     * Distinct rule sets kept compiled (ValidationPrograms)
+     */
+    private Integer cacheSize = 1000;
+    private Map<String, Map<String, String>> ruleSets = new LinkedHashMap<>();
+    private Bulk bulk = new Bulk();
+
+    @Getter
+    @Setter
+    public static class Bulk {
+        /**
+         * Records validated per task
+         */
+        private Integer chunkSize = 1000;
+        private Integer threads = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+        /**
+         * Chunks read ahead per import; bounds the records held in memory to
+         * chunkSize * maxChunksInFlight
+         */
+        private Integer maxChunksInFlight = 8;
+    }
+}
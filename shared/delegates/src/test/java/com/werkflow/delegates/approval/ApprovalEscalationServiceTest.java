@@ -0,0 +1,136 @@
+package com.werkflow.delegates.approval;
+
+import org.flowable.common.engine.api.FlowableObjectNotFoundException;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.TaskService;
+import org.flowable.engine.runtime.Execution;
+import org.flowable.task.api.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ApprovalEscalationService escalations
+ */
+class ApprovalEscalationServiceTest {
+
+    private ApprovalEscalationStore store;
+    private RuntimeService runtimeService;
+    private TaskService taskService;
+    private PlatformTransactionManager transactionManager;
+    private ApprovalEscalationService service;
+
+    @BeforeEach
+    void setUp() {
+        store = mock(ApprovalEscalationStore.class);
+        runtimeService = mock(RuntimeService.class, RETURNS_DEEP_STUBS);
+        taskService = mock(TaskService.class, RETURNS_DEEP_STUBS);
+        transactionManager = mock(PlatformTransactionManager.class);
+        service = new ApprovalEscalationService(store, runtimeService, taskService, transactionManager,
+            new ApprovalEscalationProperties());
+    }
+
+    @Test
+    @DisplayName("Should set the variables, move the approver's tasks and send the message in one transaction")
+    void shouldEscalateUserApproval() {
+        ApprovalEscalationStore.Escalation escalation = claim("user", "jane", 1);
+        when(store.markEscalated(escalation)).thenReturn(true);
+        Task task = mock(Task.class);
+        when(task.getId()).thenReturn("t1");
+        when(taskService.createTaskQuery().processInstanceId("p1").active().taskAssignee("jane").list())
+            .thenReturn(List.of(task));
+        Execution execution = mock(Execution.class);
+        when(execution.getId()).thenReturn("e1");
+        when(runtimeService.createExecutionQuery().processInstanceId("p1")
+            .messageEventSubscriptionName("approvalEscalated").list()).thenReturn(List.of(execution));
+
+        service.escalate(List.of(1L));
+
+        verify(runtimeService).setVariables(eq("p1"), argThat((Map<String, Object> variables) ->
+            "DEPT_HEAD".equals(variables.get("approvalAssignedTo"))
+                && Boolean.TRUE.equals(variables.get("sendEscalationNotification"))));
+        verify(taskService).setAssignee("t1", null);
+        verify(taskService).addCandidateGroup("t1", "DEPT_HEAD");
+        verify(runtimeService).messageEventReceived("approvalEscalated", "e1");
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should replace the approver group of role approvals")
+    void shouldEscalateRoleApproval() {
+        ApprovalEscalationStore.Escalation escalation = claim("role", "MANAGER", 1);
+        when(store.markEscalated(escalation)).thenReturn(true);
+        Task task = mock(Task.class);
+        when(task.getId()).thenReturn("t1");
+        when(taskService.createTaskQuery().processInstanceId("p1").active().taskCandidateGroup("MANAGER").list())
+            .thenReturn(List.of(task));
+
+        service.escalate(List.of(1L));
+
+        verify(taskService).deleteCandidateGroup("t1", "MANAGER");
+        verify(taskService).addCandidateGroup("t1", "DEPT_HEAD");
+        verify(taskService, never()).setAssignee(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Should not touch the process when the claim is stale")
+    void shouldSkipStaleClaim() {
+        ApprovalEscalationStore.Escalation escalation = claim("user", "jane", 1);
+        when(store.markEscalated(escalation)).thenReturn(false);
+
+        service.escalate(List.of(1L));
+
+        verify(runtimeService, never()).setVariables(anyString(), anyMap());
+        verify(taskService, never()).addCandidateGroup(anyString(), anyString());
+        verify(store, never()).markRetry(anyLong(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should roll back and retry later when applying the escalation fails")
+    void shouldRollBackAndRetry() {
+        ApprovalEscalationStore.Escalation escalation = claim("user", "jane", 1);
+        when(store.markEscalated(escalation)).thenReturn(true);
+        doThrow(new IllegalStateException("boom")).when(runtimeService).setVariables(eq("p1"), anyMap());
+
+        service.escalate(List.of(1L));
+
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        verify(store).markRetry(eq(1L), eq("boom"), any());
+        verify(store, never()).markCancelled(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Should cancel once the attempts are used up or the process is gone")
+    void shouldCancel() {
+        ApprovalEscalationStore.Escalation exhausted = claim("user", "jane", 5);
+        when(store.markEscalated(exhausted)).thenReturn(true);
+        doThrow(new IllegalStateException("boom")).when(runtimeService).setVariables(eq("p1"), anyMap());
+
+        service.escalate(List.of(1L));
+
+        verify(store).markCancelled(1L, "boom");
+
+        ApprovalEscalationStore.Escalation ended = claim("user", "jane", 1);
+        when(store.markEscalated(ended)).thenReturn(true);
+        doThrow(new FlowableObjectNotFoundException("no process")).when(runtimeService)
+            .setVariables(eq("p1"), anyMap());
+
+        service.escalate(List.of(1L));
+
+        verify(store).markCancelled(1L, "Process instance no longer exists");
+    }
+
+    private ApprovalEscalationStore.Escalation claim(String assignmentType, String assignedTo, int attempts) {
+        ApprovalEscalationStore.Escalation escalation = new ApprovalEscalationStore.Escalation(1L, "p1",
+            "setupApproval", assignedTo, assignmentType, "DEPT_HEAD", attempts);
+        when(store.claim(anyCollection(), any(), any())).thenReturn(List.of(escalation));
+        return escalation;
+    }
+}
@@ -0,0 +1,81 @@
+package com.werkflow.delegates.approval;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ApprovalEscalationStore claims
+ */
+class ApprovalEscalationStoreTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private ApprovalEscalationStore store;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        store = new ApprovalEscalationStore(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should claim due rows with a lease and map the assignment")
+    @SuppressWarnings("unchecked")
+    void shouldClaimDueRows() throws Exception {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(connection.createArrayOf(eq("bigint"), any())).thenReturn(mock(Array.class));
+        ResultSet row = mock(ResultSet.class);
+        when(row.getLong("id")).thenReturn(7L);
+        when(row.getString("process_instance_id")).thenReturn("p1");
+        when(row.getString("approval_key")).thenReturn("setupApproval");
+        when(row.getString("assigned_to")).thenReturn("MANAGER");
+        when(row.getString("assignment_type")).thenReturn("role");
+        when(row.getString("escalation_role")).thenReturn("DEPT_HEAD");
+        when(row.getInt("attempts")).thenReturn(1);
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(RowMapper.class))).thenAnswer(invocation -> {
+            invocation.<PreparedStatementCreator>getArgument(0).createPreparedStatement(connection);
+            return List.of(invocation.<RowMapper<ApprovalEscalationStore.Escalation>>getArgument(1).mapRow(row, 0));
+        });
+
+        List<ApprovalEscalationStore.Escalation> claimed = store.claim(List.of(7L, 8L), Duration.ofSeconds(1),
+            Duration.ofSeconds(120));
+
+        assertEquals(List.of(new ApprovalEscalationStore.Escalation(7L, "p1", "setupApproval", "MANAGER", "role",
+            "DEPT_HEAD", 1)), claimed);
+        verify(connection).prepareStatement(argThat((String sql) ->
+            sql.contains("attempts = attempts + 1") && sql.contains("FOR UPDATE SKIP LOCKED")));
+        verify(statement).setLong(1, 120000L);
+        verify(statement).setLong(3, 1000L);
+    }
+
+    @Test
+    @DisplayName("Should mark an escalation escalated only under the claim that applied it")
+    void shouldFenceMarkEscalated() {
+        when(jdbcTemplate.update(anyString(), eq(7L), eq(2))).thenReturn(1);
+
+        assertTrue(store.markEscalated(escalation(2)));
+        assertFalse(store.markEscalated(escalation(3)));
+        verify(jdbcTemplate).update(argThat((String sql) ->
+            sql.contains("attempts = ?") && sql.contains("locked_until IS NOT NULL")), eq(7L), eq(2));
+    }
+
+    private static ApprovalEscalationStore.Escalation escalation(int attempts) {
+        return new ApprovalEscalationStore.Escalation(7L, "p1", "setupApproval", "jane", "user", "DEPT_HEAD",
+            attempts);
+    }
+}
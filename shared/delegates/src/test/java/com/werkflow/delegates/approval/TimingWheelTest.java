@@ -0,0 +1,68 @@
+package com.werkflow.delegates.approval;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the hierarchical timing wheel
+ */
+class TimingWheelTest {
+
+    @Test
+    @DisplayName("Should release items at their due tick across all levels")
+    void shouldReleaseAtDueTick() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(10, 8, 3, 0);
+        Random random = new Random(42);
+        Map<Integer, Long> dueAt = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            long due = 1 + random.nextInt((int) wheel.getSpanMs());
+            assertTrue(wheel.add(i, due));
+            dueAt.put(i, due);
+        }
+
+        List<Integer> released = new ArrayList<>();
+        for (long now = 0; now <= wheel.getSpanMs() + 10; now += 7) {
+            for (Integer item : wheel.advance(now)) {
+                long due = dueAt.get(item);
+                assertTrue(due <= now, "released early: due " + due + " at " + now);
+                assertTrue(now - due < 10 + 7, "released late: due " + due + " at " + now);
+                released.add(item);
+            }
+        }
+
+        assertEquals(2000, released.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Should release overdue items on the next advance")
+    void shouldReleaseOverdueItems() {
+        TimingWheel<String> wheel = new TimingWheel<>(1000, 64, 2, 50_000);
+
+        assertTrue(wheel.add("overdue", 10_000));
+
+        assertEquals(List.of(), wheel.advance(50_500));
+        assertEquals(List.of("overdue"), wheel.advance(51_000));
+    }
+
+    @Test
+    @DisplayName("Should reject items beyond the span and catch up after a long pause")
+    void shouldHandleSpanLimits() {
+        TimingWheel<String> wheel = new TimingWheel<>(1000, 4, 2, 0);
+
+        assertFalse(wheel.add("too-far", wheel.getSpanMs() + 5000));
+        assertTrue(wheel.add("far", wheel.getSpanMs()));
+        assertTrue(wheel.add("near", 1500));
+
+        assertEquals(List.of("near", "far"), wheel.advance(1_000_000));
+        assertEquals(0, wheel.size());
+    }
+}
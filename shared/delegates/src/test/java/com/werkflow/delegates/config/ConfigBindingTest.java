@@ -0,0 +1,200 @@
+package com.werkflow.delegates.config;
+
+import com.werkflow.common.delegate.DelegateMetrics;
+import com.werkflow.common.delegate.DelegateMetricsProperties;
+import com.werkflow.common.delegate.DelegateVariables;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flowable.bpmn.model.FieldExtension;
+import org.flowable.bpmn.model.ServiceTask;
+import org.flowable.common.engine.api.delegate.Expression;
+import org.flowable.common.engine.impl.el.ExpressionManager;
+import org.flowable.engine.delegate.DelegateExecution;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for binding delegate configuration records
+ */
+class ConfigBindingTest {
+
+    private DelegateVariables variables;
+    private ExpressionManager expressionManager;
+    private DelegateExecution execution;
+
+    @BeforeEach
+    void setUp() {
+        DelegateMetrics metrics = new DelegateMetrics(
+            new StaticListableBeanFactory(Map.of("registry", new SimpleMeterRegistry()))
+                .getBeanProvider(MeterRegistry.class),
+            new DelegateMetricsProperties());
+        variables = new DelegateVariables(metrics);
+        expressionManager = mock(ExpressionManager.class);
+        execution = mock(DelegateExecution.class);
+    }
+
+    @Test
+    @DisplayName("Should bind static fields once and reuse the record")
+    void shouldReuseStaticConfig() {
+        ServiceTask task = serviceTask(stringField("url", "http://hr-service/api"), stringField("method", "GET"),
+            expressionField("timeoutSeconds", "10"));
+
+        ConfigBinding<StaticConfig> binding = ConfigBinding.create(StaticConfig.class, task, expressionManager);
+
+        assertTrue(binding.isConstant());
+        StaticConfig config = binding.bind(execution, variables);
+        assertSame(config, binding.bind(execution, variables));
+        assertEquals(10, config.timeoutSeconds());
+        verifyNoInteractions(expressionManager, execution);
+    }
+
+    @Test
+    @DisplayName("Should compile field expressions once and evaluate them per execution")
+    void shouldEvaluateDynamicFields() {
+        Expression headers = mock(Expression.class);
+        when(expressionManager.createExpression("#{{'Accept': accept}}")).thenReturn(headers);
+        when(headers.getValue(execution)).thenReturn(Map.of("Accept", "application/json"));
+        ServiceTask task = serviceTask(stringField("url", "http://hr-service/api"),
+            stringField("timeoutSeconds", "45"), expressionField("headers", "#{{'Accept': accept}}"));
+
+        ConfigBinding<TestConfig> binding = ConfigBinding.create(TestConfig.class, task, expressionManager);
+        TestConfig first = binding.bind(execution, variables);
+        TestConfig second = binding.bind(execution, variables);
+
+        assertFalse(binding.isConstant());
+        assertNotSame(first, second);
+        assertEquals(45, first.timeoutSeconds());
+        assertEquals(Map.of("Accept", "application/json"), first.headers());
+        verify(expressionManager, times(1)).createExpression(anyString());
+        verify(headers, times(2)).getValue(execution);
+        // method has no field, so it is unset for this activity and never read from the variables
+        assertEquals("POST", first.method());
+        verify(execution, never()).getVariable(anyString());
+    }
+
+    @Test
+    @DisplayName("Should resolve components without a field once when the activity has fields")
+    void shouldResolveUnsetComponentsOnce() {
+        when(execution.getVariable("method")).thenReturn("PUT");
+        ServiceTask task = serviceTask(stringField("url", "http://hr-service/api"));
+
+        ConfigBinding<TestConfig> binding = ConfigBinding.create(TestConfig.class, task, expressionManager);
+        TestConfig config = binding.bind(execution, variables);
+
+        assertTrue(binding.isConstant());
+        assertSame(config, binding.bind(execution, variables));
+        assertEquals("POST", config.method());
+        assertNull(config.timeoutSeconds());
+        verifyNoInteractions(execution);
+    }
+
+    @Test
+    @DisplayName("Should read process variables without field extensions, convert values and apply defaults")
+    void shouldBindVariables() {
+        when(execution.getVariable("url")).thenReturn("http://finance-service/api");
+        when(execution.getVariable("timeoutSeconds")).thenReturn("15");
+
+        TestConfig config = ConfigBinding.create(TestConfig.class, null, expressionManager).bind(execution, variables);
+
+        assertEquals("http://finance-service/api", config.url());
+        assertEquals("POST", config.method());
+        assertEquals(15, config.timeoutSeconds());
+        assertNull(config.headers());
+    }
+
+    @Test
+    @DisplayName("Should reject missing required and unconvertible values")
+    void shouldRejectInvalidConfig() {
+        ConfigBinding<TestConfig> binding = ConfigBinding.create(TestConfig.class, null, expressionManager);
+
+        assertThrows(IllegalArgumentException.class, () -> binding.bind(execution, variables));
+
+        when(execution.getVariable("url")).thenReturn("http://finance-service/api");
+        when(execution.getVariable("timeoutSeconds")).thenReturn("soon");
+        assertThrows(IllegalArgumentException.class, () -> binding.bind(execution, variables));
+    }
+
+    @Test
+    @DisplayName("Should take literal components as written, never from expressions or variables")
+    void shouldBindLiteralComponentsVerbatim() {
+        when(execution.getVariable("url")).thenReturn("http://hr-service/api");
+        when(execution.getVariable("source")).thenReturn("{{secret}}");
+        ServiceTask task = serviceTask(expressionField("source", "Hello ${name} {{name}}"));
+
+        LiteralConfig fromField = ConfigBinding.create(LiteralConfig.class, task, expressionManager)
+            .bind(execution, variables);
+        LiteralConfig withoutFields = ConfigBinding.create(LiteralConfig.class, null, expressionManager)
+            .bind(execution, variables);
+
+        assertEquals("Hello ${name} {{name}}", fromField.source());
+        assertNull(withoutFields.source());
+        assertEquals("http://hr-service/api", withoutFields.url());
+        verifyNoInteractions(expressionManager);
+        verify(execution, never()).getVariable("source");
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used binding when the cache is full")
+    void shouldEvictLeastRecentlyUsedBinding() {
+        DelegateConfigBinder binder = new DelegateConfigBinder(variables, 2);
+        DelegateConfigBinder.BindingKey a = new DelegateConfigBinder.BindingKey("p:1", "a", TestConfig.class);
+        DelegateConfigBinder.BindingKey b = new DelegateConfigBinder.BindingKey("p:1", "b", TestConfig.class);
+        DelegateConfigBinder.BindingKey c = new DelegateConfigBinder.BindingKey("p:1", "c", TestConfig.class);
+
+        ConfigBinding<TestConfig> bindingA = binder.binding(a, this::newBinding);
+        ConfigBinding<TestConfig> bindingB = binder.binding(b, this::newBinding);
+        binder.binding(a, this::newBinding);
+        binder.binding(c, this::newBinding);
+
+        assertEquals(2, binder.size());
+        assertSame(bindingA, binder.binding(a, this::newBinding));
+        assertNotSame(bindingB, binder.binding(b, this::newBinding));
+    }
+
+    private ConfigBinding<TestConfig> newBinding() {
+        return ConfigBinding.create(TestConfig.class, null, expressionManager);
+    }
+
+    private static ServiceTask serviceTask(FieldExtension... fields) {
+        ServiceTask task = new ServiceTask();
+        task.setFieldExtensions(new ArrayList<>(List.of(fields)));
+        return task;
+    }
+
+    private static FieldExtension stringField(String name, String value) {
+        FieldExtension field = new FieldExtension();
+        field.setFieldName(name);
+        field.setStringValue(value);
+        return field;
+    }
+
+    private static FieldExtension expressionField(String name, String expression) {
+        FieldExtension field = new FieldExtension();
+        field.setFieldName(name);
+        field.setExpression(expression);
+        return field;
+    }
+
+    record TestConfig(String url, String method, Integer timeoutSeconds, Map<String, String> headers) {
+
+        TestConfig {
+            DelegateConfigBinder.required(url, "url");
+            method = method != null ? method : "POST";
+        }
+    }
+
+    record StaticConfig(String url, String method, Integer timeoutSeconds) {
+    }
+
+    record LiteralConfig(String url, @Literal String source) {
+    }
+}
@@ -0,0 +1,166 @@
+package com.werkflow.delegates.email;
+
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for EmailRelay and SmtpConnectionPool against an embedded SMTP stand-in
+ */
+class EmailRelayTest {
+
+    private FakeSmtpServer server;
+    private EmailRelay relay;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new FakeSmtpServer();
+
+        EmailProperties.Relay config = new EmailProperties.Relay();
+        config.setHost("localhost");
+        config.setPort(server.getPort());
+        config.setStartTls(false);
+        config.setFrom("noreply@werkflow.local");
+        config.setMaxConnections(2);
+        config.setMaxMessagesPerConnection(3);
+        config.setMaxMessagesPerSecond(0.0);
+        relay = new EmailRelay("test", config);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        relay.close();
+        server.close();
+    }
+
+    @Test
+    @DisplayName("Should send consecutive messages over one pooled connection")
+    void shouldReuseConnection() throws Exception {
+        send(2);
+        send(1);
+
+        assertEquals(3, server.messages.size());
+        assertEquals(1, server.connections.get());
+    }
+
+    @Test
+    @DisplayName("Should reconnect after max messages per connection")
+    void shouldReconnectAfterMaxMessages() throws Exception {
+        send(4);
+
+        assertEquals(4, server.messages.size());
+        assertEquals(2, server.connections.get());
+    }
+
+    @Test
+    @DisplayName("Should use the relay's sender when the email has none")
+    void shouldUseDefaultSender() throws Exception {
+        send(1);
+
+        assertTrue(server.messages.get(0).contains("From: noreply@werkflow.local"));
+        assertTrue(server.messages.get(0).contains("Subject: Message 0"));
+    }
+
+    private void send(int count) throws Exception {
+        SmtpConnectionPool.Connection connection = relay.getPool().borrow(Duration.ofSeconds(5));
+        for (int i = 0; i < count; i++) {
+            if (i > 0 && i % 3 == 0) {
+                relay.getPool().release(connection);
+                connection = relay.getPool().borrow(Duration.ofSeconds(5));
+            }
+            MimeMessage message = relay.createMessage(new OutboundEmail(null, "test", "user@example.com",
+                null, null, "Message " + i, "Body " + i, false, null, null, null));
+            connection.send(message);
+        }
+        relay.getPool().release(connection);
+    }
+
+    /**
+     * Minimal SMTP server accepting every message
+     */
+    private static class FakeSmtpServer implements AutoCloseable {
+
+        private final ServerSocket serverSocket = new ServerSocket(0);
+        private final AtomicInteger connections = new AtomicInteger();
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+
+        FakeSmtpServer() throws IOException {
+            Thread acceptor = new Thread(this::accept, "fake-smtp");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        private void accept() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    connections.incrementAndGet();
+                    Thread session = new Thread(() -> handle(socket), "fake-smtp-session");
+                    session.setDaemon(true);
+                    session.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void handle(Socket socket) {
+            try (socket) {
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                OutputStream out = socket.getOutputStream();
+                reply(out, "220 localhost ESMTP");
+
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.toUpperCase();
+                    if (command.startsWith("DATA")) {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        StringBuilder data = new StringBuilder();
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            data.append(line).append('\n');
+                        }
+                        messages.add(data.toString());
+                        reply(out, "250 OK");
+                    } else if (command.startsWith("QUIT")) {
+                        reply(out, "221 Bye");
+                        return;
+                    } else {
+                        reply(out, "250 OK");
+                    }
+                }
+            } catch (IOException e) {
+                // Client went away
+            }
+        }
+
+        private static void reply(OutputStream out, String line) throws IOException {
+            out.write((line + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.werkflow.delegates.form;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.werkflow.common.delegate.DelegateMetrics;
+import com.werkflow.delegates.rest.RestCallExecutor;
+import com.werkflow.delegates.retry.RetryProperties;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.runtime.Execution;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for FormRequestOutboxDispatcher correlation
+ */
+class FormRequestOutboxDispatcherTest {
+
+    private static final UUID ID = UUID.randomUUID();
+
+    private FormRequestOutbox outbox;
+    private RuntimeService runtimeService;
+    private FormRequestOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        outbox = mock(FormRequestOutbox.class);
+        runtimeService = mock(RuntimeService.class, RETURNS_DEEP_STUBS);
+        dispatcher = new FormRequestOutboxDispatcher(outbox, mock(RestCallExecutor.class), runtimeService,
+            new ObjectMapper(), new RetryProperties(), mock(DelegateMetrics.class),
+            true, 50, 120, 5000, 30);
+    }
+
+    @Test
+    @DisplayName("Should claim rows and trigger the waiting message catch event")
+    @SuppressWarnings("unchecked")
+    void shouldDeliverToWaitingExecution() {
+        claim(sent());
+        waitingExecution("exec-1");
+
+        dispatcher.correlate();
+
+        verify(outbox).claimUncorrelated(50, Duration.ofSeconds(120));
+        ArgumentCaptor<Map<String, Object>> variables = ArgumentCaptor.forClass(Map.class);
+        verify(runtimeService).messageEventReceived(eq("formRequestCompleted"), eq("exec-1"), variables.capture());
+        assertEquals("REQ-42", variables.getValue().get("formRequestId"));
+        assertEquals("OPEN", variables.getValue().get("formRequestStatus"));
+        verify(outbox).markCorrelated(ID);
+    }
+
+    @Test
+    @DisplayName("Should leave the row uncorrelated while the process is not waiting on the message")
+    void shouldDeferWhenNotWaiting() {
+        claim(sent());
+        waitingExecution(null);
+        when(runtimeService.createProcessInstanceQuery().processInstanceId("proc-1").count()).thenReturn(1L);
+
+        dispatcher.correlate();
+
+        verify(outbox).deferCorrelation(ID, Duration.ofMillis(5000));
+        verify(outbox, never()).markCorrelated(any());
+        verify(runtimeService, never()).setVariables(anyString(), anyMap());
+        verify(runtimeService, never()).messageEventReceived(anyString(), anyString(), anyMap());
+    }
+
+    @Test
+    @DisplayName("Should drop the outcome when the process instance has ended")
+    void shouldMarkCorrelatedWhenProcessEnded() {
+        claim(sent());
+        waitingExecution(null);
+        when(runtimeService.createProcessInstanceQuery().processInstanceId("proc-1").count()).thenReturn(0L);
+
+        dispatcher.correlate();
+
+        verify(outbox).markCorrelated(ID);
+        verify(outbox, never()).deferCorrelation(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should leave the claim to expire when delivery fails")
+    void shouldKeepRowWhenDeliveryFails() {
+        claim(sent());
+        waitingExecution("exec-1");
+        doThrow(new IllegalStateException("optimistic lock")).when(runtimeService)
+            .messageEventReceived(anyString(), anyString(), anyMap());
+
+        dispatcher.correlate();
+
+        verify(outbox, never()).markCorrelated(any());
+        verify(outbox, never()).deferCorrelation(any(), any());
+    }
+
+    private void claim(FormRequestOutbox.Entry... entries) {
+        when(outbox.claimUncorrelated(anyInt(), any())).thenReturn(List.of(entries));
+    }
+
+    private void waitingExecution(String executionId) {
+        List<Execution> executions = List.of();
+        if (executionId != null) {
+            Execution execution = mock(Execution.class);
+            when(execution.getId()).thenReturn(executionId);
+            executions = List.of(execution);
+        }
+        when(runtimeService.createExecutionQuery().processInstanceId("proc-1")
+            .messageEventSubscriptionName("formRequestCompleted").list()).thenReturn(executions);
+    }
+
+    private static FormRequestOutbox.Entry sent() {
+        return new FormRequestOutbox.Entry(ID, "key-1", "proc-1", "http://admin-service:8083/api/requests/it",
+            "{\"submittedAt\":\"2025-01-01T10:00:00\"}", "IT", "asset", "formRequestResponse",
+            "formRequestCompleted", false, "SENT", 1, null, "{\"requestId\":\"REQ-42\",\"status\":\"OPEN\"}");
+    }
+}
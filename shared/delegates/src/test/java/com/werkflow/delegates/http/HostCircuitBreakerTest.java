@@ -0,0 +1,145 @@
+package com.werkflow.delegates.http;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for HostCircuitBreaker and HostCircuitBreakers
+ */
+class HostCircuitBreakerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private long now;
+    private HostCircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        DelegateHttpProperties.Resilience settings = new DelegateHttpProperties.Resilience();
+        settings.setMinimumCalls(4);
+        settings.setWindowSize(4);
+        settings.setFailureRateThreshold(50);
+        settings.setOpenStateMs(1000L);
+        settings.setHalfOpenCalls(2);
+        settings.setMaxConcurrentCalls(3);
+        breaker = new HostCircuitBreaker("finance-service:8084", settings, () -> now);
+    }
+
+    @Test
+    @DisplayName("Should stay closed until the minimum number of calls is reached")
+    void shouldStayClosedBelowMinimumCalls() {
+        call(true);
+        call(true);
+        call(true);
+
+        assertEquals(HostCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    @DisplayName("Should open at the failure rate threshold and reject calls while open")
+    void shouldOpenAndReject() {
+        open();
+
+        assertFalse(breaker.tryAcquire());
+        assertEquals(1, breaker.getRejectedCalls());
+    }
+
+    @Test
+    @DisplayName("Should let a limited number of probes through once the open period is over")
+    void shouldLimitHalfOpenProbes() {
+        open();
+        now += TimeUnit.MILLISECONDS.toNanos(1000);
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(HostCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+
+        // A cancelled probe gives its permit back
+        breaker.release();
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Should close after successful probes")
+    void shouldCloseAfterSuccessfulProbes() {
+        open();
+        now += TimeUnit.MILLISECONDS.toNanos(1000);
+
+        call(false);
+        call(false);
+
+        assertEquals(HostCircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getConcurrentCalls());
+    }
+
+    @Test
+    @DisplayName("Should reopen when the probes fail")
+    void shouldReopenAfterFailedProbes() {
+        open();
+        now += TimeUnit.MILLISECONDS.toNanos(1000);
+
+        call(true);
+        call(false);
+
+        assertEquals(HostCircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Should reject calls beyond the bulkhead limit")
+    void shouldLimitConcurrentCalls() {
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onResult(FAST, false);
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Should reject URLs without a host instead of sharing a null breaker")
+    void shouldRejectUrlWithoutHost() {
+        assertEquals("finance-service:8084", HostCircuitBreakers.breakerName("http://finance-service:8084/api"));
+        assertEquals("example.com:443", HostCircuitBreakers.breakerName("https://example.com/api"));
+        assertThrows(IllegalArgumentException.class, () -> HostCircuitBreakers.breakerName("http://bad_host:8084/api"));
+        assertThrows(IllegalArgumentException.class, () -> HostCircuitBreakers.breakerName("/relative/path"));
+    }
+
+    @Test
+    @DisplayName("Should resolve the breaker on subscription and fail the Mono for a malformed URL")
+    void shouldResolveBreakerLazily() {
+        HostCircuitBreakers breakers = new HostCircuitBreakers(new DelegateHttpProperties());
+        AtomicBoolean called = new AtomicBoolean();
+
+        Mono<String> call = breakers.protect(null, "http://exa mple.com/api", () -> {
+            called.set(true);
+            return Mono.just("ok");
+        });
+
+        assertThrows(IllegalArgumentException.class, call::block);
+        assertFalse(called.get());
+        assertTrue(breakers.getBreakers().isEmpty());
+    }
+
+    private void open() {
+        call(true);
+        call(true);
+        call(false);
+        call(false);
+        assertEquals(HostCircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    private void call(boolean failed) {
+        assertTrue(breaker.tryAcquire());
+        breaker.onResult(FAST, failed);
+    }
+}
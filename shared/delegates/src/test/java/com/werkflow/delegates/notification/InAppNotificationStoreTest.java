@@ -0,0 +1,165 @@
+package com.werkflow.delegates.notification;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.Invocation;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for InAppNotificationStore writes and unread counters
+ */
+class InAppNotificationStoreTest {
+
+    private static final String COUNTER_UPSERT = "INSERT INTO in_app_notification_counters";
+    private static final String COUNTER_DECREMENT = "UPDATE in_app_notification_counters";
+
+    private JdbcTemplate jdbcTemplate;
+    private List<List<String>> insertedRows;
+    private List<List<Object>> counterUpdates;
+    private InAppNotificationStore store;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        insertedRows = new ArrayList<>();
+        counterUpdates = new ArrayList<>();
+        // Reject any statement that binds a NUL character, like PostgreSQL text columns do
+        when(jdbcTemplate.update(any(PreparedStatementCreator.class))).thenAnswer(invocation -> {
+            PreparedStatement statement = mock(PreparedStatement.class);
+            Connection connection = mock(Connection.class, call -> statement);
+            invocation.<PreparedStatementCreator>getArgument(0).createPreparedStatement(connection);
+
+            List<List<String>> rows = new ArrayList<>();
+            for (Invocation call : mockingDetails(statement).getInvocations()) {
+                if (!call.getMethod().getName().equals("setString")) {
+                    continue;
+                }
+                int column = ((int) call.getArgument(0) - 1) % 8;
+                if (column == 0) {
+                    rows.add(new ArrayList<>());
+                }
+                String value = call.getArgument(1);
+                if (value != null && value.indexOf('\0') >= 0) {
+                    throw new DataIntegrityViolationException("invalid byte sequence for encoding \"UTF8\": 0x00");
+                }
+                rows.get(rows.size() - 1).add(value);
+            }
+            insertedRows.addAll(rows);
+            return rows.size();
+        });
+        when(jdbcTemplate.batchUpdate(startsWith(COUNTER_UPSERT), anyList())).thenAnswer(invocation -> {
+            List<Object[]> args = invocation.getArgument(1);
+            args.forEach(row -> counterUpdates.add(Arrays.asList(row)));
+            return new int[args.size()];
+        });
+        store = new InAppNotificationStore(jdbcTemplate, mock(PlatformTransactionManager.class), 100, 100, 10);
+    }
+
+    @Test
+    @DisplayName("Should write a batch and add the unread count per user")
+    void shouldCountUnreadPerUser() {
+        store.record(List.of(notification("u2", "Approve PO"), notification("u1", "Approve PO"),
+            notification("u1", "Approve leave")));
+
+        store.start();
+        store.shutdown();
+
+        assertEquals(3, store.getWrittenNotifications());
+        assertEquals(3, insertedRows.size());
+        assertEquals(List.of(List.of("u1", 2), List.of("u2", 1)), counterUpdates);
+    }
+
+    @Test
+    @DisplayName("Should truncate oversized text and store an unknown priority as normal")
+    void shouldFitColumns() {
+        InAppNotification oversized = new InAppNotification(null, "u1", "proc-1", "t".repeat(600), "message",
+            "VERY-IMPORTANT-PRIORITY", "http://portal/" + "x".repeat(2000), "Open", Instant.now(), null);
+
+        store.record(List.of(oversized));
+        store.start();
+        store.shutdown();
+
+        List<String> row = insertedRows.get(0);
+        assertEquals(500, row.get(2).length());
+        assertEquals("normal", row.get(4));
+        assertEquals(1024, row.get(5).length());
+        assertEquals(1, store.getWrittenNotifications());
+    }
+
+    @Test
+    @DisplayName("Should retry a rejected batch row by row and count only the bad row as failed")
+    void shouldIsolateBadRow() {
+        store.record(List.of(notification("u1", "first"), notification("u2", "bad\0message"),
+            notification("u3", "third")));
+
+        store.start();
+        store.shutdown();
+
+        assertEquals(2, store.getWrittenNotifications());
+        assertEquals(1, store.getFailedNotifications());
+        assertEquals(List.of("u1", "u3"), insertedRows.stream().map(row -> row.get(0)).toList());
+        assertEquals(List.of(List.of("u1", 1), List.of("u3", 1)), counterUpdates);
+    }
+
+    @Test
+    @DisplayName("Should drop notifications without a recipient")
+    void shouldDropMissingRecipient() {
+        store.record(List.of(notification(" ", "nobody"), notification("u1", "someone")));
+
+        store.start();
+        store.shutdown();
+
+        assertEquals(1, store.getWrittenNotifications());
+        assertEquals(1, store.getFailedNotifications());
+    }
+
+    @Test
+    @DisplayName("Should decrement the unread counter by the rows actually marked read")
+    void shouldDecrementOnMarkRead() {
+        doReturn(2).when(jdbcTemplate).update(any(PreparedStatementCreator.class));
+
+        assertEquals(2, store.markRead("u1", List.of(1L, 2L, 3L)));
+
+        verify(jdbcTemplate).update(startsWith(COUNTER_DECREMENT), eq(2), eq("u1"));
+    }
+
+    @Test
+    @DisplayName("Should leave the counter alone when nothing was unread")
+    void shouldNotDecrementWhenNothingChanged() {
+        doReturn(0).when(jdbcTemplate).update(any(PreparedStatementCreator.class));
+
+        assertEquals(0, store.markRead("u1", List.of(1L)));
+        assertEquals(0, store.markRead("u1", List.of()));
+
+        verify(jdbcTemplate, never()).update(startsWith(COUNTER_DECREMENT), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should decrement the unread counter when marking everything read")
+    void shouldDecrementOnMarkAllRead() {
+        when(jdbcTemplate.update(startsWith("UPDATE in_app_notifications SET read_at"), eq("u1"))).thenReturn(4);
+
+        assertEquals(4, store.markAllRead("u1"));
+
+        verify(jdbcTemplate).update(startsWith(COUNTER_DECREMENT), eq(4), eq("u1"));
+    }
+
+    private static InAppNotification notification(String userId, String message) {
+        return new InAppNotification(null, userId, "proc-1", "Approval needed", message, "high",
+            null, null, Instant.now(), null);
+    }
+}
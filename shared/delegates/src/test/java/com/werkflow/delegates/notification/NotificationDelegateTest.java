@@ -0,0 +1,134 @@
+package com.werkflow.delegates.notification;
+
+import com.werkflow.common.delegate.DelegateVariables;
+import com.werkflow.delegates.config.DelegateConfigBinder;
+import com.werkflow.delegates.email.EmailDigester;
+import com.werkflow.delegates.email.EmailRelays;
+import com.werkflow.delegates.email.OutboundEmail;
+import com.werkflow.delegates.template.NotificationTemplates;
+import com.werkflow.delegates.template.RenderedMessage;
+import org.flowable.common.engine.api.async.AsyncTaskInvoker;
+import org.flowable.engine.delegate.DelegateExecution;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the NotificationDelegate channel fan-out
+ */
+class NotificationDelegateTest {
+
+    private ExecutorService executor;
+    private AsyncTaskInvoker invoker;
+    private EmailDigester emailDigester;
+    private InAppNotificationStore inAppNotificationStore;
+    private NotificationTemplates templates;
+    private NotificationProperties properties;
+    private DelegateVariables variables;
+    private DelegateConfigBinder configBinder;
+    private DelegateExecution execution;
+    private NotificationDelegate delegate;
+
+    @BeforeEach
+    void setUp() {
+        execution = mock(DelegateExecution.class);
+        when(execution.getProcessInstanceId()).thenReturn("proc-1");
+        executor = Executors.newCachedThreadPool();
+        invoker = mock(AsyncTaskInvoker.class);
+        when(invoker.submit(any())).thenAnswer(invocation -> {
+            Callable<?> task = invocation.getArgument(0);
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            executor.execute(() -> {
+                try {
+                    future.complete(task.call());
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            });
+            return future;
+        });
+
+        emailDigester = mock(EmailDigester.class);
+        EmailRelays emailRelays = mock(EmailRelays.class);
+        when(emailRelays.resolveName(null)).thenReturn("default");
+        inAppNotificationStore = mock(InAppNotificationStore.class);
+        templates = mock(NotificationTemplates.class);
+        when(templates.variables("notification", null)).thenReturn(Set.of("employeeName", "message"));
+        when(templates.renderBatch(eq("notification"), isNull(), anyList()))
+            .thenReturn(List.of(new RenderedMessage("Leave request", "Please review", null)));
+        properties = new NotificationProperties();
+        variables = mock(DelegateVariables.class);
+        when(variables.getAll(eq(execution), anySet())).thenAnswer(invocation -> new HashMap<>());
+        configBinder = mock(DelegateConfigBinder.class);
+
+        delegate = new NotificationDelegate(emailDigester, emailRelays, inAppNotificationStore, templates,
+            properties, variables, configBinder);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should report channels that fail in their task or in the transactional hand-off")
+    void shouldCollectFailedChannels() throws Exception {
+        configure("email,sms,in-app");
+        doThrow(new IllegalStateException("store unavailable")).when(inAppNotificationStore).record(anyList());
+
+        NotificationDelegate.NotificationResult result = delegate.execute(execution, invoker).get(5, TimeUnit.SECONDS);
+        delegate.afterExecution(execution, result);
+
+        verify(variables).getAll(execution, Set.of("employeeName"));
+        verify(emailDigester).submit(any(OutboundEmail.class), eq("normal"));
+        verify(variables).set(execution, "notificationSent", true);
+        verify(variables).set(execution, "notificationChannels", List.of("email", "sms"));
+        verify(variables).set(execution, "notificationFailedChannels", List.of("in-app"));
+        verify(variables).set(execution, "notificationRecipients", 1);
+    }
+
+    @Test
+    @DisplayName("Should fail a channel that exceeds its timeout and interrupt its task")
+    void shouldInterruptTimedOutChannel() throws Exception {
+        configure("email,in-app");
+        properties.getChannelTimeoutsMs().put("email", 50L);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(templates.renderBatch(eq("notification"), isNull(), anyList())).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(30_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            throw new IllegalStateException("interrupted");
+        });
+
+        NotificationDelegate.NotificationResult result = delegate.execute(execution, invoker).get(5, TimeUnit.SECONDS);
+        delegate.afterExecution(execution, result);
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        verify(emailDigester, never()).submit(any(), any());
+        verify(inAppNotificationStore).record(anyList());
+        verify(variables).set(execution, "notificationChannels", List.of("in-app"));
+        verify(variables).set(execution, "notificationFailedChannels", List.of("email"));
+    }
+
+    private void configure(String channels) {
+        when(configBinder.bind(execution, NotificationDelegate.NotificationConfig.class))
+            .thenReturn(new NotificationDelegate.NotificationConfig("jane@example.com", "Please review", channels,
+                null, null, null, null, null, null));
+    }
+}
@@ -0,0 +1,143 @@
+package com.werkflow.delegates.rest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BatchLoaders and BatchLoader
+ */
+class BatchLoadersTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(5);
+
+    private final List<RestRequest> requests = new CopyOnWriteArrayList<>();
+    private RestCallExecutor restCallExecutor;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        restCallExecutor = mock(RestCallExecutor.class);
+        when(restCallExecutor.execute(any())).thenAnswer(invocation -> {
+            RestRequest request = invocation.getArgument(0);
+            requests.add(request);
+            List<String> ids = ((Map<String, List<String>>) request.body()).get("ids");
+            // Echo one vendor per requested id, except "missing"
+            List<Object> vendors = ids.stream()
+                .filter(id -> !id.equals("missing"))
+                .map(id -> (Object) Map.of("id", id, "tags", List.of("preferred")))
+                .toList();
+            return Mono.just(Map.<String, Object>of("vendors", vendors));
+        });
+    }
+
+    @Test
+    @DisplayName("Should send concurrent lookups of one endpoint as a single bulk request")
+    void shouldBatchLookups() {
+        BatchLoaders loaders = new BatchLoaders(restCallExecutor, 10);
+        BatchLoaders.BatchEndpoint endpoint = endpoint("http://procurement-service:8085/api/vendors/batch");
+
+        List<Optional<Object>> results = Mono.zip(
+            lookup(loaders, endpoint, null, "1"),
+            lookup(loaders, endpoint, null, "2"),
+            lookup(loaders, endpoint, null, "1"),
+            lookup(loaders, endpoint, null, "missing")
+        ).map(tuple -> List.of(tuple.getT1(), tuple.getT2(), tuple.getT3(), tuple.getT4())).block(WAIT);
+
+        assertEquals(1, requests.size());
+        assertEquals(Map.of("ids", List.of("1", "2", "missing")), requests.get(0).body());
+        assertEquals("1", ((Map<?, ?>) results.get(0).orElseThrow()).get("id"));
+        assertEquals("2", ((Map<?, ?>) results.get(1).orElseThrow()).get("id"));
+        assertTrue(results.get(3).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should share the loader but send lookups with different headers separately")
+    void shouldKeepHeadersApart() {
+        BatchLoaders loaders = new BatchLoaders(restCallExecutor, 10);
+        BatchLoaders.BatchEndpoint endpoint = endpoint("http://procurement-service:8085/api/vendors/batch");
+        Map<String, String> alice = Map.of("Authorization", "Bearer alice");
+        Map<String, String> bob = Map.of("Authorization", "Bearer bob");
+
+        Mono.zip(
+            lookup(loaders, endpoint, alice, "1"),
+            lookup(loaders, endpoint, bob, "2"),
+            lookup(loaders, endpoint, alice, "3")
+        ).block(WAIT);
+
+        assertEquals(1, loaders.getLoaders().size());
+        assertEquals(2, requests.size());
+        RestRequest aliceRequest = requests.stream().filter(r -> alice.equals(r.headers())).findFirst().orElseThrow();
+        RestRequest bobRequest = requests.stream().filter(r -> bob.equals(r.headers())).findFirst().orElseThrow();
+        assertEquals(Map.of("ids", List.of("1", "3")), aliceRequest.body());
+        assertEquals(Map.of("ids", List.of("2")), bobRequest.body());
+    }
+
+    @Test
+    @DisplayName("Should keep at most max-loaders loaders, dropping the least recently used")
+    void shouldBoundLoaders() {
+        BatchLoaders loaders = new BatchLoaders(restCallExecutor, 2);
+        BatchLoaders.BatchEndpoint first = endpoint("http://a:8080/batch");
+        BatchLoaders.BatchEndpoint second = endpoint("http://b:8080/batch");
+        BatchLoaders.BatchEndpoint third = endpoint("http://c:8080/batch");
+
+        lookup(loaders, first, null, "1").block(WAIT);
+        lookup(loaders, second, null, "1").block(WAIT);
+        lookup(loaders, first, null, "2").block(WAIT);
+        lookup(loaders, third, null, "1").block(WAIT);
+
+        assertEquals(2, loaders.getLoaders().size());
+        assertTrue(loaders.getLoaders().containsKey(first));
+        assertTrue(loaders.getLoaders().containsKey(third));
+        assertFalse(loaders.getLoaders().containsKey(second));
+    }
+
+    @Test
+    @DisplayName("Should dispatch a group as soon as it reaches the maximum batch size")
+    void shouldDispatchFullBatch() {
+        BatchLoader<String> loader = new BatchLoader<>(
+            (group, keys) -> Mono.just(Map.<String, Object>of("a", group + ":" + keys, "b", group + ":" + keys)),
+            60_000, 2, Schedulers.parallel());
+
+        Object result = Mono.zip(loader.load("g", "a"), loader.load("g", "b")).block(WAIT).getT1();
+
+        assertEquals("g:[a, b]", result);
+        assertEquals(1, loader.getBatches());
+        assertEquals(2, loader.getKeys());
+    }
+
+    @Test
+    @DisplayName("Should give each waiter its own copy of the entity")
+    @SuppressWarnings("unchecked")
+    void shouldCopyEntities() {
+        BatchLoaders loaders = new BatchLoaders(restCallExecutor, 10);
+        BatchLoaders.BatchEndpoint endpoint = endpoint("http://procurement-service:8085/api/vendors/batch");
+
+        var both = Mono.zip(lookup(loaders, endpoint, null, "1"), lookup(loaders, endpoint, null, "1")).block(WAIT);
+        Map<String, Object> mine = (Map<String, Object>) both.getT1().orElseThrow();
+        ((List<Object>) mine.get("tags")).add("changed");
+
+        Map<String, Object> theirs = (Map<String, Object>) both.getT2().orElseThrow();
+        assertEquals(List.of("preferred"), theirs.get("tags"));
+    }
+
+    private static Mono<Optional<Object>> lookup(BatchLoaders loaders, BatchLoaders.BatchEndpoint endpoint,
+                                                 Map<String, String> headers, String key) {
+        return loaders.load(endpoint, headers, key).map(Optional::of).defaultIfEmpty(Optional.empty());
+    }
+
+    private static BatchLoaders.BatchEndpoint endpoint(String url) {
+        return new BatchLoaders.BatchEndpoint(url, "ids", "vendors", "id", 20, 100, 30, null);
+    }
+}
@@ -0,0 +1,103 @@
+package com.werkflow.delegates.rest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for InFlightBudget
+ */
+class InFlightBudgetTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(5);
+
+    @Test
+    @DisplayName("Should free the slot when the call supplier throws")
+    void shouldReleaseSlotOnSynchronousThrow() {
+        InFlightBudget budget = new InFlightBudget(1, 1, WAIT);
+
+        Mono<String> failing = budget.run(() -> {
+            throw new IllegalArgumentException("Illegal character in URL");
+        });
+
+        assertThrows(IllegalArgumentException.class, () -> failing.block(WAIT));
+        assertEquals(0, budget.getInFlight());
+        assertEquals("ok", budget.run(() -> Mono.just("ok")).block(WAIT));
+    }
+
+    @Test
+    @DisplayName("Should fail a queued call whose supplier throws instead of hanging")
+    void shouldFailQueuedCallOnSynchronousThrow() {
+        InFlightBudget budget = new InFlightBudget(1, 1, WAIT);
+        Sinks.One<String> first = Sinks.one();
+        Mono<String> running = budget.run(first::asMono);
+        running.subscribe();
+
+        Mono<String> queued = budget.run(() -> {
+            throw new IllegalArgumentException("Illegal character in URL");
+        });
+        Sinks.One<Throwable> failure = Sinks.one();
+        queued.subscribe(value -> { }, failure::tryEmitValue);
+        assertEquals(1, budget.getQueued());
+
+        first.tryEmitValue("done");
+
+        assertInstanceOf(IllegalArgumentException.class, failure.asMono().block(WAIT));
+        assertEquals(0, budget.getInFlight());
+        assertEquals(0, budget.getQueued());
+    }
+
+    @Test
+    @DisplayName("Should not start a call cancelled while queued")
+    void shouldNotStartCancelledCall() {
+        InFlightBudget budget = new InFlightBudget(1, 1, WAIT);
+        Sinks.One<String> first = Sinks.one();
+        budget.run(first::asMono).subscribe();
+
+        AtomicBoolean started = new AtomicBoolean();
+        Disposable queued = budget.run(() -> {
+            started.set(true);
+            return Mono.just("late");
+        }).subscribe();
+        queued.dispose();
+
+        assertEquals(0, budget.getQueued());
+        first.tryEmitValue("done");
+
+        assertFalse(started.get());
+        assertEquals(0, budget.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Should time out calls that wait too long for a slot")
+    void shouldTimeOutQueuedCall() {
+        InFlightBudget budget = new InFlightBudget(1, 1, Duration.ofMillis(50));
+        budget.run(() -> Sinks.<String>one().asMono()).subscribe();
+
+        Mono<String> queued = budget.run(() -> Mono.just("late"));
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> queued.block(WAIT));
+        assertInstanceOf(TimeoutException.class, Exceptions.unwrap(e));
+        assertEquals(0, budget.getQueued());
+        assertEquals(1, budget.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Should reject calls when the queue is full")
+    void shouldRejectWhenQueueFull() {
+        InFlightBudget budget = new InFlightBudget(1, 0, WAIT);
+        budget.run(() -> Sinks.<String>one().asMono()).subscribe();
+
+        assertThrows(RejectedExecutionException.class, () -> budget.run(() -> Mono.just("x")).block(WAIT));
+    }
+}
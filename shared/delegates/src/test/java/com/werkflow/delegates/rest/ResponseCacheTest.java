@@ -0,0 +1,146 @@
+package com.werkflow.delegates.rest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ResponseCache and the derived cache key
+ */
+class ResponseCacheTest {
+
+    private static final Duration TTL = Duration.ofSeconds(60);
+
+    private MutableClock clock;
+    private ResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-01-01T10:00:00Z"));
+        cache = new ResponseCache(2, Duration.ofSeconds(30), clock);
+    }
+
+    @Test
+    @DisplayName("Should serve fresh, then stale with a single revalidator, then miss")
+    void shouldFollowStaleWhileRevalidate() {
+        cache.put("a", Map.of("id", 1), TTL);
+        assertEquals(ResponseCache.State.FRESH, cache.get("a").state());
+
+        clock.advance(Duration.ofSeconds(70));
+        ResponseCache.Lookup first = cache.get("a");
+        ResponseCache.Lookup second = cache.get("a");
+        assertEquals(ResponseCache.State.STALE, first.state());
+        assertTrue(first.revalidate());
+        assertFalse(second.revalidate());
+
+        cache.revalidationFailed("a");
+        assertTrue(cache.get("a").revalidate());
+
+        clock.advance(Duration.ofSeconds(30));
+        assertEquals(ResponseCache.State.MISSING, cache.get("a").state());
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used entry when full")
+    void shouldEvictLeastRecentlyUsed() {
+        cache.put("a", Map.of("id", 1), TTL);
+        cache.put("b", Map.of("id", 2), TTL);
+        cache.get("a");
+
+        cache.put("c", Map.of("id", 3), TTL);
+
+        assertEquals(2, cache.size());
+        assertEquals(ResponseCache.State.FRESH, cache.get("a").state());
+        assertEquals(ResponseCache.State.MISSING, cache.get("b").state());
+        assertEquals(ResponseCache.State.FRESH, cache.get("c").state());
+    }
+
+    @Test
+    @DisplayName("Should evict entries past their grace period before recently used ones")
+    void shouldEvictExpiredFirst() {
+        cache.put("b", Map.of("id", 2), TTL);
+        cache.put("a", Map.of("id", 1), Duration.ofSeconds(1));
+        clock.advance(Duration.ofSeconds(40));
+        assertEquals(ResponseCache.State.MISSING, cache.get("a").state());
+
+        cache.put("c", Map.of("id", 3), TTL);
+
+        assertEquals(2, cache.size());
+        assertEquals(ResponseCache.State.FRESH, cache.get("b").state());
+        assertEquals(ResponseCache.State.FRESH, cache.get("c").state());
+    }
+
+    @Test
+    @DisplayName("Should hand out deep copies of cached responses")
+    @SuppressWarnings("unchecked")
+    void shouldReturnCopies() {
+        cache.put("a", Map.of("id", 1, "owner", Map.of("name", "alice"), "lines", List.of("travel")), TTL);
+
+        Map<String, Object> response = cache.get("a").response();
+        response.put("id", 2);
+        ((Map<String, Object>) response.get("owner")).put("name", "changed");
+        ((List<Object>) response.get("lines")).add("extra");
+
+        Map<String, Object> cached = cache.get("a").response();
+        assertEquals(1, cached.get("id"));
+        assertEquals(Map.of("name", "alice"), cached.get("owner"));
+        assertEquals(List.of("travel"), cached.get("lines"));
+    }
+
+    @Test
+    @DisplayName("Should keep credentials out of the derived cache key")
+    void shouldHashHeadersInCacheKey() {
+        RestRequest alice = get(Map.of("Authorization", "Bearer alice-token"));
+        RestRequest bob = get(Map.of("Authorization", "Bearer bob-token"));
+
+        String key = RestCallExecutor.cacheKey(alice);
+
+        assertFalse(key.contains("alice-token"));
+        assertTrue(key.startsWith("GET http://finance-service:8084/api/budgets/1 "));
+        assertEquals(key, RestCallExecutor.cacheKey(get(Map.of("Authorization", "Bearer alice-token"))));
+        assertNotEquals(key, RestCallExecutor.cacheKey(bob));
+    }
+
+    private static RestRequest get(Map<String, String> headers) {
+        return new RestRequest("http://finance-service:8084/api/budgets/1", "GET", headers, null,
+            30, 60, null, null, true, null);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
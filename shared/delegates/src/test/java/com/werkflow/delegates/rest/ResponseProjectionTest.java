@@ -0,0 +1,115 @@
+package com.werkflow.delegates.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ResponseProjection
+ */
+class ResponseProjectionTest {
+
+    private static final String JSON = """
+        {
+          "meta": {"page": 1, "ignored": [1, 2, {"deep": true}]},
+          "data": {
+            "vendor": {"name": "Acme", "address": {"city": "Berlin"}},
+            "items": [{"id": 10}, {"id": 11, "tags": ["a", "b"]}],
+            "a/b": "slash",
+            "c~d": "tilde",
+            "x.y": "dot"
+          }
+        }
+        """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should translate JSONPath member and index access to JSON pointers")
+    void shouldTranslateJsonPath() {
+        assertEquals("/data/vendor/name", ResponseProjection.toPointer("$.data.vendor.name"));
+        assertEquals("/data/items/0/id", ResponseProjection.toPointer("$.data.items[0].id"));
+        assertEquals("/data/items/1/tags/0", ResponseProjection.toPointer("$.data.items[1].tags[0]"));
+        assertEquals("/data/vendor", ResponseProjection.toPointer("$['data'][\"vendor\"]"));
+        assertEquals("", ResponseProjection.toPointer("$"));
+        assertEquals("/data/vendor", ResponseProjection.toPointer(" /data/vendor "));
+    }
+
+    @Test
+    @DisplayName("Should escape '/' and '~' in member names")
+    void shouldEscapeMemberNames() {
+        assertEquals("/data/a~1b", ResponseProjection.toPointer("$.data['a/b']"));
+        assertEquals("/data/c~0d", ResponseProjection.toPointer("$.data.c~d"));
+        assertEquals("/data/x.y", ResponseProjection.toPointer("$.data['x.y']"));
+    }
+
+    @Test
+    @DisplayName("Should reject JSONPath syntax that has no JSON pointer equivalent")
+    void shouldRejectUnsupportedSyntax() {
+        for (String path : List.of("$..name", "$.data.*", "$.data.", "$.items[*]", "$.items[?(@.id > 1)]",
+            "$.items[0:2]", "$.items[0,1]", "$.items[-1]", "$.items[]", "$x", "data.vendor")) {
+            assertThrows(IllegalArgumentException.class, () -> ResponseProjection.toPointer(path), path);
+        }
+        assertThrows(IllegalArgumentException.class, () -> ResponseProjection.toPointer("$.items[0"));
+    }
+
+    @Test
+    @DisplayName("Should extract mapped values and leave missing paths null")
+    void shouldExtractMappedValues() throws Exception {
+        Map<String, String> mapping = new LinkedHashMap<>();
+        mapping.put("$.data.vendor.name", "vendorName");
+        mapping.put("$.data.items[1].tags", "tags");
+        mapping.put("$.data.items[5].id", "missingItem");
+        mapping.put("$.data['a/b']", "slash");
+        mapping.put("/data/c~0d", "tilde");
+        mapping.put("$.data['x.y']", "dot");
+
+        Map<String, Object> values = extract(mapping);
+
+        assertEquals("Acme", values.get("vendorName"));
+        assertEquals(List.of("a", "b"), values.get("tags"));
+        assertNull(values.get("missingItem"));
+        assertTrue(values.containsKey("missingItem"));
+        assertEquals("slash", values.get("slash"));
+        assertEquals("tilde", values.get("tilde"));
+        assertEquals("dot", values.get("dot"));
+    }
+
+    @Test
+    @DisplayName("Should resolve paths nested under another mapped path")
+    void shouldExtractNestedPaths() throws Exception {
+        Map<String, Object> values = extract(Map.of(
+            "$.data.vendor", "vendor",
+            "$.data.vendor.address.city", "city",
+            "$.data.vendor.phone", "phone"));
+
+        assertEquals(Map.of("name", "Acme", "address", Map.of("city", "Berlin")), values.get("vendor"));
+        assertEquals("Berlin", values.get("city"));
+        assertNull(values.get("phone"));
+    }
+
+    @Test
+    @DisplayName("Should have a stable textual form regardless of mapping order")
+    void shouldHaveStableToString() {
+        Map<String, String> first = new LinkedHashMap<>();
+        first.put("$.b", "b");
+        first.put("$.a", "a");
+        Map<String, String> second = new LinkedHashMap<>();
+        second.put("/a", "a");
+        second.put("/b", "b");
+
+        assertEquals(ResponseProjection.of(first).toString(), ResponseProjection.of(second).toString());
+        assertNull(ResponseProjection.of(Map.of()));
+    }
+
+    private Map<String, Object> extract(Map<String, String> mapping) throws Exception {
+        return ResponseProjection.of(mapping).extract(objectMapper, JSON.getBytes(StandardCharsets.UTF_8));
+    }
+}
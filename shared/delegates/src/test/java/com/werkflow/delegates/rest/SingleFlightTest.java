@@ -0,0 +1,108 @@
+package com.werkflow.delegates.rest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SingleFlight
+ */
+class SingleFlightTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(5);
+
+    @Test
+    @DisplayName("Should issue one call for concurrent callers with the same key")
+    void shouldCoalesceConcurrentCalls() {
+        SingleFlight singleFlight = new SingleFlight();
+        Sinks.One<Map<String, Object>> response = Sinks.one();
+        AtomicInteger started = new AtomicInteger();
+
+        Mono<Map<String, Object>> first = singleFlight.execute("GET /budgets/1", () -> {
+            started.incrementAndGet();
+            return response.asMono();
+        }).cache();
+        Mono<Map<String, Object>> second = singleFlight.execute("GET /budgets/1", () -> {
+            started.incrementAndGet();
+            return Mono.just(Map.of());
+        }).cache();
+        first.subscribe();
+        second.subscribe();
+
+        assertEquals(1, singleFlight.size());
+        response.tryEmitValue(budget());
+
+        assertEquals(1000, first.block(WAIT).get("amount"));
+        assertEquals(1000, second.block(WAIT).get("amount"));
+        assertEquals(1, started.get());
+        assertEquals(1, singleFlight.getCalls());
+        assertEquals(1, singleFlight.getCoalesced());
+        assertEquals(0, singleFlight.size());
+    }
+
+    @Test
+    @DisplayName("Should give each waiter its own copy of nested objects and arrays")
+    @SuppressWarnings("unchecked")
+    void shouldDeepCopyResponses() {
+        SingleFlight singleFlight = new SingleFlight();
+        Sinks.One<Map<String, Object>> response = Sinks.one();
+
+        Mono<Map<String, Object>> first = singleFlight.execute("k", response::asMono).cache();
+        Mono<Map<String, Object>> second = singleFlight.execute("k", response::asMono).cache();
+        first.subscribe();
+        second.subscribe();
+        response.tryEmitValue(budget());
+
+        Map<String, Object> mine = first.block(WAIT);
+        ((Map<String, Object>) mine.get("owner")).put("name", "changed");
+        ((List<Object>) mine.get("lines")).add("extra");
+
+        Map<String, Object> theirs = second.block(WAIT);
+        assertEquals("alice", ((Map<String, Object>) theirs.get("owner")).get("name"));
+        assertEquals(List.of("travel"), theirs.get("lines"));
+    }
+
+    @Test
+    @DisplayName("Should fail every waiter and forget the key when the call fails")
+    void shouldShareFailures() {
+        SingleFlight singleFlight = new SingleFlight();
+        Sinks.One<Map<String, Object>> response = Sinks.one();
+
+        Mono<Map<String, Object>> first = singleFlight.execute("k", response::asMono).cache();
+        Mono<Map<String, Object>> second = singleFlight.execute("k", response::asMono).cache();
+        first.subscribe(value -> { }, e -> { });
+        second.subscribe(value -> { }, e -> { });
+        response.tryEmitError(new IllegalStateException("503"));
+
+        assertThrows(IllegalStateException.class, () -> first.block(WAIT));
+        assertThrows(IllegalStateException.class, () -> second.block(WAIT));
+        assertEquals(0, singleFlight.size());
+
+        Map<String, Object> retried = singleFlight.execute("k", () -> Mono.just(budget())).block(WAIT);
+        assertEquals(1000, retried.get("amount"));
+        assertEquals(2, singleFlight.getCalls());
+    }
+
+    private static Map<String, Object> budget() {
+        Map<String, Object> owner = new LinkedHashMap<>();
+        owner.put("name", "alice");
+        List<Object> lines = new ArrayList<>();
+        lines.add("travel");
+
+        Map<String, Object> budget = new LinkedHashMap<>();
+        budget.put("amount", 1000);
+        budget.put("owner", owner);
+        budget.put("lines", lines);
+        return budget;
+    }
+}
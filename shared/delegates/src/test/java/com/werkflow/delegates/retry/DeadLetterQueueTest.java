@@ -0,0 +1,119 @@
+package com.werkflow.delegates.retry;
+
+import com.werkflow.common.delegate.DelegateMetrics;
+import com.werkflow.common.delegate.DelegateMetricsProperties;
+import com.werkflow.delegates.email.EmailOutbox;
+import com.werkflow.delegates.form.FormRequestOutbox;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flowable.bpmn.model.BpmnModel;
+import org.flowable.bpmn.model.ImplementationType;
+import org.flowable.bpmn.model.Process;
+import org.flowable.bpmn.model.ServiceTask;
+import org.flowable.engine.ManagementService;
+import org.flowable.engine.RepositoryService;
+import org.flowable.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.flowable.job.api.Job;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DeadLetterQueue
+ */
+class DeadLetterQueueTest {
+
+    private ManagementService managementService;
+    private EmailOutbox emailOutbox;
+    private DeadLetterQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        managementService = mock(ManagementService.class, RETURNS_DEEP_STUBS);
+        emailOutbox = mock(EmailOutbox.class);
+
+        ServiceTask callVendor = new ServiceTask();
+        callVendor.setId("callVendor");
+        callVendor.setImplementationType(ImplementationType.IMPLEMENTATION_TYPE_DELEGATEEXPRESSION);
+        callVendor.setImplementation("${restServiceDelegate}");
+        Process process = new Process();
+        process.addFlowElement(callVendor);
+        BpmnModel model = new BpmnModel();
+        model.addProcess(process);
+        RepositoryService repositoryService = mock(RepositoryService.class);
+        when(repositoryService.getBpmnModel("procurement:1")).thenReturn(model);
+
+        ProcessEngineConfigurationImpl engineConfiguration = mock(ProcessEngineConfigurationImpl.class);
+        when(engineConfiguration.getAsyncExecutorNumberOfRetries()).thenReturn(3);
+
+        RetryProperties retryProperties = new RetryProperties();
+        RetryProperties.Policy rest = new RetryProperties.Policy();
+        rest.setMaxAttempts(8);
+        retryProperties.getDelegates().put("restServiceDelegate", rest);
+
+        DelegateMetrics metrics = new DelegateMetrics(
+            new StaticListableBeanFactory(Map.of("registry", new SimpleMeterRegistry()))
+                .getBeanProvider(MeterRegistry.class),
+            new DelegateMetricsProperties());
+        queue = new DeadLetterQueue(managementService, repositoryService, engineConfiguration, emailOutbox,
+            mock(FormRequestOutbox.class), retryProperties, metrics);
+    }
+
+    @Test
+    @DisplayName("Should derive the attempts of dead letter jobs from their retries left")
+    void shouldReportJobAttempts() {
+        Job delegateJob = job("j1", "callVendor", 3);
+        Job timerJob = job("j2", "reminderTimer", 0);
+        when(managementService.createDeadLetterJobQuery().orderByJobDuedate().desc().listPage(0, 10))
+            .thenReturn(List.of(delegateJob, timerJob));
+
+        List<DeadLetter> deadLetters = queue.list(DeadLetter.Source.JOB, 10);
+
+        assertEquals("restServiceDelegate", deadLetters.get(0).delegate());
+        assertEquals(5, deadLetters.get(0).attempts());
+        assertNull(deadLetters.get(1).delegate());
+        assertEquals(3, deadLetters.get(1).attempts());
+    }
+
+    @Test
+    @DisplayName("Should retry a dead letter job with the attempts of its delegate's policy")
+    void shouldRetryWithPolicyAttempts() {
+        Job deadLetter = job("j1", "callVendor", 0);
+        when(managementService.createDeadLetterJobQuery().jobId("j1").singleResult()).thenReturn(deadLetter);
+        when(managementService.createDeadLetterJobQuery().jobId("gone").singleResult()).thenReturn(null);
+
+        assertEquals(1, queue.retry(DeadLetter.Source.JOB, List.of("j1", "gone")));
+
+        verify(managementService).moveDeadLetterJobToExecutableJob("j1", 8);
+        verify(managementService, never()).moveDeadLetterJobToExecutableJob(eq("gone"), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should reject malformed ids as invalid input")
+    void shouldRejectMalformedIds() {
+        assertThrows(IllegalArgumentException.class,
+            () -> queue.retry(DeadLetter.Source.EMAIL, List.of("not-a-uuid")));
+        assertThrows(IllegalArgumentException.class,
+            () -> queue.discard(DeadLetter.Source.EMAIL, List.of("1-2-3-4-5")));
+        assertThrows(IllegalArgumentException.class,
+            () -> queue.retry(DeadLetter.Source.JOB, Arrays.asList("j1", null)));
+        verifyNoInteractions(emailOutbox);
+    }
+
+    private static Job job(String id, String elementId, int retries) {
+        Job job = mock(Job.class);
+        when(job.getId()).thenReturn(id);
+        when(job.getProcessDefinitionId()).thenReturn("procurement:1");
+        when(job.getElementId()).thenReturn(elementId);
+        when(job.getRetries()).thenReturn(retries);
+        return job;
+    }
+}
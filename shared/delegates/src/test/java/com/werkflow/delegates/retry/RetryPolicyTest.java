@@ -0,0 +1,78 @@
+package com.werkflow.delegates.retry;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for retry policies and failure classification
+ */
+class RetryPolicyTest {
+
+    private final RetryPolicy policy = new RetryPolicy(5, Duration.ofSeconds(1), 2.0, Duration.ofSeconds(5), 0.5);
+
+    @Test
+    @DisplayName("Should grow the delay exponentially up to the maximum")
+    void shouldBackOffExponentially() {
+        assertEquals(Duration.ofSeconds(1), policy.backoff(1, 0));
+        assertEquals(Duration.ofSeconds(2), policy.backoff(2, 0));
+        assertEquals(Duration.ofSeconds(4), policy.backoff(3, 0));
+        assertEquals(Duration.ofSeconds(5), policy.backoff(4, 0));
+        assertEquals(Duration.ofSeconds(5), policy.backoff(60, 0));
+    }
+
+    @Test
+    @DisplayName("Should take up to the jitter share off the delay")
+    void shouldApplyJitter() {
+        assertEquals(Duration.ofMillis(1000), policy.backoff(2, 1));
+        assertEquals(Duration.ofMillis(1500), policy.backoff(2, 0.5));
+        Duration delay = policy.backoff(3);
+        assertTrue(delay.toMillis() > 2000 && delay.toMillis() <= 4000);
+    }
+
+    @Test
+    @DisplayName("Should be exhausted after max attempts")
+    void shouldBeExhaustedAfterMaxAttempts() {
+        assertFalse(policy.exhausted(4));
+        assertTrue(policy.exhausted(5));
+    }
+
+    @Test
+    @DisplayName("Should retry transient failures but not client errors or invalid input")
+    void shouldClassifyFailures() {
+        assertTrue(RetryPolicy.isRetryable(new TimeoutException("timed out")));
+        assertTrue(RetryPolicy.isRetryable(new RuntimeException("call failed", new IOException("reset"))));
+        assertTrue(RetryPolicy.isRetryable(response(HttpStatus.SERVICE_UNAVAILABLE)));
+        assertTrue(RetryPolicy.isRetryable(response(HttpStatus.TOO_MANY_REQUESTS)));
+        assertFalse(RetryPolicy.isRetryable(new RuntimeException("call failed", response(HttpStatus.BAD_REQUEST))));
+        assertFalse(RetryPolicy.isRetryable(new IllegalArgumentException("Required variable 'url' is not set")));
+    }
+
+    @Test
+    @DisplayName("Should fill delegate policies from the defaults")
+    void shouldMergeWithDefaults() {
+        RetryProperties properties = new RetryProperties();
+        RetryProperties.Policy email = new RetryProperties.Policy();
+        email.setMaxAttempts(8);
+        properties.getDelegates().put("emailDelegate", email);
+
+        RetryPolicy merged = properties.policy("emailDelegate");
+
+        assertEquals(8, merged.maxAttempts());
+        assertEquals(properties.policy(null).initialBackoff(), merged.initialBackoff());
+        assertEquals(5, properties.policy("restServiceDelegate").maxAttempts());
+    }
+
+    private static WebClientResponseException response(HttpStatus status) {
+        return WebClientResponseException.create(status.value(), status.getReasonPhrase(), HttpHeaders.EMPTY,
+            new byte[0], null);
+    }
+}
@@ -0,0 +1,61 @@
+package com.werkflow.delegates.template;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for NotificationTemplates
+ */
+class NotificationTemplatesTest {
+
+    private static final Map<String, Object> VARIABLES = Map.of("name", "Jane", "item", "laptop");
+
+    private NotificationTemplates templates;
+
+    @BeforeEach
+    void setUp() {
+        templates = new NotificationTemplates(new DefaultResourceLoader(), "classpath:/templates/test", 2);
+    }
+
+    @Test
+    @DisplayName("Should fall back from country to language to the default template")
+    void shouldFallBackByLocale() {
+        RenderedMessage swiss = templates.render("greeting", Locale.forLanguageTag("de-CH"), VARIABLES);
+        RenderedMessage french = templates.render("greeting", Locale.FRENCH, VARIABLES);
+
+        assertEquals("Hello Jane", swiss.subject());
+        assertEquals("Hallo Jane, laptop ist bereit.", swiss.body());
+        assertFalse(swiss.isHtml());
+        assertEquals("Hi Jane, your laptop is ready.", french.body());
+        assertEquals(Set.of("name", "item"), templates.variables("greeting", null));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown templates and invalid keys")
+    void shouldRejectUnknownTemplates() {
+        assertThrows(IllegalArgumentException.class, () -> templates.render("missing", null, VARIABLES));
+        assertThrows(IllegalArgumentException.class, () -> templates.render("../greeting", null, VARIABLES));
+    }
+
+    @Test
+    @DisplayName("Should reuse inline templates and evict the least recently used")
+    void shouldEvictLeastRecentlyUsedInlineTemplate() {
+        CompiledTemplate a = templates.inline("a {{name}}", TemplateFormat.TEXT);
+        CompiledTemplate b = templates.inline("b {{name}}", TemplateFormat.TEXT);
+        assertSame(a, templates.inline("a {{name}}", TemplateFormat.TEXT));
+        templates.inline("c {{name}}", TemplateFormat.TEXT);
+
+        assertEquals(2, templates.inlineSize());
+        assertSame(a, templates.inline("a {{name}}", TemplateFormat.TEXT));
+        assertNotSame(b, templates.inline("b {{name}}", TemplateFormat.TEXT));
+        assertEquals("a Jane", a.render(VARIABLES));
+    }
+}
@@ -0,0 +1,89 @@
+package com.werkflow.delegates.template;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TemplateParser and CompiledTemplate
+ */
+class TemplateParserTest {
+
+    @Test
+    @DisplayName("Should escape values in HTML templates only")
+    void shouldEscapeHtmlValues() {
+        Map<String, Object> variables = Map.of("name", "<b>Tom & \"Jerry\"</b>");
+
+        assertEquals("&lt;b&gt;Tom &amp; &quot;Jerry&quot;&lt;/b&gt; | <b>Tom & \"Jerry\"</b>",
+            TemplateParser.compile("{{name}} | {{{name}}}", TemplateFormat.HTML).render(variables));
+        assertEquals("<b>Tom & \"Jerry\"</b>",
+            TemplateParser.compile("{{name}}", TemplateFormat.TEXT).render(variables));
+    }
+
+    @Test
+    @DisplayName("Should render nested paths and leave missing values empty")
+    void shouldRenderPaths() {
+        CompiledTemplate template = TemplateParser.compile("{{employee.name}} ({{employee.team}}){{! note }}",
+            TemplateFormat.TEXT);
+
+        assertEquals("Jane ()", template.render(Map.of("employee", Map.of("name", "Jane"))));
+        assertEquals(" ()", template.render(Map.of()));
+    }
+
+    @Test
+    @DisplayName("Should render the if or else branch by truthiness")
+    void shouldRenderConditionals() {
+        CompiledTemplate template = TemplateParser.compile("{{#if vip}}VIP{{else}}regular{{/if}}",
+            TemplateFormat.TEXT);
+
+        assertEquals("VIP", template.render(Map.of("vip", true)));
+        assertEquals("VIP", template.render(Map.of("vip", List.of(1))));
+        assertEquals("regular", template.render(Map.of("vip", false)));
+        assertEquals("regular", template.render(Map.of("vip", "")));
+        assertEquals("regular", template.render(Map.of("vip", List.of())));
+        assertEquals("regular", template.render(Map.of()));
+    }
+
+    @Test
+    @DisplayName("Should repeat each items with the item scope first and fall back to else when empty")
+    void shouldRenderEach() {
+        CompiledTemplate template = TemplateParser.compile(
+            "{{#each items}}{{name}}@{{company}};{{else}}none{{/each}}", TemplateFormat.TEXT);
+        Map<String, Object> variables = Map.of("company", "ACME", "name", "outer",
+            "items", List.of(Map.of("name", "a"), Map.of("name", "b", "company", "Other")));
+
+        assertEquals("a@ACME;b@Other;", template.render(variables));
+        assertEquals("none", template.render(Map.of("items", List.of())));
+        assertEquals("x,y,", TemplateParser.compile("{{#each tags}}{{this}},{{/each}}", TemplateFormat.TEXT)
+            .render(Map.of("tags", new String[]{"x", "y"})));
+    }
+
+    @Test
+    @DisplayName("Should reject malformed templates with the line of the error")
+    void shouldRejectMalformedTemplates() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+            () -> TemplateParser.compile("Hello\n{{name", TemplateFormat.TEXT));
+        assertTrue(error.getMessage().contains("line 2"));
+        assertTrue(error.getMessage().contains("unterminated tag"));
+
+        for (String source : List.of("{{#if a}}x", "{{/each}}", "{{#if a}}{{/each}}", "{{else}}",
+            "{{#if a}}{{else}}{{else}}{{/if}}", "{{#with a}}{{/with}}", "{{a b}}", "{{}}")) {
+            assertThrows(IllegalArgumentException.class, () -> TemplateParser.compile(source, TemplateFormat.TEXT),
+                source);
+        }
+    }
+
+    @Test
+    @DisplayName("Should list the top-level variables a template references")
+    void shouldListReferencedVariables() {
+        CompiledTemplate template = TemplateParser.compile(
+            "{{a}}{{#each items}}{{this}}{{b.c}}{{/each}}{{#if d}}{{{e}}}{{else}}{{f}}{{/if}}", TemplateFormat.TEXT);
+
+        assertEquals(Set.of("a", "items", "b", "d", "e", "f"), template.getVariables());
+    }
+}
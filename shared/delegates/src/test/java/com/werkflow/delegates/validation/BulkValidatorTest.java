@@ -0,0 +1,100 @@
+package com.werkflow.delegates.validation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BulkValidator and the CSV/JSON record sources
+ */
+class BulkValidatorTest {
+
+    private static final ValidationProgram PROGRAM = ValidationProgram.compile(Map.of(
+        "email", "required,email",
+        "salary", "min:0",
+        "status", "in:ACTIVE|ON_LEAVE"
+    ));
+
+    private BulkValidator validator;
+
+    @BeforeEach
+    void setUp() {
+        ValidationProperties properties = new ValidationProperties();
+        properties.getBulk().setChunkSize(2);
+        properties.getBulk().setThreads(2);
+        properties.getBulk().setMaxChunksInFlight(2);
+        validator = new BulkValidator(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        validator.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should report invalid CSV rows in input order across chunks")
+    void shouldValidateCsv() throws Exception {
+        String csv = "email,salary,status\r\n"
+            + "jane@example.com,5000,ACTIVE\r\n"
+            + "\"doe, john\",-1,ACTIVE\r\n"
+            + "\r\n"
+            + "max@example.com,,ON_LEAVE\r\n"
+            + "eve@example.com,lots,RETIRED\r\n"
+            + ",100,ACTIVE";
+
+        List<BulkValidator.RowErrors> rows = new ArrayList<>();
+        BulkValidator.Summary summary;
+        try (RecordSource records = RecordSource.csv(new StringReader(csv))) {
+            summary = validator.validate(records, PROGRAM, rows::add);
+        }
+
+        assertEquals(new BulkValidator.Summary(5, 3, 5), summary);
+        assertEquals(List.of(2L, 4L, 5L), rows.stream().map(BulkValidator.RowErrors::row).toList());
+        assertEquals(List.of("email must be a valid email"), rows.get(0).errors().get("email"));
+        assertEquals(List.of("salary must be at least 0"), rows.get(0).errors().get("salary"));
+        assertEquals(List.of("salary must be a number"), rows.get(1).errors().get("salary"));
+        assertEquals(List.of("status must be one of: ACTIVE, ON_LEAVE"), rows.get(1).errors().get("status"));
+        assertEquals(List.of("email is required"), rows.get(2).errors().get("email"));
+    }
+
+    @Test
+    @DisplayName("Should validate a JSON array of records")
+    void shouldValidateJson() throws Exception {
+        String json = "[{\"email\":\"jane@example.com\",\"salary\":5000},{\"email\":\"nope\",\"salary\":-5}]";
+
+        List<BulkValidator.RowErrors> rows = new ArrayList<>();
+        try (RecordSource records = RecordSource.json(
+            new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), new ObjectMapper())) {
+            validator.validate(records, PROGRAM, rows::add);
+        }
+
+        assertEquals(1, rows.size());
+        assertEquals(2L, rows.get(0).row());
+        assertEquals(2, rows.get(0).errors().size());
+    }
+
+    @Test
+    @DisplayName("Should report rows read before malformed input, then fail")
+    void shouldFailOnMalformedInput() throws Exception {
+        String csv = "email\nnot-an-email\n\"unterminated\n";
+
+        List<BulkValidator.RowErrors> rows = new ArrayList<>();
+        try (RecordSource records = RecordSource.csv(new StringReader(csv))) {
+            assertThrows(IllegalArgumentException.class, () -> validator.validate(records, PROGRAM, rows::add));
+        }
+
+        assertEquals(1, rows.size());
+        assertEquals(1L, rows.get(0).row());
+    }
+}
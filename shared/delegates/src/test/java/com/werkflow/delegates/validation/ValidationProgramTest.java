@@ -0,0 +1,119 @@
+package com.werkflow.delegates.validation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for compiled validation rules and the program cache
+ */
+class ValidationProgramTest {
+
+    private static final Map<String, String> RULES = Map.of(
+        "email", "required,email",
+        "age", "required,min:18,max:100",
+        "department", "required,in:HR|IT|Finance",
+        "startDate", "required,date:yyyy-MM-dd",
+        "code", "pattern:[A-Z]{3}-\\d+,minLength:5,maxLength:8"
+    );
+
+    @Test
+    @DisplayName("Should accept valid values")
+    void shouldAcceptValidValues() {
+        Map<String, Object> values = Map.of(
+            "email", "jane@example.com",
+            "age", 30,
+            "department", "IT",
+            "startDate", "2026-01-15",
+            "code", "ABC-12"
+        );
+
+        assertTrue(ValidationProgram.compile(RULES).validate(values).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should report every failing rule with the field name")
+    void shouldReportErrors() {
+        Map<String, Object> values = new HashMap<>();
+        values.put("email", "not-an-email");
+        values.put("age", new BigDecimal("17.5"));
+        values.put("department", "Sales");
+        values.put("startDate", "15.01.2026");
+        values.put("code", "abc-123456");
+
+        Map<String, List<String>> errors = ValidationProgram.compile(RULES).validate(values);
+
+        assertEquals(List.of("email must be a valid email"), errors.get("email"));
+        assertEquals(List.of("age must be at least 18"), errors.get("age"));
+        assertEquals(List.of("department must be one of: HR, IT, Finance"), errors.get("department"));
+        assertEquals(List.of("startDate must be a valid date in format yyyy-MM-dd"), errors.get("startDate"));
+        assertEquals(List.of("code does not match required pattern", "code must be at most 8 characters"),
+            errors.get("code"));
+    }
+
+    @Test
+    @DisplayName("Should report missing required fields only")
+    void shouldReportMissingFields() {
+        Map<String, List<String>> errors = ValidationProgram.compile(RULES).validate(Map.of("email", " "));
+
+        assertEquals(List.of("email is required", "email must be a valid email"), errors.get("email"));
+        assertEquals(List.of("age is required"), errors.get("age"));
+        assertFalse(errors.containsKey("code"));
+    }
+
+    @Test
+    @DisplayName("Should report non-numeric values under min/max as errors instead of throwing")
+    void shouldReportNonNumericValues() {
+        FieldRules rules = FieldRules.compile("min:18,max:100");
+
+        assertEquals(List.of("age must be a number", "age must be a number"), rules.validate("age", "eighteen"));
+        assertEquals(List.of("age must be a number", "age must be a number"), rules.validate("age", " 30"));
+        assertTrue(rules.validate("age", "30").isEmpty());
+        assertTrue(rules.validate("age", 30.5d).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid rule arguments when compiling")
+    void shouldRejectInvalidRules() {
+        assertThrows(IllegalArgumentException.class, () -> FieldRules.compile("min:abc"));
+        assertThrows(IllegalArgumentException.class, () -> FieldRules.compile("pattern:[a-"));
+        assertThrows(IllegalArgumentException.class, () -> FieldRules.compile("date:yyyy-MM-dd'"));
+    }
+
+    @Test
+    @DisplayName("Should reuse the compiled program for equal rule sets")
+    void shouldCachePrograms() {
+        ValidationProperties properties = new ValidationProperties();
+        properties.setCacheSize(10);
+        ValidationPrograms programs = new ValidationPrograms(properties);
+
+        ValidationProgram first = programs.get(new HashMap<>(RULES));
+        ValidationProgram second = programs.get(new HashMap<>(RULES));
+
+        assertSame(first, second);
+        assertNotSame(first, programs.get(Map.of("email", "required")));
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used program when the cache is full")
+    void shouldEvictLeastRecentlyUsed() {
+        ValidationProperties properties = new ValidationProperties();
+        properties.setCacheSize(2);
+        ValidationPrograms programs = new ValidationPrograms(properties);
+
+        ValidationProgram a = programs.get(Map.of("a", "required"));
+        ValidationProgram b = programs.get(Map.of("b", "required"));
+        programs.get(Map.of("a", "required"));
+        programs.get(Map.of("c", "required"));
+
+        assertEquals(2, programs.size());
+        assertSame(a, programs.get(Map.of("a", "required")));
+        assertNotSame(b, programs.get(Map.of("b", "required")));
+    }
+}